@@ -4,6 +4,7 @@ import com.nipun.system.document.base.dtos.CreateDocumentRequest;
 import com.nipun.system.document.base.dtos.DocumentResponse;
 import com.nipun.system.document.base.dtos.UpdateDocumentRequest;
 import com.nipun.system.shared.dtos.CountResponse;
+import com.nipun.system.shared.dtos.CursorPaginatedData;
 import com.nipun.system.shared.dtos.PaginatedData;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.swagger.v3.oas.annotations.Operation;
@@ -67,6 +68,24 @@ public class DocumentController {
         return ResponseEntity.ok(paginatedDocumentDtoList);
     }
 
+    @RateLimiter(name = "globalLimiter")
+    @GetMapping("/scroll")
+    @Operation(summary = "Scroll documents", description = "Get user owned documents page by page with a cursor")
+    public ResponseEntity<CursorPaginatedData> scrollDocuments(
+            @RequestParam(name = "cursor", required = false)
+            @Parameter(description = "Cursor returned with the previous page, omitted for the first page")
+            String cursor,
+            @RequestParam(name = "page-size", defaultValue = "20")
+            @Parameter(description = "Required page size")
+            int pageSize,
+            @RequestParam(name = "include-total", defaultValue = "false")
+            @Parameter(description = "Count the total number of elements")
+            boolean includeTotal
+    ) {
+        var paginatedDocumentDtoList = documentService.getAllDocuments(cursor, pageSize, includeTotal);
+        return ResponseEntity.ok(paginatedDocumentDtoList);
+    }
+
     @RateLimiter(name = "globalLimiter")
     @PutMapping("/{documentId}")
     @Operation(summary = "Update document title", description = "Updates the document title")
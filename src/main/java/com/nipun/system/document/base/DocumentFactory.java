@@ -3,7 +3,6 @@ package com.nipun.system.document.base;
 import com.nipun.system.document.Status;
 import com.nipun.system.document.branch.Branch;
 import com.nipun.system.document.content.Content;
-import com.nipun.system.document.template.Template;
 import com.nipun.system.user.User;
 import org.springframework.stereotype.Component;
 
@@ -12,7 +11,7 @@ import java.util.UUID;
 
 @Component
 public class DocumentFactory {
-    public static Document createNewDocument(User user, String title, Status status, Template template) {
+    public static Document createNewDocument(User user, String title, Status status, Content content) {
         var document = Document.builder()
                 .publicId(UUID.randomUUID())
                 .owner(user)
@@ -24,10 +23,6 @@ public class DocumentFactory {
                 .favorite(false)
                 .build();
 
-        var content = Content.builder()
-                .content(template.getTemplate())
-                .build();
-
         var branch = Branch.builder()
                 .publicId(UUID.randomUUID())
                 .branchName("main")
@@ -14,4 +14,7 @@ public interface DocumentMapper {
     @Mapping(target = "branchCount", expression = "java(document.getBranches().size())")
     @Mapping(target = "trashed", source = "trashed")
     DocumentResponse toDto(Document document);
+
+    @Mapping(target = "id", source = "publicId")
+    DocumentResponse toDto(DocumentSummary summary);
 }
@@ -1,38 +1,161 @@
 package com.nipun.system.document.base;
 
+import com.nipun.system.document.permission.BranchAccess;
+import com.nipun.system.document.permission.DocumentAccess;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface DocumentRepository extends JpaRepository<Document, Long> {
-    @EntityGraph(attributePaths = {"owner", "sharedDocuments"})
-    Page<Document> findAllByOwnerId(Long ownerId, Pageable pageable);
+
+    // the shared flag, main branch and branch count are subqueries, so a listing is a single statement
+    String SELECT_SUMMARY = """
+            select new com.nipun.system.document.base.DocumentSummary(
+                d.id,
+                d.publicId,
+                d.title,
+                d.owner.id,
+                d.status,
+                case when exists (select 1 from SharedDocument s where s.document.id = d.id) then true else false end,
+                (select b.publicId from Branch b where b.document.id = d.id and b.branchName = 'main'),
+                (select count(b) from Branch b where b.document.id = d.id),
+                d.trashed,
+                d.favorite,
+                d.createdAt,
+                d.updatedAt
+            )
+            """;
+
+    // the share lookups hit the (document_id, user_id) and (user_id, folder_id) keys, the document's other shares are never read
+    String SELECT_ACCESS = """
+            select new com.nipun.system.document.permission.DocumentAccess(
+                d.id,
+                case when d.owner.id = :userId then true else false end,
+                (select s.permission from SharedDocument s where s.document.id = d.id and s.sharedUser.id = :userId),
+                (select fa.permission from FolderAccess fa where fa.folderId = d.folder.id and fa.userId = :userId),
+                d.trashed
+            )
+            """;
+
+    String SEEK = """
+            and d.createdAt <= :createdAt and (d.createdAt < :createdAt or d.id < :id)
+            order by d.createdAt desc, d.id desc
+            """;
+
+    @Query(
+            value = SELECT_SUMMARY + "from Document d where d.owner.id = :ownerId",
+            countQuery = "select count(d) from Document d where d.owner.id = :ownerId"
+    )
+    Page<DocumentSummary> findAllSummariesByOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    @Query(SELECT_SUMMARY + "from Document d where d.owner.id = :ownerId " + SEEK)
+    List<DocumentSummary> findSummaryPageByOwnerId(
+            @Param("ownerId") Long ownerId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    long countAllByOwnerId(Long ownerId);
 
     @EntityGraph(attributePaths = {"owner", "sharedDocuments"})
     Optional<Document> findByPublicIdAndOwnerId(UUID publicId, Long ownerId);
 
-    @EntityGraph(attributePaths = {"sharedDocuments"})
-    @Query("select d from Document d join SharedDocument s on d.id = s.document.id where s.sharedUser.id = :userId")
-    Page<Document> findAllSharedDocumentsWithUser(@Param("userId") Long ownerId, Pageable pageable);
+    @Query(
+            value = SELECT_SUMMARY + """
+                    from Document d join SharedDocument sd on d.id = sd.document.id
+                    where sd.sharedUser.id = :userId
+                    """,
+            countQuery = "select count(sd) from SharedDocument sd where sd.sharedUser.id = :userId"
+    )
+    Page<DocumentSummary> findAllSummariesSharedWithUser(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(SELECT_SUMMARY + """
+            from Document d join SharedDocument sd on d.id = sd.document.id
+            where sd.sharedUser.id = :userId
+            """ + SEEK)
+    List<DocumentSummary> findSummaryPageSharedWithUser(
+            @Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
 
     @EntityGraph(attributePaths = {"sharedDocuments"})
     Optional<Document> findByPublicId(UUID publicId);
 
+    @Query("select d.id from Document d where d.publicId = :publicId")
+    Optional<Long> findIdByPublicId(@Param("publicId") UUID publicId);
+
+    @Query(SELECT_ACCESS + "from Document d where d.publicId = :publicId")
+    Optional<DocumentAccess> findAccessByPublicId(@Param("publicId") UUID publicId, @Param("userId") Long userId);
+
+    @Query(SELECT_ACCESS + "from Branch b join b.document d where b.publicId = :branchId and d.publicId = :documentId")
+    Optional<DocumentAccess> findAccessByBranchPublicId(
+            @Param("documentId") UUID documentId,
+            @Param("branchId") UUID branchId,
+            @Param("userId") Long userId
+    );
+
+    @Query("""
+            select new com.nipun.system.document.permission.BranchAccess(
+                d.publicId,
+                b.publicId,
+                d.id,
+                case when d.owner.id = :userId then true else false end,
+                (select s.permission from SharedDocument s where s.document.id = d.id and s.sharedUser.id = :userId),
+                (select fa.permission from FolderAccess fa where fa.folderId = d.folder.id and fa.userId = :userId)
+            )
+            from Branch b join b.document d
+            where b.publicId in :branchIds
+            """)
+    List<BranchAccess> findAllAccessByBranchPublicIds(
+            @Param("branchIds") Collection<UUID> branchIds,
+            @Param("userId") Long userId
+    );
+
+    @Modifying
+    @Query("update Document d set d.trashed = :trashed where d.id = :id")
+    int updateTrashed(@Param("id") Long id, @Param("trashed") boolean trashed);
+
+    @Modifying
+    @Query("update Document d set d.updatedAt = :updatedAt where d.id = :id")
+    int updateUpdatedAt(@Param("id") Long id, @Param("updatedAt") LocalDateTime updatedAt);
+
     int countAllByOwnerIdAndTrashedIsFalse(Long ownerId);
 
     @Query("select count(d) from Document d where d.owner.id = :userId and d.trashed = false and d.favorite = true")
     int countAllFavoriteDocumentByUser(@Param("userId") Long userId);
 
-    Page<Document> findAllByTrashedIsTrueAndOwnerId(Long ownerId, Pageable pageable);
+    @Query(
+            value = SELECT_SUMMARY + "from Document d where d.owner.id = :ownerId and d.trashed = true",
+            countQuery = "select count(d) from Document d where d.owner.id = :ownerId and d.trashed = true"
+    )
+    Page<DocumentSummary> findAllTrashedSummariesByOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    @Query(SELECT_SUMMARY + "from Document d where d.owner.id = :ownerId and d.trashed = true " + SEEK)
+    List<DocumentSummary> findTrashedSummaryPageByOwnerId(
+            @Param("ownerId") Long ownerId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
 
     int countAllByTrashedIsTrueAndOwnerId(Long ownerId);
 
-    List<Document> findByFolderPublicIdAndOwnerId(UUID publicId, Long ownerId);
+    @Query(SELECT_SUMMARY + "from Document d where d.folder.publicId = :folderId and d.owner.id = :ownerId")
+    List<DocumentSummary> findAllSummariesByFolderPublicIdAndOwnerId(
+            @Param("folderId") UUID folderId,
+            @Param("ownerId") Long ownerId
+    );
 }
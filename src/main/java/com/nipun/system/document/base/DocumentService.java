@@ -4,21 +4,27 @@ import com.nipun.system.document.base.dtos.CreateDocumentRequest;
 import com.nipun.system.document.base.dtos.DocumentResponse;
 import com.nipun.system.document.base.dtos.UpdateDocumentRequest;
 import com.nipun.system.document.base.exceptions.DocumentNotFoundException;
+import com.nipun.system.document.content.ContentService;
+import com.nipun.system.document.permission.DocumentAccessCache;
 import com.nipun.system.document.permission.PermissionUtils;
 import com.nipun.system.document.permission.exceptions.UnauthorizedDocumentException;
 import com.nipun.system.document.template.TemplateRepository;
 import com.nipun.system.document.template.exceptions.TemplateNotFoundException;
 import com.nipun.system.shared.dtos.CountResponse;
+import com.nipun.system.shared.dtos.CursorPaginatedData;
 import com.nipun.system.shared.dtos.PaginatedData;
+import com.nipun.system.shared.utils.PageCursor;
+import com.nipun.system.shared.utils.PageCursorUtils;
 import com.nipun.system.shared.utils.UserIdUtils;
 import com.nipun.system.user.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachePut;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.UUID;
 
 @RequiredArgsConstructor
@@ -28,6 +34,9 @@ public class DocumentService {
     private final UserRepository userRepository;
     private final DocumentMapper documentMapper;
     private final TemplateRepository templateRepository;
+    private final ContentService contentService;
+    private final DocumentAccessCache documentAccessCache;
+    private final CacheManager cacheManager;
 
     @Transactional
     public DocumentResponse createDocument(
@@ -41,27 +50,47 @@ public class DocumentService {
                 .findById(request.getTemplateId())
                 .orElseThrow(TemplateNotFoundException::new);
 
+        var content = contentService.store(template.getTemplate());
+
         var document = DocumentFactory
-                .createNewDocument(user, request.getTitle(), request.getStatus(), template);
+                .createNewDocument(user, request.getTitle(), request.getStatus(), content);
 
         document = documentRepository.save(document);
 
         return documentMapper.toDto(document);
     }
 
-    @Cacheable(value = "documents", key = "{#documentId}")
+    // the cached response is the same for every reader, so access is checked before the cache is read
     @Transactional(readOnly = true)
     public DocumentResponse getDocument(UUID documentId) {
 
         var userId = UserIdUtils.getUserIdFromContext();
 
-        var document = documentRepository.findByPublicId(documentId)
+        var access = documentAccessCache
+                .findAccess(documentId, userId)
                 .orElseThrow(DocumentNotFoundException::new);
 
-        if (PermissionUtils.isUnauthorizedUser(userId, document))
+        if (PermissionUtils.isUnauthorizedUser(access))
             throw new UnauthorizedDocumentException();
 
-        return documentMapper.toDto(document);
+        var cache = cacheManager.getCache("documents");
+        var key = List.of(documentId);
+
+        if (cache != null) {
+            var cached = cache.get(key, DocumentResponse.class);
+            if (cached != null)
+                return cached;
+        }
+
+        var document = documentRepository.findByPublicId(documentId)
+                .orElseThrow(DocumentNotFoundException::new);
+
+        var response = documentMapper.toDto(document);
+
+        if (cache != null)
+            cache.put(key, response);
+
+        return response;
     }
 
     public CountResponse getDocumentCount() {
@@ -75,7 +104,7 @@ public class DocumentService {
 
         PageRequest pageRequest = PageRequest.of(pageNumber, size);
 
-        var documents = documentRepository.findAllByOwnerId(userId, pageRequest);
+        var documents = documentRepository.findAllSummariesByOwnerId(userId, pageRequest);
 
         var documentDtoList = documents
                 .getContent()
@@ -94,6 +123,24 @@ public class DocumentService {
         );
     }
 
+    @Transactional(readOnly = true)
+    public CursorPaginatedData getAllDocuments(String cursor, int size, boolean includeTotal) {
+        var userId = UserIdUtils.getUserIdFromContext();
+        var position = PageCursorUtils.decode(cursor);
+
+        var documents = documentRepository.findSummaryPageByOwnerId(
+                userId, position.createdAt(), position.id(), PageCursorUtils.seekPage(size)
+        );
+
+        return PageCursorUtils.toPaginatedData(
+                documents,
+                size,
+                document -> new PageCursor(document.createdAt(), document.id()),
+                documentMapper::toDto,
+                includeTotal ? documentRepository.countAllByOwnerId(userId) : null
+        );
+    }
+
     @CachePut(value = "documents", key = "{#documentId}")
     @Transactional
     public DocumentResponse updateDocument(UUID documentId, UpdateDocumentRequest request) {
@@ -109,6 +156,7 @@ public class DocumentService {
         return documentMapper.toDto(documentRepository.save(document));
     }
 
+    @CachePut(value = "documents", key = "{#documentId}")
     public DocumentResponse toggleFavorite(UUID documentId) {
         var userId = UserIdUtils.getUserIdFromContext();
 
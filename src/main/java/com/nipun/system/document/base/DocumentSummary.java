@@ -0,0 +1,22 @@
+package com.nipun.system.document.base;
+
+import com.nipun.system.document.Status;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record DocumentSummary(
+        Long id,
+        UUID publicId,
+        String title,
+        Long ownerId,
+        Status status,
+        Boolean shared,
+        UUID mainBranchId,
+        Long branchCount,
+        Boolean trashed,
+        Boolean favorite,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+}
@@ -0,0 +1,15 @@
+package com.nipun.system.document.base.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ContentLinesResponse {
+    private String content;
+    private long fromLine;
+    private long toLine;
+    private long lineCount;
+}
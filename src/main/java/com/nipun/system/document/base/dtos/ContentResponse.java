@@ -1,5 +1,6 @@
 package com.nipun.system.document.base.dtos;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -9,4 +10,11 @@ import lombok.NoArgsConstructor;
 @Data
 public class ContentResponse {
     private String content;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long revision;
+
+    public ContentResponse(String content) {
+        this.content = content;
+    }
 }
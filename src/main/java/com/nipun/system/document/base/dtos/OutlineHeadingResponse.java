@@ -0,0 +1,17 @@
+package com.nipun.system.document.base.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class OutlineHeadingResponse {
+    private int level;
+    private String title;
+    private long charOffset;
+    private long byteOffset;
+    private long line;
+    private long length;
+}
@@ -0,0 +1,14 @@
+package com.nipun.system.document.base.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class OutlineResponse {
+    private List<OutlineHeadingResponse> headings;
+}
@@ -37,18 +37,14 @@ public class Branch {
     @JoinColumn(name = "document_id")
     private Document document;
 
-    @OneToOne(
-            cascade = {
-                    CascadeType.PERSIST,
-                    CascadeType.MERGE,
-                    CascadeType.REMOVE
-            },
-            orphanRemoval = true,
-            fetch = FetchType.LAZY
-    )
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "content_id")
     private Content content;
 
+    @jakarta.persistence.Version
+    @Column(name = "revision")
+    private Long revision;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id")
     private User owner;
@@ -63,12 +59,7 @@ public class Branch {
     @Column(name = "status")
     private Status status;
 
-    @OneToMany(
-            mappedBy = "branch",
-            cascade = {CascadeType.REMOVE},
-            orphanRemoval = true,
-            fetch = FetchType.LAZY
-    )
+    @OneToMany(mappedBy = "branch", fetch = FetchType.LAZY)
     private Set<Version> versions = new HashSet<>();
 
     @Column(name = "trashed")
@@ -77,8 +68,4 @@ public class Branch {
     public String getBranchContent() {
         return this.content.getContent();
     }
-
-    public void setBranchContent(String content) {
-        this.content.setContent(content);
-    }
 }
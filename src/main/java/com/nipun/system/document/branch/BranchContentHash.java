@@ -0,0 +1,6 @@
+package com.nipun.system.document.branch;
+
+import java.util.UUID;
+
+public record BranchContentHash(UUID branchId, String branchName, String hash) {
+}
@@ -1,24 +1,43 @@
 package com.nipun.system.document.branch;
 
+import com.nipun.system.document.base.dtos.ContentLinesResponse;
 import com.nipun.system.document.base.dtos.ContentResponse;
+import com.nipun.system.document.base.dtos.OutlineResponse;
 import com.nipun.system.document.base.dtos.UpdateContentRequest;
+import com.nipun.system.document.branch.dtos.BranchDiffStatsResponse;
 import com.nipun.system.document.branch.dtos.BranchResponse;
 import com.nipun.system.document.branch.dtos.CreateBranchRequest;
+import com.nipun.system.document.branch.dtos.PatchContentRequest;
+import com.nipun.system.document.branch.dtos.PatchContentResponse;
+import com.nipun.system.document.branch.exceptions.BranchMergeConflictException;
 import com.nipun.system.document.branch.exceptions.BranchNotFoundException;
+import com.nipun.system.document.branch.exceptions.BranchRevisionConflictException;
 import com.nipun.system.document.branch.exceptions.BranchTitleAlreadyExistsException;
+import com.nipun.system.document.branch.exceptions.InvalidContentPatchException;
+import com.nipun.system.document.content.ContentStreamer;
+import com.nipun.system.document.diff.DiffMode;
+import com.nipun.system.document.diff.DiffStreamer;
+import com.nipun.system.document.diff.dtos.DiffPageResponse;
 import com.nipun.system.document.diff.dtos.DiffResponse;
+import com.nipun.system.document.diff.dtos.DiffStatsResponse;
 import com.nipun.system.shared.dtos.CountResponse;
+import com.nipun.system.shared.dtos.CursorPaginatedData;
 import com.nipun.system.shared.dtos.ErrorResponse;
 import com.nipun.system.shared.dtos.PaginatedData;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.List;
 import java.util.UUID;
 
 @AllArgsConstructor
@@ -28,6 +47,8 @@ import java.util.UUID;
 public class BranchController {
 
     private final BranchService branchService;
+    private final ContentStreamer contentStreamer;
+    private final DiffStreamer diffStreamer;
 
     @RateLimiter(name = "globalLimiter")
     @PostMapping("/{documentId}/branches/{branchId}")
@@ -57,7 +78,62 @@ public class BranchController {
             UUID branchId
     ) {
         var branchContentDto = branchService.getBranchContent(documentId, branchId);
-        return ResponseEntity.ok(branchContentDto);
+        return withRevision(ResponseEntity.ok(), branchContentDto.getRevision()).body(branchContentDto);
+    }
+
+    @RateLimiter(name = "globalLimiter")
+    @GetMapping("/{documentId}/branches/{branchId}/content/lines")
+    @Operation(summary = "Get branch content lines", description = "Get a range of lines of a branch content")
+    public ResponseEntity<ContentLinesResponse> getBranchContentLines(
+            @PathVariable(name = "documentId")
+            @Parameter(description = "The ID of the document", example = "bfb8777b-59bd-422b-8132-d1f64b09590d")
+            UUID documentId,
+            @PathVariable(name = "branchId")
+            @Parameter(description = "The ID of the branch", example = "d361bae1-01ee-4392-811c-57b9593c2460")
+            UUID branchId,
+            @RequestParam(name = "from-line", defaultValue = "1")
+            @Parameter(description = "First line to return, counted from one")
+            long fromLine,
+            @RequestParam(name = "to-line")
+            @Parameter(description = "Last line to return, inclusive")
+            long toLine
+    ) {
+        var contentLinesResponse = branchService.getBranchContentLines(documentId, branchId, fromLine, toLine);
+        return ResponseEntity.ok(contentLinesResponse);
+    }
+
+    @RateLimiter(name = "globalLimiter")
+    @GetMapping("/{documentId}/branches/{branchId}/outline")
+    @Operation(summary = "Get branch outline", description = "Get the headings of a branch content with their offsets")
+    public ResponseEntity<OutlineResponse> getBranchOutline(
+            @PathVariable(name = "documentId")
+            @Parameter(description = "The ID of the document", example = "bfb8777b-59bd-422b-8132-d1f64b09590d")
+            UUID documentId,
+            @PathVariable(name = "branchId")
+            @Parameter(description = "The ID of the branch", example = "d361bae1-01ee-4392-811c-57b9593c2460")
+            UUID branchId
+    ) {
+        var outlineResponse = branchService.getBranchOutline(documentId, branchId);
+        return ResponseEntity.ok(outlineResponse);
+    }
+
+    @RateLimiter(name = "globalLimiter")
+    @GetMapping("/{documentId}/branches/{branchId}/content/raw")
+    @Operation(summary = "Download content", description = "Stream raw document branch content with range and ETag support")
+    public ResponseEntity<StreamingResponseBody> getRawBranchContent(
+            @PathVariable(name = "documentId")
+            @Parameter(description = "The ID of the document", example = "bfb8777b-59bd-422b-8132-d1f64b09590d")
+            UUID documentId,
+            @PathVariable(name = "branchId")
+            @Parameter(description = "Document branch ID", example = "8d5177f7-bc39-42b0-84bc-3a945be383c4")
+            UUID branchId,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false)
+            String ifNoneMatch,
+            @RequestHeader(name = HttpHeaders.RANGE, required = false)
+            String range
+    ) {
+        var content = branchService.getRawBranchContent(documentId, branchId);
+        return contentStreamer.stream(content, ifNoneMatch, range);
     }
 
     @PutMapping("/{documentId}/branches/{branchId}/content")
@@ -69,10 +145,32 @@ public class BranchController {
             @PathVariable(name = "branchId")
             @Parameter(description = "Document branch ID", example = "8d5177f7-bc39-42b0-84bc-3a945be383c4")
             UUID branchId,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false)
+            @Parameter(description = "Branch revision the content was edited from", example = "\"12\"")
+            String ifMatch,
             @RequestBody UpdateContentRequest request
     ) {
-        var content = branchService.updateBranchContent(documentId, branchId, request.getContent());
-        return ResponseEntity.ok(new ContentResponse(content.getContent()));
+        var content = branchService.updateBranchContent(documentId, branchId, request.getContent(), parseRevision(ifMatch));
+        return withRevision(ResponseEntity.ok(), content.getRevision()).body(content);
+    }
+
+    @PatchMapping("/{documentId}/branches/{branchId}/content")
+    @Operation(summary = "Patch branch content", description = "Apply a patch to document branch content against a base revision given as If-Match or in the body")
+    public ResponseEntity<PatchContentResponse> patchBranchContent(
+            @PathVariable(name = "documentId")
+            @Parameter(description = "The ID of the document", example = "bfb8777b-59bd-422b-8132-d1f64b09590d")
+            UUID documentId,
+            @PathVariable(name = "branchId")
+            @Parameter(description = "Document branch ID", example = "8d5177f7-bc39-42b0-84bc-3a945be383c4")
+            UUID branchId,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false)
+            @Parameter(description = "Branch revision the patch was made against", example = "\"12\"")
+            String ifMatch,
+            @Valid @RequestBody PatchContentRequest request
+    ) {
+        var baseRevision = ifMatch != null ? parseRevision(ifMatch) : request.getBaseRevision();
+        var patchContentResponse = branchService.patchBranchContent(documentId, branchId, request, baseRevision);
+        return withRevision(ResponseEntity.ok(), patchContentResponse.getRevision()).body(patchContentResponse);
     }
 
     @RateLimiter(name = "globalLimiter")
@@ -93,6 +191,27 @@ public class BranchController {
         return ResponseEntity.ok(paginatedBranches);
     }
 
+    @RateLimiter(name = "globalLimiter")
+    @GetMapping("/{documentId}/branches/scroll")
+    @Operation(summary = "Scroll branches", description = "Get document branches page by page with a cursor")
+    public ResponseEntity<CursorPaginatedData> scrollBranches(
+            @PathVariable(name = "documentId")
+            @Parameter(description = "The ID of the document", example = "bfb8777b-59bd-422b-8132-d1f64b09590d")
+            UUID documentId,
+            @RequestParam(name = "cursor", required = false)
+            @Parameter(description = "Cursor returned with the previous page, omitted for the first page")
+            String cursor,
+            @RequestParam(name = "page-size", defaultValue = "20")
+            @Parameter(description = "Required page size")
+            int pageSize,
+            @RequestParam(name = "include-total", defaultValue = "false")
+            @Parameter(description = "Count the total number of elements")
+            boolean includeTotal
+    ) {
+        var paginatedBranches = branchService.getAllBranches(documentId, cursor, pageSize, includeTotal);
+        return ResponseEntity.ok(paginatedBranches);
+    }
+
     @RateLimiter(name = "globalLimiter")
     @GetMapping("/{documentId}/branches/diffs")
     @Operation(summary = "Compare branch Diffs", description = "Compare document branch diffs")
@@ -105,12 +224,99 @@ public class BranchController {
             UUID base,
             @RequestParam(name = "compare-version")
             @Parameter(description = "Comparing Branch ID", example = "be0ff390-f94a-42d1-922a-893feae4aa0a")
-            UUID compare
+            UUID compare,
+            @RequestParam(name = "mode", defaultValue = "AUTO")
+            @Parameter(description = "Diff granularity, AUTO picks one by content size", example = "LINE")
+            DiffMode mode
     ) {
-        var diffResponseDto = branchService.getBranchDiffs(documentId, base, compare);
+        var diffResponseDto = branchService.getBranchDiffs(documentId, base, compare, mode);
         return ResponseEntity.ok(diffResponseDto);
     }
 
+    @RateLimiter(name = "globalLimiter")
+    @GetMapping("/{documentId}/branches/diffs/hunks")
+    @Operation(summary = "Compare branch diffs by hunk", description = "Get a page of branch diff hunks")
+    public ResponseEntity<DiffPageResponse> getBranchDiffPage(
+            @PathVariable(name = "documentId")
+            @Parameter(description = "The ID of the document", example = "bfb8777b-59bd-422b-8132-d1f64b09590d")
+            UUID documentId,
+            @RequestParam(name = "base-version")
+            @Parameter(description = "Base Branch ID", example = "d361bae1-01ee-4392-811c-57b9593c2460")
+            UUID base,
+            @RequestParam(name = "compare-version")
+            @Parameter(description = "Comparing Branch ID", example = "be0ff390-f94a-42d1-922a-893feae4aa0a")
+            UUID compare,
+            @RequestParam(name = "mode", defaultValue = "AUTO")
+            @Parameter(description = "Diff granularity, AUTO picks one by content size", example = "LINE")
+            DiffMode mode,
+            @RequestParam(name = "context-lines", defaultValue = "3")
+            @Parameter(description = "Unchanged lines kept around each change")
+            int contextLines,
+            @RequestParam(name = "cursor", defaultValue = "0")
+            @Parameter(description = "Index of the first hunk, taken from the previous page")
+            int cursor,
+            @RequestParam(name = "page-size", defaultValue = "20")
+            @Parameter(description = "Required number of hunks")
+            int pageSize
+    ) {
+        var diffPageResponse = branchService.getBranchDiffPage(documentId, base, compare, mode, contextLines, cursor, pageSize);
+        return ResponseEntity.ok(diffPageResponse);
+    }
+
+    @RateLimiter(name = "globalLimiter")
+    @GetMapping("/{documentId}/branches/diffs/stats")
+    @Operation(summary = "Branch diff statistics", description = "Count inserted and deleted characters and lines between two branches")
+    public ResponseEntity<DiffStatsResponse> getBranchDiffStats(
+            @PathVariable(name = "documentId")
+            @Parameter(description = "The ID of the document", example = "bfb8777b-59bd-422b-8132-d1f64b09590d")
+            UUID documentId,
+            @RequestParam(name = "base-version")
+            @Parameter(description = "Base Branch ID", example = "d361bae1-01ee-4392-811c-57b9593c2460")
+            UUID base,
+            @RequestParam(name = "compare-version")
+            @Parameter(description = "Comparing Branch ID", example = "be0ff390-f94a-42d1-922a-893feae4aa0a")
+            UUID compare
+    ) {
+        var diffStatsResponse = branchService.getBranchDiffStats(documentId, base, compare);
+        return ResponseEntity.ok(diffStatsResponse);
+    }
+
+    @RateLimiter(name = "globalLimiter")
+    @GetMapping("/{documentId}/branches/diffs/stats/main")
+    @Operation(summary = "All branch diff statistics", description = "Diff statistics of every branch against the main branch")
+    public ResponseEntity<List<BranchDiffStatsResponse>> getAllBranchDiffStats(
+            @PathVariable(name = "documentId")
+            @Parameter(description = "The ID of the document", example = "bfb8777b-59bd-422b-8132-d1f64b09590d")
+            UUID documentId
+    ) {
+        var branchDiffStats = branchService.getAllBranchDiffStats(documentId);
+        return ResponseEntity.ok(branchDiffStats);
+    }
+
+    @RateLimiter(name = "globalLimiter")
+    @GetMapping("/{documentId}/branches/diffs/stream")
+    @Operation(summary = "Stream branch diffs", description = "Stream branch diff hunks as newline delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamBranchDiffs(
+            @PathVariable(name = "documentId")
+            @Parameter(description = "The ID of the document", example = "bfb8777b-59bd-422b-8132-d1f64b09590d")
+            UUID documentId,
+            @RequestParam(name = "base-version")
+            @Parameter(description = "Base Branch ID", example = "d361bae1-01ee-4392-811c-57b9593c2460")
+            UUID base,
+            @RequestParam(name = "compare-version")
+            @Parameter(description = "Comparing Branch ID", example = "be0ff390-f94a-42d1-922a-893feae4aa0a")
+            UUID compare,
+            @RequestParam(name = "mode", defaultValue = "AUTO")
+            @Parameter(description = "Diff granularity, AUTO picks one by content size", example = "LINE")
+            DiffMode mode,
+            @RequestParam(name = "context-lines", defaultValue = "3")
+            @Parameter(description = "Unchanged lines kept around each change")
+            int contextLines
+    ) {
+        var hunks = branchService.getBranchDiffHunks(documentId, base, compare, mode, contextLines);
+        return diffStreamer.stream(hunks);
+    }
+
     @RateLimiter(name = "globalLimiter")
     @PostMapping("/{documentId}/branches/{branchId}/merge/{mergeBranchId}")
     @Operation(summary = "Merge branch", description = "Merge two specific branches")
@@ -138,6 +344,21 @@ public class BranchController {
         return ResponseEntity.ok(branchService.getAllBranchCount(branchId));
     }
 
+    private ResponseEntity.BodyBuilder withRevision(ResponseEntity.BodyBuilder builder, Long revision) {
+        return revision == null ? builder : builder.eTag("\"" + revision + "\"");
+    }
+
+    private Long parseRevision(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*"))
+            return null;
+
+        try {
+            return Long.parseLong(ifMatch.trim().replace("W/", "").replace("\"", ""));
+        } catch (NumberFormatException exception) {
+            throw new BranchRevisionConflictException();
+        }
+    }
+
     @ExceptionHandler(BranchNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleBranchNotFoundException(
             BranchNotFoundException exception
@@ -147,6 +368,42 @@ public class BranchController {
                 .body(new ErrorResponse(exception.getMessage()));
     }
 
+    @ExceptionHandler(BranchRevisionConflictException.class)
+    public ResponseEntity<ErrorResponse> handleBranchRevisionConflictException(
+            BranchRevisionConflictException exception
+    ) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse(exception.getMessage()));
+    }
+
+    @ExceptionHandler(BranchMergeConflictException.class)
+    public ResponseEntity<ErrorResponse> handleBranchMergeConflictException(
+            BranchMergeConflictException exception
+    ) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse(exception.getMessage()));
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleObjectOptimisticLockingFailureException(
+            ObjectOptimisticLockingFailureException exception
+    ) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse("The branch was changed by another request, please retry"));
+    }
+
+    @ExceptionHandler(InvalidContentPatchException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidContentPatchException(
+            InvalidContentPatchException exception
+    ) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse(exception.getMessage()));
+    }
+
     @ExceptionHandler(BranchTitleAlreadyExistsException.class)
     public ResponseEntity<ErrorResponse> handleBranchTitleAlreadyExistsException(
             BranchTitleAlreadyExistsException exception
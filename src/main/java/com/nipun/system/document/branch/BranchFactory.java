@@ -12,15 +12,12 @@ import java.util.UUID;
 @Component
 public class BranchFactory {
 
-    public static Branch createNewBranch(Document document, String branchName, String content, User owner) {
-
-        var branchContent = Content.builder().content(content).build();
-
+    public static Branch createNewBranch(Document document, String branchName, Content content, User owner) {
         return Branch.builder()
                 .publicId(UUID.randomUUID())
                 .branchName(branchName)
                 .document(document)
-                .content(branchContent)
+                .content(content)
                 .owner(owner)
                 .createdAt(LocalDateTime.now())
                 .status(Status.PUBLIC)
@@ -0,0 +1,43 @@
+package com.nipun.system.document.branch;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface BranchMergeBaseRepository extends JpaRepository<BranchMergeBase, Long> {
+
+    @EntityGraph(attributePaths = {"content"})
+    Optional<BranchMergeBase> findByBranchIdAndOtherBranchId(Long branchId, Long otherBranchId);
+
+    @Modifying
+    @Query(
+            value = """
+                    insert into document_branch_merge_bases (branch_id, other_branch_id, content_id)
+                    values (:branchId, :otherBranchId, :contentId)
+                    on duplicate key update content_id = :contentId
+                    """,
+            nativeQuery = true
+    )
+    void upsert(
+            @Param("branchId") Long branchId,
+            @Param("otherBranchId") Long otherBranchId,
+            @Param("contentId") Long contentId
+    );
+
+    @Modifying
+    @Query(
+            value = """
+                    insert into document_branch_merge_bases (branch_id, other_branch_id, content_id)
+                    select least(p.other_id, :branchId), greatest(p.other_id, :branchId), p.content_id
+                    from (select if(m.branch_id = :parentId, m.other_branch_id, m.branch_id) as other_id, m.content_id
+                          from document_branch_merge_bases m
+                          where m.branch_id = :parentId or m.other_branch_id = :parentId) p
+                    """,
+            nativeQuery = true
+    )
+    void copyFromParent(@Param("branchId") Long branchId, @Param("parentId") Long parentId);
+}
@@ -0,0 +1,38 @@
+package com.nipun.system.document.branch;
+
+import com.nipun.system.document.content.Content;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+// the common ancestor is kept per pair of branches, stored once with the lower branch id first
+@RequiredArgsConstructor
+@Service
+public class BranchMergeBaseService {
+
+    private final BranchMergeBaseRepository branchMergeBaseRepository;
+
+    public Optional<Content> find(Branch branch, Branch other) {
+        return branchMergeBaseRepository
+                .findByBranchIdAndOtherBranchId(
+                        Math.min(branch.getId(), other.getId()),
+                        Math.max(branch.getId(), other.getId())
+                )
+                .map(BranchMergeBase::getContent);
+    }
+
+    // a new branch starts out as its parent, so it shares the parent's merge base with every other branch
+    public void recordFork(Branch parent, Branch branch) {
+        branchMergeBaseRepository.copyFromParent(branch.getId(), parent.getId());
+        record(parent, branch, branch.getContent());
+    }
+
+    public void record(Branch branch, Branch other, Content content) {
+        branchMergeBaseRepository.upsert(
+                Math.min(branch.getId(), other.getId()),
+                Math.max(branch.getId(), other.getId()),
+                content.getId()
+        );
+    }
+}
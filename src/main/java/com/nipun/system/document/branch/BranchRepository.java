@@ -1,10 +1,16 @@
 package com.nipun.system.document.branch;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,17 +18,61 @@ public interface BranchRepository extends JpaRepository<Branch, Long> {
     @EntityGraph(attributePaths = {"content"})
     Optional<Branch> findByPublicIdAndDocumentId(UUID branchId, Long documentId);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(attributePaths = {"content"})
+    Optional<Branch> findWithLockByPublicIdAndDocumentId(UUID branchId, Long documentId);
+
     @EntityGraph(attributePaths = {"content"})
     Optional<Branch> findByPublicIdAndDocumentPublicId(UUID branchId, UUID documentId);
 
+    boolean existsByPublicIdAndDocumentId(UUID branchId, Long documentId);
+
+    @Query("select b.revision from Branch b where b.publicId = :branchId and b.document.id = :documentId")
+    Optional<Long> findRevisionByPublicIdAndDocumentId(@Param("branchId") UUID branchId, @Param("documentId") Long documentId);
+
     Boolean existsByBranchNameAndDocumentId(String branchName, Long documentId);
 
     @EntityGraph(attributePaths = {"document"})
     Page<Branch> findAllByDocumentId(Long documentId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"document"})
+    @Query("""
+            select b from Branch b
+            where b.document.id = :documentId
+              and b.createdAt <= :createdAt and (b.createdAt < :createdAt or b.id < :id)
+            order by b.createdAt desc, b.id desc
+            """)
+    List<Branch> findPageByDocumentId(
+            @Param("documentId") Long documentId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
     int countAllByDocumentId(Long documentId);
 
+    @Query("""
+            select new com.nipun.system.document.branch.BranchContentHash(b.publicId, b.branchName, c.hash)
+            from Branch b join b.content c
+            where b.document.id = :documentId and b.trashed = false
+            """)
+    List<BranchContentHash> findContentHashesByDocumentId(@Param("documentId") Long documentId);
+
     Page<Branch> findAllByTrashedIsTrueAndOwnerId(Long ownerId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"document"})
+    @Query("""
+            select b from Branch b
+            where b.owner.id = :ownerId and b.trashed = true
+              and b.createdAt <= :createdAt and (b.createdAt < :createdAt or b.id < :id)
+            order by b.createdAt desc, b.id desc
+            """)
+    List<Branch> findTrashedPageByOwnerId(
+            @Param("ownerId") Long ownerId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
     int countAllByTrashedIsTrueAndOwnerId(Long ownerId);
 }
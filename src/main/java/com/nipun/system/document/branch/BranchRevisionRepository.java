@@ -0,0 +1,31 @@
+package com.nipun.system.document.branch;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface BranchRevisionRepository extends JpaRepository<BranchRevision, Long> {
+
+    boolean existsByBranchIdAndRevision(Long branchId, Long revision);
+
+    @EntityGraph(attributePaths = {"content"})
+    Optional<BranchRevision> findFirstByBranchIdAndRevisionLessThanEqualOrderByRevisionDesc(Long branchId, Long revision);
+
+    // the newest revision of every branch is kept so the current content always has a merge base
+    @Modifying
+    @Query(
+            value = """
+                    delete r from document_branch_revisions r
+                    join document_branches b on b.id = r.branch_id
+                    where r.created_at < :threshold
+                      and r.revision < b.revision
+                    """,
+            nativeQuery = true
+    )
+    int deleteCreatedBefore(@Param("threshold") LocalDateTime threshold);
+}
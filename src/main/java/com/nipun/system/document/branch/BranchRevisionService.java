@@ -0,0 +1,118 @@
+package com.nipun.system.document.branch;
+
+import com.nipun.system.document.branch.exceptions.BranchRevisionConflictException;
+import com.nipun.system.document.content.Content;
+import com.nipun.system.document.content.ContentOutlineService;
+import com.nipun.system.document.content.ContentService;
+import com.nipun.system.document.diff.DiffService;
+import com.nipun.system.document.diff.exceptions.MergeConflictException;
+import com.nipun.system.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+@Service
+public class BranchRevisionService {
+
+    private final BranchRepository branchRepository;
+    private final BranchRevisionRepository branchRevisionRepository;
+    private final ContentService contentService;
+    private final ContentOutlineService contentOutlineService;
+    private final DiffService diffService;
+    private final UserRepository userRepository;
+    private final BranchMergeBaseService branchMergeBaseService;
+
+    public String rebase(Branch branch, Long expectedRevision, String content) {
+        if (expectedRevision == null || expectedRevision.equals(branch.getRevision()))
+            return content;
+
+        return merge(findBaseContent(branch, expectedRevision).getContent(), content, branch.getBranchContent());
+    }
+
+    // only contents recorded for this branch are accepted as a base, a revision that left the history is a conflict
+    public Content findBaseContent(Branch branch, Long revision) {
+        if (revision.equals(branch.getRevision()))
+            return branch.getContent();
+
+        return branchRevisionRepository
+                .findFirstByBranchIdAndRevisionLessThanEqualOrderByRevisionDesc(branch.getId(), revision)
+                .map(BranchRevision::getContent)
+                .orElseThrow(BranchRevisionConflictException::new);
+    }
+
+    public String merge(String base, String content, String current) {
+        try {
+            return diffService.merge(base, content, current);
+        } catch (MergeConflictException exception) {
+            throw new BranchRevisionConflictException();
+        }
+    }
+
+    public Optional<Branch> writeContent(Long documentId, UUID branchId, String content, Long expectedRevision) {
+        return branchRepository
+                .findWithLockByPublicIdAndDocumentId(branchId, documentId)
+                .map(branch -> updateContent(
+                        branch,
+                        contentService.update(branch.getContent(), rebase(branch, expectedRevision, content))
+                ));
+    }
+
+    // content that can't be merged into its branch is kept on a branch of its own, forked at the revision it
+    // was based on, so merging it back later only conflicts on the changes that really overlap
+    public Optional<Branch> forkConflict(Long documentId, UUID branchId, Long userId, Long baseRevision, String content) {
+        return branchRepository
+                .findByPublicIdAndDocumentId(branchId, documentId)
+                .map(branch -> {
+                    Content base;
+                    try {
+                        base = findBaseContent(branch, baseRevision);
+                    } catch (BranchRevisionConflictException exception) {
+                        base = branch.getContent();
+                    }
+
+                    var name = branch.getBranchName();
+                    var conflictBranch = BranchFactory.createNewBranch(
+                            branch.getDocument(),
+                            name.substring(0, Math.min(name.length(), 200)) + " (conflict " + UUID.randomUUID().toString().substring(0, 8) + ")",
+                            contentService.store(content),
+                            userRepository.getReferenceById(userId)
+                    );
+
+                    conflictBranch = branchRepository.save(conflictBranch);
+                    branchMergeBaseService.recordFork(branch, conflictBranch);
+                    branchMergeBaseService.record(branch, conflictBranch, base);
+
+                    return conflictBranch;
+                });
+    }
+
+    public Branch updateContent(Branch branch, Content content) {
+        if (content == branch.getContent())
+            return branch;
+
+        // the content being replaced is kept as the merge base for writers still holding its revision
+        if (branch.getRevision() != null
+                && !branchRevisionRepository.existsByBranchIdAndRevision(branch.getId(), branch.getRevision()))
+            branchRevisionRepository.save(revisionOf(branch));
+
+        contentOutlineService.update(branch.getContent(), content);
+
+        branch.setContent(content);
+        branch = branchRepository.saveAndFlush(branch);
+
+        branchRevisionRepository.save(revisionOf(branch));
+
+        return branch;
+    }
+
+    private BranchRevision revisionOf(Branch branch) {
+        return BranchRevision.builder()
+                .branch(branch)
+                .revision(branch.getRevision())
+                .content(branch.getContent())
+                .build();
+    }
+}
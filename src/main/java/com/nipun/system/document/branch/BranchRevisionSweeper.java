@@ -0,0 +1,31 @@
+package com.nipun.system.document.branch;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Log4j2
+@RequiredArgsConstructor
+@Component
+public class BranchRevisionSweeper {
+
+    private final BranchRevisionRepository branchRevisionRepository;
+
+    @Value("${document.branches.revision-retention}")
+    private Duration retention;
+
+    @Scheduled(fixedDelayString = "${content.store.sweep-interval}")
+    @Transactional
+    public void sweepExpiredRevisions() {
+        var removed = branchRevisionRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+
+        if (removed > 0)
+            log.info("Removed {} expired branch revisions", removed);
+    }
+}
@@ -2,29 +2,60 @@ package com.nipun.system.document.branch;
 
 import com.nipun.system.document.Status;
 import com.nipun.system.document.base.DocumentRepository;
+import com.nipun.system.document.base.dtos.ContentLinesResponse;
 import com.nipun.system.document.base.dtos.ContentResponse;
+import com.nipun.system.document.base.dtos.OutlineResponse;
 import com.nipun.system.document.base.exceptions.DocumentNotFoundException;
+import com.nipun.system.document.branch.dtos.BranchDiffStatsResponse;
 import com.nipun.system.document.branch.dtos.BranchResponse;
+import com.nipun.system.document.branch.dtos.PatchContentRequest;
+import com.nipun.system.document.branch.dtos.PatchContentResponse;
+import com.nipun.system.document.branch.exceptions.BranchMergeConflictException;
 import com.nipun.system.document.branch.exceptions.BranchNotFoundException;
+import com.nipun.system.document.branch.exceptions.BranchRevisionConflictException;
 import com.nipun.system.document.branch.exceptions.BranchTitleAlreadyExistsException;
+import com.nipun.system.document.branch.exceptions.InvalidContentPatchException;
+import com.nipun.system.document.content.Content;
+import com.nipun.system.document.content.ContentHashUtils;
+import com.nipun.system.document.content.ContentLineService;
+import com.nipun.system.document.content.ContentOutlineService;
+import com.nipun.system.document.content.ContentOutlineUtils;
+import com.nipun.system.document.content.ContentService;
+import com.nipun.system.document.diff.DiffMode;
+import com.nipun.system.document.diff.DiffService;
 import com.nipun.system.document.diff.DiffUtils;
+import com.nipun.system.document.diff.dtos.DiffHunk;
+import com.nipun.system.document.diff.dtos.DiffPageResponse;
 import com.nipun.system.document.diff.dtos.DiffResponse;
+import com.nipun.system.document.diff.dtos.DiffStatsResponse;
+import com.nipun.system.document.diff.exceptions.MergeConflictException;
+import com.nipun.system.document.diff.exceptions.PatchFailedException;
+import com.nipun.system.document.permission.DocumentAccessCache;
 import com.nipun.system.document.permission.PermissionUtils;
 import com.nipun.system.document.permission.exceptions.UnauthorizedDocumentException;
 import com.nipun.system.shared.dtos.CountResponse;
+import com.nipun.system.shared.dtos.CursorPaginatedData;
 import com.nipun.system.shared.dtos.PaginatedData;
+import com.nipun.system.shared.utils.PageCursor;
+import com.nipun.system.shared.utils.PageCursorUtils;
 import com.nipun.system.shared.utils.UserIdUtils;
 import com.nipun.system.user.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.hibernate.Hibernate;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Log4j2
 @RequiredArgsConstructor
@@ -33,47 +64,68 @@ public class BranchService {
     private final BranchRepository branchRepository;
     private final UserRepository userRepository;
     private final DocumentRepository documentRepository;
+    private final DocumentAccessCache documentAccessCache;
     private final BranchMapper branchMapper;
     private final DiffUtils diffUtils;
-
+    private final DiffService diffService;
+    private final ContentService contentService;
+    private final ContentLineService contentLineService;
+    private final ContentOutlineService contentOutlineService;
+    private final BranchRevisionService branchRevisionService;
+    private final BranchMergeBaseService branchMergeBaseService;
+    private final BranchWriteBuffer branchWriteBuffer;
+    private final CacheManager cacheManager;
+
+    // the cached document response carries the branch count
+    @CacheEvict(value = "documents", key = "{#documentId}")
     @Transactional
     public BranchResponse createBranch(UUID documentId, UUID branchId, String branchName) {
         var userId = UserIdUtils.getUserIdFromContext();
         var user = userRepository.findById(userId).orElseThrow();
 
-        var document = documentRepository
-                .findByPublicId(documentId)
+        var access = documentAccessCache
+                .findAccess(documentId, userId)
                 .orElseThrow(DocumentNotFoundException::new);
 
-        PermissionUtils.checkUserCanWrite(userId, document);
+        PermissionUtils.checkUserCanWrite(access);
 
-        if (branchRepository.existsByBranchNameAndDocumentId(branchName, document.getId()))
+        if (branchRepository.existsByBranchNameAndDocumentId(branchName, access.documentId()))
             throw new BranchTitleAlreadyExistsException();
 
+        branchWriteBuffer.flush(branchId);
+
         var baseBranch = branchRepository
-                .findByPublicIdAndDocumentId(branchId, document.getId())
+                .findByPublicIdAndDocumentId(branchId, access.documentId())
                 .orElseThrow(BranchNotFoundException::new);
 
-        var newBranch = BranchFactory.createNewBranch(document, branchName, baseBranch.getBranchContent(), user);
+        var newBranch = BranchFactory.createNewBranch(
+                documentRepository.getReferenceById(access.documentId()),
+                branchName,
+                baseBranch.getContent(),
+                user
+        );
+
+        newBranch = branchRepository.save(newBranch);
+        branchMergeBaseService.recordFork(baseBranch, newBranch);
 
-        return branchMapper.toDto(branchRepository.save(newBranch));
+        return branchMapper.toDto(newBranch);
     }
 
     @Transactional(readOnly = true)
     public PaginatedData getAllBranches(UUID documentId, int pageNumber, int size) {
         var userId = UserIdUtils.getUserIdFromContext();
 
-        var document = documentRepository
-                .findByPublicId(documentId)
+        var access = documentAccessCache
+                .findAccess(documentId, userId)
                 .orElseThrow(DocumentNotFoundException::new);
 
-        if (PermissionUtils.isUnauthorizedUser(userId, document))
+        if (PermissionUtils.isUnauthorizedUser(access))
             throw new UnauthorizedDocumentException();
 
         PageRequest pageRequest = PageRequest.of(pageNumber, size);
 
         var branches = branchRepository
-                .findAllByDocumentId(document.getId(), pageRequest);
+                .findAllByDocumentId(access.documentId(), pageRequest);
 
         var branchDtoList = branches.getContent()
                 .stream()
@@ -91,6 +143,32 @@ public class BranchService {
         );
     }
 
+    @Transactional(readOnly = true)
+    public CursorPaginatedData getAllBranches(UUID documentId, String cursor, int size, boolean includeTotal) {
+        var userId = UserIdUtils.getUserIdFromContext();
+
+        var access = documentAccessCache
+                .findAccess(documentId, userId)
+                .orElseThrow(DocumentNotFoundException::new);
+
+        if (PermissionUtils.isUnauthorizedUser(access))
+            throw new UnauthorizedDocumentException();
+
+        var position = PageCursorUtils.decode(cursor);
+
+        var branches = branchRepository.findPageByDocumentId(
+                access.documentId(), position.createdAt(), position.id(), PageCursorUtils.seekPage(size)
+        );
+
+        return PageCursorUtils.toPaginatedData(
+                branches,
+                size,
+                branch -> new PageCursor(branch.getCreatedAt(), branch.getId()),
+                branchMapper::toDto,
+                includeTotal ? Long.valueOf(branchRepository.countAllByDocumentId(access.documentId())) : null
+        );
+    }
+
     public CountResponse getAllBranchCount(UUID documentId) {
         var userId = UserIdUtils.getUserIdFromContext();
 
@@ -101,72 +179,346 @@ public class BranchService {
         return new CountResponse(branchRepository.countAllByDocumentId(document.getId()));
     }
 
-    @Cacheable(value = "document_branch_contents", key = "{#documentId, #branchId}")
-    @Transactional(readOnly = true)
+    // the cached content is the same for every reader, so access is checked before the cache is read
+    @Transactional
     public ContentResponse getBranchContent(UUID documentId, UUID branchId) {
         var userId = UserIdUtils.getUserIdFromContext();
 
-        var document = documentRepository
-                .findByPublicId(documentId)
+        var access = documentAccessCache
+                .findAccess(documentId, userId)
                 .orElseThrow(DocumentNotFoundException::new);
 
+        if (PermissionUtils.isUnauthorizedUser(access))
+            throw new UnauthorizedDocumentException();
+
+        var cache = cacheManager.getCache("document_branch_contents");
+        var key = List.of(documentId, branchId);
+
+        if (cache != null) {
+            var cached = cache.get(key, ContentResponse.class);
+            if (cached != null)
+                return cached;
+        }
+
+        // buffered content has no revision of its own yet, it is flushed so the response carries one for If-Match
+        branchWriteBuffer.flush(branchId);
+
         var branch = branchRepository
-                .findByPublicIdAndDocumentId(branchId, document.getId())
+                .findByPublicIdAndDocumentId(branchId, access.documentId())
                 .orElseThrow(BranchNotFoundException::new);
 
+        var response = new ContentResponse(branch.getBranchContent(), branch.getRevision());
+
+        if (cache != null)
+            cache.put(key, response);
+
+        return response;
+    }
+
+    @Transactional(readOnly = true)
+    public Content getRawBranchContent(UUID documentId, UUID branchId) {
+        var userId = UserIdUtils.getUserIdFromContext();
 
-        if (PermissionUtils.isUnauthorizedUser(userId, document))
+        var access = documentAccessCache
+                .findAccess(documentId, userId)
+                .orElseThrow(DocumentNotFoundException::new);
+
+        var branch = branchRepository
+                .findByPublicIdAndDocumentId(branchId, access.documentId())
+                .orElseThrow(BranchNotFoundException::new);
+
+        if (PermissionUtils.isUnauthorizedUser(access))
             throw new UnauthorizedDocumentException();
 
-        return new ContentResponse(branch.getBranchContent());
+        var bufferedContent = branchWriteBuffer.find(branchId);
+        if (bufferedContent.isPresent())
+            return Content.builder()
+                    .hash(ContentHashUtils.hash(bufferedContent.get()))
+                    .content(bufferedContent.get())
+                    .build();
+
+        // the body is streamed after the transaction ends, so the lazy content must be loaded here
+        return (Content) Hibernate.unproxy(branch.getContent());
     }
 
-    @CachePut(value = "document_branch_contents", key = "{#documentId, #branchId}")
+    // not read only, the first read of a content stores its line index
     @Transactional
-    public ContentResponse updateBranchContent(UUID documentId, UUID branchId, String content) {
+    public ContentLinesResponse getBranchContentLines(UUID documentId, UUID branchId, long fromLine, long toLine) {
         var userId = UserIdUtils.getUserIdFromContext();
 
-        var document = documentRepository
-                .findByPublicId(documentId)
+        var access = documentAccessCache
+                .findAccess(documentId, userId)
                 .orElseThrow(DocumentNotFoundException::new);
 
-        PermissionUtils.checkUserCanWrite(userId, document);
+        var branch = branchRepository
+                .findByPublicIdAndDocumentId(branchId, access.documentId())
+                .orElseThrow(BranchNotFoundException::new);
+
+        if (PermissionUtils.isUnauthorizedUser(access))
+            throw new UnauthorizedDocumentException();
+
+        var bufferedContent = branchWriteBuffer.find(branchId);
+        if (bufferedContent.isPresent())
+            return contentLineService.sliceLines(bufferedContent.get(), fromLine, toLine);
+
+        return contentLineService.readLines(branch.getContent(), fromLine, toLine);
+    }
+
+    // not read only, contents written before outlines were kept get theirs stored on the first read
+    @Transactional
+    public OutlineResponse getBranchOutline(UUID documentId, UUID branchId) {
+        var userId = UserIdUtils.getUserIdFromContext();
+
+        var access = documentAccessCache
+                .findAccess(documentId, userId)
+                .orElseThrow(DocumentNotFoundException::new);
 
         var branch = branchRepository
-                .findByPublicIdAndDocumentId(branchId, document.getId())
+                .findByPublicIdAndDocumentId(branchId, access.documentId())
                 .orElseThrow(BranchNotFoundException::new);
 
-        branch.setBranchContent(content);
+        if (PermissionUtils.isUnauthorizedUser(access))
+            throw new UnauthorizedDocumentException();
 
-        branchRepository.save(branch);
+        var bufferedContent = branchWriteBuffer.find(branchId);
+        if (bufferedContent.isPresent())
+            return new OutlineResponse(ContentOutlineUtils.build(bufferedContent.get()));
 
-        return new ContentResponse(branch.getBranchContent());
+        return new OutlineResponse(contentOutlineService.getOutline(branch.getContent()));
     }
 
-    @Cacheable(value = "document_branch_diffs", key = "{#documentId, #base, #compare}")
-    @Transactional(readOnly = true)
-    public DiffResponse getBranchDiffs(UUID documentId, UUID base, UUID compare) {
-        var document = documentRepository
-                .findByPublicId(documentId)
+    // buffered content has no revision to cache, the next read flushes it and caches the stored revision
+    @CachePut(value = "document_branch_contents", key = "{#documentId, #branchId}", unless = "#result.revision == null")
+    @Transactional
+    public ContentResponse updateBranchContent(UUID documentId, UUID branchId, String content, Long expectedRevision) {
+        var userId = UserIdUtils.getUserIdFromContext();
+
+        var access = documentAccessCache
+                .findAccess(documentId, userId)
                 .orElseThrow(DocumentNotFoundException::new);
 
-        var baseBranch = branchRepository
-                .findByPublicIdAndDocumentId(base, document.getId())
+        PermissionUtils.checkUserCanWrite(access);
+
+        // plain autosaves only keep the latest content in memory, writes that name a revision go straight through
+        if (branchWriteBuffer.isEnabled() && expectedRevision == null) {
+            var revision = branchRepository
+                    .findRevisionByPublicIdAndDocumentId(branchId, access.documentId())
+                    .orElseThrow(BranchNotFoundException::new);
+
+            branchWriteBuffer.buffer(new PendingBranchWrite(access.documentId(), documentId, branchId, userId, revision, content));
+
+            var cache = cacheManager.getCache("document_branch_contents");
+            if (cache != null)
+                cache.evict(List.of(documentId, branchId));
+
+            return new ContentResponse(content);
+        }
+
+        branchWriteBuffer.flush(branchId);
+
+        var branch = branchRepository
+                .findWithLockByPublicIdAndDocumentId(branchId, access.documentId())
                 .orElseThrow(BranchNotFoundException::new);
 
-        var compareBranch = branchRepository
-                .findByPublicIdAndDocumentId(compare, document.getId())
+        var merged = branchRevisionService.rebase(branch, expectedRevision, content);
+
+        branch = branchRevisionService.updateContent(branch, contentService.update(branch.getContent(), merged));
+
+        return new ContentResponse(branch.getBranchContent(), branch.getRevision());
+    }
+
+    @CacheEvict(value = "document_branch_contents", key = "{#documentId, #branchId}")
+    @Transactional
+    public PatchContentResponse patchBranchContent(
+            UUID documentId, UUID branchId, PatchContentRequest request, Long baseRevision
+    ) {
+        var userId = UserIdUtils.getUserIdFromContext();
+
+        var access = documentAccessCache
+                .findAccess(documentId, userId)
+                .orElseThrow(DocumentNotFoundException::new);
+
+        PermissionUtils.checkUserCanWrite(access);
+
+        branchWriteBuffer.flush(branchId);
+
+        var branch = branchRepository
+                .findWithLockByPublicIdAndDocumentId(branchId, access.documentId())
                 .orElseThrow(BranchNotFoundException::new);
 
-        if (baseBranch.getStatus().equals(Status.PUBLIC) && compareBranch.getStatus().equals(Status.PUBLIC))
-            return diffUtils.buildDiffResponse(baseBranch.getBranchContent(), compareBranch.getBranchContent());
+        var current = branch.getContent();
+
+        if (baseRevision == null)
+            throw new InvalidContentPatchException();
+
+        var base = branchRevisionService.findBaseContent(branch, baseRevision);
+
+        String content;
+        try {
+            if (request.getPatch() != null)
+                content = diffService.applyPatch(base.getContent(), request.getPatch());
+            else if (request.getOperations() != null)
+                content = diffService.applyDiffs(base.getContent(), request.getOperations());
+            else
+                throw new InvalidContentPatchException();
+        } catch (PatchFailedException | IllegalArgumentException exception) {
+            throw new InvalidContentPatchException();
+        }
+
+        // a patch made against an older revision is applied to that revision and merged into the current one
+        if (base != current)
+            content = branchRevisionService.merge(base.getContent(), content, current.getContent());
+
+        branch = branchRevisionService.updateContent(branch, contentService.update(current, content));
+
+        return new PatchContentResponse(branch.getRevision());
+    }
+
+    @Transactional(readOnly = true)
+    public DiffResponse getBranchDiffs(UUID documentId, UUID base, UUID compare, DiffMode mode) {
+        var branches = findComparedBranches(documentId, base, compare);
+
+        return diffUtils.buildDiffResponse(
+                contentHash(branches.getFirst()),
+                () -> branchContent(branches.getFirst()),
+                contentHash(branches.getLast()),
+                () -> branchContent(branches.getLast()),
+                mode
+        );
+    }
+
+    @Transactional(readOnly = true)
+    public DiffPageResponse getBranchDiffPage(
+            UUID documentId, UUID base, UUID compare, DiffMode mode, int contextLines, int cursor, int size
+    ) {
+        var branches = findComparedBranches(documentId, base, compare);
+
+        var baseHash = contentHash(branches.getFirst());
+        var compareHash = contentHash(branches.getLast());
+
+        var diffs = diffUtils.buildDiffResponse(
+                baseHash,
+                () -> branchContent(branches.getFirst()),
+                compareHash,
+                () -> branchContent(branches.getLast()),
+                mode
+        );
+        var index = diffUtils.buildDiffHunkIndex(baseHash, compareHash, diffUtils.fingerprint(diffs), diffs, contextLines);
+
+        return diffUtils.buildDiffPage(diffs, index, contextLines, cursor, size);
+    }
+
+    @Transactional(readOnly = true)
+    public Iterator<DiffHunk> getBranchDiffHunks(UUID documentId, UUID base, UUID compare, DiffMode mode, int contextLines) {
+        var branches = findComparedBranches(documentId, base, compare);
+
+        var diffs = diffUtils.buildDiffResponse(
+                contentHash(branches.getFirst()),
+                () -> branchContent(branches.getFirst()),
+                contentHash(branches.getLast()),
+                () -> branchContent(branches.getLast()),
+                mode
+        );
+
+        return diffUtils.iterateDiffHunks(diffs, contextLines);
+    }
+
+    @Transactional(readOnly = true)
+    public DiffStatsResponse getBranchDiffStats(UUID documentId, UUID base, UUID compare) {
+        var branches = findComparedBranches(documentId, base, compare);
+
+        return diffUtils.buildDiffStats(
+                contentHash(branches.getFirst()),
+                () -> branchContent(branches.getFirst()),
+                contentHash(branches.getLast()),
+                () -> branchContent(branches.getLast())
+        );
+    }
 
+    // only hashes are loaded up front, a content is read when its pair is not cached yet
+    @Transactional(readOnly = true)
+    public List<BranchDiffStatsResponse> getAllBranchDiffStats(UUID documentId) {
         var userId = UserIdUtils.getUserIdFromContext();
 
-        if (PermissionUtils.isUnauthorizedUser(userId, document))
+        var access = documentAccessCache
+                .findAccess(documentId, userId)
+                .orElseThrow(DocumentNotFoundException::new);
+
+        if (PermissionUtils.isUnauthorizedUser(access))
             throw new UnauthorizedDocumentException();
 
-        return diffUtils.buildDiffResponse(baseBranch.getBranchContent(), compareBranch.getBranchContent());
+        var branches = branchRepository.findContentHashesByDocumentId(access.documentId());
+
+        var mainBranch = branches.stream()
+                .filter(branch -> branch.branchName().equals("main"))
+                .findFirst()
+                .orElseThrow(BranchNotFoundException::new);
+
+        // buffered autosaves are compared instead of the stored contents they replace
+        var contents = new HashMap<String, String>();
+        var hashes = new HashMap<UUID, String>();
+        for (var branch : branches) {
+            hashes.put(branch.branchId(), branch.hash());
+            branchWriteBuffer.find(branch.branchId()).ifPresent(buffered -> {
+                var hash = ContentHashUtils.hash(buffered);
+                hashes.put(branch.branchId(), hash);
+                contents.put(hash, buffered);
+            });
+        }
+
+        Function<String, Supplier<String>> loader = hash -> () -> contents.computeIfAbsent(
+                hash,
+                key -> contentService.find(key).orElseThrow(BranchNotFoundException::new).getContent()
+        );
+
+        return branches.stream()
+                .filter(branch -> !branch.branchId().equals(mainBranch.branchId()))
+                .map(branch -> {
+                    var mainHash = hashes.get(mainBranch.branchId());
+                    var hash = hashes.get(branch.branchId());
+                    return new BranchDiffStatsResponse(
+                            branch.branchId(),
+                            diffUtils.buildDiffStats(mainHash, loader.apply(mainHash), hash, loader.apply(hash))
+                    );
+                })
+                .toList();
+    }
+
+    // reads see buffered autosaves that have not reached the database yet
+    private String branchContent(Branch branch) {
+        return branchWriteBuffer.find(branch.getPublicId()).orElseGet(branch::getBranchContent);
+    }
+
+    private String contentHash(Branch branch) {
+        return branchWriteBuffer.find(branch.getPublicId())
+                .map(ContentHashUtils::hash)
+                .orElseGet(() -> branch.getContent().getHash());
+    }
+
+    private List<Branch> findComparedBranches(UUID documentId, UUID base, UUID compare) {
+        var internalDocumentId = documentRepository
+                .findIdByPublicId(documentId)
+                .orElseThrow(DocumentNotFoundException::new);
+
+        var baseBranch = branchRepository
+                .findByPublicIdAndDocumentId(base, internalDocumentId)
+                .orElseThrow(BranchNotFoundException::new);
+
+        var compareBranch = branchRepository
+                .findByPublicIdAndDocumentId(compare, internalDocumentId)
+                .orElseThrow(BranchNotFoundException::new);
+
+        if (!baseBranch.getStatus().equals(Status.PUBLIC) || !compareBranch.getStatus().equals(Status.PUBLIC)) {
+            var userId = UserIdUtils.getUserIdFromContext();
+            var access = documentAccessCache
+                    .findAccess(documentId, userId)
+                    .orElseThrow(DocumentNotFoundException::new);
+
+            if (PermissionUtils.isUnauthorizedUser(access))
+                throw new UnauthorizedDocumentException();
+        }
+
+        return List.of(baseBranch, compareBranch);
     }
 
     @CacheEvict(value = "document_branch_contents", key = "{#documentId, #branchId}")
@@ -174,22 +526,45 @@ public class BranchService {
     public void mergeBranches(UUID documentId, UUID branchId, UUID mergeBranchId) {
         var userId = UserIdUtils.getUserIdFromContext();
 
-        var document = documentRepository
-                .findByPublicId(documentId)
+        var access = documentAccessCache
+                .findAccess(documentId, userId)
                 .orElseThrow(DocumentNotFoundException::new);
 
-        PermissionUtils.checkUserCanWrite(userId, document);
+        PermissionUtils.checkUserCanWrite(access);
+
+        branchWriteBuffer.flush(branchId);
+        branchWriteBuffer.flush(mergeBranchId);
 
         var baseBranch = branchRepository
-                .findByPublicIdAndDocumentId(branchId, document.getId())
+                .findWithLockByPublicIdAndDocumentId(branchId, access.documentId())
                 .orElseThrow(BranchNotFoundException::new);
 
         var mergeBranch = branchRepository
-                .findByPublicIdAndDocumentId(mergeBranchId, document.getId())
+                .findByPublicIdAndDocumentId(mergeBranchId, access.documentId())
                 .orElseThrow(BranchNotFoundException::new);
 
-        baseBranch.setBranchContent(mergeBranch.getBranchContent());
-
-        branchRepository.save(baseBranch);
+        // branches forked before merge bases were recorded keep the previous behaviour of taking the merge branch as is
+        var mergeBase = branchMergeBaseService.find(baseBranch, mergeBranch);
+
+        var mergedContent = mergeBranch.getContent();
+        if (mergeBase.isPresent()) {
+            try {
+                mergedContent = contentService.update(
+                        baseBranch.getContent(),
+                        diffService.merge(
+                                mergeBase.get().getContent(),
+                                mergeBranch.getBranchContent(),
+                                baseBranch.getBranchContent()
+                        )
+                );
+            } catch (MergeConflictException exception) {
+                throw new BranchMergeConflictException();
+            }
+        }
+
+        // the merged content holds all of the merge branch, so that is what the two branches now have in common
+        branchMergeBaseService.record(baseBranch, mergeBranch, mergeBranch.getContent());
+
+        branchRevisionService.updateContent(baseBranch, mergedContent);
     }
 }
@@ -0,0 +1,304 @@
+package com.nipun.system.document.branch;
+
+import com.nipun.system.document.branch.exceptions.BranchRevisionConflictException;
+import com.nipun.system.shared.dtos.ErrorResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// buffered contents only live on the node that accepted them, so buffering is limited to a single
+// node through a lease in redis, a second node with buffering enabled fails to start
+@Log4j2
+@RequiredArgsConstructor
+@Component
+public class BranchWriteBuffer {
+
+    private static final String LEASE_KEY = "document:branches:write-behind:owner";
+
+    private final BranchRevisionService branchRevisionService;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final Map<UUID, PendingBranchWrite> writes = new ConcurrentHashMap<>();
+    private final Object journalLock = new Object();
+
+    @Value("${document.branches.write-behind.enabled}")
+    private boolean enabled;
+
+    @Value("${document.branches.write-behind.journal}")
+    private Path journalPath;
+
+    @Value("${document.branches.write-behind.lease-ttl}")
+    private Duration leaseTtl;
+
+    private FileChannel journal;
+    private String owner;
+    private volatile boolean leased;
+
+    @PostConstruct
+    public void replayJournal() throws IOException {
+        if (!enabled)
+            return;
+
+        // the same host and journal keep the lease across a restart, so a crashed node can come back at once
+        owner = InetAddress.getLocalHost().getHostName() + ":" + journalPath.toAbsolutePath();
+        if (!renewLease())
+            throw new IllegalStateException("Branch write-behind is already enabled on another node, it only supports a single node");
+        leased = true;
+
+        if (journalPath.getParent() != null)
+            Files.createDirectories(journalPath.getParent());
+
+        // writes accepted before a crash are buffered again and reach the database on the next flush
+        if (Files.exists(journalPath)) {
+            for (var line : Files.readAllLines(journalPath, StandardCharsets.UTF_8)) {
+                var pending = decode(line);
+                if (pending != null)
+                    writes.put(pending.getBranchId(), pending);
+            }
+
+            if (!writes.isEmpty())
+                log.info("Replayed {} buffered branch writes from {}", writes.size(), journalPath);
+        }
+
+        journal = openJournal();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (!enabled)
+            return;
+
+        flushAll();
+        journal.close();
+
+        if (owner.equals(stringRedisTemplate.opsForValue().get(LEASE_KEY)))
+            stringRedisTemplate.delete(LEASE_KEY);
+    }
+
+    public boolean isEnabled() {
+        return enabled && leased;
+    }
+
+    public void buffer(PendingBranchWrite pending) {
+        synchronized (journalLock) {
+            // later autosaves build on the buffered content, so they keep the revision the first one was based on
+            var previous = writes.get(pending.getBranchId());
+            if (previous != null)
+                pending = new PendingBranchWrite(
+                        pending.getDocumentId(),
+                        pending.getDocumentPublicId(),
+                        pending.getBranchId(),
+                        pending.getUserId(),
+                        previous.getBaseRevision(),
+                        pending.getContent()
+                );
+
+            try {
+                journal.write(ByteBuffer.wrap(encode(pending).getBytes(StandardCharsets.UTF_8)));
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+
+            writes.put(pending.getBranchId(), pending);
+        }
+    }
+
+    public Optional<String> find(UUID branchId) {
+        return Optional.ofNullable(writes.get(branchId)).map(PendingBranchWrite::getContent);
+    }
+
+    public void flush(UUID branchId) {
+        var pending = writes.get(branchId);
+        if (pending != null)
+            write(pending);
+    }
+
+    public void flushUser(Long userId) {
+        writes.values().stream()
+                .filter(pending -> pending.getUserId().equals(userId))
+                .forEach(this::write);
+    }
+
+    @Scheduled(fixedDelayString = "${document.branches.write-behind.flush-interval}")
+    public void flushAll() throws IOException {
+        if (!enabled)
+            return;
+
+        // once the lease is lost no new writes are buffered, the ones already accepted are still flushed
+        if (leased && !renewLease()) {
+            leased = false;
+            log.error("Branch write-behind lease is held by another node, buffering is stopped until this node restarts");
+        }
+
+        if (writes.isEmpty())
+            return;
+
+        journal.force(false);
+
+        for (var pending : List.copyOf(writes.values())) {
+            try {
+                write(pending);
+            } catch (RuntimeException exception) {
+                log.error("Could not flush buffered content of branch {}", pending.getBranchId(), exception);
+            }
+        }
+
+        compactJournal();
+    }
+
+    private boolean renewLease() {
+        var lease = stringRedisTemplate.opsForValue();
+
+        if (Boolean.TRUE.equals(lease.setIfAbsent(LEASE_KEY, owner, leaseTtl)))
+            return true;
+
+        if (!owner.equals(lease.get(LEASE_KEY)))
+            return false;
+
+        stringRedisTemplate.expire(LEASE_KEY, leaseTtl);
+        return true;
+    }
+
+    private void write(PendingBranchWrite pending) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // writes committed since the content was buffered are merged, a buffered write that conflicts is
+            // kept on a branch of its own instead, the client was already told it was saved
+            Optional<Branch> conflictBranch = Optional.empty();
+            try {
+                branchRevisionService.writeContent(
+                        pending.getDocumentId(), pending.getBranchId(), pending.getContent(), pending.getBaseRevision()
+                );
+            } catch (BranchRevisionConflictException exception) {
+                conflictBranch = branchRevisionService.forkConflict(
+                        pending.getDocumentId(),
+                        pending.getBranchId(),
+                        pending.getUserId(),
+                        pending.getBaseRevision(),
+                        pending.getContent()
+                );
+            }
+
+            var conflictBranchId = conflictBranch.map(Branch::getPublicId).orElse(null);
+
+            // when flushed inside a caller's transaction the write stays buffered until that transaction commits
+            if (TransactionSynchronizationManager.isSynchronizationActive())
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        release(pending, conflictBranchId);
+                    }
+                });
+            else
+                release(pending, conflictBranchId);
+        });
+    }
+
+    private void release(PendingBranchWrite pending, UUID conflictBranchId) {
+        writes.remove(pending.getBranchId(), pending);
+
+        var cache = cacheManager.getCache("document_branch_contents");
+        if (cache != null)
+            cache.evict(List.of(pending.getDocumentPublicId(), pending.getBranchId()));
+
+        if (conflictBranchId == null)
+            return;
+
+        log.warn(
+                "Buffered content of branch {} conflicts with changes made after revision {}, kept it on branch {}",
+                pending.getBranchId(), pending.getBaseRevision(), conflictBranchId
+        );
+
+        // the cached document response carries the branch count
+        var documents = cacheManager.getCache("documents");
+        if (documents != null)
+            documents.evict(List.of(pending.getDocumentPublicId()));
+
+        messagingTemplate.convertAndSendToUser(
+                pending.getUserId().toString(),
+                "/queue/errors",
+                new ErrorResponse("Autosaved content of branch " + pending.getBranchId()
+                        + " conflicts with a later change and was kept on branch " + conflictBranchId)
+        );
+    }
+
+    private void compactJournal() throws IOException {
+        synchronized (journalLock) {
+            var compacted = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+
+            var builder = new StringBuilder();
+            writes.values().forEach(pending -> builder.append(encode(pending)));
+            Files.writeString(compacted, builder, StandardCharsets.UTF_8);
+
+            journal.close();
+            Files.move(compacted, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            journal = openJournal();
+        }
+    }
+
+    private FileChannel openJournal() throws IOException {
+        return FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private String encode(PendingBranchWrite pending) {
+        return String.join("\t",
+                pending.getDocumentId().toString(),
+                pending.getDocumentPublicId().toString(),
+                pending.getBranchId().toString(),
+                pending.getUserId().toString(),
+                pending.getBaseRevision().toString(),
+                Base64.getEncoder().encodeToString(pending.getContent().getBytes(StandardCharsets.UTF_8))
+        ) + "\n";
+    }
+
+    private PendingBranchWrite decode(String line) {
+        var fields = line.split("\t");
+
+        // a torn last line from a crash mid-append is skipped
+        if (fields.length != 6)
+            return null;
+
+        try {
+            return new PendingBranchWrite(
+                    Long.parseLong(fields[0]),
+                    UUID.fromString(fields[1]),
+                    UUID.fromString(fields[2]),
+                    Long.parseLong(fields[3]),
+                    Long.parseLong(fields[4]),
+                    new String(Base64.getDecoder().decode(fields[5]), StandardCharsets.UTF_8)
+            );
+        } catch (IllegalArgumentException exception) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.nipun.system.document.branch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class PendingBranchWrite {
+    private final Long documentId;
+    private final UUID documentPublicId;
+    private final UUID branchId;
+    private final Long userId;
+    private final Long baseRevision;
+    private final String content;
+}
@@ -0,0 +1,16 @@
+package com.nipun.system.document.branch.dtos;
+
+import com.nipun.system.document.diff.dtos.DiffStatsResponse;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class BranchDiffStatsResponse {
+    private UUID branchId;
+    private DiffStatsResponse stats;
+}
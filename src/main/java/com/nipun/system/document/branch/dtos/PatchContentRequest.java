@@ -0,0 +1,21 @@
+package com.nipun.system.document.branch.dtos;
+
+import com.nipun.system.document.diff.DiffRow;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Request object for patch document branch content")
+public class PatchContentRequest {
+
+    @Schema(description = "Branch revision the patch was made against, used when no If-Match header is given", example = "12")
+    private Long baseRevision;
+
+    @Schema(description = "diff-match-patch patch text", example = "@@ -1,5 +1,11 @@\n Hello\n+ everyone\n")
+    private String patch;
+
+    @Schema(description = "Diff operations against the base revision, used when no patch text is given")
+    private List<DiffRow> operations;
+}
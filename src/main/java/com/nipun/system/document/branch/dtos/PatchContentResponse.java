@@ -0,0 +1,12 @@
+package com.nipun.system.document.branch.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class PatchContentResponse {
+    private Long revision;
+}
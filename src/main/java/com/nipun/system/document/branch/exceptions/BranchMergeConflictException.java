@@ -0,0 +1,7 @@
+package com.nipun.system.document.branch.exceptions;
+
+public class BranchMergeConflictException extends RuntimeException {
+    public BranchMergeConflictException() {
+        super("The branches changed the same part of the document and cannot be merged automatically");
+    }
+}
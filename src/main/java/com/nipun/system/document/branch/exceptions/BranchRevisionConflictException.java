@@ -0,0 +1,7 @@
+package com.nipun.system.document.branch.exceptions;
+
+public class BranchRevisionConflictException extends RuntimeException {
+    public BranchRevisionConflictException() {
+        super("The branch content has changed since the given revision");
+    }
+}
@@ -0,0 +1,7 @@
+package com.nipun.system.document.branch.exceptions;
+
+public class InvalidContentPatchException extends RuntimeException {
+    public InvalidContentPatchException() {
+        super("The patch could not be applied to the branch content");
+    }
+}
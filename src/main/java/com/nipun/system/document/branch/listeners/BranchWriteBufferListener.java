@@ -0,0 +1,22 @@
+package com.nipun.system.document.branch.listeners;
+
+import com.nipun.system.document.branch.BranchWriteBuffer;
+import com.nipun.system.shared.utils.UserIdUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+@RequiredArgsConstructor
+@Component
+public class BranchWriteBufferListener {
+    private final BranchWriteBuffer branchWriteBuffer;
+
+    // rest clients have no disconnect to hook into, their writes are flushed on the regular interval
+    @EventListener
+    public void handleSessionDisconnect(SessionDisconnectEvent event) {
+        var userId = UserIdUtils.getUserIdFromPrincipal(event.getUser());
+        if (branchWriteBuffer.isEnabled() && userId != null)
+            branchWriteBuffer.flushUser(userId);
+    }
+}
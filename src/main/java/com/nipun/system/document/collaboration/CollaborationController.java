@@ -0,0 +1,47 @@
+package com.nipun.system.document.collaboration;
+
+import com.nipun.system.document.collaboration.dtos.CollaborationSnapshotResponse;
+import com.nipun.system.document.collaboration.dtos.EditOperationRequest;
+import com.nipun.system.document.collaboration.dtos.EditOperationResponse;
+import com.nipun.system.shared.utils.UserIdUtils;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+@Controller
+public class CollaborationController {
+
+    private final CollaborationService collaborationService;
+
+    @SubscribeMapping("/document/{documentId}/branch/{branchId}/snapshot")
+    public CollaborationSnapshotResponse joinSession(
+            @DestinationVariable UUID documentId,
+            @DestinationVariable UUID branchId,
+            Principal principal
+    ) {
+        return collaborationService.join(documentId, branchId, UserIdUtils.getUserIdFromPrincipal(principal));
+    }
+
+    @MessageMapping("/document/{documentId}/branch/{branchId}/ops")
+    @SendTo("/document/{documentId}/branch/{branchId}")
+    public List<EditOperationResponse> applyOperation(
+            @DestinationVariable UUID documentId,
+            @DestinationVariable UUID branchId,
+            @Payload @Valid EditOperationRequest request,
+            Principal principal
+    ) {
+        return collaborationService.applyOperation(
+                documentId, branchId, UserIdUtils.getUserIdFromPrincipal(principal), request
+        );
+    }
+}
@@ -0,0 +1,235 @@
+package com.nipun.system.document.collaboration;
+
+import com.nipun.system.document.base.DocumentRepository;
+import com.nipun.system.document.base.exceptions.DocumentNotFoundException;
+import com.nipun.system.document.branch.Branch;
+import com.nipun.system.document.branch.BranchRepository;
+import com.nipun.system.document.branch.BranchRevisionService;
+import com.nipun.system.document.branch.BranchWriteBuffer;
+import com.nipun.system.document.branch.exceptions.BranchNotFoundException;
+import com.nipun.system.document.branch.exceptions.BranchRevisionConflictException;
+import com.nipun.system.document.collaboration.dtos.CollaborationSnapshotResponse;
+import com.nipun.system.document.collaboration.dtos.EditOperationRequest;
+import com.nipun.system.document.collaboration.dtos.EditOperationResponse;
+import com.nipun.system.document.collaboration.exceptions.InvalidOperationException;
+import com.nipun.system.document.permission.DocumentAccessCache;
+import com.nipun.system.document.permission.PermissionUtils;
+import com.nipun.system.document.permission.exceptions.ReadOnlyDocumentException;
+import com.nipun.system.document.permission.exceptions.UnauthorizedDocumentException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Log4j2
+@RequiredArgsConstructor
+@Service
+public class CollaborationService {
+
+    private final DocumentRepository documentRepository;
+    private final DocumentAccessCache documentAccessCache;
+    private final BranchRepository branchRepository;
+    private final BranchRevisionService branchRevisionService;
+    private final BranchWriteBuffer branchWriteBuffer;
+    private final TransactionTemplate transactionTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final CacheManager cacheManager;
+
+    private final Map<UUID, CollaborationSession> sessions = new ConcurrentHashMap<>();
+
+    @Value("${document.collaboration.op-log-size}")
+    private int logSize;
+
+    @Value("${document.collaboration.idle-timeout}")
+    private Duration idleTimeout;
+
+    public CollaborationSnapshotResponse join(UUID documentId, UUID branchId, Long userId) {
+        var access = documentAccessCache
+                .findAccess(documentId, userId)
+                .orElseThrow(DocumentNotFoundException::new);
+
+        if (PermissionUtils.isUnauthorizedUser(access))
+            throw new UnauthorizedDocumentException();
+
+        var session = getSession(documentId, branchId);
+
+        synchronized (session) {
+            return new CollaborationSnapshotResponse(session.getContentText(), session.getSequence());
+        }
+    }
+
+    public List<EditOperationResponse> applyOperation(UUID documentId, UUID branchId, Long userId, EditOperationRequest request) {
+        // checked on every operation, the cached access is evicted as soon as a share, folder share or trash changes it
+        var access = documentAccessCache
+                .findAccess(documentId, userId)
+                .orElseThrow(DocumentNotFoundException::new);
+
+        PermissionUtils.checkUserCanWrite(access);
+
+        if (PermissionUtils.isTrashed(access))
+            throw new ReadOnlyDocumentException();
+
+        var session = getSession(documentId, branchId);
+
+        var operation = EditOperation.builder()
+                .type(request.getType())
+                .position(request.getPosition())
+                .text(request.getType() == OperationType.INSERT ? Objects.requireNonNullElse(request.getText(), "") : null)
+                .length(request.getType() == OperationType.INSERT ? Objects.requireNonNullElse(request.getText(), "").length() : request.getLength())
+                .clientId(request.getClientId())
+                .userId(userId)
+                .build();
+
+        if (operation.getType() == OperationType.RESET || operation.getLength() < 0)
+            throw new InvalidOperationException();
+
+        return session.apply(operation, request.getBaseSequence())
+                .stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${document.collaboration.snapshot-interval}")
+    public void snapshotSessions() {
+        for (var session : List.copyOf(sessions.values())) {
+            try {
+                if (session.isDirty())
+                    snapshot(session);
+                else if (session.getLastActivity().isBefore(Instant.now().minus(idleTimeout)))
+                    sessions.remove(session.getBranchId(), session);
+            } catch (RuntimeException exception) {
+                log.error("Could not snapshot collaborative session of branch {}", session.getBranchId(), exception);
+            }
+        }
+    }
+
+    private void snapshot(CollaborationSession session) {
+        long sequence;
+        String content;
+        synchronized (session) {
+            sequence = session.getSequence();
+            content = session.getContentText();
+        }
+
+        // rest writes made while the session was open are merged in against the revision the session is based on
+        Optional<Branch> branch;
+        var conflicted = false;
+        try {
+            branch = transactionTemplate.execute(status -> branchRevisionService.writeContent(
+                    session.getDocumentId(), session.getBranchId(), content, session.getRevision()
+            ));
+        } catch (BranchRevisionConflictException exception) {
+            // a rest write that can't be merged is never overwritten, the session resyncs onto it instead
+            branch = transactionTemplate.execute(status -> branchRepository
+                    .findByPublicIdAndDocumentId(session.getBranchId(), session.getDocumentId()));
+            conflicted = true;
+        }
+
+        if (branch == null || branch.isEmpty()) {
+            sessions.remove(session.getBranchId(), session);
+            return;
+        }
+
+        var stored = branch.get().getBranchContent();
+        var revision = branch.get().getRevision();
+
+        synchronized (session) {
+            if (conflicted) {
+                log.warn("Collaborative edits of branch {} conflicted with a concurrent write, resyncing", session.getBranchId());
+                resync(session, stored, stored, revision, sequence);
+            } else if (stored.equals(content)) {
+                session.markSnapshot(sequence, revision);
+            } else {
+                // operations applied while the snapshot was written are rebased onto the merged content
+                var live = session.getContentText();
+                var rebased = live.equals(content) ? stored : rebase(content, live, stored);
+                resync(session, rebased, stored, revision, sequence);
+            }
+        }
+
+        var cache = cacheManager.getCache("document_branch_contents");
+        if (cache != null)
+            cache.evict(List.of(session.getDocumentPublicId(), session.getBranchId()));
+    }
+
+    private String rebase(String base, String live, String stored) {
+        try {
+            return branchRevisionService.merge(base, live, stored);
+        } catch (BranchRevisionConflictException exception) {
+            return stored;
+        }
+    }
+
+    private void resync(CollaborationSession session, String content, String stored, Long revision, long snapshotSequence) {
+        var reset = session.reset(content, revision);
+
+        // only a reset to exactly the stored content leaves nothing to snapshot
+        session.markSnapshot(content.equals(stored) ? reset.getSequence() : snapshotSequence, revision);
+        broadcast(session, toResponse(reset));
+    }
+
+    private CollaborationSession getSession(UUID documentId, UUID branchId) {
+        var session = sessions.computeIfAbsent(branchId, key -> load(documentId, branchId));
+
+        // sessions are keyed by branch, the access was checked against the document in the destination
+        if (!session.getDocumentPublicId().equals(documentId))
+            throw new BranchNotFoundException();
+
+        return session;
+    }
+
+    private CollaborationSession load(UUID documentId, UUID branchId) {
+        return transactionTemplate.execute(status -> {
+            var internalDocumentId = documentRepository
+                    .findIdByPublicId(documentId)
+                    .orElseThrow(DocumentNotFoundException::new);
+
+            branchWriteBuffer.flush(branchId);
+
+            var branch = branchRepository
+                    .findByPublicIdAndDocumentId(branchId, internalDocumentId)
+                    .orElseThrow(BranchNotFoundException::new);
+
+            return new CollaborationSession(
+                    internalDocumentId,
+                    documentId,
+                    branchId,
+                    branch.getBranchContent(),
+                    branch.getRevision(),
+                    logSize
+            );
+        });
+    }
+
+    private void broadcast(CollaborationSession session, EditOperationResponse response) {
+        messagingTemplate.convertAndSend(
+                "/document/" + session.getDocumentPublicId() + "/branch/" + session.getBranchId(),
+                List.of(response)
+        );
+    }
+
+    private EditOperationResponse toResponse(EditOperation operation) {
+        return new EditOperationResponse(
+                operation.getType(),
+                operation.getPosition(),
+                operation.getText(),
+                operation.getLength(),
+                operation.getSequence(),
+                operation.getClientId(),
+                operation.getUserId()
+        );
+    }
+}
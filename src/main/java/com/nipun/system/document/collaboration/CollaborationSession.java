@@ -0,0 +1,132 @@
+package com.nipun.system.document.collaboration;
+
+import com.nipun.system.document.collaboration.exceptions.InvalidOperationException;
+import com.nipun.system.document.collaboration.exceptions.StaleOperationException;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.*;
+
+@Getter
+public class CollaborationSession {
+
+    private final Long documentId;
+    private final UUID documentPublicId;
+    private final UUID branchId;
+    private final int logSize;
+
+    @Getter(AccessLevel.NONE)
+    private final StringBuilder content;
+    private final Deque<EditOperation> log = new ArrayDeque<>();
+
+    private long sequence;
+    private long snapshotSequence;
+    private volatile Long revision;
+    private volatile Instant lastActivity = Instant.now();
+
+    public CollaborationSession(Long documentId, UUID documentPublicId, UUID branchId, String content, Long revision, int logSize) {
+        this.documentId = documentId;
+        this.documentPublicId = documentPublicId;
+        this.branchId = branchId;
+        this.content = new StringBuilder(content);
+        this.revision = revision;
+        this.logSize = logSize;
+    }
+
+    public synchronized List<EditOperation> apply(EditOperation operation, long baseSequence) {
+        // resets only come from the server, and without a client the transform skipping would match any sender
+        if (!isEdit(operation.getType()) || operation.getClientId() == null)
+            throw new InvalidOperationException();
+
+        if (baseSequence > sequence)
+            throw new InvalidOperationException();
+
+        List<EditOperation> operations = List.of(operation);
+
+        // clients keep a single operation in flight, so everything after its base sequence came from others
+        if (baseSequence < sequence) {
+            if (log.isEmpty() || log.peekFirst().getSequence() > baseSequence + 1)
+                throw new StaleOperationException();
+
+            for (var applied : log) {
+                if (applied.getSequence() <= baseSequence || Objects.equals(applied.getClientId(), operation.getClientId()))
+                    continue;
+
+                if (applied.getType() == OperationType.RESET)
+                    throw new StaleOperationException();
+
+                operations = OperationTransformUtils.transform(operations, applied);
+            }
+        }
+
+        var sorted = new ArrayList<>(operations);
+        sorted.sort(Comparator.comparingInt(EditOperation::getPosition).reversed());
+
+        for (var transformed : sorted) {
+            var end = transformed.getPosition() + (transformed.getType() == OperationType.DELETE ? transformed.getLength() : 0);
+            if (transformed.getPosition() < 0 || end > content.length())
+                throw new InvalidOperationException();
+        }
+
+        var accepted = new ArrayList<EditOperation>();
+        for (var transformed : sorted) {
+            if (transformed.isNoop())
+                continue;
+
+            switch (transformed.getType()) {
+                case INSERT -> content.insert(transformed.getPosition(), transformed.getText());
+                case DELETE -> content.delete(transformed.getPosition(), transformed.getPosition() + transformed.getLength());
+                default -> throw new InvalidOperationException();
+            }
+
+            accepted.add(append(transformed));
+        }
+
+        lastActivity = Instant.now();
+        return accepted;
+    }
+
+    public synchronized EditOperation reset(String content, Long revision) {
+        this.content.setLength(0);
+        this.content.append(content);
+        this.revision = revision;
+
+        return append(EditOperation.builder()
+                .type(OperationType.RESET)
+                .text(content)
+                .length(content.length())
+                .build());
+    }
+
+    public synchronized long getSequence() {
+        return sequence;
+    }
+
+    public synchronized String getContentText() {
+        return content.toString();
+    }
+
+    public synchronized boolean isDirty() {
+        return snapshotSequence < sequence;
+    }
+
+    public synchronized void markSnapshot(long sequence, Long revision) {
+        this.snapshotSequence = Math.max(snapshotSequence, sequence);
+        this.revision = revision;
+    }
+
+    private static boolean isEdit(OperationType type) {
+        return type == OperationType.INSERT || type == OperationType.DELETE;
+    }
+
+    private EditOperation append(EditOperation operation) {
+        var sequenced = operation.toBuilder().sequence(++sequence).build();
+
+        log.addLast(sequenced);
+        while (log.size() > logSize)
+            log.removeFirst();
+
+        return sequenced;
+    }
+}
@@ -0,0 +1,84 @@
+package com.nipun.system.document.collaboration;
+
+import com.nipun.system.document.permission.DocumentAccessCache;
+import com.nipun.system.document.permission.PermissionUtils;
+import com.nipun.system.shared.dtos.ErrorResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// access is only checked on subscribe, so the subscriptions are kept to drop them once the access is revoked,
+// the messaging template is looked up lazily since the broker configuration depends on this registry
+@RequiredArgsConstructor
+@Component
+public class DocumentSubscriptionRegistry {
+
+    private final DocumentAccessCache documentAccessCache;
+    private final ObjectProvider<SimpMessagingTemplate> messagingTemplate;
+
+    private final Map<String, Map<String, Subscription>> sessions = new ConcurrentHashMap<>();
+
+    public void register(String sessionId, String subscriptionId, UUID documentId, Long userId) {
+        if (sessionId == null || subscriptionId == null)
+            return;
+
+        sessions.computeIfAbsent(sessionId, key -> new ConcurrentHashMap<>())
+                .put(subscriptionId, new Subscription(documentId, userId));
+    }
+
+    public void unregister(String sessionId, String subscriptionId) {
+        if (sessionId == null || subscriptionId == null)
+            return;
+
+        sessions.computeIfPresent(sessionId, (key, subscriptions) -> {
+            subscriptions.remove(subscriptionId);
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+    }
+
+    public void remove(String sessionId) {
+        if (sessionId != null)
+            sessions.remove(sessionId);
+    }
+
+    // a missing document or user matches every document or user, like DocumentAccessCache.evict
+    public void revoke(UUID documentId, Long userId) {
+        sessions.forEach((sessionId, subscriptions) -> subscriptions.forEach((subscriptionId, subscription) -> {
+            if ((documentId != null && !documentId.equals(subscription.documentId()))
+                    || (userId != null && !userId.equals(subscription.userId())))
+                return;
+
+            var access = documentAccessCache.findAccess(subscription.documentId(), subscription.userId());
+            if (access.isPresent() && !PermissionUtils.isUnauthorizedUser(access.get()))
+                return;
+
+            unregister(sessionId, subscriptionId);
+            unsubscribe(sessionId, subscriptionId, subscription);
+        }));
+    }
+
+    private void unsubscribe(String sessionId, String subscriptionId, Subscription subscription) {
+        var accessor = SimpMessageHeaderAccessor.create(SimpMessageType.UNSUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+
+        var template = messagingTemplate.getObject();
+        template.getMessageChannel().send(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+        template.convertAndSendToUser(
+                subscription.userId().toString(),
+                "/queue/errors",
+                new ErrorResponse("Access to document " + subscription.documentId() + " was revoked")
+        );
+    }
+
+    private record Subscription(UUID documentId, Long userId) {
+    }
+}
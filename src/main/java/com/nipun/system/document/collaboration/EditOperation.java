@@ -0,0 +1,30 @@
+package com.nipun.system.document.collaboration;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Builder(toBuilder = true)
+@Getter
+@AllArgsConstructor
+public class EditOperation {
+    private final OperationType type;
+    private final int position;
+    private final String text;
+    private final int length;
+    private final long sequence;
+    private final String clientId;
+    private final Long userId;
+
+    public static EditOperation insert(int position, String text) {
+        return EditOperation.builder().type(OperationType.INSERT).position(position).text(text).length(text.length()).build();
+    }
+
+    public static EditOperation delete(int position, int length) {
+        return EditOperation.builder().type(OperationType.DELETE).position(position).length(length).build();
+    }
+
+    public boolean isNoop() {
+        return length == 0;
+    }
+}
@@ -0,0 +1,82 @@
+package com.nipun.system.document.collaboration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OperationTransformUtils {
+
+    // rewrites an operation made without knowledge of an already applied one so both intents survive,
+    // a concurrent insert at the same position is ordered after the one the sequencer accepted first
+    public static List<EditOperation> transform(EditOperation operation, EditOperation applied) {
+        if (operation.isNoop() || applied.isNoop())
+            return List.of(operation);
+
+        if (applied.getType() == OperationType.INSERT)
+            return transformAgainstInsert(operation, applied);
+
+        return List.of(transformAgainstDelete(operation, applied));
+    }
+
+    public static List<EditOperation> transform(List<EditOperation> operations, EditOperation applied) {
+        var transformed = new ArrayList<EditOperation>();
+        for (var operation : operations)
+            transformed.addAll(transform(operation, applied));
+        return transformed;
+    }
+
+    private static List<EditOperation> transformAgainstInsert(EditOperation operation, EditOperation applied) {
+        var position = operation.getPosition();
+        var inserted = applied.getLength();
+
+        if (operation.getType() == OperationType.INSERT) {
+            if (position >= applied.getPosition())
+                return List.of(operation.toBuilder().position(position + inserted).build());
+            return List.of(operation);
+        }
+
+        var end = position + operation.getLength();
+
+        if (applied.getPosition() <= position)
+            return List.of(operation.toBuilder().position(position + inserted).build());
+
+        if (applied.getPosition() >= end)
+            return List.of(operation);
+
+        // the insert landed inside the deleted range, so the deletion is split around it,
+        // both parts stay in the same coordinates and are applied from the highest position down
+        var before = applied.getPosition() - position;
+        return List.of(
+                operation.toBuilder().length(before).build(),
+                operation.toBuilder().position(applied.getPosition() + inserted).length(operation.getLength() - before).build()
+        );
+    }
+
+    private static EditOperation transformAgainstDelete(EditOperation operation, EditOperation applied) {
+        var deleteStart = applied.getPosition();
+        var deleteEnd = deleteStart + applied.getLength();
+        var position = operation.getPosition();
+
+        if (operation.getType() == OperationType.INSERT) {
+            if (position <= deleteStart)
+                return operation;
+            if (position >= deleteEnd)
+                return operation.toBuilder().position(position - applied.getLength()).build();
+            return operation.toBuilder().position(deleteStart).build();
+        }
+
+        var end = position + operation.getLength();
+
+        var keptBefore = Math.max(0, Math.min(end, deleteStart) - position);
+        var keptAfter = Math.max(0, end - Math.max(position, deleteEnd));
+
+        int start;
+        if (position < deleteStart)
+            start = position;
+        else if (position >= deleteEnd)
+            start = position - applied.getLength();
+        else
+            start = deleteStart;
+
+        return operation.toBuilder().position(start).length(keptBefore + keptAfter).build();
+    }
+}
@@ -0,0 +1,5 @@
+package com.nipun.system.document.collaboration;
+
+public enum OperationType {
+    INSERT, DELETE, RESET
+}
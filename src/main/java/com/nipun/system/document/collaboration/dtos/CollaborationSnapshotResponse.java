@@ -0,0 +1,13 @@
+package com.nipun.system.document.collaboration.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class CollaborationSnapshotResponse {
+    private String content;
+    private long sequence;
+}
@@ -0,0 +1,31 @@
+package com.nipun.system.document.collaboration.dtos;
+
+import com.nipun.system.document.collaboration.OperationType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+@Schema(description = "Request object for a collaborative edit operation")
+public class EditOperationRequest {
+
+    @NotNull(message = "Operation type can't be null")
+    @Schema(description = "Operation type, INSERT or DELETE", example = "INSERT")
+    private OperationType type;
+
+    @Schema(description = "Character position the operation applies at", example = "42")
+    private int position;
+
+    @Schema(description = "Inserted text", example = "Hello")
+    private String text;
+
+    @Schema(description = "Number of deleted characters", example = "3")
+    private int length;
+
+    @Schema(description = "Last sequence the client has applied", example = "17")
+    private long baseSequence;
+
+    @NotNull(message = "Client id can't be null")
+    @Schema(description = "Identifier of the editor instance that sent the operation", example = "b7c1e2")
+    private String clientId;
+}
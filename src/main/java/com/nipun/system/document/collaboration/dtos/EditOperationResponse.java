@@ -0,0 +1,19 @@
+package com.nipun.system.document.collaboration.dtos;
+
+import com.nipun.system.document.collaboration.OperationType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class EditOperationResponse {
+    private OperationType type;
+    private int position;
+    private String text;
+    private int length;
+    private long sequence;
+    private String clientId;
+    private Long userId;
+}
@@ -0,0 +1,7 @@
+package com.nipun.system.document.collaboration.exceptions;
+
+public class InvalidOperationException extends RuntimeException {
+    public InvalidOperationException() {
+        super("The operation does not fit the document content");
+    }
+}
@@ -0,0 +1,7 @@
+package com.nipun.system.document.collaboration.exceptions;
+
+public class StaleOperationException extends RuntimeException {
+    public StaleOperationException() {
+        super("The operation is based on a sequence that is no longer available, reload the snapshot");
+    }
+}
@@ -0,0 +1,30 @@
+package com.nipun.system.document.collaboration.listeners;
+
+import com.nipun.system.document.collaboration.DocumentSubscriptionRegistry;
+import com.nipun.system.shared.utils.WebsocketUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+@RequiredArgsConstructor
+@Component
+public class DocumentSubscriptionListener {
+    private final DocumentSubscriptionRegistry documentSubscriptionRegistry;
+    private final WebsocketUtils websocketUtils;
+
+    @EventListener
+    public void handleSessionUnsubscribe(SessionUnsubscribeEvent event) {
+        documentSubscriptionRegistry.unregister(
+                websocketUtils.extractSessionId(event),
+                SimpMessageHeaderAccessor.getSubscriptionId(event.getMessage().getHeaders())
+        );
+    }
+
+    @EventListener
+    public void handleSessionDisconnect(SessionDisconnectEvent event) {
+        documentSubscriptionRegistry.remove(websocketUtils.extractSessionId(event));
+    }
+}
@@ -2,12 +2,20 @@ package com.nipun.system.document.content;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Builder
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
+@Immutable
 @Entity
 @Table(name = "document_contents")
 public class Content {
@@ -17,6 +25,66 @@ public class Content {
     @Column(name = "id")
     private Long id;
 
-    @Column(name = "content")
+    @Column(name = "hash")
+    private String hash;
+
+    @Column(name = "content", columnDefinition = "LONGTEXT")
     private String content;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(name = "codec")
+    private ContentCodec codec = ContentCodec.NONE;
+
+    @Column(name = "payload", columnDefinition = "LONGBLOB")
+    private byte[] payload;
+
+    @Column(name = "chunked")
+    private boolean chunked;
+
+    @Column(name = "content_length")
+    private Long contentLength;
+
+    @Column(name = "byte_length")
+    private Long byteLength;
+
+    @Builder.Default
+    @OneToMany(mappedBy = "content")
+    @OrderBy("position")
+    private List<ContentChunkRef> chunks = new ArrayList<>();
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private String decodedContent;
+
+    public String getContent() {
+        if (chunked) {
+            if (decodedContent == null)
+                decodedContent = chunks.stream()
+                        .map(ref -> ref.getChunk().getContent())
+                        .collect(Collectors.joining());
+
+            return decodedContent;
+        }
+
+        if (codec == null || codec == ContentCodec.NONE)
+            return content;
+
+        if (decodedContent == null)
+            decodedContent = codec.decode(payload);
+
+        return decodedContent;
+    }
+
+    public long length() {
+        return contentLength != null ? contentLength : getContent().length();
+    }
+
+    public long byteLength() {
+        return byteLength != null ? byteLength : getContent().getBytes(StandardCharsets.UTF_8).length;
+    }
 }
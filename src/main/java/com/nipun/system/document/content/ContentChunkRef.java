@@ -0,0 +1,42 @@
+package com.nipun.system.document.content;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Immutable
+@Entity
+@Table(name = "document_content_chunk_refs")
+public class ContentChunkRef {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "content_id")
+    private Content content;
+
+    @Column(name = "position")
+    private int position;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "chunk_id")
+    private ContentChunk chunk;
+
+    @Column(name = "char_offset")
+    private long offset;
+
+    @Column(name = "char_length")
+    private int length;
+
+    public long getEnd() {
+        return offset + length;
+    }
+}
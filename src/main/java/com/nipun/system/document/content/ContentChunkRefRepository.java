@@ -0,0 +1,24 @@
+package com.nipun.system.document.content;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ContentChunkRefRepository extends JpaRepository<ContentChunkRef, Long> {
+
+    @Query("""
+            select r from ContentChunkRef r
+            join fetch r.chunk
+            where r.content.id = :contentId
+              and r.offset < :end
+              and r.offset + r.length > :start
+            order by r.position
+            """)
+    List<ContentChunkRef> findOverlapping(
+            @Param("contentId") Long contentId,
+            @Param("start") long start,
+            @Param("end") long end
+    );
+}
@@ -0,0 +1,33 @@
+package com.nipun.system.document.content;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ContentChunkRepository extends JpaRepository<ContentChunk, Long> {
+
+    List<ContentChunk> findByHashIn(Collection<String> hashes);
+
+    @Modifying
+    @Query(
+            value = "insert ignore into document_content_chunks (hash, content) values (:hash, :content)",
+            nativeQuery = true
+    )
+    void insertIfAbsent(@Param("hash") String hash, @Param("content") String content);
+
+    @Modifying
+    @Query(
+            value = """
+                    delete ch from document_content_chunks ch
+                    where ch.created_at < :threshold
+                      and not exists (select 1 from document_content_chunk_refs r where r.chunk_id = ch.id)
+                    """,
+            nativeQuery = true
+    )
+    int deleteUnreferencedCreatedBefore(@Param("threshold") LocalDateTime threshold);
+}
@@ -0,0 +1,50 @@
+package com.nipun.system.document.content;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+@Component
+public class ContentChunker {
+
+    // fixed seed so chunk boundaries, and therefore chunk hashes, are stable across restarts and nodes
+    private static final long[] GEAR = new Random(0x5EED_C0DEL).longs(256).toArray();
+
+    @Value("${content.store.chunking.min-size}")
+    private int minSize;
+
+    @Value("${content.store.chunking.average-size}")
+    private int averageSize;
+
+    @Value("${content.store.chunking.max-size}")
+    private int maxSize;
+
+    public List<String> split(String content) {
+        var chunks = new ArrayList<String>();
+        var mask = Integer.highestOneBit(averageSize) - 1L;
+
+        var start = 0;
+        var hash = 0L;
+        for (var i = 0; i < content.length(); i++) {
+            hash = (hash << 1) + GEAR[content.charAt(i) & 0xFF];
+
+            var size = i + 1 - start;
+            var boundary = size >= maxSize || (size >= minSize && (hash & mask) == 0);
+
+            // boundaries depend only on nearby characters, so an edit shifts at most the chunks around it
+            if (boundary && !Character.isHighSurrogate(content.charAt(i))) {
+                chunks.add(content.substring(start, i + 1));
+                start = i + 1;
+                hash = 0L;
+            }
+        }
+
+        if (start < content.length())
+            chunks.add(content.substring(start));
+
+        return chunks;
+    }
+}
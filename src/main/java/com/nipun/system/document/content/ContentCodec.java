@@ -0,0 +1,68 @@
+package com.nipun.system.document.content;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+public enum ContentCodec {
+    NONE {
+        @Override
+        public byte[] encode(String content) {
+            return content.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String decode(byte[] payload) {
+            return new String(payload, StandardCharsets.UTF_8);
+        }
+    },
+    DEFLATE {
+        @Override
+        public byte[] encode(String content) {
+            var deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(content.getBytes(StandardCharsets.UTF_8));
+                deflater.finish();
+
+                var output = new ByteArrayOutputStream();
+                var buffer = new byte[BUFFER_SIZE];
+                while (!deflater.finished()) {
+                    output.write(buffer, 0, deflater.deflate(buffer));
+                }
+                return output.toByteArray();
+            } finally {
+                deflater.end();
+            }
+        }
+
+        @Override
+        public String decode(byte[] payload) {
+            var inflater = new Inflater();
+            try {
+                inflater.setInput(payload);
+
+                var output = new ByteArrayOutputStream(payload.length * 4);
+                var buffer = new byte[BUFFER_SIZE];
+                while (!inflater.finished()) {
+                    var length = inflater.inflate(buffer);
+                    if (length == 0 && inflater.needsInput())
+                        throw new IllegalStateException("Compressed content is truncated");
+                    output.write(buffer, 0, length);
+                }
+                return output.toString(StandardCharsets.UTF_8);
+            } catch (DataFormatException exception) {
+                throw new IllegalStateException("Compressed content is corrupted", exception);
+            } finally {
+                inflater.end();
+            }
+        }
+    };
+
+    private static final int BUFFER_SIZE = 8192;
+
+    public abstract byte[] encode(String content);
+
+    public abstract String decode(byte[] payload);
+}
@@ -0,0 +1,25 @@
+package com.nipun.system.document.content;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public class ContentHashUtils {
+
+    private static final String ALGORITHM = "SHA-256";
+
+    public static String hash(String content) {
+        var text = content == null ? "" : content;
+        return hash(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String hash(byte[] bytes) {
+        try {
+            var digest = MessageDigest.getInstance(ALGORITHM);
+            return HexFormat.of().formatHex(digest.digest(bytes));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(ALGORITHM + " is not available", exception);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.nipun.system.document.content;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Immutable
+@Entity
+@Table(name = "document_content_line_indexes")
+public class ContentLineIndex {
+
+    @Id
+    @Column(name = "content_id")
+    private Long contentId;
+
+    @Column(name = "stride")
+    private int stride;
+
+    @Column(name = "line_count")
+    private long lineCount;
+
+    // character offset of every stride-th line start, as big-endian longs
+    @Lob
+    @Column(name = "offsets")
+    private byte[] offsets;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public long offsetOfSample(long sample) {
+        return ByteBuffer.wrap(offsets).getLong((int) sample * Long.BYTES);
+    }
+
+    public long samples() {
+        return offsets.length / Long.BYTES;
+    }
+}
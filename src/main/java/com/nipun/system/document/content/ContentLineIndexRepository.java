@@ -0,0 +1,24 @@
+package com.nipun.system.document.content;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ContentLineIndexRepository extends JpaRepository<ContentLineIndex, Long> {
+
+    @Modifying
+    @Query(
+            value = """
+                    insert ignore into document_content_line_indexes (content_id, stride, line_count, offsets)
+                    values (:contentId, :stride, :lineCount, :offsets)
+                    """,
+            nativeQuery = true
+    )
+    int insertIfAbsent(
+            @Param("contentId") Long contentId,
+            @Param("stride") int stride,
+            @Param("lineCount") long lineCount,
+            @Param("offsets") byte[] offsets
+    );
+}
@@ -0,0 +1,126 @@
+package com.nipun.system.document.content;
+
+import com.nipun.system.document.base.dtos.ContentLinesResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+@RequiredArgsConstructor
+@Service
+public class ContentLineService {
+
+    private static final int SCAN_SLICE_SIZE = 65536;
+
+    private final ContentService contentService;
+    private final ContentLineIndexRepository contentLineIndexRepository;
+
+    @Value("${content.store.line-index.stride}")
+    private int stride;
+
+    // only the characters between the sampled line starts around the range are read,
+    // lines are numbered from one and both ends are inclusive
+    @Cacheable(value = "document_content_lines", key = "{#content.hash, #fromLine, #toLine}")
+    @Transactional
+    public ContentLinesResponse readLines(Content content, long fromLine, long toLine) {
+        if (content.getId() == null)
+            return sliceLines(content.getContent(), fromLine, toLine);
+
+        var index = getIndex(content);
+        var lineCount = index.getLineCount();
+        var from = Math.max(1, fromLine);
+        var to = Math.min(toLine, lineCount);
+
+        if (from > to)
+            return new ContentLinesResponse("", from, to, lineCount);
+
+        var firstSample = (from - 1) / index.getStride();
+        var lastSample = (to - 1) / index.getStride() + 1;
+
+        var start = index.offsetOfSample(firstSample);
+        var end = lastSample < index.samples() ? index.offsetOfSample(lastSample) : content.length();
+        var window = contentService.read(content, start, end);
+
+        var lines = cut(window, from - 1 - firstSample * index.getStride(), to - from + 1);
+        return new ContentLinesResponse(lines, from, to, lineCount);
+    }
+
+    public ContentLinesResponse sliceLines(String content, long fromLine, long toLine) {
+        var lineCount = countLines(content);
+        var from = Math.max(1, fromLine);
+        var to = Math.min(toLine, lineCount);
+
+        if (from > to)
+            return new ContentLinesResponse("", from, to, lineCount);
+
+        return new ContentLinesResponse(cut(content, from - 1, to - from + 1), from, to, lineCount);
+    }
+
+    private ContentLineIndex getIndex(Content content) {
+        return contentLineIndexRepository
+                .findById(content.getId())
+                .orElseGet(() -> buildIndex(content));
+    }
+
+    // the content is scanned once in slices, chunked contents are never joined in memory
+    private ContentLineIndex buildIndex(Content content) {
+        var offsets = new ByteArrayOutputStream();
+        var sample = ByteBuffer.allocate(Long.BYTES);
+        var length = content.length();
+        var lineCount = 0L;
+        var atLineStart = true;
+
+        for (var offset = 0L; offset < length; offset += SCAN_SLICE_SIZE) {
+            var slice = contentService.read(content, offset, Math.min(length, offset + SCAN_SLICE_SIZE));
+
+            for (var i = 0; i < slice.length(); i++) {
+                if (atLineStart) {
+                    if (lineCount % stride == 0) {
+                        sample.clear();
+                        offsets.writeBytes(sample.putLong(offset + i).array());
+                    }
+                    lineCount++;
+                }
+                atLineStart = slice.charAt(i) == '\n';
+            }
+        }
+
+        contentLineIndexRepository.insertIfAbsent(content.getId(), stride, lineCount, offsets.toByteArray());
+
+        return ContentLineIndex.builder()
+                .contentId(content.getId())
+                .stride(stride)
+                .lineCount(lineCount)
+                .offsets(offsets.toByteArray())
+                .build();
+    }
+
+    // skips lines and keeps the following count lines, the last kept line break is dropped
+    private String cut(String text, long skip, long count) {
+        var start = 0;
+        for (var skipped = 0L; skipped < skip && start < text.length(); skipped++) {
+            var next = text.indexOf('\n', start);
+            start = next < 0 ? text.length() : next + 1;
+        }
+
+        var end = start;
+        for (var kept = 0L; kept < count && end < text.length(); kept++) {
+            var next = text.indexOf('\n', end);
+            end = next < 0 ? text.length() : next + 1;
+        }
+
+        return text.substring(start, end);
+    }
+
+    private long countLines(String text) {
+        if (text.isEmpty())
+            return 0;
+
+        var count = text.chars().filter(character -> character == '\n').count();
+        return text.endsWith("\n") ? count : count + 1;
+    }
+}
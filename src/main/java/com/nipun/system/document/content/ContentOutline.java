@@ -0,0 +1,30 @@
+package com.nipun.system.document.content;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Immutable
+@Entity
+@Table(name = "document_content_outlines")
+public class ContentOutline {
+
+    @Id
+    @Column(name = "content_id")
+    private Long contentId;
+
+    // one heading per line, see ContentOutlineUtils.encode
+    @Lob
+    @Column(name = "headings")
+    private String headings;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,19 @@
+package com.nipun.system.document.content;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ContentOutlineRepository extends JpaRepository<ContentOutline, Long> {
+
+    @Modifying
+    @Query(
+            value = """
+                    insert ignore into document_content_outlines (content_id, headings)
+                    values (:contentId, :headings)
+                    """,
+            nativeQuery = true
+    )
+    int insertIfAbsent(@Param("contentId") Long contentId, @Param("headings") String headings);
+}
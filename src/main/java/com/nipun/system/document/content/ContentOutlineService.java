@@ -0,0 +1,53 @@
+package com.nipun.system.document.content;
+
+import com.nipun.system.document.base.dtos.OutlineHeadingResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+@Service
+public class ContentOutlineService {
+
+    private final ContentOutlineRepository contentOutlineRepository;
+
+    @Transactional
+    public List<OutlineHeadingResponse> getOutline(Content content) {
+        if (content.getId() == null)
+            return ContentOutlineUtils.build(content.getContent());
+
+        return contentOutlineRepository
+                .findById(content.getId())
+                .map(outline -> ContentOutlineUtils.decode(outline.getHeadings()))
+                .orElseGet(() -> store(content, ContentOutlineUtils.build(content.getContent())));
+    }
+
+    // derived from the outline of the replaced content when it has one, so only the edited region is rescanned
+    @Transactional
+    public void update(Content previous, Content content) {
+        if (content.getId() == null || contentOutlineRepository.existsById(content.getId()))
+            return;
+
+        var previousOutline = previous == null || previous.getId() == null
+                ? null
+                : contentOutlineRepository.findById(previous.getId()).orElse(null);
+
+        if (previousOutline == null) {
+            store(content, ContentOutlineUtils.build(content.getContent()));
+            return;
+        }
+
+        store(content, ContentOutlineUtils.update(
+                previous.getContent(),
+                ContentOutlineUtils.decode(previousOutline.getHeadings()),
+                content.getContent()
+        ));
+    }
+
+    private List<OutlineHeadingResponse> store(Content content, List<OutlineHeadingResponse> headings) {
+        contentOutlineRepository.insertIfAbsent(content.getId(), ContentOutlineUtils.encode(headings));
+        return headings;
+    }
+}
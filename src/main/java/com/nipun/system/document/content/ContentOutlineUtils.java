@@ -0,0 +1,237 @@
+package com.nipun.system.document.content;
+
+import com.nipun.system.document.base.dtos.OutlineHeadingResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+import java.util.regex.Pattern;
+
+public class ContentOutlineUtils {
+
+    // bounds a heading match so an unclosed tag never scans the rest of the content
+    private static final int MAX_HEADING_MARKUP = 4096;
+    private static final int MAX_HEADING_LENGTH = MAX_HEADING_MARKUP + 512;
+    private static final int MAX_TITLE_LENGTH = 200;
+
+    private static final Pattern HEADING = Pattern.compile(
+            "<h([1-6])(?:\\s[^>]{0,256})?>(.{0," + MAX_HEADING_MARKUP + "}?)</h\\1\\s*>"
+                    + "|^(#{1,6})[ \\t]+([^\\n]*?)[ \\t#]*$",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL | Pattern.MULTILINE
+    );
+    private static final Pattern TAG = Pattern.compile("<[^>]*>");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    public static List<OutlineHeadingResponse> build(String text) {
+        return scan(text, 0, text.length(), null, position -> position).headings();
+    }
+
+    // reuses the headings around the edited region and rescans only from the line where a heading
+    // could start to reach it, up to where the scan lines up with the previous outline again
+    public static List<OutlineHeadingResponse> update(
+            String previousText,
+            List<OutlineHeadingResponse> previous,
+            String nextText
+    ) {
+        var prefix = commonPrefix(previousText, nextText);
+        if (prefix == previousText.length() && prefix == nextText.length())
+            return previous;
+
+        var suffix = commonSuffix(previousText, nextText, prefix);
+        var delta = nextText.length() - previousText.length();
+
+        var start = lineStart(previousText, Math.max(0, prefix - MAX_HEADING_LENGTH));
+        for (var heading : previous.reversed()) {
+            if (heading.getCharOffset() < start && end(heading) > start)
+                start = lineStart(previousText, (int) heading.getCharOffset());
+        }
+
+        var headings = new ArrayList<OutlineHeadingResponse>();
+        for (var heading : previous) {
+            if (end(heading) <= start)
+                headings.add(heading);
+        }
+
+        // past the edit the scan has caught up once no previous heading spans the position it resumes from
+        var changedEnd = Math.min(nextText.length(), nextText.length() - suffix + 1);
+        var scan = scan(nextText, start, changedEnd, headings.isEmpty() ? null : headings.getLast(), position -> {
+            for (var heading : previous) {
+                if (heading.getCharOffset() < position - delta && end(heading) > position - delta)
+                    return (int) end(heading) + delta;
+            }
+            return position;
+        });
+        headings.addAll(scan.headings());
+
+        var byteDelta = utf8Length(nextText, start, scan.end()) - utf8Length(previousText, start, scan.end() - delta);
+        var lineDelta = countLineBreaks(nextText, start, scan.end())
+                - countLineBreaks(previousText, start, scan.end() - delta);
+        for (var heading : previous) {
+            if (heading.getCharOffset() + delta >= scan.end())
+                headings.add(new OutlineHeadingResponse(
+                        heading.getLevel(),
+                        heading.getTitle(),
+                        heading.getCharOffset() + delta,
+                        heading.getByteOffset() + byteDelta,
+                        heading.getLine() + lineDelta,
+                        heading.getLength()
+                ));
+        }
+
+        return headings;
+    }
+
+    public static String encode(List<OutlineHeadingResponse> headings) {
+        var builder = new StringBuilder();
+        for (var heading : headings) {
+            if (!builder.isEmpty())
+                builder.append('\n');
+            builder.append(heading.getLevel()).append(',')
+                    .append(heading.getCharOffset()).append(',')
+                    .append(heading.getByteOffset()).append(',')
+                    .append(heading.getLine()).append(',')
+                    .append(heading.getLength()).append(',')
+                    .append(heading.getTitle());
+        }
+        return builder.toString();
+    }
+
+    // titles never hold line breaks, and being the last field they may hold commas
+    public static List<OutlineHeadingResponse> decode(String encoded) {
+        var headings = new ArrayList<OutlineHeadingResponse>();
+        if (encoded == null || encoded.isEmpty())
+            return headings;
+
+        for (var heading : encoded.split("\n")) {
+            var fields = heading.split(",", 6);
+            headings.add(new OutlineHeadingResponse(
+                    Integer.parseInt(fields[0]),
+                    fields[5],
+                    Long.parseLong(fields[1]),
+                    Long.parseLong(fields[2]),
+                    Long.parseLong(fields[3]),
+                    Long.parseLong(fields[4])
+            ));
+        }
+        return headings;
+    }
+
+    // collects the headings starting from the given offset until settle accepts a position past the limit,
+    // positions are counted on from the anchor heading or the content start
+    private static Scan scan(
+            String text,
+            int from,
+            int limit,
+            OutlineHeadingResponse anchor,
+            IntUnaryOperator settle
+    ) {
+        var headings = new ArrayList<OutlineHeadingResponse>();
+        var matcher = HEADING.matcher(text)
+                .useTransparentBounds(true)
+                .useAnchoringBounds(false);
+
+        var offset = anchor == null ? 0 : (int) anchor.getCharOffset();
+        var bytes = anchor == null ? 0 : anchor.getByteOffset();
+        var line = anchor == null ? 1 : anchor.getLine();
+        var position = from;
+
+        while (true) {
+            matcher.region(position, Math.min(text.length(), limit + MAX_HEADING_LENGTH));
+
+            if (!matcher.find() || matcher.start() >= limit) {
+                position = Math.max(position, limit);
+                var next = settle.applyAsInt(position);
+                if (next <= position)
+                    return new Scan(headings, position);
+
+                limit = next;
+                continue;
+            }
+
+            var title = clean(matcher.group(1) != null ? matcher.group(2) : matcher.group(4));
+            if (title.isEmpty()) {
+                // an empty heading is not part of the outline, so it must not hide one starting inside it
+                position = matcher.start() + 1;
+                continue;
+            }
+
+            bytes += utf8Length(text, offset, matcher.start());
+            line += countLineBreaks(text, offset, matcher.start());
+            offset = matcher.start();
+            position = matcher.end();
+
+            headings.add(new OutlineHeadingResponse(
+                    matcher.group(1) != null ? Integer.parseInt(matcher.group(1)) : matcher.group(3).length(),
+                    title,
+                    offset,
+                    bytes,
+                    line,
+                    matcher.end() - matcher.start()
+            ));
+        }
+    }
+
+    private static String clean(String markup) {
+        var title = TAG.matcher(markup).replaceAll("")
+                .replace("&nbsp;", " ")
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&quot;", "\"")
+                .replace("&#39;", "'")
+                .replace("&amp;", "&");
+        title = WHITESPACE.matcher(title).replaceAll(" ").strip();
+
+        return title.length() > MAX_TITLE_LENGTH ? title.substring(0, MAX_TITLE_LENGTH) : title;
+    }
+
+    private static long end(OutlineHeadingResponse heading) {
+        return heading.getCharOffset() + heading.getLength();
+    }
+
+    private static int lineStart(String text, int offset) {
+        return offset == 0 ? 0 : text.lastIndexOf('\n', offset - 1) + 1;
+    }
+
+    private static int commonPrefix(String first, String second) {
+        var length = Math.min(first.length(), second.length());
+        var prefix = 0;
+        while (prefix < length && first.charAt(prefix) == second.charAt(prefix))
+            prefix++;
+        return prefix;
+    }
+
+    private static int commonSuffix(String first, String second, int prefix) {
+        var length = Math.min(first.length(), second.length()) - prefix;
+        var suffix = 0;
+        while (suffix < length
+                && first.charAt(first.length() - 1 - suffix) == second.charAt(second.length() - 1 - suffix))
+            suffix++;
+        return suffix;
+    }
+
+    private static long utf8Length(String text, int from, int to) {
+        var length = 0L;
+        for (var i = from; i < to; i++) {
+            var character = text.charAt(i);
+            if (character < 0x80)
+                length += 1;
+            else if (character < 0x800 || Character.isSurrogate(character))
+                length += 2;
+            else
+                length += 3;
+        }
+        return length;
+    }
+
+    private static long countLineBreaks(String text, int from, int to) {
+        var count = 0L;
+        for (var i = from; i < to; i++) {
+            if (text.charAt(i) == '\n')
+                count++;
+        }
+        return count;
+    }
+
+    private record Scan(List<OutlineHeadingResponse> headings, int end) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.nipun.system.document.content;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface ContentRepository extends JpaRepository<Content, Long> {
+
+    Optional<Content> findByHash(String hash);
+
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select c from Content c where c.hash = :hash")
+    Optional<Content> findCommittedByHash(@Param("hash") String hash);
+
+    @Modifying
+    @Query(
+            value = """
+                    insert ignore into document_contents (hash, content, codec, payload, chunked, content_length, byte_length)
+                    values (:hash, :content, :codec, :payload, :chunked, :contentLength, :byteLength)
+                    """,
+            nativeQuery = true
+    )
+    int insertIfAbsent(
+            @Param("hash") String hash,
+            @Param("content") String content,
+            @Param("codec") String codec,
+            @Param("payload") byte[] payload,
+            @Param("chunked") boolean chunked,
+            @Param("contentLength") long contentLength,
+            @Param("byteLength") long byteLength
+    );
+
+    @Modifying
+    @Query(
+            value = """
+                    update document_contents
+                    set content_length = :contentLength, byte_length = :byteLength
+                    where id = :id and (content_length is null or byte_length is null)
+                    """,
+            nativeQuery = true
+    )
+    int updateLengthsIfMissing(
+            @Param("id") Long id,
+            @Param("contentLength") long contentLength,
+            @Param("byteLength") long byteLength
+    );
+
+    @Modifying
+    @Query(
+            value = """
+                    delete c from document_contents c
+                    where c.created_at < :threshold
+                      and not exists (select 1 from document_branches b where b.content_id = c.id)
+                      and not exists (select 1 from document_branch_merge_bases m where m.content_id = c.id)
+                      and not exists (select 1 from document_branch_revisions r where r.content_id = c.id)
+                      and not exists (select 1 from document_versions v where v.content_id = c.id)
+                    """,
+            nativeQuery = true
+    )
+    int deleteUnreferencedCreatedBefore(@Param("threshold") LocalDateTime threshold);
+}
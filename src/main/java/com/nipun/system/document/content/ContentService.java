@@ -0,0 +1,185 @@
+package com.nipun.system.document.content;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+@Service
+public class ContentService {
+
+    private static final int STREAM_SLICE_SIZE = 65536;
+
+    private final ContentRepository contentRepository;
+    private final ContentChunkRepository contentChunkRepository;
+    private final ContentChunkRefRepository contentChunkRefRepository;
+    private final ContentChunker contentChunker;
+
+    @Value("${content.store.compression.codec}")
+    private ContentCodec compressionCodec;
+
+    @Value("${content.store.compression.threshold}")
+    private int compressionThreshold;
+
+    @Value("${content.store.chunking.threshold}")
+    private int chunkingThreshold;
+
+    @Transactional
+    public Content store(String content) {
+        var text = content == null ? "" : content;
+        var hash = ContentHashUtils.hash(text);
+
+        // the shared lock holds off the sweeper's delete until the caller's reference to a reused row has committed
+        return contentRepository
+                .findCommittedByHash(hash)
+                .orElseGet(() -> insert(hash, text));
+    }
+
+    @Transactional
+    public Content update(Content current, String content) {
+        if (current != null && current.getHash() != null
+                && current.getHash().equals(ContentHashUtils.hash(content)))
+            return current;
+
+        return store(content);
+    }
+
+    public Optional<Content> find(String hash) {
+        return contentRepository.findByHash(hash);
+    }
+
+    // locked like the lookup in store, for callers that go on to reference a row found only by its hash
+    @Transactional
+    public Optional<Content> findForReference(String hash) {
+        return contentRepository.findCommittedByHash(hash);
+    }
+
+    // compressed rows stored before the lengths were kept have them computed once and written back
+    @Transactional
+    public void measure(Content content) {
+        if (content.getByteLength() != null && content.getContentLength() != null)
+            return;
+
+        var text = content.getContent();
+        content.setContentLength((long) text.length());
+        content.setByteLength((long) text.getBytes(StandardCharsets.UTF_8).length);
+
+        if (content.getId() != null)
+            contentRepository.updateLengthsIfMissing(content.getId(), content.getContentLength(), content.getByteLength());
+    }
+
+    public String read(Content content, long start, long end) {
+        var from = Math.max(0, start);
+        var to = Math.min(end, content.length());
+
+        if (from >= to)
+            return "";
+
+        if (!content.isChunked())
+            return content.getContent().substring((int) from, (int) to);
+
+        var builder = new StringBuilder((int) (to - from));
+        for (var ref : contentChunkRefRepository.findOverlapping(content.getId(), from, to)) {
+            var chunk = ref.getChunk().getContent();
+            builder.append(chunk, (int) Math.max(0, from - ref.getOffset()), (int) (Math.min(to, ref.getEnd()) - ref.getOffset()));
+        }
+
+        return builder.toString();
+    }
+
+    public void write(Content content, long start, long end, OutputStream output) throws IOException {
+        var length = content.length();
+
+        // byte offsets cannot be mapped to character offsets without encoding, so slices are encoded
+        // from the start and only the bytes inside the range are written
+        var position = 0L;
+        var offset = 0L;
+        while (offset < length && position < end) {
+            var to = Math.min(offset + STREAM_SLICE_SIZE, length);
+            var slice = read(content, offset, to);
+
+            if (to < length && Character.isHighSurrogate(slice.charAt(slice.length() - 1))) {
+                slice = slice.substring(0, slice.length() - 1);
+                to--;
+            }
+
+            var bytes = slice.getBytes(StandardCharsets.UTF_8);
+            var from = Math.max(0, start - position);
+            var until = Math.min(bytes.length, end - position);
+            if (from < until)
+                output.write(bytes, (int) from, (int) (until - from));
+
+            position += bytes.length;
+            offset = to;
+        }
+    }
+
+    private Content insert(String hash, String text) {
+        var chunked = text.length() >= chunkingThreshold;
+        var byteLength = text.getBytes(StandardCharsets.UTF_8).length;
+
+        // insert ignore keeps concurrent writers of the same text from failing on the unique hash,
+        // the locking read then sees the row whichever transaction committed it
+        int inserted;
+        if (chunked)
+            inserted = contentRepository.insertIfAbsent(hash, "", ContentCodec.NONE.name(), new byte[0], true, text.length(), byteLength);
+        else if (compressionCodec != ContentCodec.NONE && text.length() >= compressionThreshold)
+            inserted = contentRepository.insertIfAbsent(hash, "", compressionCodec.name(), compressionCodec.encode(text), false, text.length(), byteLength);
+        else
+            inserted = contentRepository.insertIfAbsent(hash, text, ContentCodec.NONE.name(), new byte[0], false, text.length(), byteLength);
+
+        var content = contentRepository
+                .findCommittedByHash(hash)
+                .orElseThrow();
+
+        if (chunked && inserted > 0)
+            storeChunks(content, text);
+
+        return content;
+    }
+
+    private void storeChunks(Content content, String text) {
+        var pieces = contentChunker.split(text);
+        var hashes = pieces.stream().map(ContentHashUtils::hash).toList();
+
+        // only pieces that no earlier content produced are written, the rest are shared by hash
+        var existing = contentChunkRepository.findByHashIn(new HashSet<>(hashes)).stream()
+                .collect(Collectors.toMap(ContentChunk::getHash, Function.identity()));
+
+        var missing = new HashSet<String>();
+        for (var i = 0; i < pieces.size(); i++) {
+            if (!existing.containsKey(hashes.get(i)) && missing.add(hashes.get(i)))
+                contentChunkRepository.insertIfAbsent(hashes.get(i), pieces.get(i));
+        }
+
+        if (!missing.isEmpty())
+            contentChunkRepository.findByHashIn(missing)
+                    .forEach(chunk -> existing.put(chunk.getHash(), chunk));
+
+        var refs = new ArrayList<ContentChunkRef>(pieces.size());
+        var offset = 0L;
+        for (var i = 0; i < pieces.size(); i++) {
+            refs.add(ContentChunkRef.builder()
+                    .content(content)
+                    .position(i)
+                    .chunk(existing.get(hashes.get(i)))
+                    .offset(offset)
+                    .length(pieces.get(i).length())
+                    .build());
+            offset += pieces.get(i).length();
+        }
+
+        // flushed right away because loading Content#chunks later in this session does not auto flush
+        contentChunkRefRepository.saveAllAndFlush(refs);
+    }
+}
@@ -0,0 +1,85 @@
+package com.nipun.system.document.content;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+@RequiredArgsConstructor
+@Component
+public class ContentStreamer {
+
+    private static final MediaType CONTENT_TYPE = new MediaType("text", "plain", StandardCharsets.UTF_8);
+
+    private final ContentService contentService;
+
+    public ResponseEntity<StreamingResponseBody> stream(Content content, String ifNoneMatch, String range) {
+        var etag = "\"" + content.getHash() + "\"";
+
+        if (ifNoneMatch != null && matchesETag(ifNoneMatch, etag))
+            return ResponseEntity
+                    .status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .build();
+
+        contentService.measure(content);
+        var total = content.byteLength();
+        var byteRange = parseRange(range);
+
+        if (byteRange == null)
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .contentType(CONTENT_TYPE)
+                    .contentLength(total)
+                    .body(output -> contentService.write(content, 0, total, output));
+
+        long start;
+        long end;
+        try {
+            start = byteRange.getRangeStart(total);
+            end = byteRange.getRangeEnd(total);
+        } catch (IllegalArgumentException exception) {
+            return ResponseEntity
+                    .status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + total)
+                    .build();
+        }
+
+        return ResponseEntity
+                .status(HttpStatus.PARTIAL_CONTENT)
+                .eTag(etag)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + total)
+                .contentType(CONTENT_TYPE)
+                .contentLength(end - start + 1)
+                .body(output -> contentService.write(content, start, end + 1, output));
+    }
+
+    private boolean matchesETag(String ifNoneMatch, String etag) {
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(etag));
+    }
+
+    // multiple or malformed ranges are ignored and the whole body is served, which the spec allows
+    private HttpRange parseRange(String range) {
+        if (range == null)
+            return null;
+
+        try {
+            var ranges = HttpRange.parseRanges(range);
+            return ranges.size() == 1 ? ranges.getFirst() : null;
+        } catch (IllegalArgumentException exception) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.nipun.system.document.content;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Log4j2
+@RequiredArgsConstructor
+@Component
+public class ContentSweeper {
+
+    private final ContentRepository contentRepository;
+    private final ContentChunkRepository contentChunkRepository;
+
+    @Value("${content.store.sweep-grace-period}")
+    private Duration gracePeriod;
+
+    // rows younger than the grace period may belong to a transaction that has not committed its reference yet
+    @Scheduled(fixedDelayString = "${content.store.sweep-interval}")
+    @Transactional
+    public void sweepUnreferencedContents() {
+        var threshold = LocalDateTime.now().minus(gracePeriod);
+
+        var removed = contentRepository.deleteUnreferencedCreatedBefore(threshold);
+
+        if (removed > 0)
+            log.info("Removed {} unreferenced document contents", removed);
+
+        // chunk references cascade with their content, so this runs after the contents are gone
+        var removedChunks = contentChunkRepository.deleteUnreferencedCreatedBefore(threshold);
+
+        if (removedChunks > 0)
+            log.info("Removed {} unreferenced document content chunks", removedChunks);
+    }
+}
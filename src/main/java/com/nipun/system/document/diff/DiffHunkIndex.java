@@ -0,0 +1,19 @@
+package com.nipun.system.document.diff;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// for every hunk the diff row it is built from and the lines of each content before that row
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class DiffHunkIndex {
+    private int[] rows;
+    private int[] baseLines;
+    private int[] compareLines;
+
+    public int size() {
+        return rows.length;
+    }
+}
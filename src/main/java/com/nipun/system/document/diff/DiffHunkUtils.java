@@ -0,0 +1,213 @@
+package com.nipun.system.document.diff;
+
+import com.nipun.system.document.diff.dtos.DiffHunk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+public class DiffHunkUtils {
+
+    // groups changes with up to contextLines unchanged lines around them, changes whose
+    // unchanged gap fits in the context of both end up in the same hunk
+    public static List<DiffHunk> toHunks(List<DiffRow> diffs, int contextLines) {
+        var hunks = new ArrayList<DiffHunk>();
+        iterate(diffs.iterator(), contextLines).forEachRemaining(hunks::add);
+        return hunks;
+    }
+
+    // hunks are built only as far as the caller reads, each one is handed out once it is complete
+    public static Iterator<DiffHunk> iterate(Iterator<DiffRow> diffs, int contextLines) {
+        return new HunkIterator(diffs, contextLines, 0, 0, 0, 0, null);
+    }
+
+    // a single pass that only keeps where each hunk starts, the hunks themselves are dropped as they are built
+    public static DiffHunkIndex index(List<DiffRow> diffs, int contextLines) {
+        var starts = new ArrayList<int[]>();
+        var hunks = new HunkIterator(diffs.iterator(), contextLines, 0, 0, 0, 0, starts::add);
+        while (hunks.hasNext())
+            hunks.next();
+
+        var index = new DiffHunkIndex(new int[starts.size()], new int[starts.size()], new int[starts.size()]);
+        for (var i = 0; i < starts.size(); i++) {
+            index.getRows()[i] = starts.get(i)[0];
+            index.getBaseLines()[i] = starts.get(i)[1];
+            index.getCompareLines()[i] = starts.get(i)[2];
+        }
+        return index;
+    }
+
+    // the row count and a hash of every row, an index only fits the diff with the same fingerprint
+    public static String fingerprint(List<DiffRow> diffs) {
+        return diffs.size() + ":" + Integer.toHexString(diffs.hashCode());
+    }
+
+    // resumes at the row the given hunk starts from, so a page never builds the hunks before it
+    public static Iterator<DiffHunk> iterate(List<DiffRow> diffs, int contextLines, DiffHunkIndex index, int hunk) {
+        if (hunk >= index.size())
+            return Collections.emptyIterator();
+
+        var row = index.getRows()[hunk];
+        return new HunkIterator(
+                diffs.subList(row, diffs.size()).iterator(),
+                contextLines,
+                hunk,
+                row,
+                index.getBaseLines()[hunk],
+                index.getCompareLines()[hunk],
+                null
+        );
+    }
+
+    private static class HunkIterator implements Iterator<DiffHunk> {
+        private final Iterator<DiffRow> diffs;
+        private final int contextLines;
+        private final Consumer<int[]> onHunkStart;
+
+        private DiffHunk current;
+        private DiffHunk next;
+        private String pendingEqual = "";
+        private int pendingRow = -1;
+        private int pendingBaseLines;
+        private int pendingCompareLines;
+        private int index;
+        private int row;
+        private int baseLines;
+        private int compareLines;
+
+        private HunkIterator(
+                Iterator<DiffRow> diffs,
+                int contextLines,
+                int index,
+                int row,
+                int baseLines,
+                int compareLines,
+                Consumer<int[]> onHunkStart
+        ) {
+            this.diffs = diffs;
+            this.contextLines = contextLines;
+            this.index = index;
+            this.row = row;
+            this.baseLines = baseLines;
+            this.compareLines = compareLines;
+            this.onHunkStart = onHunkStart;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && diffs.hasNext())
+                accept(diffs.next());
+
+            if (next == null && current != null) {
+                next = current;
+                current = null;
+            }
+
+            return next != null;
+        }
+
+        @Override
+        public DiffHunk next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            var hunk = next;
+            next = null;
+            return hunk;
+        }
+
+        private void accept(DiffRow diff) {
+            var text = diff.getText();
+            var rowIndex = row++;
+
+            switch (diff.getOperation()) {
+                case "EQUAL" -> {
+                    if (current != null) {
+                        var lastText = current.getRows().getLast().getText();
+                        var head = head(text, contextLines, lastText.endsWith("\n"));
+                        if (head.length() + tail(text, contextLines).length() < text.length()) {
+                            current.getRows().add(new DiffRow("EQUAL", head));
+                            next = current;
+                            current = null;
+                            pending(text, rowIndex);
+                        } else {
+                            current.getRows().add(diff);
+                        }
+                    } else {
+                        pending(text, rowIndex);
+                    }
+
+                    baseLines += countLines(text);
+                    compareLines += countLines(text);
+                }
+                case "DELETE", "INSERT" -> {
+                    if (current == null) {
+                        // a hunk is rebuilt from the unchanged row its leading context is cut from
+                        if (onHunkStart != null)
+                            onHunkStart.accept(pendingRow == rowIndex - 1
+                                    ? new int[]{pendingRow, pendingBaseLines, pendingCompareLines}
+                                    : new int[]{rowIndex, baseLines, compareLines});
+
+                        var leading = tail(pendingEqual, contextLines);
+                        var leadingLines = countLines(leading);
+
+                        current = new DiffHunk(index++, baseLines - leadingLines + 1, compareLines - leadingLines + 1, new ArrayList<>());
+                        if (!leading.isEmpty())
+                            current.getRows().add(new DiffRow("EQUAL", leading));
+                    }
+
+                    current.getRows().add(diff);
+
+                    if (diff.getOperation().equals("DELETE"))
+                        baseLines += countLines(text);
+                    else
+                        compareLines += countLines(text);
+                }
+                default -> throw new IllegalArgumentException("Unknown diff operation " + diff.getOperation());
+            }
+        }
+
+        private void pending(String text, int rowIndex) {
+            pendingEqual = text;
+            pendingRow = rowIndex;
+            pendingBaseLines = baseLines;
+            pendingCompareLines = compareLines;
+        }
+    }
+
+    // the rest of the line the last change ended on followed by up to lines complete lines
+    private static String head(String text, int lines, boolean atLineStart) {
+        var target = atLineStart ? lines : lines + 1;
+        if (target == 0)
+            return "";
+
+        var seen = 0;
+        for (var i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n' && ++seen == target)
+                return text.substring(0, i + 1);
+        }
+        return text;
+    }
+
+    // up to lines complete lines followed by the start of the line the next change is on
+    private static String tail(String text, int lines) {
+        var seen = 0;
+        for (var i = text.length() - 1; i >= 0; i--) {
+            if (text.charAt(i) == '\n' && seen++ == lines)
+                return text.substring(i + 1);
+        }
+        return text;
+    }
+
+    private static int countLines(String text) {
+        var count = 0;
+        for (var i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n')
+                count++;
+        }
+        return count;
+    }
+}
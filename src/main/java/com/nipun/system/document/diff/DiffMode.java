@@ -0,0 +1,8 @@
+package com.nipun.system.document.diff;
+
+public enum DiffMode {
+    LINE,
+    WORD,
+    CHAR,
+    AUTO
+}
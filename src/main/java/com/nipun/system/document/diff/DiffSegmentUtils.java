@@ -0,0 +1,110 @@
+package com.nipun.system.document.diff;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+public class DiffSegmentUtils {
+
+    public record Segment(String baseContent, String compareContent) {
+    }
+
+    // splits both contents at lines that occur exactly once in each and in the same order, the segments
+    // between them are diffed on their own. those lines are forced to stay equal, which a diff of the whole
+    // text does not have to do, e.g. around moved blocks, so every content this large is diffed in segments
+    // whether or not they run in parallel, and the segment size has to be the same on every node
+    public static List<Segment> split(String baseContent, String compareContent, int segmentSize) {
+        var baseLines = lineOffsets(baseContent);
+        var compareLines = lineOffsets(compareContent);
+
+        var occurrences = new HashMap<String, int[]>();
+        for (var i = 0; i < baseLines.size() - 1; i++) {
+            var entry = occurrences.computeIfAbsent(line(baseContent, baseLines, i), key -> new int[]{0, 0, -1, -1});
+            entry[0]++;
+            entry[2] = i;
+        }
+        for (var i = 0; i < compareLines.size() - 1; i++) {
+            var entry = occurrences.get(line(compareContent, compareLines, i));
+            if (entry == null)
+                continue;
+            entry[1]++;
+            entry[3] = i;
+        }
+
+        // candidates ordered by their base line, the longest run that is also ascending in compare is kept
+        var candidates = new ArrayList<int[]>();
+        for (var i = 0; i < baseLines.size() - 1; i++) {
+            var entry = occurrences.get(line(baseContent, baseLines, i));
+            if (entry[0] == 1 && entry[1] == 1)
+                candidates.add(new int[]{i, entry[3]});
+        }
+
+        var segments = new ArrayList<Segment>();
+        var baseStart = 0;
+        var compareStart = 0;
+
+        for (var anchor : longestIncreasingRun(candidates)) {
+            var baseOffset = baseLines.get(anchor[0]);
+            var compareOffset = compareLines.get(anchor[1]);
+
+            if (baseOffset - baseStart < segmentSize && compareOffset - compareStart < segmentSize)
+                continue;
+
+            segments.add(new Segment(
+                    baseContent.substring(baseStart, baseOffset),
+                    compareContent.substring(compareStart, compareOffset)
+            ));
+            baseStart = baseOffset;
+            compareStart = compareOffset;
+        }
+
+        segments.add(new Segment(baseContent.substring(baseStart), compareContent.substring(compareStart)));
+        return segments;
+    }
+
+    // start offsets of every line followed by the content length
+    private static List<Integer> lineOffsets(String content) {
+        var offsets = new ArrayList<Integer>();
+        var position = 0;
+        while (position < content.length()) {
+            offsets.add(position);
+            var end = content.indexOf('\n', position);
+            position = end < 0 ? content.length() : end + 1;
+        }
+        offsets.add(content.length());
+        return offsets;
+    }
+
+    private static String line(String content, List<Integer> offsets, int index) {
+        return content.substring(offsets.get(index), offsets.get(index + 1));
+    }
+
+    private static List<int[]> longestIncreasingRun(List<int[]> candidates) {
+        var tails = new int[candidates.size()];
+        var previous = new int[candidates.size()];
+        var length = 0;
+
+        for (var i = 0; i < candidates.size(); i++) {
+            var value = candidates.get(i)[1];
+            var low = 0;
+            var high = length;
+            while (low < high) {
+                var middle = (low + high) >>> 1;
+                if (candidates.get(tails[middle])[1] < value)
+                    low = middle + 1;
+                else
+                    high = middle;
+            }
+
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == length)
+                length++;
+        }
+
+        var run = new ArrayList<int[]>(length);
+        for (var i = length > 0 ? tails[length - 1] : -1; i >= 0; i = previous[i])
+            run.add(candidates.get(i));
+        return run.reversed();
+    }
+}
@@ -1,9 +1,25 @@
 package com.nipun.system.document.diff;
 
+import com.nipun.system.document.diff.dtos.DiffStatsResponse;
+
 import java.util.List;
 
 public interface DiffService {
     List<DiffRow> getDiffs(String baseVersionContent, String compareVersionContent);
 
+    List<DiffRow> getDiffs(String baseVersionContent, String compareVersionContent, DiffMode mode);
+
+    List<DiffRow> getLineDiffs(String baseContent, String compareContent);
+
+    DiffStatsResponse getStats(String baseContent, String compareContent);
+
     String patchDocument(String originalDoc, String updatedDoc);
+
+    String createPatch(String originalDoc, String updatedDoc);
+
+    String applyPatch(String originalDoc, String patch);
+
+    String applyDiffs(String originalDoc, List<DiffRow> diffs);
+
+    String merge(String baseDoc, String localDoc, String remoteDoc);
 }
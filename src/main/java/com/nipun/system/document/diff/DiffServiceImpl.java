@@ -1,30 +1,259 @@
 package com.nipun.system.document.diff;
 
+import com.nipun.system.document.diff.dtos.DiffStatsResponse;
+import com.nipun.system.document.diff.exceptions.MergeConflictException;
 import com.nipun.system.document.diff.exceptions.PatchFailedException;
 import org.bitbucket.cowwoc.diffmatchpatch.DiffMatchPatch;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.time.Duration;
+import java.util.*;
+import java.util.regex.Pattern;
 
 @Service
 public class DiffServiceImpl implements DiffService {
 
+    private static final Pattern LINE_TOKEN = Pattern.compile("[^\\n]*\\n|[^\\n]+");
+    private static final Pattern WORD_TOKEN = Pattern.compile("\\w+|\\s+|[^\\w\\s]");
+
     private final DiffMatchPatch dmp = new DiffMatchPatch();
 
+    @Value("${document.diffs.timeout}")
+    private Duration timeout;
+
+    @Value("${document.diffs.auto.char-threshold}")
+    private int charThreshold;
+
+    @Value("${document.diffs.auto.word-threshold}")
+    private int wordThreshold;
+
+    @Value("${document.diffs.parallel.threshold}")
+    private int parallelThreshold;
+
+    @Value("${document.diffs.parallel.segment-size}")
+    private int segmentSize;
+
     @Override
     public List<DiffRow> getDiffs(String baseVersionContent, String compareVersionContent) {
+        return getDiffs(baseVersionContent, compareVersionContent, DiffMode.AUTO);
+    }
+
+    @Override
+    public List<DiffRow> getDiffs(String baseVersionContent, String compareVersionContent, DiffMode mode) {
         if (baseVersionContent == null || compareVersionContent == null)
             throw new IllegalArgumentException("Document contents cannot be null");
 
-        var diffs = dmp.diffMain(baseVersionContent, compareVersionContent);
+        var resolvedMode = resolveMode(mode, baseVersionContent, compareVersionContent);
 
-        dmp.diffCleanupSemantic(diffs);
+        var length = Math.max(baseVersionContent.length(), compareVersionContent.length());
+
+        // the split only depends on the contents and the segment size, the threshold only decides whether
+        // the segments are diffed concurrently, so both paths always return the same diff
+        if (length >= segmentSize) {
+            var segments = DiffSegmentUtils.split(baseVersionContent, compareVersionContent, segmentSize);
+
+            if (segments.size() > 1)
+                return toRows(diffSegments(segments, resolvedMode, length >= parallelThreshold));
+        }
+
+        return toRows(diffSegment(baseVersionContent, compareVersionContent, resolvedMode));
+    }
+
+    // a minimal line diff without semantic cleanup, every unchanged line stays matched
+    @Override
+    public List<DiffRow> getLineDiffs(String baseContent, String compareContent) {
+        if (baseContent == null || compareContent == null)
+            throw new IllegalArgumentException("Document contents cannot be null");
+
+        return toRows(diffTokens(newDiffMatchPatch(), baseContent, compareContent, LINE_TOKEN, false));
+    }
+
+    // counts come straight from the encoded line diff, no row text is ever built
+    @Override
+    public DiffStatsResponse getStats(String baseContent, String compareContent) {
+        if (baseContent == null || compareContent == null)
+            throw new IllegalArgumentException("Document contents cannot be null");
+
+        var tokens = new ArrayList<String>();
+        tokens.add("");
+        var tokenIndex = new HashMap<String, Character>();
+
+        var encodedBase = encodeTokens(baseContent, LINE_TOKEN, tokens, tokenIndex);
+        var encodedCompare = encodeTokens(compareContent, LINE_TOKEN, tokens, tokenIndex);
+
+        var stats = new DiffStatsResponse();
+        var changing = false;
+
+        for (var diff : newDiffMatchPatch().diffMain(encodedBase, encodedCompare, false)) {
+            if (diff.operation == DiffMatchPatch.Operation.EQUAL) {
+                changing = false;
+                continue;
+            }
+
+            if (!changing)
+                stats.setHunks(stats.getHunks() + 1);
+            changing = true;
+
+            long characters = 0;
+            for (var i = 0; i < diff.text.length(); i++)
+                characters += tokens.get(diff.text.charAt(i)).length();
+
+            if (diff.operation == DiffMatchPatch.Operation.INSERT) {
+                stats.setInsertedCharacters(stats.getInsertedCharacters() + characters);
+                stats.setInsertedLines(stats.getInsertedLines() + diff.text.length());
+            } else {
+                stats.setDeletedCharacters(stats.getDeletedCharacters() + characters);
+                stats.setDeletedLines(stats.getDeletedLines() + diff.text.length());
+            }
+        }
+
+        var total = (long) baseContent.length() + compareContent.length();
+        stats.setSimilarity(total == 0 ? 1 : 2.0 * (baseContent.length() - stats.getDeletedCharacters()) / total);
 
+        return stats;
+    }
+
+    // a fresh instance per call, the time budget is a mutable field of the library
+    private DiffMatchPatch newDiffMatchPatch() {
+        var requestDmp = new DiffMatchPatch();
+        requestDmp.diffTimeout = timeout.toMillis() / 1000f;
+        return requestDmp;
+    }
+
+    private LinkedList<DiffMatchPatch.Diff> diffSegment(String baseContent, String compareContent, DiffMode mode) {
+        var requestDmp = newDiffMatchPatch();
+
+        return switch (mode) {
+            case LINE -> diffTokens(requestDmp, baseContent, compareContent, LINE_TOKEN, true);
+            case WORD -> diffTokens(requestDmp, baseContent, compareContent, WORD_TOKEN, true);
+            default -> {
+                var charDiffs = requestDmp.diffMain(baseContent, compareContent);
+                requestDmp.diffCleanupSemantic(charDiffs);
+                yield charDiffs;
+            }
+        };
+    }
+
+    // only the raw diffs run in parallel, the semantic cleanup runs once over the joined list, so edits
+    // meeting at a segment boundary are still merged
+    private LinkedList<DiffMatchPatch.Diff> diffSegments(
+            List<DiffSegmentUtils.Segment> segments, DiffMode mode, boolean parallel
+    ) {
+        var tokenPattern = switch (mode) {
+            case LINE -> LINE_TOKEN;
+            case WORD -> WORD_TOKEN;
+            default -> null;
+        };
+
+        // one token table for every segment, so the joined diffs are still encoded consistently
+        var tokens = new ArrayList<String>();
+        tokens.add("");
+        var tokenIndex = new HashMap<String, Character>();
+
+        var encoded = tokenPattern == null ? segments : segments.stream()
+                .map(segment -> new DiffSegmentUtils.Segment(
+                        encodeTokens(segment.baseContent(), tokenPattern, tokens, tokenIndex),
+                        encodeTokens(segment.compareContent(), tokenPattern, tokens, tokenIndex)
+                ))
+                .toList();
+
+        var segmentDiffs = (parallel ? encoded.parallelStream() : encoded.stream())
+                .map(segment -> tokenPattern == null
+                        ? newDiffMatchPatch().diffMain(segment.baseContent(), segment.compareContent())
+                        : newDiffMatchPatch().diffMain(segment.baseContent(), segment.compareContent(), false))
+                .toList();
+
+        var diffs = new LinkedList<DiffMatchPatch.Diff>();
+        segmentDiffs.forEach(diffs::addAll);
+
+        var requestDmp = newDiffMatchPatch();
+        requestDmp.diffCleanupMerge(diffs);
+        requestDmp.diffCleanupSemantic(diffs);
+
+        if (tokenPattern != null)
+            decodeTokens(diffs, tokens);
+
+        return diffs;
+    }
+
+    private List<DiffRow> toRows(List<DiffMatchPatch.Diff> diffs) {
         return diffs.stream()
                 .map(diff -> new DiffRow(diff.operation.toString(), diff.text))
                 .toList();
     }
 
+    private DiffMode resolveMode(DiffMode mode, String baseContent, String compareContent) {
+        if (mode != null && mode != DiffMode.AUTO)
+            return mode;
+
+        var length = Math.max(baseContent.length(), compareContent.length());
+
+        if (length <= charThreshold)
+            return DiffMode.CHAR;
+
+        if (length <= wordThreshold)
+            return DiffMode.WORD;
+
+        return DiffMode.LINE;
+    }
+
+    // every distinct token becomes a single character, so the library diffs tokens instead of characters
+    private LinkedList<DiffMatchPatch.Diff> diffTokens(
+            DiffMatchPatch requestDmp, String baseContent, String compareContent, Pattern tokenPattern, boolean cleanup
+    ) {
+        var tokens = new ArrayList<String>();
+        tokens.add("");
+        var tokenIndex = new HashMap<String, Character>();
+
+        var encodedBase = encodeTokens(baseContent, tokenPattern, tokens, tokenIndex);
+        var encodedCompare = encodeTokens(compareContent, tokenPattern, tokens, tokenIndex);
+
+        var diffs = requestDmp.diffMain(encodedBase, encodedCompare, false);
+
+        // cleaned up while still encoded, so merged edits never split a token
+        if (cleanup)
+            requestDmp.diffCleanupSemantic(diffs);
+
+        decodeTokens(diffs, tokens);
+        return diffs;
+    }
+
+    private void decodeTokens(List<DiffMatchPatch.Diff> diffs, List<String> tokens) {
+        for (var diff : diffs) {
+            var text = new StringBuilder();
+            for (var i = 0; i < diff.text.length(); i++)
+                text.append(tokens.get(diff.text.charAt(i)));
+            diff.text = text.toString();
+        }
+    }
+
+    private String encodeTokens(
+            String content, Pattern tokenPattern, List<String> tokens, Map<String, Character> tokenIndex
+    ) {
+        var encoded = new StringBuilder();
+        var matcher = tokenPattern.matcher(content);
+        var position = 0;
+
+        while (position < content.length() && matcher.find(position)) {
+            // once the character space is used up the remainder is treated as one token
+            var end = tokens.size() >= Character.MAX_VALUE - 1 ? content.length() : matcher.end();
+            var token = content.substring(position, end);
+
+            var code = tokenIndex.get(token);
+            if (code == null) {
+                code = (char) tokens.size();
+                tokens.add(token);
+                tokenIndex.put(token, code);
+            }
+
+            encoded.append(code);
+            position = end;
+        }
+
+        return encoded.toString();
+    }
+
     @Override
     public String patchDocument(String originalDoc, String updatedDoc) {
         if (originalDoc == null || updatedDoc == null)
@@ -39,13 +268,128 @@ public class DiffServiceImpl implements DiffService {
         throw new PatchFailedException("Not all patches applied successfully");
     }
 
-    private boolean isPatchSuccess(Object[] patchResults) {
-        boolean patchSuccesses = true;
+    @Override
+    public String createPatch(String originalDoc, String updatedDoc) {
+        if (originalDoc == null || updatedDoc == null)
+            throw new IllegalArgumentException("Document contents cannot be null");
+
+        return dmp.patchToText(dmp.patchMake(originalDoc, updatedDoc));
+    }
+
+    @Override
+    public String applyPatch(String originalDoc, String patch) {
+        if (originalDoc == null || patch == null)
+            throw new IllegalArgumentException("Document contents cannot be null");
+
+        var patches = new LinkedList<>(dmp.patchFromText(patch));
+        var patchResults = dmp.patchApply(patches, originalDoc);
+
+        if (isPatchSuccess(patchResults))
+            return (String) patchResults[0];
+
+        throw new PatchFailedException("Not all patches applied successfully");
+    }
+
+    @Override
+    public String applyDiffs(String originalDoc, List<DiffRow> diffs) {
+        if (originalDoc == null || diffs == null)
+            throw new IllegalArgumentException("Document contents cannot be null");
+
+        var builder = new StringBuilder(originalDoc.length());
+        var position = 0;
+
+        for (var diff : diffs) {
+            var text = diff.getText() == null ? "" : diff.getText();
+
+            switch (DiffMatchPatch.Operation.valueOf(diff.getOperation())) {
+                case INSERT -> builder.append(text);
+                case EQUAL, DELETE -> {
+                    if (!originalDoc.startsWith(text, position))
+                        throw new PatchFailedException("Diff does not match the original document");
+
+                    if (diff.getOperation().equals(DiffMatchPatch.Operation.EQUAL.name()))
+                        builder.append(text);
 
+                    position += text.length();
+                }
+            }
+        }
+
+        if (position != originalDoc.length())
+            throw new PatchFailedException("Diff does not cover the original document");
+
+        return builder.toString();
+    }
+
+    @Override
+    public String merge(String baseDoc, String localDoc, String remoteDoc) {
+        if (baseDoc == null || localDoc == null || remoteDoc == null)
+            throw new IllegalArgumentException("Document contents cannot be null");
+
+        if (localDoc.equals(remoteDoc) || remoteDoc.equals(baseDoc))
+            return localDoc;
+
+        if (localDoc.equals(baseDoc))
+            return remoteDoc;
+
+        var localChanges = changedRanges(baseDoc, localDoc);
+        var remoteChanges = changedRanges(baseDoc, remoteDoc);
+
+        for (var local : localChanges) {
+            for (var remote : remoteChanges) {
+                if (overlaps(local, remote))
+                    throw new MergeConflictException("Both sides changed the same part of the document");
+            }
+        }
+
+        var patchResults = dmp.patchApply(dmp.patchMake(baseDoc, localDoc), remoteDoc);
+
+        if (isPatchSuccess(patchResults))
+            return (String) patchResults[0];
+
+        throw new MergeConflictException("Changes could not be merged");
+    }
+
+    // ranges of the base document each side touched, an insertion is an empty range at its position
+    private List<int[]> changedRanges(String baseDoc, String changedDoc) {
+        var diffs = dmp.diffMain(baseDoc, changedDoc);
+        dmp.diffCleanupSemantic(diffs);
+
+        var ranges = new ArrayList<int[]>();
+        var position = 0;
+        for (var diff : diffs) {
+            switch (diff.operation) {
+                case EQUAL -> position += diff.text.length();
+                case DELETE -> {
+                    addRange(ranges, position, position + diff.text.length());
+                    position += diff.text.length();
+                }
+                case INSERT -> addRange(ranges, position, position);
+            }
+        }
+
+        return ranges;
+    }
+
+    private void addRange(List<int[]> ranges, int start, int end) {
+        if (!ranges.isEmpty() && ranges.getLast()[1] >= start) {
+            ranges.getLast()[1] = Math.max(ranges.getLast()[1], end);
+            return;
+        }
+
+        ranges.add(new int[]{start, end});
+    }
+
+    private boolean overlaps(int[] local, int[] remote) {
+        return local[0] == remote[0] || (local[0] < remote[1] && remote[0] < local[1]);
+    }
+
+    private boolean isPatchSuccess(Object[] patchResults) {
         for (var applied : (boolean[]) patchResults[1]) {
-            patchSuccesses = applied;
+            if (!applied)
+                return false;
         }
 
-        return patchSuccesses;
+        return true;
     }
 }
@@ -0,0 +1,35 @@
+package com.nipun.system.document.diff;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nipun.system.document.diff.dtos.DiffHunk;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+
+@RequiredArgsConstructor
+@Component
+public class DiffStreamer {
+
+    private final ObjectMapper objectMapper;
+
+    // one hunk per line, so clients can render the first hunks before the rest arrives, each hunk
+    // is only built when the previous one has been written
+    public ResponseEntity<StreamingResponseBody> stream(Iterator<DiffHunk> hunks) {
+        var writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(output -> {
+                    while (hunks.hasNext()) {
+                        writer.writeValue(output, hunks.next());
+                        output.write('\n');
+                        output.flush();
+                    }
+                });
+    }
+}
@@ -1,19 +1,95 @@
 package com.nipun.system.document.diff;
 
+import com.nipun.system.document.diff.dtos.DiffHunk;
+import com.nipun.system.document.diff.dtos.DiffPageResponse;
 import com.nipun.system.document.diff.dtos.DiffResponse;
+import com.nipun.system.document.diff.dtos.DiffStatsResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @RequiredArgsConstructor
 @Component
 public class DiffUtils {
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_CONTEXT_LINES = 20;
+
     private final DiffService diffService;
 
-    public DiffResponse buildDiffResponse(String baseContent, String compareContent) {
+    public DiffResponse buildDiffResponse(String baseContent, String compareContent, DiffMode mode) {
         return new DiffResponse(Map.of(
-                "diffs", diffService.getDiffs(baseContent, compareContent)
+                "diffs", diffService.getDiffs(baseContent, compareContent, mode)
         ));
     }
+
+    // contents behind a hash never change, so entries are shared by every branch and version
+    // holding the same pair and are never evicted, the contents are only loaded on a miss
+    @Cacheable(value = "document_content_diffs", key = "{#baseHash, #compareHash, #mode}")
+    public DiffResponse buildDiffResponse(
+            String baseHash,
+            Supplier<String> baseContent,
+            String compareHash,
+            Supplier<String> compareContent,
+            DiffMode mode
+    ) {
+        return buildDiffResponse(baseContent.get(), compareContent.get(), mode);
+    }
+
+    // hunks are built from the diff as the caller reads them, no list of hunks is ever held
+    public Iterator<DiffHunk> iterateDiffHunks(DiffResponse diffs, int contextLines) {
+        return DiffHunkUtils.iterate(rows(diffs).iterator(), Math.clamp(contextLines, 0, MAX_CONTEXT_LINES));
+    }
+
+    // only where each hunk starts is cached next to the diff, a page builds just its own hunks from the diff.
+    // a diff is recomputed once its own entry expires and may come out different, so the index is keyed on
+    // the diff it was built from rather than on the contents
+    @Cacheable(value = "document_content_diff_hunk_indexes", key = "{#baseHash, #compareHash, #fingerprint, #contextLines}")
+    public DiffHunkIndex buildDiffHunkIndex(
+            String baseHash,
+            String compareHash,
+            String fingerprint,
+            DiffResponse diffs,
+            int contextLines
+    ) {
+        return DiffHunkUtils.index(rows(diffs), Math.clamp(contextLines, 0, MAX_CONTEXT_LINES));
+    }
+
+    public String fingerprint(DiffResponse diffs) {
+        return DiffHunkUtils.fingerprint(rows(diffs));
+    }
+
+    public DiffPageResponse buildDiffPage(DiffResponse diffs, DiffHunkIndex index, int contextLines, int cursor, int size) {
+        var from = Math.clamp(cursor, 0, index.size());
+        var to = Math.min(index.size(), from + Math.clamp(size, 1, MAX_PAGE_SIZE));
+
+        var hunks = DiffHunkUtils.iterate(rows(diffs), Math.clamp(contextLines, 0, MAX_CONTEXT_LINES), index, from);
+        var page = new ArrayList<DiffHunk>(to - from);
+        while (page.size() < to - from && hunks.hasNext())
+            page.add(hunks.next());
+
+        return new DiffPageResponse(page, to < index.size() ? to : null, index.size());
+    }
+
+    @Cacheable(value = "document_content_diff_stats", key = "{#baseHash, #compareHash}")
+    public DiffStatsResponse buildDiffStats(
+            String baseHash,
+            Supplier<String> baseContent,
+            String compareHash,
+            Supplier<String> compareContent
+    ) {
+        if (baseHash.equals(compareHash))
+            return new DiffStatsResponse(0, 0, 0, 0, 0, 1);
+
+        return diffService.getStats(baseContent.get(), compareContent.get());
+    }
+
+    private List<DiffRow> rows(DiffResponse diffs) {
+        return diffs.getDiffs().get("diffs");
+    }
 }
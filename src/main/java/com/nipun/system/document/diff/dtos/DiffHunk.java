@@ -0,0 +1,18 @@
+package com.nipun.system.document.diff.dtos;
+
+import com.nipun.system.document.diff.DiffRow;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class DiffHunk {
+    private int index;
+    private int baseLine;
+    private int compareLine;
+    private List<DiffRow> rows;
+}
@@ -0,0 +1,16 @@
+package com.nipun.system.document.diff.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class DiffPageResponse {
+    private List<DiffHunk> hunks;
+    private Integer nextCursor;
+    private int totalHunks;
+}
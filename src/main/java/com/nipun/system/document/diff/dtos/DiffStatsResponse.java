@@ -0,0 +1,17 @@
+package com.nipun.system.document.diff.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class DiffStatsResponse {
+    private long insertedCharacters;
+    private long deletedCharacters;
+    private long insertedLines;
+    private long deletedLines;
+    private int hunks;
+    private double similarity;
+}
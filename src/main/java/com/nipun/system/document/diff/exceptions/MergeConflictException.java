@@ -0,0 +1,7 @@
+package com.nipun.system.document.diff.exceptions;
+
+public class MergeConflictException extends RuntimeException {
+    public MergeConflictException(String message) {
+        super(message);
+    }
+}
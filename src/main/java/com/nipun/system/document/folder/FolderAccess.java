@@ -0,0 +1,38 @@
+package com.nipun.system.document.folder;
+
+import com.nipun.system.document.share.Permission;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+// the strongest share a user holds on a folder or any of its ancestors, kept up to date by FolderAccessService
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(FolderAccess.Key.class)
+@Table(name = "folder_access")
+public class FolderAccess {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "folder_id")
+    private Long folderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "permission")
+    private Permission permission;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long folderId;
+    }
+}
@@ -0,0 +1,62 @@
+package com.nipun.system.document.folder;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface FolderAccessRepository extends JpaRepository<FolderAccess, FolderAccess.Key> {
+
+    // every folder of the subtree takes the strongest share found on the folder itself or any of its ancestors
+    String SELECT_SUBTREE_ACCESS = """
+            select s.user_id,
+                   c.descendant_id,
+                   elt(max(field(s.permission, 'READ_ONLY', 'READ_WRITE', 'ADMIN')), 'READ_ONLY', 'READ_WRITE', 'ADMIN')
+            from folder_closure c
+                     join folder_closure up on up.descendant_id = c.descendant_id
+                     join folder_shares s on s.folder_id = up.ancestor_id
+            where c.ancestor_id = :folderId
+            """;
+
+    String DELETE_SUBTREE_ACCESS = """
+            delete a from folder_access a
+                     join folder_closure c on c.descendant_id = a.folder_id
+            where c.ancestor_id = :folderId
+            """;
+
+    @Query(
+            value = """
+                    select distinct a.user_id from folder_access a
+                             join folder_closure c on c.descendant_id = a.folder_id
+                    where c.ancestor_id = :folderId
+                    """,
+            nativeQuery = true
+    )
+    List<Long> findUserIdsInSubtree(@Param("folderId") Long folderId);
+
+    @Modifying
+    @Query(value = DELETE_SUBTREE_ACCESS, nativeQuery = true)
+    int deleteAllInSubtree(@Param("folderId") Long folderId);
+
+    @Modifying
+    @Query(value = DELETE_SUBTREE_ACCESS + "and a.user_id = :userId", nativeQuery = true)
+    int deleteAllInSubtree(@Param("folderId") Long folderId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query(
+            value = "insert into folder_access (user_id, folder_id, permission) "
+                    + SELECT_SUBTREE_ACCESS + "group by s.user_id, c.descendant_id",
+            nativeQuery = true
+    )
+    int insertAllInSubtree(@Param("folderId") Long folderId);
+
+    @Modifying
+    @Query(
+            value = "insert into folder_access (user_id, folder_id, permission) "
+                    + SELECT_SUBTREE_ACCESS + "and s.user_id = :userId group by s.user_id, c.descendant_id",
+            nativeQuery = true
+    )
+    int insertAllInSubtree(@Param("folderId") Long folderId, @Param("userId") Long userId);
+}
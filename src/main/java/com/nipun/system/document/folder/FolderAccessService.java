@@ -0,0 +1,46 @@
+package com.nipun.system.document.folder;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@RequiredArgsConstructor
+@Service
+public class FolderAccessService {
+    private final FolderRepository folderRepository;
+    private final FolderAccessRepository folderAccessRepository;
+
+    public void addFolder(Long folderId, Long parentFolderId) {
+        folderRepository.insertClosureSelf(folderId);
+
+        if (parentFolderId == null)
+            return;
+
+        // a new folder has no subtree yet, it only inherits the shares of its ancestors
+        folderRepository.attachClosure(folderId, parentFolderId);
+        folderAccessRepository.insertAllInSubtree(folderId);
+    }
+
+    // returns the users whose inherited access below the folder was there before or after the move
+    public Set<Long> moveFolder(Long folderId, Long parentFolderId) {
+        var affectedUserIds = new HashSet<>(folderAccessRepository.findUserIdsInSubtree(folderId));
+
+        folderRepository.detachClosure(folderId);
+
+        if (parentFolderId != null)
+            folderRepository.attachClosure(folderId, parentFolderId);
+
+        folderAccessRepository.deleteAllInSubtree(folderId);
+        folderAccessRepository.insertAllInSubtree(folderId);
+
+        affectedUserIds.addAll(folderAccessRepository.findUserIdsInSubtree(folderId));
+        return affectedUserIds;
+    }
+
+    public void refreshAccess(Long folderId, Long userId) {
+        folderAccessRepository.deleteAllInSubtree(folderId, userId);
+        folderAccessRepository.insertAllInSubtree(folderId, userId);
+    }
+}
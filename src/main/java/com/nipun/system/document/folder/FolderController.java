@@ -3,6 +3,9 @@ package com.nipun.system.document.folder;
 import com.nipun.system.document.base.dtos.DocumentResponse;
 import com.nipun.system.document.folder.dtos.FolderRequest;
 import com.nipun.system.document.folder.dtos.FolderResponse;
+import com.nipun.system.document.folder.dtos.FolderShareResponse;
+import com.nipun.system.document.folder.dtos.MoveFolderRequest;
+import com.nipun.system.document.folder.dtos.ShareFolderRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -66,4 +69,31 @@ public class FolderController {
         var documentDto = folderService.addDocumentToFolder(folderId, documentId);
         return ResponseEntity.ok(documentDto);
     }
+
+    @PostMapping("/folders/{folderId}/share")
+    public ResponseEntity<FolderShareResponse> shareFolder(
+            @PathVariable(name = "folderId") UUID folderId,
+            @RequestBody @Valid ShareFolderRequest request
+    ) {
+        var folderShare = folderService.shareFolder(folderId, request);
+        return ResponseEntity.ok(folderShare);
+    }
+
+    @PostMapping("/folders/{folderId}/share/remove/{sharedUserId}")
+    public ResponseEntity<Void> removeFolderAccess(
+            @PathVariable(name = "folderId") UUID folderId,
+            @PathVariable(name = "sharedUserId") Long sharedUserId
+    ) {
+        folderService.removeFolderAccess(folderId, sharedUserId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PatchMapping("/folders/{folderId}/move")
+    public ResponseEntity<FolderResponse> moveFolder(
+            @PathVariable(name = "folderId") UUID folderId,
+            @RequestBody @Valid MoveFolderRequest request
+    ) {
+        var folderResponse = folderService.moveFolder(folderId, request);
+        return ResponseEntity.ok(folderResponse);
+    }
 }
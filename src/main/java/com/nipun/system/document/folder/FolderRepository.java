@@ -1,6 +1,9 @@
 package com.nipun.system.document.folder;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -11,4 +14,46 @@ public interface FolderRepository extends JpaRepository<Folder, Long> {
     Optional<Folder> findByOwnerIdAndParentFolderPublicId(Long ownerId, UUID parentFolderPublicId);
 
     Optional<Folder> findByPublicId(UUID folderId);
+
+    Optional<Folder> findByPublicIdAndOwnerId(UUID publicId, Long ownerId);
+
+    @Query(
+            value = "select count(*) from folder_closure where ancestor_id = :ancestorId and descendant_id = :descendantId",
+            nativeQuery = true
+    )
+    long countClosure(@Param("ancestorId") Long ancestorId, @Param("descendantId") Long descendantId);
+
+    @Modifying
+    @Query(
+            value = "insert into folder_closure (ancestor_id, descendant_id, depth) values (:folderId, :folderId, 0)",
+            nativeQuery = true
+    )
+    int insertClosureSelf(@Param("folderId") Long folderId);
+
+    // links every folder of the subtree to the new parent and all of its ancestors
+    @Modifying
+    @Query(
+            value = """
+                    insert into folder_closure (ancestor_id, descendant_id, depth)
+                    select up.ancestor_id, sub.descendant_id, up.depth + sub.depth + 1
+                    from folder_closure up
+                             join folder_closure sub on sub.ancestor_id = :folderId
+                    where up.descendant_id = :parentId
+                    """,
+            nativeQuery = true
+    )
+    int attachClosure(@Param("folderId") Long folderId, @Param("parentId") Long parentId);
+
+    // drops the links from outside the subtree into it, the links inside the subtree stay as they are
+    @Modifying
+    @Query(
+            value = """
+                    delete c from folder_closure c
+                             join folder_closure sub on sub.descendant_id = c.descendant_id and sub.ancestor_id = :folderId
+                             left join folder_closure inside on inside.descendant_id = c.ancestor_id and inside.ancestor_id = :folderId
+                    where inside.ancestor_id is null
+                    """,
+            nativeQuery = true
+    )
+    int detachClosure(@Param("folderId") Long folderId);
 }
@@ -6,11 +6,21 @@ import com.nipun.system.document.base.dtos.DocumentResponse;
 import com.nipun.system.document.base.exceptions.DocumentNotFoundException;
 import com.nipun.system.document.folder.dtos.FolderRequest;
 import com.nipun.system.document.folder.dtos.FolderResponse;
+import com.nipun.system.document.folder.dtos.FolderShareResponse;
+import com.nipun.system.document.folder.dtos.MoveFolderRequest;
+import com.nipun.system.document.folder.dtos.ShareFolderRequest;
 import com.nipun.system.document.folder.exceptions.FolderNotFoundException;
+import com.nipun.system.document.folder.exceptions.InvalidFolderMoveException;
+import com.nipun.system.document.folder.exceptions.InvalidFolderPermissionException;
+import com.nipun.system.document.permission.DocumentAccessChangedEvent;
+import com.nipun.system.document.share.Permission;
 import com.nipun.system.shared.utils.UserIdUtils;
 import com.nipun.system.user.UserRepository;
+import com.nipun.system.user.exceptions.UserNotFoundException;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,7 +34,11 @@ public class FolderService {
     private final UserRepository userRepository;
     private final DocumentRepository documentRepository;
     private final DocumentMapper documentMapper;
+    private final FolderShareRepository folderShareRepository;
+    private final FolderAccessService folderAccessService;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Transactional
     public FolderResponse createFolder(FolderRequest request) {
         var folder = folderMapper.toEntity(request);
 
@@ -35,9 +49,13 @@ public class FolderService {
         folder.setOwner(user);
         folder.setCreatedAt(LocalDateTime.now());
 
-        return folderMapper.toDto(folderRepository.save(folder));
+        var savedFolder = folderRepository.save(folder);
+        folderAccessService.addFolder(savedFolder.getId(), null);
+
+        return folderMapper.toDto(savedFolder);
     }
 
+    @Transactional
     public FolderResponse createSubFolder(UUID parentFolderPublicId, FolderRequest request) {
         var userId = UserIdUtils.getUserIdFromContext();
 
@@ -47,7 +65,10 @@ public class FolderService {
         parentFolder.addSubFolder(folder);
         folder.setCreatedAt(LocalDateTime.now());
 
-        return folderMapper.toDto(folderRepository.save(folder));
+        var savedFolder = folderRepository.save(folder);
+        folderAccessService.addFolder(savedFolder.getId(), parentFolder.getId());
+
+        return folderMapper.toDto(savedFolder);
     }
 
     public FolderResponse updateFolder(UUID folderPublicId, FolderRequest request) {
@@ -63,7 +84,7 @@ public class FolderService {
     public List<DocumentResponse> getAllDocumentList(UUID documentId) {
         var userId = UserIdUtils.getUserIdFromContext();
 
-        var documents = documentRepository.findByFolderPublicIdAndOwnerId(documentId, userId);
+        var documents = documentRepository.findAllSummariesByFolderPublicIdAndOwnerId(documentId, userId);
 
         return documents.stream().map(documentMapper::toDto).toList();
     }
@@ -77,6 +98,72 @@ public class FolderService {
 
         documents.setFolder(folder);
 
-        return documentMapper.toDto(documentRepository.save(documents));
+        var savedDocument = documentRepository.save(documents);
+
+        // the document now inherits the shares of its new folder
+        eventPublisher.publishEvent(new DocumentAccessChangedEvent(documentId, null));
+
+        return documentMapper.toDto(savedDocument);
+    }
+
+    @Transactional
+    public FolderShareResponse shareFolder(UUID folderId, ShareFolderRequest request) {
+        var userId = UserIdUtils.getUserIdFromContext();
+
+        // folder shares only store granting permissions, access is taken away by removing the share
+        if (request.getPermission() == Permission.UNAUTHORIZED)
+            throw new InvalidFolderPermissionException();
+
+        var folder = folderRepository.findByPublicIdAndOwnerId(folderId, userId).orElseThrow(FolderNotFoundException::new);
+
+        if (!userRepository.existsById(request.getUserId()))
+            throw new UserNotFoundException();
+
+        folderShareRepository.upsert(folder.getId(), request.getUserId(), request.getPermission().name());
+        folderAccessService.refreshAccess(folder.getId(), request.getUserId());
+
+        eventPublisher.publishEvent(new DocumentAccessChangedEvent(null, request.getUserId()));
+
+        return new FolderShareResponse(request.getUserId(), request.getPermission());
+    }
+
+    @Transactional
+    public void removeFolderAccess(UUID folderId, Long sharedUserId) {
+        var userId = UserIdUtils.getUserIdFromContext();
+
+        var folder = folderRepository.findByPublicIdAndOwnerId(folderId, userId).orElseThrow(FolderNotFoundException::new);
+
+        folderShareRepository.deleteByFolderIdAndUserId(folder.getId(), sharedUserId);
+        folderAccessService.refreshAccess(folder.getId(), sharedUserId);
+
+        eventPublisher.publishEvent(new DocumentAccessChangedEvent(null, sharedUserId));
+    }
+
+    @Transactional
+    public FolderResponse moveFolder(UUID folderId, MoveFolderRequest request) {
+        var userId = UserIdUtils.getUserIdFromContext();
+
+        var folder = folderRepository.findByPublicIdAndOwnerId(folderId, userId).orElseThrow(FolderNotFoundException::new);
+
+        Folder parentFolder = null;
+        if (request.getParentFolderId() != null) {
+            parentFolder = folderRepository
+                    .findByPublicIdAndOwnerId(request.getParentFolderId(), userId)
+                    .orElseThrow(FolderNotFoundException::new);
+
+            if (folderRepository.countClosure(folder.getId(), parentFolder.getId()) > 0)
+                throw new InvalidFolderMoveException();
+        }
+
+        folder.setParentFolder(parentFolder);
+        var savedFolder = folderRepository.save(folder);
+
+        var affectedUserIds = folderAccessService.moveFolder(folder.getId(), parentFolder == null ? null : parentFolder.getId());
+
+        // only users with inherited shares below the folder, before or after the move, can see their access change
+        affectedUserIds.forEach(affectedUserId ->
+                eventPublisher.publishEvent(new DocumentAccessChangedEvent(null, affectedUserId)));
+
+        return folderMapper.toDto(savedFolder);
     }
 }
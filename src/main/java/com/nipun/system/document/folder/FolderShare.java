@@ -0,0 +1,37 @@
+package com.nipun.system.document.folder;
+
+import com.nipun.system.document.share.Permission;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(FolderShare.Key.class)
+@Table(name = "folder_shares")
+public class FolderShare {
+
+    @Id
+    @Column(name = "folder_id")
+    private Long folderId;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "permission")
+    private Permission permission;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long folderId;
+        private Long userId;
+    }
+}
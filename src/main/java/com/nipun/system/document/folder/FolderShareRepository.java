@@ -0,0 +1,28 @@
+package com.nipun.system.document.folder;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface FolderShareRepository extends JpaRepository<FolderShare, FolderShare.Key> {
+
+    @Modifying
+    @Query(
+            value = """
+                    insert into folder_shares (folder_id, user_id, permission)
+                    values (:folderId, :userId, :permission)
+                    on duplicate key update permission = :permission
+                    """,
+            nativeQuery = true
+    )
+    int upsert(
+            @Param("folderId") Long folderId,
+            @Param("userId") Long userId,
+            @Param("permission") String permission
+    );
+
+    @Modifying
+    @Query("delete from FolderShare s where s.folderId = :folderId and s.userId = :userId")
+    int deleteByFolderIdAndUserId(@Param("folderId") Long folderId, @Param("userId") Long userId);
+}
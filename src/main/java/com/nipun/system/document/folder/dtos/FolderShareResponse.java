@@ -0,0 +1,13 @@
+package com.nipun.system.document.folder.dtos;
+
+import com.nipun.system.document.share.Permission;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class FolderShareResponse {
+    private Long userId;
+
+    private Permission permission;
+}
@@ -0,0 +1,15 @@
+package com.nipun.system.document.folder.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoveFolderRequest {
+    // a missing parent moves the folder to the top level
+    private UUID parentFolderId;
+}
@@ -0,0 +1,19 @@
+package com.nipun.system.document.folder.dtos;
+
+import com.nipun.system.document.share.Permission;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShareFolderRequest {
+
+    @NotNull(message = "User Id can't be null")
+    private Long userId;
+
+    @NotNull(message = "Permission can't be a null")
+    private Permission permission;
+}
@@ -0,0 +1,8 @@
+package com.nipun.system.document.folder.exceptions;
+
+public class InvalidFolderMoveException extends RuntimeException {
+
+    public InvalidFolderMoveException() {
+        super("A folder can't be moved into itself or one of its sub folders");
+    }
+}
@@ -0,0 +1,8 @@
+package com.nipun.system.document.folder.exceptions;
+
+public class InvalidFolderPermissionException extends RuntimeException {
+
+    public InvalidFolderPermissionException() {
+        super("A folder can only be shared as read only, read write or admin");
+    }
+}
@@ -0,0 +1,34 @@
+package com.nipun.system.document.permission;
+
+import com.nipun.system.document.share.Permission;
+
+import java.util.UUID;
+
+public record BranchAccess(
+        UUID documentPublicId,
+        UUID branchPublicId,
+        Long documentId,
+        Boolean owner,
+        Permission sharedPermission
+) {
+    public BranchAccess(
+            UUID documentPublicId,
+            UUID branchPublicId,
+            Long documentId,
+            Boolean owner,
+            Permission sharedPermission,
+            Permission folderPermission
+    ) {
+        this(
+                documentPublicId,
+                branchPublicId,
+                documentId,
+                owner,
+                PermissionUtils.strongest(sharedPermission, folderPermission)
+        );
+    }
+
+    public DocumentAccess toDocumentAccess() {
+        return new DocumentAccess(documentId, owner, sharedPermission);
+    }
+}
@@ -0,0 +1,22 @@
+package com.nipun.system.document.permission;
+
+import com.nipun.system.document.share.Permission;
+
+// what a single user may do with a document, read without loading the document's shares
+public record DocumentAccess(Long documentId, Boolean owner, Permission sharedPermission, Boolean trashed) {
+
+    public DocumentAccess(Long documentId, Boolean owner, Permission sharedPermission) {
+        this(documentId, owner, sharedPermission, false);
+    }
+
+    // a share on the document and one inherited from its folders, whichever grants more wins
+    public DocumentAccess(
+            Long documentId,
+            Boolean owner,
+            Permission sharedPermission,
+            Permission folderPermission,
+            Boolean trashed
+    ) {
+        this(documentId, owner, PermissionUtils.strongest(sharedPermission, folderPermission), trashed);
+    }
+}
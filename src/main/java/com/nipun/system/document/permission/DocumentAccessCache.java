@@ -0,0 +1,83 @@
+package com.nipun.system.document.permission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nipun.system.document.base.DocumentRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+@RequiredArgsConstructor
+@Component
+public class DocumentAccessCache {
+
+    private final DocumentRepository documentRepository;
+
+    @Value("${document.permissions.cache.max-size}")
+    private int maxSize;
+
+    @Value("${document.permissions.cache.ttl}")
+    private Duration ttl;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private Cache<Key, DocumentAccess> entries;
+
+    @PostConstruct
+    public void init() {
+        entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Optional<DocumentAccess> findAccess(UUID documentId, Long userId) {
+        var key = new Key(documentId, userId);
+
+        var cached = entries.getIfPresent(key);
+        if (cached != null)
+            return Optional.of(cached);
+
+        var loadedGeneration = generation.get();
+        var access = documentRepository.findAccessByPublicId(documentId, userId);
+
+        if (access.isEmpty())
+            return access;
+
+        // an eviction that ran while the lookup was in flight may have raced it, so its result is
+        // taken back out, checking after the put also covers an eviction between check and put
+        entries.put(key, access.get());
+        if (generation.get() != loadedGeneration)
+            entries.asMap().remove(key, access.get());
+
+        return access;
+    }
+
+    // a missing document or user matches every document or user
+    public void evict(UUID documentId, Long userId) {
+        generation.incrementAndGet();
+
+        if (documentId != null && userId != null) {
+            entries.invalidate(new Key(documentId, userId));
+            return;
+        }
+
+        entries.asMap().keySet().removeIf(key ->
+                (documentId == null || key.documentId().equals(documentId))
+                        && (userId == null || key.userId().equals(userId)));
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        entries.invalidateAll();
+    }
+
+    private record Key(UUID documentId, Long userId) {
+    }
+}
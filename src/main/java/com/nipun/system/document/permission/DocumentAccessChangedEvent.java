@@ -0,0 +1,8 @@
+package com.nipun.system.document.permission;
+
+import java.util.UUID;
+
+// a null user means the access of every user to the document changed,
+// a null document means the user's access to any document may have changed, e.g. through a folder share
+public record DocumentAccessChangedEvent(UUID documentId, Long userId) {
+}
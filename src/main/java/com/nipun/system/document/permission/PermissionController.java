@@ -1,14 +1,19 @@
 package com.nipun.system.document.permission;
 
+import com.nipun.system.document.permission.dtos.BatchPermissionRequest;
+import com.nipun.system.document.permission.dtos.BatchPermissionResponse;
 import com.nipun.system.document.permission.dtos.PermissionResponse;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -36,4 +41,14 @@ public class PermissionController {
         var permissions = permissionService.validateUserPermissions(documentId, branchId);
         return ResponseEntity.ok(permissions);
     }
+
+    @RateLimiter(name = "globalLimiter")
+    @PostMapping("/branches/batch")
+    @Operation(summary = "Validate many", description = "Validates the user relationship with many document branches at once")
+    public ResponseEntity<BatchPermissionResponse> validateAll(
+            @Valid @RequestBody BatchPermissionRequest request
+    ) {
+        var permissions = permissionService.validateUserPermissions(request);
+        return ResponseEntity.ok(permissions);
+    }
 }
@@ -1,31 +1,57 @@
 package com.nipun.system.document.permission;
 
-import com.nipun.system.document.branch.BranchRepository;
+import com.nipun.system.document.base.DocumentRepository;
 import com.nipun.system.document.branch.exceptions.BranchNotFoundException;
+import com.nipun.system.document.permission.dtos.BatchPermissionRequest;
+import com.nipun.system.document.permission.dtos.BatchPermissionResponse;
+import com.nipun.system.document.permission.dtos.BranchReference;
 import com.nipun.system.document.permission.dtos.PermissionResponse;
 import com.nipun.system.document.share.Permission;
 import com.nipun.system.shared.utils.UserIdUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RequiredArgsConstructor
 @Service
 public class PermissionService {
-    private final BranchRepository branchRepository;
+    private final DocumentRepository documentRepository;
 
     public PermissionResponse validateUserPermissions(UUID documentId, UUID branchId) {
         var userId = UserIdUtils.getUserIdFromContext();
 
-        var branch = branchRepository
-                .findByPublicIdAndDocumentPublicId(branchId, documentId)
+        var access = documentRepository
+                .findAccessByBranchPublicId(documentId, branchId, userId)
                 .orElseThrow(BranchNotFoundException::new);
 
-        var permission = PermissionUtils.isUnauthorizedUser(userId, branch.getDocument())
-                ? Permission.UNAUTHORIZED : PermissionUtils.isReadOnlyUser(userId, branch.getDocument())
-                ? Permission.READ_ONLY : Permission.READ_WRITE;
+        return new PermissionResponse(userId, documentId, branchId, PermissionUtils.getPermission(access));
+    }
+
+    // resolves every branch in one query, a branch given with a document it does not belong to is left out
+    public BatchPermissionResponse validateUserPermissions(BatchPermissionRequest request) {
+        var userId = UserIdUtils.getUserIdFromContext();
+
+        var requested = new HashSet<List<UUID>>();
+        for (BranchReference branch : request.getBranches())
+            requested.add(List.of(branch.getDocumentId(), branch.getBranchId()));
+
+        var branchIds = requested.stream().map(List::getLast).toList();
+
+        var permissions = new LinkedHashMap<UUID, Map<UUID, Permission>>();
+        for (var access : documentRepository.findAllAccessByBranchPublicIds(branchIds, userId)) {
+            if (!requested.contains(List.of(access.documentPublicId(), access.branchPublicId())))
+                continue;
+
+            permissions
+                    .computeIfAbsent(access.documentPublicId(), _ -> new LinkedHashMap<>())
+                    .put(access.branchPublicId(), PermissionUtils.getPermission(access.toDocumentAccess()));
+        }
 
-        return new PermissionResponse(userId, documentId, branchId, permission);
+        return new BatchPermissionResponse(userId, permissions);
     }
 }
@@ -3,6 +3,7 @@ package com.nipun.system.document.permission;
 import com.nipun.system.document.base.Document;
 import com.nipun.system.document.permission.exceptions.ReadOnlyDocumentException;
 import com.nipun.system.document.permission.exceptions.UnauthorizedDocumentException;
+import com.nipun.system.document.share.Permission;
 
 import java.util.Objects;
 
@@ -35,4 +36,45 @@ public class PermissionUtils {
                 .stream()
                 .anyMatch(user -> Objects.equals(user.getUserId(), userId));
     }
+
+    public static void checkUserCanWrite(DocumentAccess access) {
+        if (isUnauthorizedUser(access))
+            throw new UnauthorizedDocumentException();
+
+        if (isReadOnlyUser(access))
+            throw new ReadOnlyDocumentException();
+    }
+
+    public static boolean isUnauthorizedUser(DocumentAccess access) {
+        return !isOwner(access) && access.sharedPermission() == null;
+    }
+
+    public static boolean isReadOnlyUser(DocumentAccess access) {
+        return access.sharedPermission() == Permission.READ_ONLY;
+    }
+
+    public static boolean isOwner(DocumentAccess access) {
+        return Boolean.TRUE.equals(access.owner());
+    }
+
+    public static boolean isTrashed(DocumentAccess access) {
+        return Boolean.TRUE.equals(access.trashed());
+    }
+
+    public static Permission getPermission(DocumentAccess access) {
+        if (isUnauthorizedUser(access))
+            return Permission.UNAUTHORIZED;
+
+        return isReadOnlyUser(access) ? Permission.READ_ONLY : Permission.READ_WRITE;
+    }
+
+    public static Permission strongest(Permission first, Permission second) {
+        if (first == null)
+            return second;
+
+        if (second == null)
+            return first;
+
+        return first.compareTo(second) >= 0 ? first : second;
+    }
 }
@@ -0,0 +1,19 @@
+package com.nipun.system.document.permission.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Request object for validating the user permissions of many branches at once")
+public class BatchPermissionRequest {
+
+    @NotEmpty(message = "Branches can't be empty")
+    @Size(max = 200, message = "At most 200 branches can be validated at once")
+    @Schema(description = "The document branches to validate")
+    private List<@Valid BranchReference> branches;
+}
@@ -0,0 +1,16 @@
+package com.nipun.system.document.permission.dtos;
+
+import com.nipun.system.document.share.Permission;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+import java.util.UUID;
+
+// permissions by document and branch ID, branches that were not found are left out
+@AllArgsConstructor
+@Data
+public class BatchPermissionResponse {
+    long userId;
+    Map<UUID, Map<UUID, Permission>> permissions;
+}
@@ -0,0 +1,24 @@
+package com.nipun.system.document.permission.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Schema(description = "A branch of a document")
+public class BranchReference {
+
+    @NotNull(message = "Document ID can't be empty")
+    @Schema(description = "The ID of the document", example = "bfb8777b-59bd-422b-8132-d1f64b09590d")
+    private UUID documentId;
+
+    @NotNull(message = "Branch ID can't be empty")
+    @Schema(description = "Document branch ID", example = "8d5177f7-bc39-42b0-84bc-3a945be383c4")
+    private UUID branchId;
+}
@@ -0,0 +1,70 @@
+package com.nipun.system.document.permission.listeners;
+
+import com.nipun.system.document.collaboration.DocumentSubscriptionRegistry;
+import com.nipun.system.document.permission.DocumentAccessCache;
+import com.nipun.system.document.permission.DocumentAccessChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+@Log4j2
+@RequiredArgsConstructor
+@Component
+public class DocumentAccessCacheListener implements MessageListener {
+    private static final String ALL = "*";
+
+    private final DocumentAccessCache documentAccessCache;
+    private final DocumentSubscriptionRegistry documentSubscriptionRegistry;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    @Value("${document.permissions.cache.channel}")
+    private String channel;
+
+    @PostConstruct
+    public void subscribe() {
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    // after commit, so a lookup on another node cannot cache the access again before the change is visible
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleAccessChanged(DocumentAccessChangedEvent event) {
+        documentAccessCache.evict(event.documentId(), event.userId());
+
+        var documentId = event.documentId() == null ? ALL : event.documentId().toString();
+        var userId = event.userId() == null ? ALL : event.userId().toString();
+        try {
+            stringRedisTemplate.convertAndSend(channel, documentId + ":" + userId);
+        } catch (RuntimeException exception) {
+            // the other nodes still drop the entry once its ttl runs out
+            log.warn("Could not publish access invalidation of document {}", event.documentId(), exception);
+        }
+
+        documentSubscriptionRegistry.revoke(event.documentId(), event.userId());
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        var fields = new String(message.getBody(), StandardCharsets.UTF_8).split(":", 2);
+        if (fields.length != 2)
+            return;
+
+        var documentId = fields[0].equals(ALL) ? null : UUID.fromString(fields[0]);
+        var userId = fields[1].equals(ALL) ? null : Long.valueOf(fields[1]);
+
+        // subscriptions held on this node are dropped as well, they were checked against the evicted access
+        documentAccessCache.evict(documentId, userId);
+        documentSubscriptionRegistry.revoke(documentId, userId);
+    }
+}
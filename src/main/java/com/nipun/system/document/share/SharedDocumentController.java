@@ -1,8 +1,11 @@
 package com.nipun.system.document.share;
 
+import com.nipun.system.document.share.dtos.BulkShareDocumentRequest;
+import com.nipun.system.document.share.dtos.BulkUnshareDocumentRequest;
 import com.nipun.system.document.share.dtos.ShareDocumentRequest;
 import com.nipun.system.document.share.dtos.SharedDocumentResponse;
 import com.nipun.system.shared.dtos.CountResponse;
+import com.nipun.system.shared.dtos.CursorPaginatedData;
 import com.nipun.system.shared.dtos.PaginatedData;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.swagger.v3.oas.annotations.Operation;
@@ -39,6 +42,21 @@ public class SharedDocumentController {
         return ResponseEntity.ok(sharedDocumentDto);
     }
 
+    @RateLimiter(name = "globalLimiter")
+    @PostMapping("/{documentId}/share/bulk")
+    @Operation(summary = "Share document in bulk", description = "Share document among many users at once")
+    public ResponseEntity<List<SharedDocumentResponse>> shareDocument(
+            @PathVariable(name = "documentId")
+            @Parameter(description = "The ID of the document", example = "bfb8777b-59bd-422b-8132-d1f64b09590d")
+            UUID documentId,
+            @RequestBody
+            @Valid
+            BulkShareDocumentRequest request
+    ) {
+        var sharedUsers = sharedDocumentService.shareDocument(documentId, request);
+        return ResponseEntity.ok(sharedUsers);
+    }
+
     @RateLimiter(name = "globalLimiter")
     @GetMapping("/{documentId}/share/users")
     @Operation(summary = "Get all shared users", description = "Get all shared users with the document")
@@ -66,6 +84,24 @@ public class SharedDocumentController {
         return ResponseEntity.ok(paginatedDocuments);
     }
 
+    @RateLimiter(name = "globalLimiter")
+    @GetMapping("/share/scroll")
+    @Operation(summary = "Scroll shared documents", description = "Get documents shared with the user page by page with a cursor")
+    public ResponseEntity<CursorPaginatedData> scrollSharedDocumentsWithUser(
+            @RequestParam(name = "cursor", required = false)
+            @Parameter(description = "Cursor returned with the previous page, omitted for the first page")
+            String cursor,
+            @RequestParam(name = "page-size", defaultValue = "20")
+            @Parameter(description = "Required page size")
+            int pageSize,
+            @RequestParam(name = "include-total", defaultValue = "false")
+            @Parameter(description = "Count the total number of elements")
+            boolean includeTotal
+    ) {
+        var paginatedDocuments = sharedDocumentService.getAllSharedDocumentsWithUser(cursor, pageSize, includeTotal);
+        return ResponseEntity.ok(paginatedDocuments);
+    }
+
     @RateLimiter(name = "globalLimiter")
     @PostMapping("/{documentId}/share/remove")
     @Operation(summary = "Remove document access", description = "Remove own document access")
@@ -93,6 +129,21 @@ public class SharedDocumentController {
         return ResponseEntity.noContent().build();
     }
 
+    @RateLimiter(name = "globalLimiter")
+    @PostMapping("/{documentId}/share/bulk/remove")
+    @Operation(summary = "Remove document access in bulk", description = "Remove document access of many users as owner")
+    public ResponseEntity<Void> removeDocumentAccess(
+            @PathVariable(name = "documentId")
+            @Parameter(description = "The ID of the document", example = "bfb8777b-59bd-422b-8132-d1f64b09590d")
+            UUID documentId,
+            @RequestBody
+            @Valid
+            BulkUnshareDocumentRequest request
+    ) {
+        sharedDocumentService.removeDocumentAccess(documentId, request);
+        return ResponseEntity.noContent().build();
+    }
+
     @RateLimiter(name = "globalLimiter")
     @GetMapping("/shared/count/user")
     @Operation(summary = "Shared document count", description = "Get shared document count with user")
@@ -1,7 +1,11 @@
 package com.nipun.system.document.share;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,4 +15,27 @@ public interface SharedDocumentRepository extends JpaRepository<SharedDocument,
     Optional<SharedDocument> findByDocumentPublicIdAndSharedUserId(UUID documentId, Long userId);
 
     int countAllBySharedUserId(Long userId);
+
+    // one statement for every user getting the same permission, existing shares hit the (document_id, user_id) key
+    @Modifying
+    @Query(
+            value = """
+                    insert into shared_documents (document_id, user_id, permission)
+                    select :documentId, u.id, :permission from users u where u.id in (:userIds)
+                    on duplicate key update permission = :permission
+                    """,
+            nativeQuery = true
+    )
+    int upsertAll(
+            @Param("documentId") Long documentId,
+            @Param("userIds") Collection<Long> userIds,
+            @Param("permission") String permission
+    );
+
+    @Modifying
+    @Query("delete from SharedDocument s where s.document.id = :documentId and s.sharedUser.id in :userIds")
+    int deleteAllByDocumentIdAndUserIds(
+            @Param("documentId") Long documentId,
+            @Param("userIds") Collection<Long> userIds
+    );
 }
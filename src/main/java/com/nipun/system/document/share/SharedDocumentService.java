@@ -3,26 +3,38 @@ package com.nipun.system.document.share;
 import com.nipun.system.document.base.DocumentMapper;
 import com.nipun.system.document.base.DocumentRepository;
 import com.nipun.system.document.base.exceptions.DocumentNotFoundException;
+import com.nipun.system.document.permission.DocumentAccessChangedEvent;
 import com.nipun.system.document.permission.PermissionUtils;
 import com.nipun.system.document.permission.exceptions.UnauthorizedDocumentException;
+import com.nipun.system.document.share.dtos.BulkShareDocumentRequest;
+import com.nipun.system.document.share.dtos.BulkUnshareDocumentRequest;
 import com.nipun.system.document.share.dtos.ShareDocumentRequest;
 import com.nipun.system.document.share.dtos.SharedDocumentResponse;
 import com.nipun.system.shared.dtos.CountResponse;
+import com.nipun.system.shared.dtos.CursorPaginatedData;
 import com.nipun.system.shared.dtos.PaginatedData;
+import com.nipun.system.shared.utils.PageCursor;
+import com.nipun.system.shared.utils.PageCursorUtils;
 import com.nipun.system.shared.utils.UserIdUtils;
+import com.nipun.system.user.User;
 import com.nipun.system.user.UserRepository;
 import com.nipun.system.user.exceptions.UserNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @Service
@@ -33,6 +45,7 @@ public class SharedDocumentService {
     private final DocumentMapper documentMapper;
     private final SharedDocumentMapper sharedDocumentMapper;
     private final SharedDocumentFactory sharedDocumentFactory;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Caching(evict = {
             @CacheEvict(value = "documents", key = "{#documentId}"),
@@ -65,9 +78,53 @@ public class SharedDocumentService {
 
         documentRepository.save(document);
 
+        eventPublisher.publishEvent(new DocumentAccessChangedEvent(documentId, sharedUser.getId()));
+
         return sharedDocumentMapper.toSharedDocumentDto(sharedDocument);
     }
 
+    @Caching(evict = {
+            @CacheEvict(value = "documents", key = "{#documentId}"),
+            @CacheEvict(value = "sharedUsers", key = "{#documentId}")
+    })
+    @Transactional
+    public List<SharedDocumentResponse> shareDocument(UUID documentId, BulkShareDocumentRequest request) {
+        var userId = UserIdUtils.getUserIdFromContext();
+
+        var internalDocumentId = getOwnedDocumentId(documentId, userId);
+
+        // a user listed twice keeps the last permission given
+        var permissions = new LinkedHashMap<Long, Permission>();
+        request.getUsers().forEach(share -> permissions.put(share.getUserId(), share.getPermission()));
+
+        var sharedUsers = userRepository.findAllById(permissions.keySet()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        if (sharedUsers.size() != permissions.size())
+            throw new UserNotFoundException();
+
+        permissions.entrySet().stream()
+                .collect(Collectors.groupingBy(
+                        Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())
+                ))
+                .forEach((permission, userIds) ->
+                        sharedDocumentRepository.upsertAll(internalDocumentId, userIds, permission.name()));
+
+        documentRepository.updateUpdatedAt(internalDocumentId, LocalDateTime.now());
+
+        eventPublisher.publishEvent(new DocumentAccessChangedEvent(documentId, null));
+
+        return permissions.entrySet().stream()
+                .map(share -> {
+                    var sharedUser = sharedUsers.get(share.getKey());
+                    return new SharedDocumentResponse(
+                            sharedUser.getId(), sharedUser.getUsername(), sharedUser.getEmail(), share.getValue()
+                    );
+                })
+                .toList();
+    }
+
     @Cacheable(value = "sharedUsers", key = "{#documentId}")
     public List<SharedDocumentResponse> getAllSharedUsers(UUID documentId) {
         var userId = UserIdUtils.getUserIdFromContext();
@@ -92,7 +149,7 @@ public class SharedDocumentService {
 
         PageRequest pageRequest = PageRequest.of(pageNumber, size);
 
-        var documentPage = documentRepository.findAllSharedDocumentsWithUser(userId, pageRequest);
+        var documentPage = documentRepository.findAllSummariesSharedWithUser(userId, pageRequest);
 
         var documentDtoList = documentPage
                 .getContent()
@@ -111,6 +168,24 @@ public class SharedDocumentService {
         );
     }
 
+    @Transactional(readOnly = true)
+    public CursorPaginatedData getAllSharedDocumentsWithUser(String cursor, int size, boolean includeTotal) {
+        var userId = UserIdUtils.getUserIdFromContext();
+        var position = PageCursorUtils.decode(cursor);
+
+        var documents = documentRepository.findSummaryPageSharedWithUser(
+                userId, position.createdAt(), position.id(), PageCursorUtils.seekPage(size)
+        );
+
+        return PageCursorUtils.toPaginatedData(
+                documents,
+                size,
+                document -> new PageCursor(document.createdAt(), document.id()),
+                documentMapper::toDto,
+                includeTotal ? Long.valueOf(sharedDocumentRepository.countAllBySharedUserId(userId)) : null
+        );
+    }
+
     @CacheEvict(value = "sharedUsers", key = "{#documentId}")
     public void removeDocumentAccess(UUID documentId) {
         var userId = UserIdUtils.getUserIdFromContext();
@@ -120,6 +195,8 @@ public class SharedDocumentService {
                 .orElseThrow(UnauthorizedDocumentException::new);
 
         sharedDocumentRepository.delete(sharedDocument);
+
+        eventPublisher.publishEvent(new DocumentAccessChangedEvent(documentId, userId));
     }
 
     @CacheEvict(value = "sharedUsers", key = "{#documentId}")
@@ -133,5 +210,35 @@ public class SharedDocumentService {
         document.removeSharedUser(sharedUserId);
 
         documentRepository.save(document);
+
+        eventPublisher.publishEvent(new DocumentAccessChangedEvent(documentId, sharedUserId));
+    }
+
+    @Caching(evict = {
+            @CacheEvict(value = "documents", key = "{#documentId}"),
+            @CacheEvict(value = "sharedUsers", key = "{#documentId}")
+    })
+    @Transactional
+    public void removeDocumentAccess(UUID documentId, BulkUnshareDocumentRequest request) {
+        var userId = UserIdUtils.getUserIdFromContext();
+
+        var internalDocumentId = getOwnedDocumentId(documentId, userId);
+
+        sharedDocumentRepository.deleteAllByDocumentIdAndUserIds(internalDocumentId, request.getUserIds());
+
+        documentRepository.updateUpdatedAt(internalDocumentId, LocalDateTime.now());
+
+        eventPublisher.publishEvent(new DocumentAccessChangedEvent(documentId, null));
+    }
+
+    private Long getOwnedDocumentId(UUID documentId, Long userId) {
+        var access = documentRepository
+                .findAccessByPublicId(documentId, userId)
+                .orElseThrow(DocumentNotFoundException::new);
+
+        if (!PermissionUtils.isOwner(access))
+            throw new DocumentNotFoundException();
+
+        return access.documentId();
     }
 }
@@ -0,0 +1,19 @@
+package com.nipun.system.document.share.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Request object for sharing a document with many users at once")
+public class BulkShareDocumentRequest {
+
+    @NotEmpty(message = "Users can't be empty")
+    @Size(max = 500, message = "A document can be shared with at most 500 users at once")
+    @Schema(description = "The users and the permission each of them gets")
+    private List<@Valid ShareDocumentRequest> users;
+}
@@ -0,0 +1,19 @@
+package com.nipun.system.document.share.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Request object for removing the document access of many users at once")
+public class BulkUnshareDocumentRequest {
+
+    @NotEmpty(message = "User Ids can't be empty")
+    @Size(max = 500, message = "At most 500 users can be removed at once")
+    @Schema(description = "User Ids", example = "[1, 2]")
+    private List<@NotNull(message = "User Id can't be null") Long> userIds;
+}
@@ -3,6 +3,7 @@ package com.nipun.system.document.trash;
 import com.nipun.system.document.trash.exceptions.TrashNotFoundException;
 import com.nipun.system.document.trash.exceptions.UnauthorizedBranchDeletionException;
 import com.nipun.system.shared.dtos.CountResponse;
+import com.nipun.system.shared.dtos.CursorPaginatedData;
 import com.nipun.system.shared.dtos.ErrorResponse;
 import com.nipun.system.shared.dtos.PaginatedData;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
@@ -79,6 +80,40 @@ public class TrashController {
         return ResponseEntity.ok(trashService.getAllTrashedBranches(pageNumber, pageSize));
     }
 
+    @RateLimiter(name = "globalLimiter")
+    @GetMapping("/scroll")
+    @Operation(summary = "Scroll trashed documents", description = "Get user trashed documents page by page with a cursor")
+    public ResponseEntity<CursorPaginatedData> scrollTrashedDocuments(
+            @RequestParam(name = "cursor", required = false)
+            @Parameter(description = "Cursor returned with the previous page, omitted for the first page")
+            String cursor,
+            @RequestParam(name = "page-size", defaultValue = "20")
+            @Parameter(description = "Required page size")
+            int pageSize,
+            @RequestParam(name = "include-total", defaultValue = "false")
+            @Parameter(description = "Count the total number of elements")
+            boolean includeTotal
+    ) {
+        return ResponseEntity.ok(trashService.getAllTrashedDocuments(cursor, pageSize, includeTotal));
+    }
+
+    @RateLimiter(name = "globalLimiter")
+    @GetMapping("/branches/scroll")
+    @Operation(summary = "Scroll trashed branches", description = "Get user trashed branches page by page with a cursor")
+    public ResponseEntity<CursorPaginatedData> scrollTrashedBranches(
+            @RequestParam(name = "cursor", required = false)
+            @Parameter(description = "Cursor returned with the previous page, omitted for the first page")
+            String cursor,
+            @RequestParam(name = "page-size", defaultValue = "20")
+            @Parameter(description = "Required page size")
+            int pageSize,
+            @RequestParam(name = "include-total", defaultValue = "false")
+            @Parameter(description = "Count the total number of elements")
+            boolean includeTotal
+    ) {
+        return ResponseEntity.ok(trashService.getAllTrashedBranches(cursor, pageSize, includeTotal));
+    }
+
     @RateLimiter(name = "globalLimiter")
     @PostMapping("/restore/{documentId}")
     @Operation(summary = "Restore document", description = "Restore trashed document")
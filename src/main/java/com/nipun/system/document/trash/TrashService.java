@@ -6,17 +6,24 @@ import com.nipun.system.document.base.exceptions.DocumentNotFoundException;
 import com.nipun.system.document.branch.BranchMapper;
 import com.nipun.system.document.branch.BranchRepository;
 import com.nipun.system.document.branch.exceptions.BranchNotFoundException;
+import com.nipun.system.document.permission.DocumentAccessCache;
+import com.nipun.system.document.permission.DocumentAccessChangedEvent;
 import com.nipun.system.document.permission.PermissionUtils;
 import com.nipun.system.document.permission.exceptions.UnauthorizedDocumentException;
 import com.nipun.system.document.trash.dtos.TrashBranchResponse;
 import com.nipun.system.document.trash.dtos.TrashDocumentResponse;
 import com.nipun.system.document.trash.exceptions.UnauthorizedBranchDeletionException;
+import com.nipun.system.document.version.VersionRepository;
 import com.nipun.system.shared.dtos.CountResponse;
+import com.nipun.system.shared.dtos.CursorPaginatedData;
 import com.nipun.system.shared.dtos.PaginatedData;
 import com.nipun.system.shared.exceptions.UnauthorizedOperationException;
+import com.nipun.system.shared.utils.PageCursor;
+import com.nipun.system.shared.utils.PageCursorUtils;
 import com.nipun.system.shared.utils.UserIdUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,7 +36,10 @@ import java.util.UUID;
 public class TrashService {
 
     private final DocumentRepository documentRepository;
+    private final DocumentAccessCache documentAccessCache;
+    private final ApplicationEventPublisher eventPublisher;
     private final BranchRepository branchRepository;
+    private final VersionRepository versionRepository;
     private final DocumentMapper documentMapper;
     private final BranchMapper branchMapper;
 
@@ -38,16 +48,16 @@ public class TrashService {
     public void addDocumentToTrash(UUID documentId) {
         var userId = UserIdUtils.getUserIdFromContext();
 
-        var document = documentRepository
-                .findByPublicId(documentId)
+        var access = documentAccessCache
+                .findAccess(documentId, userId)
                 .orElseThrow(DocumentNotFoundException::new);
 
-        if (PermissionUtils.isUnauthorizedUser(userId, document))
+        if (PermissionUtils.isUnauthorizedUser(access))
             throw new UnauthorizedDocumentException();
 
-        document.setTrashed(true);
+        documentRepository.updateTrashed(access.documentId(), true);
 
-        documentRepository.save(document);
+        eventPublisher.publishEvent(new DocumentAccessChangedEvent(documentId, null));
     }
 
     @CacheEvict(value = "document_branch_contents", key = "{#documentId, #branchId}")
@@ -62,7 +72,11 @@ public class TrashService {
         if (branch.getBranchName().equals("main"))
             throw new UnauthorizedBranchDeletionException("You cannot delete main branch");
 
-        if (PermissionUtils.isUnauthorizedUser(userId, branch.getDocument()))
+        var access = documentAccessCache
+                .findAccess(documentId, userId)
+                .orElseThrow(DocumentNotFoundException::new);
+
+        if (PermissionUtils.isUnauthorizedUser(access))
             throw new UnauthorizedDocumentException();
 
         branch.setTrashed(true);
@@ -76,11 +90,11 @@ public class TrashService {
 
         PageRequest request = PageRequest.of(pageNumber, pageSize);
 
-        var trashList = documentRepository.findAllByTrashedIsTrueAndOwnerId(userId, request);
+        var trashList = documentRepository.findAllTrashedSummariesByOwnerId(userId, request);
 
         var trashDtoList = trashList
                 .stream()
-                .map(trash -> new TrashDocumentResponse(trash.getId(), documentMapper.toDto(trash), LocalDateTime.now()))
+                .map(trash -> new TrashDocumentResponse(trash.id(), documentMapper.toDto(trash), LocalDateTime.now()))
                 .toList();
 
         return new PaginatedData(
@@ -119,6 +133,42 @@ public class TrashService {
         );
     }
 
+    @Transactional(readOnly = true)
+    public CursorPaginatedData getAllTrashedDocuments(String cursor, int pageSize, boolean includeTotal) {
+        var userId = UserIdUtils.getUserIdFromContext();
+        var position = PageCursorUtils.decode(cursor);
+
+        var trashList = documentRepository.findTrashedSummaryPageByOwnerId(
+                userId, position.createdAt(), position.id(), PageCursorUtils.seekPage(pageSize)
+        );
+
+        return PageCursorUtils.toPaginatedData(
+                trashList,
+                pageSize,
+                trash -> new PageCursor(trash.createdAt(), trash.id()),
+                trash -> new TrashDocumentResponse(trash.id(), documentMapper.toDto(trash), LocalDateTime.now()),
+                includeTotal ? Long.valueOf(documentRepository.countAllByTrashedIsTrueAndOwnerId(userId)) : null
+        );
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPaginatedData getAllTrashedBranches(String cursor, int pageSize, boolean includeTotal) {
+        var userId = UserIdUtils.getUserIdFromContext();
+        var position = PageCursorUtils.decode(cursor);
+
+        var trashList = branchRepository.findTrashedPageByOwnerId(
+                userId, position.createdAt(), position.id(), PageCursorUtils.seekPage(pageSize)
+        );
+
+        return PageCursorUtils.toPaginatedData(
+                trashList,
+                pageSize,
+                trash -> new PageCursor(trash.getCreatedAt(), trash.getId()),
+                trash -> new TrashBranchResponse(trash.getId(), branchMapper.toDto(trash), LocalDateTime.now()),
+                includeTotal ? Long.valueOf(branchRepository.countAllByTrashedIsTrueAndOwnerId(userId)) : null
+        );
+    }
+
     @CacheEvict(value = "documents", key = "{#documentId}")
     @Transactional
     public void restoreDocument(UUID documentId) {
@@ -156,19 +206,24 @@ public class TrashService {
     private void handleDocumentAction(UUID documentId, ActionType action) {
         var userId = UserIdUtils.getUserIdFromContext();
 
-        var document = documentRepository.findByPublicId(documentId)
+        var access = documentAccessCache
+                .findAccess(documentId, userId)
                 .orElseThrow(DocumentNotFoundException::new);
 
-        if (!PermissionUtils.isOwner(userId, document)) {
+        if (!PermissionUtils.isOwner(access)) {
             throw new UnauthorizedOperationException();
         }
 
         switch (action) {
             case RESTORE -> {
-                document.setTrashed(false);
-                documentRepository.save(document);
+                documentRepository.updateTrashed(access.documentId(), false);
+                eventPublisher.publishEvent(new DocumentAccessChangedEvent(documentId, null));
+            }
+            case DELETE -> {
+                versionRepository.deleteAllByDocumentId(access.documentId());
+                documentRepository.deleteById(access.documentId());
+                eventPublisher.publishEvent(new DocumentAccessChangedEvent(documentId, null));
             }
-            case DELETE -> documentRepository.delete(document);
         }
     }
 
@@ -179,7 +234,11 @@ public class TrashService {
                 .findByPublicIdAndDocumentPublicId(branchId, documentId)
                 .orElseThrow(BranchNotFoundException::new);
 
-        if (!PermissionUtils.isOwner(userId, branch.getDocument())) {
+        var access = documentAccessCache
+                .findAccess(documentId, userId)
+                .orElseThrow(DocumentNotFoundException::new);
+
+        if (!PermissionUtils.isOwner(access)) {
             throw new UnauthorizedOperationException();
         }
 
@@ -188,7 +247,10 @@ public class TrashService {
                 branch.setTrashed(false);
                 branchRepository.save(branch);
             }
-            case DELETE -> branchRepository.delete(branch);
+            case DELETE -> {
+                versionRepository.deleteAllByBranchId(branch.getId());
+                branchRepository.delete(branch);
+            }
         }
     }
 
@@ -0,0 +1,5 @@
+package com.nipun.system.document.version;
+
+// consecutive lines introduced by one version, a null version marks lines not saved in any version yet
+public record BlameRun(Long versionId, int lines) {
+}
@@ -38,15 +38,7 @@ public class Version {
     @JoinColumn(name = "branch_id")
     private Branch branch;
 
-    @OneToOne(
-            cascade = {
-                    CascadeType.PERSIST,
-                    CascadeType.MERGE,
-                    CascadeType.REMOVE
-            },
-            orphanRemoval = true,
-            fetch = FetchType.LAZY
-    )
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "content_id")
     private Content content;
 
@@ -64,7 +56,21 @@ public class Version {
     @Column(name = "status")
     private Status status;
 
-    public String getVersionContent() {
-        return content.getContent();
+    @Enumerated(EnumType.STRING)
+    @Column(name = "encoding")
+    private VersionEncoding encoding;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "previous_version_id")
+    private Version previousVersion;
+
+    @Column(name = "chain_length")
+    private int chainLength;
+
+    @Column(name = "content_hash")
+    private String contentHash;
+
+    public boolean isDelta() {
+        return VersionEncoding.DELTA.equals(encoding);
     }
 }
@@ -0,0 +1,31 @@
+package com.nipun.system.document.version;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Immutable
+@Entity
+@Table(name = "document_version_blames")
+public class VersionBlame {
+
+    @Id
+    @Column(name = "version_id")
+    private Long versionId;
+
+    @Column(name = "runs")
+    private String runs;
+
+    @Column(name = "line_count")
+    private int lineCount;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,24 @@
+package com.nipun.system.document.version;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface VersionBlameRepository extends JpaRepository<VersionBlame, Long> {
+
+    // concurrent requests may attribute the same version, the first one wins and both are identical
+    @Modifying
+    @Query(
+            value = """
+                    insert ignore into document_version_blames (version_id, runs, line_count)
+                    values (:versionId, :runs, :lineCount)
+                    """,
+            nativeQuery = true
+    )
+    int insertIfAbsent(
+            @Param("versionId") Long versionId,
+            @Param("runs") String runs,
+            @Param("lineCount") int lineCount
+    );
+}
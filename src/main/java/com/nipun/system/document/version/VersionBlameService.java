@@ -0,0 +1,78 @@
+package com.nipun.system.document.version;
+
+import com.nipun.system.document.branch.Branch;
+import com.nipun.system.document.diff.DiffService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+@RequiredArgsConstructor
+@Service
+public class VersionBlameService {
+
+    private final VersionRepository versionRepository;
+    private final VersionBlameRepository versionBlameRepository;
+    private final VersionContentService versionContentService;
+    private final DiffService diffService;
+
+    // walks back to the newest version with a stored attribution, so a new version
+    // only costs one line diff against its predecessor, every computed step is stored
+    public List<BlameRun> blame(Version version) {
+        var pending = new ArrayDeque<Version>();
+        List<BlameRun> runs = List.of();
+        Version attributed = null;
+
+        for (var current = version; current != null; current = findPredecessor(current)) {
+            var stored = versionBlameRepository.findById(current.getId());
+
+            if (stored.isPresent()) {
+                runs = VersionBlameUtils.decode(stored.get().getRuns());
+                attributed = current;
+                break;
+            }
+
+            pending.push(current);
+        }
+
+        if (pending.isEmpty())
+            return runs;
+
+        var previousContent = attributed == null ? "" : versionContentService.resolve(attributed);
+
+        while (!pending.isEmpty()) {
+            var next = pending.pop();
+            var content = versionContentService.resolve(next);
+
+            runs = VersionBlameUtils.apply(runs, diffService.getLineDiffs(previousContent, content), next.getId());
+            versionBlameRepository.insertIfAbsent(next.getId(), VersionBlameUtils.encode(runs), VersionBlameUtils.lineCount(runs));
+
+            previousContent = content;
+        }
+
+        return runs;
+    }
+
+    // lines changed after the latest version are attributed to no version
+    public List<BlameRun> blame(Branch branch, String branchContent) {
+        var latest = versionRepository.findFirstByBranchIdOrderByIdDesc(branch.getId());
+
+        if (latest.isEmpty())
+            return VersionBlameUtils.apply(List.of(), diffService.getLineDiffs("", branchContent), null);
+
+        var runs = blame(latest.get());
+        var versionContent = versionContentService.resolve(latest.get());
+
+        if (versionContent.equals(branchContent))
+            return runs;
+
+        return VersionBlameUtils.apply(runs, diffService.getLineDiffs(versionContent, branchContent), null);
+    }
+
+    private Version findPredecessor(Version version) {
+        return versionRepository
+                .findFirstByBranchIdAndIdLessThanOrderByIdDesc(version.getBranch().getId(), version.getId())
+                .orElse(null);
+    }
+}
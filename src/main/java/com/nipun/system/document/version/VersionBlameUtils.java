@@ -0,0 +1,99 @@
+package com.nipun.system.document.version;
+
+import com.nipun.system.document.diff.DiffRow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public class VersionBlameUtils {
+
+    // carries the attribution of unchanged lines over a line diff, inserted lines belong to versionId
+    public static List<BlameRun> apply(List<BlameRun> previous, List<DiffRow> lineDiffs, Long versionId) {
+        var runs = new ArrayList<BlameRun>();
+        var index = 0;
+        var consumed = 0;
+
+        for (var diff : lineDiffs) {
+            var lines = countLines(diff.getText());
+
+            if (diff.getOperation().equals("INSERT")) {
+                append(runs, versionId, lines);
+                continue;
+            }
+
+            var keep = diff.getOperation().equals("EQUAL");
+            while (lines > 0 && index < previous.size()) {
+                var run = previous.get(index);
+                var taken = Math.min(lines, run.lines() - consumed);
+
+                if (keep)
+                    append(runs, run.versionId(), taken);
+
+                lines -= taken;
+                consumed += taken;
+                if (consumed == run.lines()) {
+                    index++;
+                    consumed = 0;
+                }
+            }
+        }
+
+        return runs;
+    }
+
+    public static String encode(List<BlameRun> runs) {
+        var builder = new StringBuilder();
+        for (var run : runs) {
+            if (!builder.isEmpty())
+                builder.append(',');
+            builder.append(run.versionId() == null ? "" : run.versionId()).append(':').append(run.lines());
+        }
+        return builder.toString();
+    }
+
+    public static List<BlameRun> decode(String encoded) {
+        var runs = new ArrayList<BlameRun>();
+        if (encoded == null || encoded.isEmpty())
+            return runs;
+
+        for (var run : encoded.split(",")) {
+            var separator = run.indexOf(':');
+            var versionId = run.substring(0, separator);
+            runs.add(new BlameRun(
+                    versionId.isEmpty() ? null : Long.valueOf(versionId),
+                    Integer.parseInt(run.substring(separator + 1))
+            ));
+        }
+        return runs;
+    }
+
+    public static int lineCount(List<BlameRun> runs) {
+        return runs.stream().mapToInt(BlameRun::lines).sum();
+    }
+
+    // every line ends with a line break except possibly the last one of the content
+    public static int countLines(String text) {
+        if (text == null || text.isEmpty())
+            return 0;
+
+        var count = 0;
+        for (var i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n')
+                count++;
+        }
+        return text.endsWith("\n") ? count : count + 1;
+    }
+
+    private static void append(List<BlameRun> runs, Long versionId, int lines) {
+        if (lines == 0)
+            return;
+
+        if (!runs.isEmpty() && Objects.equals(runs.getLast().versionId(), versionId)) {
+            runs.set(runs.size() - 1, new BlameRun(versionId, runs.getLast().lines() + lines));
+            return;
+        }
+
+        runs.add(new BlameRun(versionId, lines));
+    }
+}
@@ -0,0 +1,106 @@
+package com.nipun.system.document.version;
+
+import com.nipun.system.document.content.Content;
+import com.nipun.system.document.content.ContentHashUtils;
+import com.nipun.system.document.content.ContentService;
+import com.nipun.system.document.diff.DiffService;
+import com.nipun.system.document.diff.exceptions.PatchFailedException;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+
+@RequiredArgsConstructor
+@Service
+public class VersionContentService {
+
+    private final VersionRepository versionRepository;
+    private final ContentService contentService;
+    private final DiffService diffService;
+
+    @Value("${document.versions.encoding}")
+    private VersionEncoding encoding;
+
+    @Value("${document.versions.keyframe-interval}")
+    private int keyframeInterval;
+
+    public void encode(Version version) {
+        if (encoding != VersionEncoding.DELTA)
+            return;
+
+        var previous = versionRepository
+                .findFirstByBranchIdOrderByIdDesc(version.getBranch().getId())
+                .orElse(null);
+
+        if (previous == null || previous.getChainLength() + 1 >= keyframeInterval)
+            return;
+
+        var content = version.getContent().getContent();
+        var patch = diffService.createPatch(resolve(previous), content);
+
+        if (patch.length() >= content.length())
+            return;
+
+        version.setEncoding(VersionEncoding.DELTA);
+        version.setPreviousVersion(previous);
+        version.setChainLength(previous.getChainLength() + 1);
+        version.setContent(contentService.store(patch));
+    }
+
+    public String resolve(Version version) {
+        var deltas = new ArrayDeque<Version>();
+
+        var keyframe = version;
+        while (keyframe.isDelta()) {
+            deltas.push(keyframe);
+            keyframe = keyframe.getPreviousVersion();
+
+            if (keyframe == null)
+                throw new PatchFailedException("Version chain is broken, a predecessor of this version is missing");
+        }
+
+        var content = keyframe.getContent().getContent();
+        while (!deltas.isEmpty())
+            content = diffService.applyPatch(content, deltas.pop().getContent().getContent());
+
+        if (version.getContentHash() != null && !version.getContentHash().equals(ContentHashUtils.hash(content)))
+            throw new PatchFailedException("Version content does not match its recorded hash");
+
+        return content;
+    }
+
+    public String hash(Version version) {
+        if (!version.isDelta())
+            return version.getContent().getHash();
+
+        return version.getContentHash() != null ? version.getContentHash() : ContentHashUtils.hash(resolve(version));
+    }
+
+    public Content resolveDetached(Version version) {
+        if (!version.isDelta())
+            return (Content) Hibernate.unproxy(version.getContent());
+
+        var content = resolve(version);
+
+        return Content.builder()
+                .hash(version.getContentHash() != null ? version.getContentHash() : ContentHashUtils.hash(content))
+                .content(content)
+                .build();
+    }
+
+    // a content already stored under the recorded hash is reused without replaying the chain
+    public Content resolveContent(Version version) {
+        if (!version.isDelta())
+            return version.getContent();
+
+        if (version.getContentHash() != null) {
+            var stored = contentService.findForReference(version.getContentHash());
+            if (stored.isPresent())
+                return stored.get();
+        }
+
+        return contentService.store(resolve(version));
+    }
+}
@@ -1,9 +1,16 @@
 package com.nipun.system.document.version;
 
+import com.nipun.system.document.base.dtos.ContentLinesResponse;
 import com.nipun.system.document.base.dtos.ContentResponse;
+import com.nipun.system.document.content.ContentStreamer;
+import com.nipun.system.document.diff.DiffMode;
+import com.nipun.system.document.diff.DiffStreamer;
+import com.nipun.system.document.diff.dtos.DiffPageResponse;
 import com.nipun.system.document.diff.dtos.DiffResponse;
+import com.nipun.system.document.version.dtos.BlameResponse;
 import com.nipun.system.document.version.dtos.CreateVersionRequest;
 import com.nipun.system.document.version.dtos.VersionResponse;
+import com.nipun.system.shared.dtos.CursorPaginatedData;
 import com.nipun.system.shared.dtos.PaginatedData;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,8 +18,10 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.UUID;
 
@@ -23,6 +32,8 @@ import java.util.UUID;
 public class VersionController {
 
     private final VersionService versionService;
+    private final ContentStreamer contentStreamer;
+    private final DiffStreamer diffStreamer;
 
     @RateLimiter(name = "default")
     @PostMapping("/{documentId}/branches/{branchId}/versions")
@@ -60,6 +71,28 @@ public class VersionController {
         return ResponseEntity.ok(paginatedVersions);
     }
 
+    @RateLimiter(name = "default")
+    @GetMapping("/{documentId}/versions/scroll")
+    @Operation(summary = "Scroll document versions", description = "Get document versions page by page with a cursor")
+    public ResponseEntity<CursorPaginatedData> scrollDocumentVersions(
+            @PathVariable(name = "documentId")
+            @Parameter(description = "The ID of the document", example = "bfb8777b-59bd-422b-8132-d1f64b09590d")
+            UUID documentId,
+            @RequestParam(name = "cursor", required = false)
+            @Parameter(description = "Cursor returned with the previous page, omitted for the first page")
+            String cursor,
+            @RequestParam(name = "page-size", defaultValue = "20")
+            @Parameter(description = "Required page size")
+            int pageSize,
+            @RequestParam(name = "include-total", defaultValue = "false")
+            @Parameter(description = "Count the total number of elements")
+            boolean includeTotal
+    ) {
+        var paginatedVersions = versionService
+                .getAllDocumentVersions(documentId, cursor, pageSize, includeTotal);
+        return ResponseEntity.ok(paginatedVersions);
+    }
+
     @RateLimiter(name = "default")
     @GetMapping("/{documentId}/versions/{versionId}")
     @Operation(summary = "Get document version content", description = "Get document version content by document ID and version ID")
@@ -75,6 +108,46 @@ public class VersionController {
         return ResponseEntity.ok(versionContentDto);
     }
 
+    @RateLimiter(name = "globalLimiter")
+    @GetMapping("/{documentId}/versions/{versionId}/lines")
+    @Operation(summary = "Get version content lines", description = "Get a range of lines of a version content")
+    public ResponseEntity<ContentLinesResponse> getVersionContentLines(
+            @PathVariable(name = "documentId")
+            @Parameter(description = "The ID of the document", example = "bfb8777b-59bd-422b-8132-d1f64b09590d")
+            UUID documentId,
+            @PathVariable(name = "versionId")
+            @Parameter(description = "Document version ID", example = "d361bae1-01ee-4392-811c-57b9593c2460")
+            UUID versionId,
+            @RequestParam(name = "from-line", defaultValue = "1")
+            @Parameter(description = "First line to return, counted from one")
+            long fromLine,
+            @RequestParam(name = "to-line")
+            @Parameter(description = "Last line to return, inclusive")
+            long toLine
+    ) {
+        var contentLinesResponse = versionService.getVersionContentLines(documentId, versionId, fromLine, toLine);
+        return ResponseEntity.ok(contentLinesResponse);
+    }
+
+    @RateLimiter(name = "default")
+    @GetMapping("/{documentId}/versions/{versionId}/raw")
+    @Operation(summary = "Download document version content", description = "Stream raw document version content with range and ETag support")
+    public ResponseEntity<StreamingResponseBody> getRawDocumentVersionContent(
+            @PathVariable(name = "documentId")
+            @Parameter(description = "The ID of the document", example = "bfb8777b-59bd-422b-8132-d1f64b09590d")
+            UUID documentId,
+            @Parameter(description = "Document version ID", example = "d361bae1-01ee-4392-811c-57b9593c2460")
+            @PathVariable(name = "versionId")
+            UUID versionId,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false)
+            String ifNoneMatch,
+            @RequestHeader(name = HttpHeaders.RANGE, required = false)
+            String range
+    ) {
+        var content = versionService.getRawVersionContent(documentId, versionId);
+        return contentStreamer.stream(content, ifNoneMatch, range);
+    }
+
     @RateLimiter(name = "globalLimiter")
     @GetMapping("/{documentId}/versions/diffs")
     @Operation(summary = "Compare Diffs", description = "Compare document version diffs")
@@ -87,12 +160,84 @@ public class VersionController {
             UUID base,
             @RequestParam(name = "compare-version")
             @Parameter(description = "Comparing version ID", example = "be0ff390-f94a-42d1-922a-893feae4aa0a")
-            UUID compare
+            UUID compare,
+            @RequestParam(name = "mode", defaultValue = "AUTO")
+            @Parameter(description = "Diff granularity, AUTO picks one by content size", example = "LINE")
+            DiffMode mode
     ) {
-        var diffResponseDto = versionService.getVersionDiffs(documentId, base, compare);
+        var diffResponseDto = versionService.getVersionDiffs(documentId, base, compare, mode);
         return ResponseEntity.ok(diffResponseDto);
     }
 
+    @RateLimiter(name = "globalLimiter")
+    @GetMapping("/{documentId}/versions/diffs/hunks")
+    @Operation(summary = "Compare version diffs by hunk", description = "Get a page of version diff hunks")
+    public ResponseEntity<DiffPageResponse> getVersionDiffPage(
+            @PathVariable(name = "documentId")
+            @Parameter(description = "The ID of the document", example = "bfb8777b-59bd-422b-8132-d1f64b09590d")
+            UUID documentId,
+            @RequestParam(name = "base-version")
+            @Parameter(description = "Base version ID", example = "d361bae1-01ee-4392-811c-57b9593c2460")
+            UUID base,
+            @RequestParam(name = "compare-version")
+            @Parameter(description = "Comparing version ID", example = "be0ff390-f94a-42d1-922a-893feae4aa0a")
+            UUID compare,
+            @RequestParam(name = "mode", defaultValue = "AUTO")
+            @Parameter(description = "Diff granularity, AUTO picks one by content size", example = "LINE")
+            DiffMode mode,
+            @RequestParam(name = "context-lines", defaultValue = "3")
+            @Parameter(description = "Unchanged lines kept around each change")
+            int contextLines,
+            @RequestParam(name = "cursor", defaultValue = "0")
+            @Parameter(description = "Index of the first hunk, taken from the previous page")
+            int cursor,
+            @RequestParam(name = "page-size", defaultValue = "20")
+            @Parameter(description = "Required number of hunks")
+            int pageSize
+    ) {
+        var diffPageResponse = versionService.getVersionDiffPage(documentId, base, compare, mode, contextLines, cursor, pageSize);
+        return ResponseEntity.ok(diffPageResponse);
+    }
+
+    @RateLimiter(name = "globalLimiter")
+    @GetMapping("/{documentId}/versions/diffs/stream")
+    @Operation(summary = "Stream version diffs", description = "Stream version diff hunks as newline delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamVersionDiffs(
+            @PathVariable(name = "documentId")
+            @Parameter(description = "The ID of the document", example = "bfb8777b-59bd-422b-8132-d1f64b09590d")
+            UUID documentId,
+            @RequestParam(name = "base-version")
+            @Parameter(description = "Base version ID", example = "d361bae1-01ee-4392-811c-57b9593c2460")
+            UUID base,
+            @RequestParam(name = "compare-version")
+            @Parameter(description = "Comparing version ID", example = "be0ff390-f94a-42d1-922a-893feae4aa0a")
+            UUID compare,
+            @RequestParam(name = "mode", defaultValue = "AUTO")
+            @Parameter(description = "Diff granularity, AUTO picks one by content size", example = "LINE")
+            DiffMode mode,
+            @RequestParam(name = "context-lines", defaultValue = "3")
+            @Parameter(description = "Unchanged lines kept around each change")
+            int contextLines
+    ) {
+        var hunks = versionService.getVersionDiffHunks(documentId, base, compare, mode, contextLines);
+        return diffStreamer.stream(hunks);
+    }
+
+    @RateLimiter(name = "globalLimiter")
+    @GetMapping("/{documentId}/branches/{branchId}/blame")
+    @Operation(summary = "Blame branch", description = "Attribute every line of a branch to the version that introduced it")
+    public ResponseEntity<BlameResponse> getBranchBlame(
+            @PathVariable(name = "documentId")
+            @Parameter(description = "The ID of the document", example = "bfb8777b-59bd-422b-8132-d1f64b09590d")
+            UUID documentId,
+            @PathVariable(name = "branchId")
+            @Parameter(description = "Document branch ID", example = "d361bae1-01ee-4392-811c-57b9593c2460")
+            UUID branchId
+    ) {
+        var blameResponse = versionService.getBranchBlame(documentId, branchId);
+        return ResponseEntity.ok(blameResponse);
+    }
+
     @RateLimiter(name = "globalLimiter")
     @PostMapping("/{documentId}/branches/{branchId}/merge/versions/{versionId}")
     @Operation(summary = "Restore to specific", description = "Restore document to the specific version")
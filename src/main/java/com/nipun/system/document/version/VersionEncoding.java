@@ -0,0 +1,6 @@
+package com.nipun.system.document.version;
+
+public enum VersionEncoding {
+    FULL,
+    DELTA
+}
@@ -15,21 +15,22 @@ public class VersionFactory {
     public Version createNewVersion(
             Branch branch,
             User createdBy,
-            String content,
+            Content content,
             String title,
             Status status
 
     ) {
-        var versionContent = Content.builder().content(content).build();
-
         return Version.builder()
                 .publicId(UUID.randomUUID())
                 .branch(branch)
                 .createdBy(createdBy)
-                .content(versionContent)
+                .content(content)
                 .versionTitle(title)
                 .createdAt(LocalDateTime.now())
                 .status(status)
+                .encoding(VersionEncoding.FULL)
+                .chainLength(0)
+                .contentHash(content.getHash())
                 .build();
     }
 }
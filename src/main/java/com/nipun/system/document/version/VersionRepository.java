@@ -4,9 +4,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -20,8 +23,67 @@ public interface VersionRepository extends JpaRepository<Version, Long> {
     @Query("select v from Version v where v.branch.document.id = :documentId and v.status = 'PUBLIC'")
     Page<Version> findAllByBranchDocumentIdAndStatusPublic(@Param("documentId") Long documentId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"branch"})
+    @Query("""
+            select v from Version v
+            where v.branch.document.id = :documentId
+              and v.createdAt <= :createdAt and (v.createdAt < :createdAt or v.id < :id)
+            order by v.createdAt desc, v.id desc
+            """)
+    List<Version> findPageByBranchDocumentId(
+            @Param("documentId") Long documentId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    @EntityGraph(attributePaths = {"branch"})
+    @Query("""
+            select v from Version v
+            where v.branch.document.id = :documentId and v.status = 'PUBLIC'
+              and v.createdAt <= :createdAt and (v.createdAt < :createdAt or v.id < :id)
+            order by v.createdAt desc, v.id desc
+            """)
+    List<Version> findPublicPageByBranchDocumentId(
+            @Param("documentId") Long documentId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    @Query("select count(v) from Version v where v.branch.document.id = :documentId")
+    long countAllByBranchDocumentId(@Param("documentId") Long documentId);
+
+    @Query("select count(v) from Version v where v.branch.document.id = :documentId and v.status = 'PUBLIC'")
+    long countAllPublicByBranchDocumentId(@Param("documentId") Long documentId);
+
     @Query("select v from Version v where v.publicId = :publicId and v.branch.document.id = :documentId")
     Optional<Version> findDocumentBranchVersion(@Param("publicId") UUID publicId, @Param("documentId") Long documentId);
 
     Optional<Version> findByPublicIdAndBranchDocumentId(UUID versionId, Long documentId);
-}
\ No newline at end of file
+
+    @EntityGraph(attributePaths = {"content"})
+    Optional<Version> findFirstByBranchIdOrderByIdDesc(Long branchId);
+
+    @EntityGraph(attributePaths = {"content"})
+    Optional<Version> findFirstByBranchIdAndIdLessThanOrderByIdDesc(Long branchId, Long id);
+
+    // deltas reference their predecessor with ON DELETE RESTRICT, so successors have to go first
+    @Modifying
+    @Query(
+            value = "delete from document_versions where branch_id = :branchId order by id desc",
+            nativeQuery = true
+    )
+    int deleteAllByBranchId(@Param("branchId") Long branchId);
+
+    @Modifying
+    @Query(
+            value = """
+                    delete from document_versions
+                    where branch_id in (select b.id from document_branches b where b.document_id = :documentId)
+                    order by id desc
+                    """,
+            nativeQuery = true
+    )
+    int deleteAllByDocumentId(@Param("documentId") Long documentId);
+}
@@ -2,34 +2,54 @@ package com.nipun.system.document.version;
 
 import com.nipun.system.document.Status;
 import com.nipun.system.document.base.DocumentRepository;
+import com.nipun.system.document.base.dtos.ContentLinesResponse;
 import com.nipun.system.document.base.dtos.ContentResponse;
 import com.nipun.system.document.base.exceptions.DocumentNotFoundException;
+import com.nipun.system.document.content.Content;
+import com.nipun.system.document.content.ContentLineService;
 import com.nipun.system.document.branch.BranchRepository;
+import com.nipun.system.document.branch.BranchRevisionService;
+import com.nipun.system.document.branch.BranchWriteBuffer;
 import com.nipun.system.document.branch.exceptions.BranchNotFoundException;
+import com.nipun.system.document.diff.DiffMode;
 import com.nipun.system.document.diff.DiffUtils;
+import com.nipun.system.document.diff.dtos.DiffHunk;
+import com.nipun.system.document.diff.dtos.DiffPageResponse;
 import com.nipun.system.document.diff.dtos.DiffResponse;
+import com.nipun.system.document.permission.DocumentAccessCache;
 import com.nipun.system.document.permission.PermissionUtils;
 import com.nipun.system.document.permission.exceptions.UnauthorizedDocumentException;
+import com.nipun.system.document.version.dtos.BlameRangeResponse;
+import com.nipun.system.document.version.dtos.BlameResponse;
 import com.nipun.system.document.version.dtos.VersionResponse;
 import com.nipun.system.document.version.exceptions.VersionNotFoundException;
+import com.nipun.system.shared.dtos.CursorPaginatedData;
 import com.nipun.system.shared.dtos.PaginatedData;
+import com.nipun.system.shared.utils.PageCursor;
+import com.nipun.system.shared.utils.PageCursorUtils;
 import com.nipun.system.shared.utils.UserIdUtils;
 import com.nipun.system.user.UserRepository;
 import lombok.AllArgsConstructor;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @AllArgsConstructor
 @Service
 public class VersionService {
 
     private final DocumentRepository documentRepository;
+    private final DocumentAccessCache documentAccessCache;
     private final VersionRepository versionRepository;
 
     private final VersionMapper versionMapper;
@@ -37,9 +57,15 @@ public class VersionService {
     private final DiffUtils diffUtils;
 
     private final VersionFactory versionFactory;
+    private final VersionContentService versionContentService;
+    private final VersionBlameService versionBlameService;
+    private final ContentLineService contentLineService;
 
     private final UserRepository userRepository;
     private final BranchRepository branchRepository;
+    private final BranchRevisionService branchRevisionService;
+    private final BranchWriteBuffer branchWriteBuffer;
+    private final CacheManager cacheManager;
 
 
     @Transactional
@@ -51,20 +77,23 @@ public class VersionService {
     ) {
         var userId = UserIdUtils.getUserIdFromContext();
 
-        var document = documentRepository
-                .findByPublicId(documentId)
+        var access = documentAccessCache
+                .findAccess(documentId, userId)
                 .orElseThrow(DocumentNotFoundException::new);
 
-        PermissionUtils.checkUserCanWrite(userId, document);
+        PermissionUtils.checkUserCanWrite(access);
 
         var user = userRepository.findById(userId).orElseThrow();
 
-        var branch = document.getBranch(branchId);
+        branchWriteBuffer.flush(branchId);
 
-        if (branch == null)
-            throw new BranchNotFoundException();
+        var branch = branchRepository
+                .findByPublicIdAndDocumentId(branchId, access.documentId())
+                .orElseThrow(BranchNotFoundException::new);
+
+        var version = versionFactory.createNewVersion(branch, user, branch.getContent(), title, status);
 
-        var version = versionFactory.createNewVersion(branch, user, branch.getBranchContent(), title, status);
+        versionContentService.encode(version);
 
         version = versionRepository.save(version);
 
@@ -75,13 +104,15 @@ public class VersionService {
     public PaginatedData getAllDocumentVersions(UUID documentId, int pageNumber, int size) {
         var userId = UserIdUtils.getUserIdFromContext();
 
-        var document = documentRepository.findByPublicId(documentId).orElseThrow(DocumentNotFoundException::new);
+        var access = documentAccessCache
+                .findAccess(documentId, userId)
+                .orElseThrow(DocumentNotFoundException::new);
 
         PageRequest pageRequest = PageRequest.of(pageNumber, size);
 
-        Page<Version> versions = PermissionUtils.isUnauthorizedUser(userId, document)
-                ? versionRepository.findAllByBranchDocumentIdAndStatusPublic(document.getId(), pageRequest)
-                : versionRepository.findAllByBranchDocumentId(document.getId(), pageRequest);
+        Page<Version> versions = PermissionUtils.isUnauthorizedUser(access)
+                ? versionRepository.findAllByBranchDocumentIdAndStatusPublic(access.documentId(), pageRequest)
+                : versionRepository.findAllByBranchDocumentId(access.documentId(), pageRequest);
 
         var versionDtoList = versions.stream()
                 .map(versionMapper::toDto)
@@ -98,74 +129,254 @@ public class VersionService {
         );
     }
 
-    @Cacheable(value = "document_version_contents", key = "{#documentId, #versionId}")
+    @Transactional(readOnly = true)
+    public CursorPaginatedData getAllDocumentVersions(UUID documentId, String cursor, int size, boolean includeTotal) {
+        var userId = UserIdUtils.getUserIdFromContext();
+
+        var access = documentAccessCache
+                .findAccess(documentId, userId)
+                .orElseThrow(DocumentNotFoundException::new);
+
+        var position = PageCursorUtils.decode(cursor);
+        var publicOnly = PermissionUtils.isUnauthorizedUser(access);
+
+        var versions = publicOnly
+                ? versionRepository.findPublicPageByBranchDocumentId(
+                access.documentId(), position.createdAt(), position.id(), PageCursorUtils.seekPage(size))
+                : versionRepository.findPageByBranchDocumentId(
+                access.documentId(), position.createdAt(), position.id(), PageCursorUtils.seekPage(size));
+
+        Long totalElements = null;
+        if (includeTotal)
+            totalElements = publicOnly
+                    ? versionRepository.countAllPublicByBranchDocumentId(access.documentId())
+                    : versionRepository.countAllByBranchDocumentId(access.documentId());
+
+        return PageCursorUtils.toPaginatedData(
+                versions,
+                size,
+                version -> new PageCursor(version.getCreatedAt(), version.getId()),
+                versionMapper::toDto,
+                totalElements
+        );
+    }
+
+    // a cached content is served straight away only to users who may read every version of the document,
+    // anyone else goes through the version status check
     @Transactional(readOnly = true)
     public ContentResponse getVersionContent(UUID documentId, UUID versionId) {
-        var document = documentRepository
-                .findByPublicId(documentId)
+        var userId = UserIdUtils.getUserIdFromContext();
+
+        var access = documentAccessCache
+                .findAccess(documentId, userId)
+                .orElseThrow(DocumentNotFoundException::new);
+
+        var cache = cacheManager.getCache("document_version_contents");
+        var key = List.of(documentId, versionId);
+
+        if (cache != null && !PermissionUtils.isUnauthorizedUser(access)) {
+            var cached = cache.get(key, ContentResponse.class);
+            if (cached != null)
+                return cached;
+        }
+
+        var version = versionRepository
+                .findDocumentBranchVersion(versionId, access.documentId())
+                .orElseThrow(VersionNotFoundException::new);
+
+        if (!version.getStatus().equals(Status.PUBLIC) && PermissionUtils.isUnauthorizedUser(access))
+            throw new UnauthorizedDocumentException();
+
+        var response = new ContentResponse(versionContentService.resolve(version));
+
+        if (cache != null)
+            cache.put(key, response);
+
+        return response;
+    }
+
+    @Transactional(readOnly = true)
+    public Content getRawVersionContent(UUID documentId, UUID versionId) {
+        var internalDocumentId = documentRepository
+                .findIdByPublicId(documentId)
                 .orElseThrow(DocumentNotFoundException::new);
 
         var version = versionRepository
-                .findDocumentBranchVersion(versionId, document.getId())
+                .findDocumentBranchVersion(versionId, internalDocumentId)
                 .orElseThrow(VersionNotFoundException::new);
 
-        if (version.getStatus().equals(Status.PUBLIC))
-            return new ContentResponse(version.getVersionContent());
+        if (!version.getStatus().equals(Status.PUBLIC)) {
+            var userId = UserIdUtils.getUserIdFromContext();
+            var access = documentAccessCache
+                    .findAccess(documentId, userId)
+                    .orElseThrow(DocumentNotFoundException::new);
+
+            if (PermissionUtils.isUnauthorizedUser(access))
+                throw new UnauthorizedDocumentException();
+        }
+
+        return versionContentService.resolveDetached(version);
+    }
+
+    // not read only, the first read of a content stores its line index
+    @Transactional
+    public ContentLinesResponse getVersionContentLines(UUID documentId, UUID versionId, long fromLine, long toLine) {
+        var internalDocumentId = documentRepository
+                .findIdByPublicId(documentId)
+                .orElseThrow(DocumentNotFoundException::new);
 
+        var version = versionRepository
+                .findDocumentBranchVersion(versionId, internalDocumentId)
+                .orElseThrow(VersionNotFoundException::new);
+
+        if (!version.getStatus().equals(Status.PUBLIC)) {
+            var userId = UserIdUtils.getUserIdFromContext();
+            var access = documentAccessCache
+                    .findAccess(documentId, userId)
+                    .orElseThrow(DocumentNotFoundException::new);
+
+            if (PermissionUtils.isUnauthorizedUser(access))
+                throw new UnauthorizedDocumentException();
+        }
+
+        // a persisted row is needed for the line index, so deltas are resolved into a stored content
+        return contentLineService.readLines(versionContentService.resolveContent(version), fromLine, toLine);
+    }
+
+    @Transactional
+    public BlameResponse getBranchBlame(UUID documentId, UUID branchId) {
         var userId = UserIdUtils.getUserIdFromContext();
 
-        if (PermissionUtils.isUnauthorizedUser(userId, document))
+        var access = documentAccessCache
+                .findAccess(documentId, userId)
+                .orElseThrow(DocumentNotFoundException::new);
+
+        if (PermissionUtils.isUnauthorizedUser(access))
             throw new UnauthorizedDocumentException();
 
-        return new ContentResponse(version.getVersionContent());
+        branchWriteBuffer.flush(branchId);
+
+        var branch = branchRepository
+                .findByPublicIdAndDocumentId(branchId, access.documentId())
+                .orElseThrow(BranchNotFoundException::new);
+
+        var runs = versionBlameService.blame(branch, branch.getBranchContent());
+
+        var versionIds = runs.stream()
+                .map(BlameRun::versionId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        var versions = versionRepository.findAllById(versionIds)
+                .stream()
+                .collect(Collectors.toMap(Version::getId, versionMapper::toDto));
+
+        var ranges = new ArrayList<BlameRangeResponse>();
+        var line = 1;
+        for (var run : runs) {
+            ranges.add(new BlameRangeResponse(line, run.lines(), versions.get(run.versionId())));
+            line += run.lines();
+        }
+
+        return new BlameResponse(line - 1, ranges);
     }
 
-    @CacheEvict(value = "document_version_contents", key = "{#documentId, #versionId}")
+    @CacheEvict(value = "document_branch_contents", key = "{#documentId, #branchId}")
     @Transactional
     public void mergeVersionToBranch(UUID documentId, UUID branchId, UUID versionId) {
         var userId = UserIdUtils.getUserIdFromContext();
 
-        var document = documentRepository
-                .findByPublicId(documentId)
+        var access = documentAccessCache
+                .findAccess(documentId, userId)
                 .orElseThrow(DocumentNotFoundException::new);
 
-        PermissionUtils.checkUserCanWrite(userId, document);
+        PermissionUtils.checkUserCanWrite(access);
+
+        branchWriteBuffer.flush(branchId);
 
         var branch = branchRepository
-                .findByPublicIdAndDocumentId(branchId, document.getId())
+                .findWithLockByPublicIdAndDocumentId(branchId, access.documentId())
                 .orElseThrow(BranchNotFoundException::new);
 
         var version = versionRepository
-                .findByPublicIdAndBranchDocumentId(versionId, document.getId())
+                .findByPublicIdAndBranchDocumentId(versionId, access.documentId())
                 .orElseThrow(VersionNotFoundException::new);
 
-        branch.setBranchContent(version.getVersionContent());
+        branchRevisionService.updateContent(branch, versionContentService.resolveContent(version));
+    }
+
+    @Transactional(readOnly = true)
+    public DiffResponse getVersionDiffs(UUID documentId, UUID base, UUID compare, DiffMode mode) {
+        var versions = findComparedVersions(documentId, base, compare);
+
+        return diffUtils.buildDiffResponse(
+                versionContentService.hash(versions.getFirst()),
+                () -> versionContentService.resolve(versions.getFirst()),
+                versionContentService.hash(versions.getLast()),
+                () -> versionContentService.resolve(versions.getLast()),
+                mode
+        );
+    }
+
+    @Transactional(readOnly = true)
+    public DiffPageResponse getVersionDiffPage(
+            UUID documentId, UUID base, UUID compare, DiffMode mode, int contextLines, int cursor, int size
+    ) {
+        var versions = findComparedVersions(documentId, base, compare);
+
+        var baseHash = versionContentService.hash(versions.getFirst());
+        var compareHash = versionContentService.hash(versions.getLast());
 
-        branchRepository.save(branch);
+        var diffs = diffUtils.buildDiffResponse(
+                baseHash,
+                () -> versionContentService.resolve(versions.getFirst()),
+                compareHash,
+                () -> versionContentService.resolve(versions.getLast()),
+                mode
+        );
+        var index = diffUtils.buildDiffHunkIndex(baseHash, compareHash, diffUtils.fingerprint(diffs), diffs, contextLines);
+
+        return diffUtils.buildDiffPage(diffs, index, contextLines, cursor, size);
     }
 
-    @Cacheable(value = "document_version_diffs", key = "{#documentId, #base, #compare}")
     @Transactional(readOnly = true)
-    public DiffResponse getVersionDiffs(UUID documentId, UUID base, UUID compare) {
-        var document = documentRepository.findByPublicId(documentId)
+    public Iterator<DiffHunk> getVersionDiffHunks(UUID documentId, UUID base, UUID compare, DiffMode mode, int contextLines) {
+        var versions = findComparedVersions(documentId, base, compare);
+
+        var diffs = diffUtils.buildDiffResponse(
+                versionContentService.hash(versions.getFirst()),
+                () -> versionContentService.resolve(versions.getFirst()),
+                versionContentService.hash(versions.getLast()),
+                () -> versionContentService.resolve(versions.getLast()),
+                mode
+        );
+
+        return diffUtils.iterateDiffHunks(diffs, contextLines);
+    }
+
+    private List<Version> findComparedVersions(UUID documentId, UUID base, UUID compare) {
+        var internalDocumentId = documentRepository
+                .findIdByPublicId(documentId)
                 .orElseThrow(DocumentNotFoundException::new);
 
         var baseVersion = versionRepository
-                .findDocumentBranchVersion(base, document.getId())
+                .findDocumentBranchVersion(base, internalDocumentId)
                 .orElseThrow(VersionNotFoundException::new);
 
         var compareVersion = versionRepository
-                .findDocumentBranchVersion(compare, document.getId())
+                .findDocumentBranchVersion(compare, internalDocumentId)
                 .orElseThrow(VersionNotFoundException::new);
 
-        if (baseVersion.getStatus().equals(Status.PUBLIC) && compareVersion.getStatus().equals(Status.PUBLIC))
-            return diffUtils.buildDiffResponse(baseVersion.getVersionContent(), compareVersion.getVersionContent());
-
-        var userId = UserIdUtils.getUserIdFromContext();
+        if (!baseVersion.getStatus().equals(Status.PUBLIC) || !compareVersion.getStatus().equals(Status.PUBLIC)) {
+            var userId = UserIdUtils.getUserIdFromContext();
+            var access = documentAccessCache
+                    .findAccess(documentId, userId)
+                    .orElseThrow(DocumentNotFoundException::new);
 
-        if (PermissionUtils.isUnauthorizedUser(userId, document))
-            throw new UnauthorizedDocumentException();
+            if (PermissionUtils.isUnauthorizedUser(access))
+                throw new UnauthorizedDocumentException();
+        }
 
-        return diffUtils.buildDiffResponse(baseVersion.getVersionContent(), compareVersion.getVersionContent());
+        return List.of(baseVersion, compareVersion);
     }
 }
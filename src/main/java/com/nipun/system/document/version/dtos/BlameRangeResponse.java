@@ -0,0 +1,16 @@
+package com.nipun.system.document.version.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class BlameRangeResponse {
+    private int startLine;
+
+    private int lineCount;
+
+    private VersionResponse version;
+}
@@ -0,0 +1,16 @@
+package com.nipun.system.document.version.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class BlameResponse {
+    private int lineCount;
+
+    private List<BlameRangeResponse> ranges;
+}
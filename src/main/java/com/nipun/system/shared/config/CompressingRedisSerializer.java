@@ -0,0 +1,55 @@
+package com.nipun.system.shared.config;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class CompressingRedisSerializer implements RedisSerializer<Object> {
+
+    private final RedisSerializer<Object> delegate;
+    private final int threshold;
+
+    public CompressingRedisSerializer(RedisSerializer<Object> delegate, int threshold) {
+        this.delegate = delegate;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        var bytes = delegate.serialize(value);
+        if (bytes == null || bytes.length < threshold)
+            return bytes;
+
+        var output = new ByteArrayOutputStream(bytes.length / 4);
+        try (var gzip = new GZIPOutputStream(output)) {
+            gzip.write(bytes);
+        } catch (IOException exception) {
+            throw new SerializationException("Could not compress cache value", exception);
+        }
+        return output.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        // entries written before compression or below the threshold are plain json
+        if (bytes == null || !isCompressed(bytes))
+            return delegate.deserialize(bytes);
+
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return delegate.deserialize(gzip.readAllBytes());
+        } catch (IOException exception) {
+            throw new SerializationException("Could not decompress cache value", exception);
+        }
+    }
+
+    private boolean isCompressed(byte[] bytes) {
+        return bytes.length > 2
+                && bytes[0] == (byte) GZIPInputStream.GZIP_MAGIC
+                && bytes[1] == (byte) (GZIPInputStream.GZIP_MAGIC >> 8);
+    }
+}
@@ -2,6 +2,7 @@ package com.nipun.system.shared.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,6 +11,7 @@ import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -19,6 +21,9 @@ import java.time.Duration;
 @Configuration
 public class RedisConfig {
 
+    @Value("${content.store.compression.threshold}")
+    private int compressionThreshold;
+
     @Bean
     LettuceConnectionFactory redisConnectionFactory(
             RedisProperties redisProperties
@@ -50,8 +55,20 @@ public class RedisConfig {
                         RedisSerializationContext.SerializationPair.fromSerializer(serializer)
                 );
 
+        RedisCacheConfiguration contentConfiguration = configuration
+                .serializeValuesWith(
+                        RedisSerializationContext.SerializationPair.fromSerializer(
+                                new CompressingRedisSerializer(serializer, compressionThreshold)
+                        )
+                );
+
         return RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(configuration)
+                .withCacheConfiguration("document_branch_contents", contentConfiguration)
+                .withCacheConfiguration("document_version_contents", contentConfiguration)
+                .withCacheConfiguration("document_content_diffs", contentConfiguration.entryTtl(Duration.ofDays(1)))
+                .withCacheConfiguration("document_content_diff_hunk_indexes", configuration.entryTtl(Duration.ofDays(1)))
+                .withCacheConfiguration("document_content_diff_stats", configuration.entryTtl(Duration.ofDays(1)))
                 .build();
     }
 
@@ -63,4 +80,11 @@ public class RedisConfig {
         template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
         return template;
     }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
 }
@@ -1,6 +1,8 @@
 package com.nipun.system.shared.config;
 
 import com.nipun.system.shared.interceptors.AuthChannelInterceptor;
+import com.nipun.system.shared.interceptors.BrokerDestinationInterceptor;
+import com.nipun.system.shared.interceptors.DocumentSubscriptionInterceptor;
 import lombok.AllArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
@@ -15,6 +17,8 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final AuthChannelInterceptor authChannelInterceptor;
+    private final BrokerDestinationInterceptor brokerDestinationInterceptor;
+    private final DocumentSubscriptionInterceptor documentSubscriptionInterceptor;
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
@@ -30,7 +34,7 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
-        registration.interceptors(authChannelInterceptor);
+        registration.interceptors(authChannelInterceptor, brokerDestinationInterceptor, documentSubscriptionInterceptor);
     }
 
 }
@@ -0,0 +1,14 @@
+package com.nipun.system.shared.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@AllArgsConstructor
+@Data
+public class CursorPaginatedData {
+    private Object data;
+    private int pageSize;
+    private String nextCursor;
+    private boolean hasNext;
+    private Long totalElements;
+}
@@ -4,6 +4,8 @@ import com.nipun.system.auth.exceptions.BadCredentialsException;
 import com.nipun.system.document.base.exceptions.DocumentNotFoundException;
 import com.nipun.system.document.branch.exceptions.BranchNotFoundException;
 import com.nipun.system.document.diff.exceptions.PatchFailedException;
+import com.nipun.system.document.folder.exceptions.InvalidFolderMoveException;
+import com.nipun.system.document.folder.exceptions.InvalidFolderPermissionException;
 import com.nipun.system.document.permission.exceptions.ReadOnlyDocumentException;
 import com.nipun.system.document.permission.exceptions.UnauthorizedDocumentException;
 import com.nipun.system.document.template.exceptions.TemplateNotFoundException;
@@ -198,4 +200,31 @@ public class GlobalExceptionHandler {
                 .status(HttpStatus.CONFLICT)
                 .body(new ErrorResponse(exception.getMessage()));
     }
+
+    @ExceptionHandler(InvalidPageCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidPageCursorException(
+            InvalidPageCursorException exception
+    ) {
+        return ResponseEntity
+                .badRequest()
+                .body(new ErrorResponse(exception.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidFolderMoveException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidFolderMoveException(
+            InvalidFolderMoveException exception
+    ) {
+        return ResponseEntity
+                .badRequest()
+                .body(new ErrorResponse(exception.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidFolderPermissionException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidFolderPermissionException(
+            InvalidFolderPermissionException exception
+    ) {
+        return ResponseEntity
+                .badRequest()
+                .body(new ErrorResponse(exception.getMessage()));
+    }
 }
@@ -5,6 +5,8 @@ import com.nipun.system.auth.exceptions.InvalidJwtTokenException;
 import com.nipun.system.auth.exceptions.JwtTokenNotFoundException;
 import com.nipun.system.document.base.exceptions.DocumentNotFoundException;
 import com.nipun.system.document.branch.exceptions.BranchNotFoundException;
+import com.nipun.system.document.collaboration.exceptions.InvalidOperationException;
+import com.nipun.system.document.collaboration.exceptions.StaleOperationException;
 import com.nipun.system.document.diff.exceptions.PatchFailedException;
 import com.nipun.system.document.permission.exceptions.ReadOnlyDocumentException;
 import com.nipun.system.document.permission.exceptions.UnauthorizedDocumentException;
@@ -13,6 +15,7 @@ import com.nipun.system.shared.dtos.ErrorResponse;
 import com.nipun.system.user.exceptions.UserNotFoundException;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.support.MethodArgumentNotValidException;
 import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 
@@ -101,4 +104,26 @@ public class GlobalWebsocketExceptionHandler {
     ) {
         return new ErrorResponse(exception.getMessage());
     }
+
+    @MessageExceptionHandler(StaleOperationException.class)
+    @SendToUser("/queue/errors")
+    public ErrorResponse handleStaleOperationException(
+            StaleOperationException exception
+    ) {
+        return new ErrorResponse(exception.getMessage());
+    }
+
+    @MessageExceptionHandler(InvalidOperationException.class)
+    @SendToUser("/queue/errors")
+    public ErrorResponse handleInvalidOperationException(
+            InvalidOperationException exception
+    ) {
+        return new ErrorResponse(exception.getMessage());
+    }
+
+    @MessageExceptionHandler(MethodArgumentNotValidException.class)
+    @SendToUser("/queue/errors")
+    public ErrorResponse handleMethodArgumentNotValidException() {
+        return new ErrorResponse("Invalid message payload");
+    }
 }
@@ -0,0 +1,7 @@
+package com.nipun.system.shared.exceptions;
+
+public class InvalidPageCursorException extends RuntimeException {
+    public InvalidPageCursorException() {
+        super("Invalid page cursor");
+    }
+}
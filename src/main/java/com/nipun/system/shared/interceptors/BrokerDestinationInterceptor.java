@@ -0,0 +1,32 @@
+package com.nipun.system.shared.interceptors;
+
+import com.nipun.system.shared.exceptions.UnauthorizedOperationException;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+// clients only publish to the application prefix, a frame sent straight to a broker topic would reach
+// every subscriber without passing the access checks and sequencing of the message handlers
+@Component
+public class BrokerDestinationInterceptor implements ChannelInterceptor {
+
+    private static final String APPLICATION_PREFIX = "/app/";
+
+    @Override
+    public Message<?> preSend(@NotNull Message<?> message, @NotNull MessageChannel channel) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+
+        if (!StompCommand.SEND.equals(accessor.getCommand()) && !StompCommand.MESSAGE.equals(accessor.getCommand()))
+            return message;
+
+        var destination = accessor.getDestination();
+        if (destination == null || !destination.startsWith(APPLICATION_PREFIX))
+            throw new UnauthorizedOperationException("Messages can only be sent to " + APPLICATION_PREFIX + " destinations");
+
+        return message;
+    }
+}
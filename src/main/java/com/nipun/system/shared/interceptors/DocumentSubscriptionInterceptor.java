@@ -0,0 +1,67 @@
+package com.nipun.system.shared.interceptors;
+
+import com.nipun.system.document.base.exceptions.DocumentNotFoundException;
+import com.nipun.system.document.collaboration.DocumentSubscriptionRegistry;
+import com.nipun.system.document.permission.DocumentAccessCache;
+import com.nipun.system.document.permission.PermissionUtils;
+import com.nipun.system.document.permission.exceptions.UnauthorizedDocumentException;
+import com.nipun.system.shared.utils.UserIdUtils;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+// runs after AuthChannelInterceptor, so the user of the session is already set on the frame
+@RequiredArgsConstructor
+@Component
+public class DocumentSubscriptionInterceptor implements ChannelInterceptor {
+
+    // the broker topics of a document and the snapshot subscriptions under the application prefix
+    private static final Pattern DOCUMENT_DESTINATION = Pattern.compile("^(/app)?/document/([^/]+)(?:/.*)?$");
+
+    private final DocumentAccessCache documentAccessCache;
+    private final DocumentSubscriptionRegistry documentSubscriptionRegistry;
+
+    @Override
+    public Message<?> preSend(@NotNull Message<?> message, @NotNull MessageChannel channel) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+
+        if (!StompCommand.SUBSCRIBE.equals(accessor.getCommand()) || accessor.getDestination() == null)
+            return message;
+
+        var matcher = DOCUMENT_DESTINATION.matcher(accessor.getDestination());
+        if (!matcher.matches())
+            return message;
+
+        UUID documentId;
+        try {
+            documentId = UUID.fromString(matcher.group(2));
+        } catch (IllegalArgumentException exception) {
+            throw new DocumentNotFoundException();
+        }
+
+        var userId = UserIdUtils.getUserIdFromPrincipal(accessor.getUser());
+        if (userId == null)
+            throw new UnauthorizedDocumentException();
+
+        var access = documentAccessCache
+                .findAccess(documentId, userId)
+                .orElseThrow(DocumentNotFoundException::new);
+
+        if (PermissionUtils.isUnauthorizedUser(access))
+            throw new UnauthorizedDocumentException();
+
+        // snapshot subscriptions are answered once, only broker topics keep delivering after a revoke
+        if (matcher.group(1) == null)
+            documentSubscriptionRegistry.register(accessor.getSessionId(), accessor.getSubscriptionId(), documentId, userId);
+
+        return message;
+    }
+}
@@ -0,0 +1,10 @@
+package com.nipun.system.shared.utils;
+
+import java.time.LocalDateTime;
+
+// position of the last row of a page in a (createdAt desc, id desc) ordering
+public record PageCursor(LocalDateTime createdAt, Long id) {
+
+    // sorts before every stored row, datetime columns stop at the year 9999
+    public static final PageCursor FIRST = new PageCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+}
@@ -0,0 +1,68 @@
+package com.nipun.system.shared.utils;
+
+import com.nipun.system.shared.dtos.CursorPaginatedData;
+import com.nipun.system.shared.exceptions.InvalidPageCursorException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+public class PageCursorUtils {
+    private static final int MAX_PAGE_SIZE = 100;
+
+    public static String encode(PageCursor cursor) {
+        var value = cursor.createdAt() + "|" + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank())
+            return PageCursor.FIRST;
+
+        try {
+            var value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var separator = value.lastIndexOf('|');
+            return new PageCursor(
+                    LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1))
+            );
+        } catch (RuntimeException exception) {
+            throw new InvalidPageCursorException();
+        }
+    }
+
+    // one row more than the page size is read to tell whether another page follows, without a count query
+    public static Pageable seekPage(int size) {
+        return PageRequest.of(0, pageSize(size) + 1);
+    }
+
+    public static <T> CursorPaginatedData toPaginatedData(
+            List<T> rows,
+            int size,
+            Function<T, PageCursor> cursorOf,
+            Function<T, ?> mapper,
+            Long totalElements
+    ) {
+        size = pageSize(size);
+
+        var hasNext = rows.size() > size;
+        var page = hasNext ? rows.subList(0, size) : rows;
+
+        return new CursorPaginatedData(
+                page.stream().map(mapper).toList(),
+                size,
+                hasNext ? encode(cursorOf.apply(page.getLast())) : null,
+                hasNext,
+                totalElements
+        );
+    }
+
+    // seekPage and toPaginatedData clamp alike, so the extra row read is always the one dropped
+    private static int pageSize(int size) {
+        return Math.clamp(size, 1, MAX_PAGE_SIZE);
+    }
+}
@@ -0,0 +1,32 @@
+ALTER TABLE document_contents
+    ADD COLUMN hash       CHAR(64),
+    ADD COLUMN created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+UPDATE document_contents
+SET hash = SHA2(COALESCE(content, ''), 256);
+
+CREATE TEMPORARY TABLE document_content_keepers AS
+SELECT hash, MIN(id) AS keep_id
+FROM document_contents
+GROUP BY hash;
+
+UPDATE document_branches b
+    JOIN document_contents c ON c.id = b.content_id
+    JOIN document_content_keepers k ON k.hash = c.hash
+SET b.content_id = k.keep_id;
+
+UPDATE document_versions v
+    JOIN document_contents c ON c.id = v.content_id
+    JOIN document_content_keepers k ON k.hash = c.hash
+SET v.content_id = k.keep_id;
+
+DELETE c
+FROM document_contents c
+         JOIN document_content_keepers k ON k.hash = c.hash
+WHERE c.id <> k.keep_id;
+
+DROP TEMPORARY TABLE document_content_keepers;
+
+ALTER TABLE document_contents
+    MODIFY hash CHAR(64) NOT NULL,
+    ADD CONSTRAINT uq_document_contents_hash UNIQUE (hash);
@@ -0,0 +1,13 @@
+ALTER TABLE document_versions
+    ADD COLUMN encoding            ENUM ('FULL', 'DELTA') NOT NULL DEFAULT 'FULL',
+    ADD COLUMN previous_version_id BIGINT,
+    ADD COLUMN chain_length        INT                    NOT NULL DEFAULT 0,
+    ADD COLUMN content_hash        CHAR(64),
+    ADD CONSTRAINT fk_version_previous_version_id
+        FOREIGN KEY (previous_version_id) REFERENCES document_versions (id) ON DELETE SET NULL;
+
+UPDATE document_versions v
+    JOIN document_contents c ON c.id = v.content_id
+SET v.content_hash = c.hash;
+
+CREATE INDEX idx_document_versions_branch_id_id ON document_versions (branch_id, id);
@@ -0,0 +1,3 @@
+ALTER TABLE document_contents
+    ADD COLUMN codec   ENUM ('NONE', 'DEFLATE') NOT NULL DEFAULT 'NONE',
+    ADD COLUMN payload LONGBLOB;
@@ -0,0 +1,33 @@
+ALTER TABLE document_contents
+    ADD COLUMN chunked        BOOLEAN NOT NULL DEFAULT FALSE,
+    ADD COLUMN content_length BIGINT;
+
+UPDATE document_contents
+SET content_length = CHAR_LENGTH(COALESCE(content, ''))
+WHERE codec = 'NONE';
+
+CREATE TABLE document_content_chunks
+(
+    id         BIGINT AUTO_INCREMENT PRIMARY KEY NOT NULL,
+    hash       CHAR(64)   NOT NULL,
+    content    MEDIUMTEXT NOT NULL,
+    created_at DATETIME   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_document_content_chunks_hash UNIQUE (hash)
+);
+
+CREATE TABLE document_content_chunk_refs
+(
+    id          BIGINT AUTO_INCREMENT PRIMARY KEY NOT NULL,
+    content_id  BIGINT NOT NULL,
+    position    INT    NOT NULL,
+    chunk_id    BIGINT NOT NULL,
+    char_offset BIGINT NOT NULL,
+    char_length INT    NOT NULL,
+    CONSTRAINT uq_chunk_refs_content_id_position UNIQUE (content_id, position),
+    CONSTRAINT fk_chunk_refs_content_id
+        FOREIGN KEY (content_id) REFERENCES document_contents (id) ON DELETE CASCADE,
+    CONSTRAINT fk_chunk_refs_chunk_id
+        FOREIGN KEY (chunk_id) REFERENCES document_content_chunks (id)
+);
+
+CREATE INDEX idx_chunk_refs_content_id_char_offset ON document_content_chunk_refs (content_id, char_offset);
@@ -0,0 +1,7 @@
+ALTER TABLE document_contents
+    ADD COLUMN byte_length BIGINT;
+
+UPDATE document_contents
+SET byte_length = LENGTH(COALESCE(content, ''))
+WHERE codec = 'NONE'
+  AND chunked = FALSE;
@@ -0,0 +1,19 @@
+ALTER TABLE document_branches
+    ADD COLUMN revision        BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN base_content_id BIGINT,
+    ADD CONSTRAINT fk_branches_base_content_id
+        FOREIGN KEY (base_content_id) REFERENCES document_contents (id);
+
+CREATE TABLE document_branch_revisions
+(
+    id         BIGINT AUTO_INCREMENT PRIMARY KEY NOT NULL,
+    branch_id  BIGINT   NOT NULL,
+    revision   BIGINT   NOT NULL,
+    content_id BIGINT   NOT NULL,
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_branch_revisions_branch_id_revision UNIQUE (branch_id, revision),
+    CONSTRAINT fk_branch_revisions_branch_id
+        FOREIGN KEY (branch_id) REFERENCES document_branches (id) ON DELETE CASCADE,
+    CONSTRAINT fk_branch_revisions_content_id
+        FOREIGN KEY (content_id) REFERENCES document_contents (id)
+);
@@ -0,0 +1,9 @@
+CREATE TABLE document_version_blames
+(
+    version_id BIGINT     PRIMARY KEY NOT NULL,
+    runs       MEDIUMTEXT NOT NULL,
+    line_count INT        NOT NULL,
+    created_at DATETIME   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_version_blames_version_id
+        FOREIGN KEY (version_id) REFERENCES document_versions (id) ON DELETE CASCADE
+);
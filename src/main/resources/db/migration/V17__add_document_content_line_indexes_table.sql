@@ -0,0 +1,10 @@
+CREATE TABLE document_content_line_indexes
+(
+    content_id BIGINT   PRIMARY KEY NOT NULL,
+    stride     INT      NOT NULL,
+    line_count BIGINT   NOT NULL,
+    offsets    LONGBLOB NOT NULL,
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_content_line_indexes_content_id
+        FOREIGN KEY (content_id) REFERENCES document_contents (id) ON DELETE CASCADE
+);
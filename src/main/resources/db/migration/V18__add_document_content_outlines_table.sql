@@ -0,0 +1,8 @@
+CREATE TABLE document_content_outlines
+(
+    content_id BIGINT   PRIMARY KEY NOT NULL,
+    headings   LONGTEXT NOT NULL,
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_content_outlines_content_id
+        FOREIGN KEY (content_id) REFERENCES document_contents (id) ON DELETE CASCADE
+);
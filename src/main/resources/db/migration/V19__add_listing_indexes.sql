@@ -0,0 +1,5 @@
+CREATE INDEX idx_documents_owner_created ON documents (owner_id, created_at, id);
+CREATE INDEX idx_documents_owner_trashed_created ON documents (owner_id, trashed, created_at, id);
+CREATE INDEX idx_branches_document_created ON document_branches (document_id, created_at, id);
+CREATE INDEX idx_branches_owner_trashed_created ON document_branches (owner_id, trashed, created_at, id);
+CREATE INDEX idx_versions_branch_created ON document_versions (branch_id, created_at, id);
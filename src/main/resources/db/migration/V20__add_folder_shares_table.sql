@@ -0,0 +1,49 @@
+CREATE TABLE folder_closure
+(
+    ancestor_id   BIGINT NOT NULL,
+    descendant_id BIGINT NOT NULL,
+    depth         INT    NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id),
+    INDEX idx_folder_closure_descendant (descendant_id, ancestor_id),
+    CONSTRAINT fk_folder_closure_ancestor_id
+        FOREIGN KEY (ancestor_id) REFERENCES folders (id) ON DELETE CASCADE,
+    CONSTRAINT fk_folder_closure_descendant_id
+        FOREIGN KEY (descendant_id) REFERENCES folders (id) ON DELETE CASCADE
+);
+
+CREATE TABLE folder_shares
+(
+    folder_id  BIGINT                                    NOT NULL,
+    user_id    BIGINT                                    NOT NULL,
+    permission ENUM ('READ_ONLY', 'READ_WRITE', 'ADMIN') NOT NULL DEFAULT 'READ_ONLY',
+    PRIMARY KEY (folder_id, user_id),
+    CONSTRAINT fk_folder_shares_folder_id
+        FOREIGN KEY (folder_id) REFERENCES folders (id) ON DELETE CASCADE,
+    CONSTRAINT fk_folder_shares_user_id
+        FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE TABLE folder_access
+(
+    user_id    BIGINT                                    NOT NULL,
+    folder_id  BIGINT                                    NOT NULL,
+    permission ENUM ('READ_ONLY', 'READ_WRITE', 'ADMIN') NOT NULL,
+    PRIMARY KEY (user_id, folder_id),
+    INDEX idx_folder_access_folder (folder_id),
+    CONSTRAINT fk_folder_access_user_id
+        FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT fk_folder_access_folder_id
+        FOREIGN KEY (folder_id) REFERENCES folders (id) ON DELETE CASCADE
+);
+
+INSERT INTO folder_closure (ancestor_id, descendant_id, depth)
+WITH RECURSIVE tree (ancestor_id, descendant_id, depth) AS (
+    SELECT id, id, 0
+    FROM folders
+    UNION ALL
+    SELECT tree.ancestor_id, folders.id, tree.depth + 1
+    FROM tree
+             JOIN folders ON folders.parent_folder = tree.descendant_id
+)
+SELECT ancestor_id, descendant_id, depth
+FROM tree;
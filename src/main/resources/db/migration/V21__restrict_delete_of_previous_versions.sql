@@ -0,0 +1,6 @@
+ALTER TABLE document_versions
+    DROP FOREIGN KEY fk_version_previous_version_id;
+
+ALTER TABLE document_versions
+    ADD CONSTRAINT fk_version_previous_version_id
+        FOREIGN KEY (previous_version_id) REFERENCES document_versions (id) ON DELETE RESTRICT;
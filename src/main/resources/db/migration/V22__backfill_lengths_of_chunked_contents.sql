@@ -0,0 +1,11 @@
+UPDATE document_contents c
+    JOIN (SELECT r.content_id,
+                 SUM(r.char_length)       AS content_length,
+                 SUM(LENGTH(ch.content))  AS byte_length
+          FROM document_content_chunk_refs r
+                   JOIN document_content_chunks ch ON ch.id = r.chunk_id
+          GROUP BY r.content_id) lengths ON lengths.content_id = c.id
+SET c.content_length = COALESCE(c.content_length, lengths.content_length),
+    c.byte_length    = COALESCE(c.byte_length, lengths.byte_length)
+WHERE c.chunked = TRUE
+  AND (c.content_length IS NULL OR c.byte_length IS NULL);
@@ -0,0 +1,22 @@
+CREATE TABLE document_branch_merge_bases
+(
+    id              BIGINT AUTO_INCREMENT PRIMARY KEY NOT NULL,
+    branch_id       BIGINT NOT NULL,
+    other_branch_id BIGINT NOT NULL,
+    content_id      BIGINT NOT NULL,
+    CONSTRAINT uq_branch_merge_bases_branch_id_other_branch_id UNIQUE (branch_id, other_branch_id),
+    CONSTRAINT fk_branch_merge_bases_branch_id
+        FOREIGN KEY (branch_id) REFERENCES document_branches (id) ON DELETE CASCADE,
+    CONSTRAINT fk_branch_merge_bases_other_branch_id
+        FOREIGN KEY (other_branch_id) REFERENCES document_branches (id) ON DELETE CASCADE,
+    CONSTRAINT fk_branch_merge_bases_content_id
+        FOREIGN KEY (content_id) REFERENCES document_contents (id)
+);
+
+CREATE INDEX idx_document_branch_merge_bases_other_branch_id ON document_branch_merge_bases (other_branch_id);
+
+ALTER TABLE document_branches
+    DROP FOREIGN KEY fk_branches_base_content_id;
+
+ALTER TABLE document_branches
+    DROP COLUMN base_content_id;
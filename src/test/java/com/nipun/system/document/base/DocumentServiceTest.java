@@ -5,12 +5,21 @@ import com.nipun.system.document.base.dtos.CreateDocumentRequest;
 import com.nipun.system.document.base.dtos.DocumentResponse;
 import com.nipun.system.document.base.dtos.UpdateDocumentRequest;
 import com.nipun.system.document.base.exceptions.DocumentNotFoundException;
+import com.nipun.system.document.content.Content;
+import com.nipun.system.document.content.ContentService;
+import com.nipun.system.document.permission.DocumentAccess;
+import com.nipun.system.document.permission.DocumentAccessCache;
 import com.nipun.system.document.permission.exceptions.UnauthorizedDocumentException;
+import com.nipun.system.document.share.Permission;
 import com.nipun.system.document.template.Template;
 import com.nipun.system.document.template.TemplateRepository;
 import com.nipun.system.document.template.exceptions.TemplateNotFoundException;
 import com.nipun.system.shared.dtos.CountResponse;
+import com.nipun.system.shared.dtos.CursorPaginatedData;
 import com.nipun.system.shared.dtos.PaginatedData;
+import com.nipun.system.shared.exceptions.InvalidPageCursorException;
+import com.nipun.system.shared.utils.PageCursor;
+import com.nipun.system.shared.utils.PageCursorUtils;
 import com.nipun.system.shared.utils.UserIdUtils;
 import com.nipun.system.user.User;
 import com.nipun.system.user.UserRepository;
@@ -23,11 +32,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -55,6 +68,18 @@ class DocumentServiceTest {
     @Mock
     private TemplateRepository templateRepository;
 
+    @Mock
+    private ContentService contentService;
+
+    @Mock
+    private DocumentAccessCache documentAccessCache;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache documentCache;
+
     @InjectMocks
     private DocumentService documentService;
 
@@ -127,12 +152,14 @@ class DocumentServiceTest {
 
                 mockedUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(testUserId);
                 mockedFactory.when(() -> DocumentFactory.createNewDocument(
-                                any(User.class), anyString(), any(Status.class), any(Template.class)))
+                                any(User.class), anyString(), any(Status.class), any(Content.class)))
                         .thenReturn(testDocument);
 
                 when(userRepository.findById(testUserId)).thenReturn(Optional.of(testUser));
                 when(templateRepository.findById(testCreateDocumentRequest.getTemplateId()))
                         .thenReturn(Optional.of(testTemplate));
+                when(contentService.store(testTemplate.getTemplate()))
+                        .thenReturn(Content.builder().content(testTemplate.getTemplate()).build());
                 when(documentRepository.save(any(Document.class))).thenReturn(testDocument);
                 when(documentMapper.toDto(testDocument)).thenReturn(testDocumentResponse);
 
@@ -170,14 +197,12 @@ class DocumentServiceTest {
         @Test
         @DisplayName("Should get document successfully when user is authorized")
         void shouldGetDocumentSuccessfully() {
-            try (MockedStatic<UserIdUtils> mockedUtils = mockStatic(UserIdUtils.class);
-                 MockedStatic<com.nipun.system.document.permission.PermissionUtils> mockedPermission =
-                         mockStatic(com.nipun.system.document.permission.PermissionUtils.class)) {
-
+            try (MockedStatic<UserIdUtils> mockedUtils = mockStatic(UserIdUtils.class)) {
                 mockedUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(testUserId);
-                mockedPermission.when(() -> com.nipun.system.document.permission.PermissionUtils
-                        .isUnauthorizedUser(testUserId, testDocument)).thenReturn(false);
 
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(new DocumentAccess(1L, true, null)));
+                when(cacheManager.getCache("documents")).thenReturn(documentCache);
                 when(documentRepository.findByPublicId(testDocumentId)).thenReturn(Optional.of(testDocument));
                 when(documentMapper.toDto(testDocument)).thenReturn(testDocumentResponse);
 
@@ -186,6 +211,24 @@ class DocumentServiceTest {
                 assertThat(result).isNotNull();
                 assertThat(result.getId()).isEqualTo(testDocumentId);
                 verify(documentRepository, times(1)).findByPublicId(testDocumentId);
+                verify(documentCache).put(List.of(testDocumentId), testDocumentResponse);
+            }
+        }
+
+        @Test
+        @DisplayName("Should serve a cached document after checking access")
+        void shouldServeCachedDocument() {
+            try (MockedStatic<UserIdUtils> mockedUtils = mockStatic(UserIdUtils.class)) {
+                mockedUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(testUserId);
+
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(new DocumentAccess(1L, false, Permission.READ_ONLY)));
+                when(cacheManager.getCache("documents")).thenReturn(documentCache);
+                when(documentCache.get(List.of(testDocumentId), DocumentResponse.class)).thenReturn(testDocumentResponse);
+
+                assertThat(documentService.getDocument(testDocumentId)).isEqualTo(testDocumentResponse);
+
+                verify(documentRepository, never()).findByPublicId(any());
             }
         }
 
@@ -194,7 +237,7 @@ class DocumentServiceTest {
         void shouldThrowDocumentNotFoundExceptionWhenDocumentNotFound() {
             try (MockedStatic<UserIdUtils> mockedUtils = mockStatic(UserIdUtils.class)) {
                 mockedUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(testUserId);
-                when(documentRepository.findByPublicId(testDocumentId)).thenReturn(Optional.empty());
+                when(documentAccessCache.findAccess(testDocumentId, testUserId)).thenReturn(Optional.empty());
 
                 assertThatThrownBy(() -> documentService.getDocument(testDocumentId))
                         .isInstanceOf(DocumentNotFoundException.class);
@@ -204,18 +247,16 @@ class DocumentServiceTest {
         @Test
         @DisplayName("Should throw UnauthorizedDocumentException when user is not authorized")
         void shouldThrowUnauthorizedExceptionWhenUserNotAuthorized() {
-            try (MockedStatic<UserIdUtils> mockedUtils = mockStatic(UserIdUtils.class);
-                 MockedStatic<com.nipun.system.document.permission.PermissionUtils> mockedPermission =
-                         mockStatic(com.nipun.system.document.permission.PermissionUtils.class)) {
-
+            try (MockedStatic<UserIdUtils> mockedUtils = mockStatic(UserIdUtils.class)) {
                 mockedUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(testUserId);
-                mockedPermission.when(() -> com.nipun.system.document.permission.PermissionUtils
-                        .isUnauthorizedUser(testUserId, testDocument)).thenReturn(true);
 
-                when(documentRepository.findByPublicId(testDocumentId)).thenReturn(Optional.of(testDocument));
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(new DocumentAccess(1L, false, null)));
 
                 assertThatThrownBy(() -> documentService.getDocument(testDocumentId))
                         .isInstanceOf(UnauthorizedDocumentException.class);
+
+                verifyNoInteractions(cacheManager);
             }
         }
     }
@@ -244,22 +285,25 @@ class DocumentServiceTest {
     @DisplayName("Get All Documents tests")
     class GetAllDocumentsTests {
 
+        private DocumentSummary summaryOf(Long id, LocalDateTime createdAt) {
+            return new DocumentSummary(
+                    id, UUID.randomUUID(), "Document " + id, testUserId, Status.PUBLIC,
+                    false, UUID.randomUUID(), 1L, false, false, createdAt, createdAt
+            );
+        }
+
         @Test
         @DisplayName("Should return paginated documents successfully")
         void shouldReturnPaginatedDocuments() {
             try (MockedStatic<UserIdUtils> mockedUtils = mockStatic(UserIdUtils.class)) {
                 mockedUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(testUserId);
 
-                Document doc2 = new Document();
-                doc2.setId(2L);
-                doc2.setTitle("Document 2");
+                List<DocumentSummary> documents = Arrays.asList(summaryOf(1L, LocalDateTime.now()), summaryOf(2L, LocalDateTime.now()));
+                Page<DocumentSummary> documentPage = new PageImpl<>(documents, PageRequest.of(0, 10), 2);
 
-                List<Document> documents = Arrays.asList(testDocument, doc2);
-                Page<Document> documentPage = new PageImpl<>(documents, PageRequest.of(0, 10), 2);
-
-                when(documentRepository.findAllByOwnerId(eq(testUserId), any(PageRequest.class)))
+                when(documentRepository.findAllSummariesByOwnerId(eq(testUserId), any(PageRequest.class)))
                         .thenReturn(documentPage);
-                when(documentMapper.toDto(any(Document.class))).thenReturn(testDocumentResponse);
+                when(documentMapper.toDto(any(DocumentSummary.class))).thenReturn(testDocumentResponse);
 
                 PaginatedData result = documentService.getAllDocuments(0, 10);
 
@@ -268,7 +312,91 @@ class DocumentServiceTest {
                 assertThat(result.getTotalElements()).isEqualTo(2);
                 assertThat(result.getPageNumber()).isEqualTo(0);
                 assertThat(result.getPageSize()).isEqualTo(10);
-                verify(documentRepository, times(1)).findAllByOwnerId(eq(testUserId), any(PageRequest.class));
+                verify(documentRepository, times(1)).findAllSummariesByOwnerId(eq(testUserId), any(PageRequest.class));
+            }
+        }
+
+        @Test
+        @DisplayName("Should return a cursor to the next page without counting")
+        void shouldReturnNextCursor() {
+            try (MockedStatic<UserIdUtils> mockedUtils = mockStatic(UserIdUtils.class)) {
+                mockedUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(testUserId);
+
+                var createdAt = LocalDateTime.of(2025, 1, 1, 10, 0);
+                var documents = new ArrayList<DocumentSummary>();
+                for (var id = 3L; id >= 1L; id--)
+                    documents.add(summaryOf(id, createdAt));
+
+                when(documentRepository.findSummaryPageByOwnerId(
+                        eq(testUserId), eq(PageCursor.FIRST.createdAt()), eq(PageCursor.FIRST.id()), any(Pageable.class)
+                )).thenReturn(documents);
+                when(documentMapper.toDto(any(DocumentSummary.class))).thenReturn(testDocumentResponse);
+
+                CursorPaginatedData result = documentService.getAllDocuments(null, 2, false);
+
+                assertThat(result.getData()).asList().hasSize(2);
+                assertThat(result.isHasNext()).isTrue();
+                assertThat(result.getTotalElements()).isNull();
+                assertThat(PageCursorUtils.decode(result.getNextCursor())).isEqualTo(new PageCursor(createdAt, 2L));
+                verify(documentRepository, never()).countAllByOwnerId(any());
+            }
+        }
+
+        @Test
+        @DisplayName("Should seek from the given cursor and count when asked")
+        void shouldSeekFromCursor() {
+            try (MockedStatic<UserIdUtils> mockedUtils = mockStatic(UserIdUtils.class)) {
+                mockedUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(testUserId);
+
+                var cursor = new PageCursor(LocalDateTime.of(2025, 1, 1, 10, 0), 2L);
+
+                var summary = summaryOf(1L, cursor.createdAt());
+
+                when(documentRepository.findSummaryPageByOwnerId(
+                        eq(testUserId), eq(cursor.createdAt()), eq(cursor.id()), any(Pageable.class)
+                )).thenReturn(List.of(summary));
+                when(documentRepository.countAllByOwnerId(testUserId)).thenReturn(3L);
+                when(documentMapper.toDto(summary)).thenReturn(testDocumentResponse);
+
+                CursorPaginatedData result = documentService.getAllDocuments(PageCursorUtils.encode(cursor), 2, true);
+
+                assertThat(result.isHasNext()).isFalse();
+                assertThat(result.getNextCursor()).isNull();
+                assertThat(result.getTotalElements()).isEqualTo(3L);
+            }
+        }
+
+        @Test
+        @DisplayName("Should read at least one row for a page size below one")
+        void shouldClampPageSize() {
+            try (MockedStatic<UserIdUtils> mockedUtils = mockStatic(UserIdUtils.class)) {
+                mockedUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(testUserId);
+
+                var createdAt = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+                when(documentRepository.findSummaryPageByOwnerId(
+                        eq(testUserId), eq(PageCursor.FIRST.createdAt()), eq(PageCursor.FIRST.id()), eq(PageRequest.of(0, 2))
+                )).thenReturn(List.of(summaryOf(2L, createdAt), summaryOf(1L, createdAt)));
+                when(documentMapper.toDto(any(DocumentSummary.class))).thenReturn(testDocumentResponse);
+
+                for (var size : List.of(0, -5)) {
+                    CursorPaginatedData result = documentService.getAllDocuments(null, size, false);
+
+                    assertThat(result.getData()).asList().hasSize(1);
+                    assertThat(result.isHasNext()).isTrue();
+                    assertThat(PageCursorUtils.decode(result.getNextCursor())).isEqualTo(new PageCursor(createdAt, 2L));
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject a malformed cursor")
+        void shouldRejectMalformedCursor() {
+            try (MockedStatic<UserIdUtils> mockedUtils = mockStatic(UserIdUtils.class)) {
+                mockedUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(testUserId);
+
+                assertThatThrownBy(() -> documentService.getAllDocuments("not-a-cursor", 2, false))
+                        .isInstanceOf(InvalidPageCursorException.class);
             }
         }
     }
@@ -0,0 +1,57 @@
+package com.nipun.system.document.branch;
+
+import com.nipun.system.document.content.Content;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Branch Merge Base Service Unit Test")
+class BranchMergeBaseServiceTest {
+
+    @Mock
+    private BranchMergeBaseRepository branchMergeBaseRepository;
+
+    @InjectMocks
+    private BranchMergeBaseService branchMergeBaseService;
+
+    private Branch mainBranch;
+    private Branch featureBranch;
+    private Content forkContent;
+
+    @BeforeEach
+    void setup() {
+        forkContent = Content.builder().id(5L).content("Fork Content").build();
+
+        mainBranch = Branch.builder().id(7L).content(forkContent).build();
+        featureBranch = Branch.builder().id(3L).content(forkContent).build();
+    }
+
+    @Test
+    @DisplayName("Should find the merge base of a pair in either order")
+    void shouldFindMergeBaseInEitherOrder() {
+        when(branchMergeBaseRepository.findByBranchIdAndOtherBranchId(3L, 7L))
+                .thenReturn(Optional.of(BranchMergeBase.builder().content(forkContent).build()));
+
+        assertThat(branchMergeBaseService.find(mainBranch, featureBranch)).contains(forkContent);
+        assertThat(branchMergeBaseService.find(featureBranch, mainBranch)).contains(forkContent);
+    }
+
+    @Test
+    @DisplayName("Should give a new branch its parent's merge bases and the fork point")
+    void shouldRecordFork() {
+        branchMergeBaseService.recordFork(mainBranch, featureBranch);
+
+        verify(branchMergeBaseRepository).copyFromParent(3L, 7L);
+        verify(branchMergeBaseRepository).upsert(3L, 7L, 5L);
+    }
+}
@@ -0,0 +1,221 @@
+package com.nipun.system.document.branch;
+
+import com.nipun.system.document.branch.exceptions.BranchRevisionConflictException;
+import com.nipun.system.document.content.Content;
+import com.nipun.system.document.content.ContentOutlineService;
+import com.nipun.system.document.content.ContentService;
+import com.nipun.system.document.diff.DiffServiceImpl;
+import com.nipun.system.user.User;
+import com.nipun.system.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Branch Revision Service Unit Test")
+class BranchRevisionServiceTest {
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    @Mock
+    private BranchRevisionRepository branchRevisionRepository;
+
+    @Mock
+    private ContentService contentService;
+
+    @Mock
+    private ContentOutlineService contentOutlineService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private BranchMergeBaseService branchMergeBaseService;
+
+    private BranchRevisionService branchRevisionService;
+
+    private Branch testBranch;
+    private String baseText;
+
+    @BeforeEach
+    void setup() {
+        branchRevisionService = new BranchRevisionService(
+                branchRepository,
+                branchRevisionRepository,
+                contentService,
+                contentOutlineService,
+                new DiffServiceImpl(),
+                userRepository,
+                branchMergeBaseService
+        );
+
+        baseText = "<p>First paragraph.</p><p>Second paragraph.</p><p>Third paragraph.</p>";
+
+        testBranch = new Branch();
+        testBranch.setId(1L);
+        testBranch.setRevision(3L);
+        testBranch.setContent(Content.builder().content(
+                "<p>First paragraph.</p><p>Second paragraph.</p><p>Third paragraph, edited remotely.</p>"
+        ).build());
+    }
+
+    @Nested
+    @DisplayName("Rebase Tests")
+    class RebaseTests {
+
+        @Test
+        @DisplayName("Should keep content when revision is current")
+        void shouldKeepContentForCurrentRevision() {
+            var result = branchRevisionService.rebase(testBranch, 3L, "New Content");
+
+            assertThat(result).isEqualTo("New Content");
+            verifyNoInteractions(branchRevisionRepository);
+        }
+
+        @Test
+        @DisplayName("Should merge stale write that touches a different part")
+        void shouldMergeNonOverlappingChanges() {
+            stubBaseRevision();
+
+            var local = "<p>First paragraph, edited locally.</p><p>Second paragraph.</p><p>Third paragraph.</p>";
+
+            var result = branchRevisionService.rebase(testBranch, 2L, local);
+
+            assertThat(result).isEqualTo(
+                    "<p>First paragraph, edited locally.</p><p>Second paragraph.</p><p>Third paragraph, edited remotely.</p>"
+            );
+        }
+
+        @Test
+        @DisplayName("Should reject stale write that touches the same part")
+        void shouldRejectOverlappingChanges() {
+            stubBaseRevision();
+
+            var local = "<p>First paragraph.</p><p>Second paragraph.</p><p>Third paragraph, edited locally.</p>";
+
+            assertThatThrownBy(() -> branchRevisionService.rebase(testBranch, 2L, local))
+                    .isInstanceOf(BranchRevisionConflictException.class);
+        }
+
+        @Test
+        @DisplayName("Should reject stale write when base revision is unknown")
+        void shouldRejectUnknownRevision() {
+            when(branchRevisionRepository.findFirstByBranchIdAndRevisionLessThanEqualOrderByRevisionDesc(1L, 2L))
+                    .thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> branchRevisionService.rebase(testBranch, 2L, "New Content"))
+                    .isInstanceOf(BranchRevisionConflictException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Find Base Content Tests")
+    class FindBaseContentTests {
+
+        @Test
+        @DisplayName("Should resolve the current revision without a lookup")
+        void shouldResolveCurrentRevision() {
+            assertThat(branchRevisionService.findBaseContent(testBranch, 3L)).isSameAs(testBranch.getContent());
+            verifyNoInteractions(branchRevisionRepository);
+        }
+
+        @Test
+        @DisplayName("Should resolve an older revision from the branch history")
+        void shouldResolveOlderRevision() {
+            stubBaseRevision();
+
+            assertThat(branchRevisionService.findBaseContent(testBranch, 2L).getContent()).isEqualTo(baseText);
+        }
+
+        @Test
+        @DisplayName("Should reject a revision that is not in the branch history")
+        void shouldRejectUnknownRevision() {
+            when(branchRevisionRepository.findFirstByBranchIdAndRevisionLessThanEqualOrderByRevisionDesc(1L, 1L))
+                    .thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> branchRevisionService.findBaseContent(testBranch, 1L))
+                    .isInstanceOf(BranchRevisionConflictException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Update Content Tests")
+    class UpdateContentTests {
+
+        @Test
+        @DisplayName("Should record replaced and new revisions")
+        void shouldRecordRevisions() {
+            var newContent = Content.builder().content("New Content").build();
+
+            when(branchRevisionRepository.existsByBranchIdAndRevision(1L, 3L)).thenReturn(false);
+            when(branchRepository.saveAndFlush(testBranch)).thenAnswer(invocation -> {
+                testBranch.setRevision(4L);
+                return testBranch;
+            });
+
+            var result = branchRevisionService.updateContent(testBranch, newContent);
+
+            assertThat(result.getContent()).isSameAs(newContent);
+            verify(branchRevisionRepository, times(2)).save(any(BranchRevision.class));
+        }
+
+        @Test
+        @DisplayName("Should skip unchanged content")
+        void shouldSkipUnchangedContent() {
+            branchRevisionService.updateContent(testBranch, testBranch.getContent());
+
+            verifyNoInteractions(branchRepository, branchRevisionRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Fork Conflict Tests")
+    class ForkConflictTests {
+
+        @Test
+        @DisplayName("Should keep conflicting content on a new branch forked at its base revision")
+        void shouldForkAtBaseRevision() {
+            var branchId = UUID.randomUUID();
+            var stored = Content.builder().content("Conflicting Content").build();
+            testBranch.setBranchName("main");
+
+            stubBaseRevision();
+            when(branchRepository.findByPublicIdAndDocumentId(branchId, 5L)).thenReturn(Optional.of(testBranch));
+            when(contentService.store("Conflicting Content")).thenReturn(stored);
+            when(userRepository.getReferenceById(2L)).thenReturn(new User());
+            when(branchRepository.save(any(Branch.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            var result = branchRevisionService.forkConflict(5L, branchId, 2L, 2L, "Conflicting Content");
+
+            assertThat(result).isPresent();
+            assertThat(result.get().getContent()).isSameAs(stored);
+            assertThat(result.get().getBranchName()).startsWith("main (conflict ");
+            verify(branchMergeBaseService).recordFork(testBranch, result.get());
+            verify(branchMergeBaseService).record(
+                    eq(testBranch), eq(result.get()), argThat(content -> content.getContent().equals(baseText))
+            );
+        }
+    }
+
+    private void stubBaseRevision() {
+        var revision = BranchRevision.builder()
+                .revision(2L)
+                .content(Content.builder().content(baseText).build())
+                .build();
+
+        when(branchRevisionRepository.findFirstByBranchIdAndRevisionLessThanEqualOrderByRevisionDesc(1L, 2L))
+                .thenReturn(Optional.of(revision));
+    }
+}
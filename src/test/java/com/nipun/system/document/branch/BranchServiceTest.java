@@ -6,11 +6,22 @@ import com.nipun.system.document.base.DocumentRepository;
 import com.nipun.system.document.base.dtos.ContentResponse;
 import com.nipun.system.document.base.exceptions.DocumentNotFoundException;
 import com.nipun.system.document.branch.dtos.BranchResponse;
+import com.nipun.system.document.branch.dtos.PatchContentRequest;
+import com.nipun.system.document.branch.dtos.PatchContentResponse;
 import com.nipun.system.document.branch.exceptions.BranchNotFoundException;
+import com.nipun.system.document.branch.exceptions.BranchRevisionConflictException;
 import com.nipun.system.document.branch.exceptions.BranchTitleAlreadyExistsException;
 import com.nipun.system.document.content.Content;
+import com.nipun.system.document.content.ContentLineService;
+import com.nipun.system.document.content.ContentOutlineService;
+import com.nipun.system.document.content.ContentService;
+import com.nipun.system.document.diff.DiffService;
+import com.nipun.system.document.diff.DiffMode;
 import com.nipun.system.document.diff.DiffUtils;
 import com.nipun.system.document.diff.dtos.DiffResponse;
+import com.nipun.system.document.diff.dtos.DiffStatsResponse;
+import com.nipun.system.document.permission.DocumentAccess;
+import com.nipun.system.document.permission.DocumentAccessCache;
 import com.nipun.system.document.permission.PermissionUtils;
 import com.nipun.system.document.permission.exceptions.UnauthorizedDocumentException;
 import com.nipun.system.shared.dtos.CountResponse;
@@ -27,6 +38,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -53,18 +65,46 @@ class BranchServiceTest {
     @Mock
     private DocumentRepository documentRepository;
 
+    @Mock
+    private DocumentAccessCache documentAccessCache;
+
+    @Mock
+    private CacheManager cacheManager;
+
     @Mock
     private BranchMapper branchMapper;
 
     @Mock
     private DiffUtils diffUtils;
 
+    @Mock
+    private DiffService diffService;
+
+    @Mock
+    private ContentService contentService;
+
+    @Mock
+    private BranchRevisionService branchRevisionService;
+
+    @Mock
+    private BranchMergeBaseService branchMergeBaseService;
+
+    @Mock
+    private BranchWriteBuffer branchWriteBuffer;
+
+    @Mock
+    private ContentLineService contentLineService;
+
+    @Mock
+    private ContentOutlineService contentOutlineService;
+
     @InjectMocks
     private BranchService branchService;
 
     private User testUser;
     private Long testUserId;
     private Document testDocument;
+    private DocumentAccess testAccess;
     private UUID testDocumentId;
     private UUID testBranchId;
     private UUID testMergeBranchId;
@@ -89,6 +129,8 @@ class BranchServiceTest {
         this.testDocument.setCreatedAt(LocalDateTime.now());
         this.testDocument.setUpdatedAt(LocalDateTime.now());
 
+        this.testAccess = new DocumentAccess(1L, true, null);
+
         this.testUser = new User();
         this.testUser.setId(testUserId);
         this.testUser.setUsername("Test User");
@@ -109,8 +151,7 @@ class BranchServiceTest {
         this.testMergeBranch.setId(2L);
         this.testMergeBranch.setPublicId(testMergeBranchId);
         this.testMergeBranch.setBranchName("Merge Branch");
-        this.testMergeBranch.setContent(testContent);
-        this.testMergeBranch.setBranchContent("Merge Content");
+        this.testMergeBranch.setContent(Content.builder().content("Merge Content").build());
         this.testMergeBranch.setStatus(Status.PRIVATE);
 
         testBranchResponse = new BranchResponse();
@@ -135,11 +176,11 @@ class BranchServiceTest {
                 when(userRepository.findById(testUserId))
                         .thenReturn(Optional.of(testUser));
 
-                when(documentRepository.findByPublicId(testDocumentId))
-                        .thenReturn(Optional.of(testDocument));
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(testAccess));
 
                 mockedPermissionUtils.when(() ->
-                        PermissionUtils.checkUserCanWrite(testUserId, testDocument)
+                        PermissionUtils.checkUserCanWrite(testAccess)
                 ).thenAnswer(_ -> null);
 
                 when(branchRepository.existsByBranchNameAndDocumentId(
@@ -150,11 +191,14 @@ class BranchServiceTest {
                 when(branchRepository.findByPublicIdAndDocumentId(testBranchId, testDocument.getId()))
                         .thenReturn(Optional.of(testBranch));
 
+                when(documentRepository.getReferenceById(testDocument.getId()))
+                        .thenReturn(testDocument);
+
                 mockedBranchFactory.when(() ->
                         BranchFactory.createNewBranch(
                                 testDocument,
                                 "Test Branch",
-                                testBranch.getBranchContent(),
+                                testBranch.getContent(),
                                 testUser
                         )).thenReturn(testBranch);
 
@@ -173,13 +217,14 @@ class BranchServiceTest {
                 assertThat(response).isNotNull();
                 assertThat(response).isEqualTo(testBranchResponse);
 
-                verify(documentRepository).findByPublicId(testDocumentId);
+                verify(documentAccessCache).findAccess(testDocumentId, testUserId);
                 verify(userRepository).findById(testUserId);
                 verify(branchRepository).existsByBranchNameAndDocumentId(
                         "Test Branch",
                         testDocument.getId()
                 );
                 verify(branchRepository).save(testBranch);
+                verify(branchMergeBaseService).recordFork(testBranch, testBranch);
                 verify(branchMapper).toDto(testBranch);
             }
         }
@@ -194,7 +239,7 @@ class BranchServiceTest {
                 when(userRepository.findById(testUserId))
                         .thenReturn(Optional.of(testUser));
 
-                when(documentRepository.findByPublicId(testDocumentId))
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
                         .thenReturn(Optional.empty());
 
                 assertThatThrownBy(() -> branchService.createBranch(
@@ -203,7 +248,7 @@ class BranchServiceTest {
                         "Test Branch"
                 )).isInstanceOf(DocumentNotFoundException.class);
 
-                verify(documentRepository).findByPublicId(testDocumentId);
+                verify(documentAccessCache).findAccess(testDocumentId, testUserId);
                 verifyNoInteractions(branchRepository);
             }
         }
@@ -220,11 +265,11 @@ class BranchServiceTest {
                 when(userRepository.findById(testUserId))
                         .thenReturn(Optional.of(testUser));
 
-                when(documentRepository.findByPublicId(testDocumentId))
-                        .thenReturn(Optional.of(testDocument));
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(testAccess));
 
                 mockedPermissionUtils.when(() ->
-                        PermissionUtils.checkUserCanWrite(testUserId, testDocument)
+                        PermissionUtils.checkUserCanWrite(testAccess)
                 ).thenAnswer(_ -> null);
 
                 when(branchRepository.existsByBranchNameAndDocumentId(
@@ -258,11 +303,11 @@ class BranchServiceTest {
                 when(userRepository.findById(testUserId))
                         .thenReturn(Optional.of(testUser));
 
-                when(documentRepository.findByPublicId(testDocumentId))
-                        .thenReturn(Optional.of(testDocument));
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(testAccess));
 
                 mockedPermissionUtils.when(() ->
-                        PermissionUtils.checkUserCanWrite(testUserId, testDocument)
+                        PermissionUtils.checkUserCanWrite(testAccess)
                 ).thenAnswer(_ -> null);
 
                 when(branchRepository.existsByBranchNameAndDocumentId(
@@ -295,11 +340,11 @@ class BranchServiceTest {
                 mockedUserIdUtils.when(UserIdUtils::getUserIdFromContext)
                         .thenReturn(testUserId);
 
-                when(documentRepository.findByPublicId(testDocumentId))
-                        .thenReturn(Optional.of(testDocument));
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(testAccess));
 
                 mockedPermissionUtils.when(() ->
-                        PermissionUtils.isUnauthorizedUser(testUserId, testDocument)
+                        PermissionUtils.isUnauthorizedUser(testAccess)
                 ).thenReturn(false);
 
                 PageRequest pageRequest = PageRequest.of(0, 10);
@@ -322,7 +367,7 @@ class BranchServiceTest {
                 assertThat(result.getPageNumber()).isEqualTo(0);
                 assertThat(result.getPageSize()).isEqualTo(10);
 
-                verify(documentRepository).findByPublicId(testDocumentId);
+                verify(documentAccessCache).findAccess(testDocumentId, testUserId);
                 verify(branchRepository).findAllByDocumentId(testDocument.getId(), pageRequest);
             }
         }
@@ -336,11 +381,11 @@ class BranchServiceTest {
                 mockedUserIdUtils.when(UserIdUtils::getUserIdFromContext)
                         .thenReturn(testUserId);
 
-                when(documentRepository.findByPublicId(testDocumentId))
-                        .thenReturn(Optional.of(testDocument));
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(testAccess));
 
                 mockedPermissionUtils.when(() ->
-                        PermissionUtils.isUnauthorizedUser(testUserId, testDocument)
+                        PermissionUtils.isUnauthorizedUser(testAccess)
                 ).thenReturn(true);
 
                 assertThatThrownBy(() -> branchService.getAllBranches(testDocumentId, 0, 10))
@@ -409,22 +454,22 @@ class BranchServiceTest {
                 mockedUserIdUtils.when(UserIdUtils::getUserIdFromContext)
                         .thenReturn(testUserId);
 
-                when(documentRepository.findByPublicId(testDocumentId))
-                        .thenReturn(Optional.of(testDocument));
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(testAccess));
 
                 when(branchRepository.findByPublicIdAndDocumentId(testBranchId, testDocument.getId()))
                         .thenReturn(Optional.of(testBranch));
 
                 mockedPermissionUtils.when(() ->
-                        PermissionUtils.isUnauthorizedUser(testUserId, testDocument)
+                        PermissionUtils.isUnauthorizedUser(testAccess)
                 ).thenReturn(false);
 
                 ContentResponse response = branchService.getBranchContent(testDocumentId, testBranchId);
 
                 assertThat(response).isNotNull();
-                assertThat(response.getContent()).isEqualTo("Merge Content");
+                assertThat(response.getContent()).isEqualTo("Test Content");
 
-                verify(documentRepository).findByPublicId(testDocumentId);
+                verify(documentAccessCache).findAccess(testDocumentId, testUserId);
                 verify(branchRepository).findByPublicIdAndDocumentId(testBranchId, testDocument.getId());
             }
         }
@@ -436,8 +481,8 @@ class BranchServiceTest {
                 mockedUserIdUtils.when(UserIdUtils::getUserIdFromContext)
                         .thenReturn(testUserId);
 
-                when(documentRepository.findByPublicId(testDocumentId))
-                        .thenReturn(Optional.of(testDocument));
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(testAccess));
 
                 when(branchRepository.findByPublicIdAndDocumentId(testBranchId, testDocument.getId()))
                         .thenReturn(Optional.empty());
@@ -463,29 +508,264 @@ class BranchServiceTest {
                 mockedUserIdUtils.when(UserIdUtils::getUserIdFromContext)
                         .thenReturn(testUserId);
 
-                when(documentRepository.findByPublicId(testDocumentId))
-                        .thenReturn(Optional.of(testDocument));
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(testAccess));
 
                 mockedPermissionUtils.when(() ->
-                        PermissionUtils.checkUserCanWrite(testUserId, testDocument)
+                        PermissionUtils.checkUserCanWrite(testAccess)
                 ).thenAnswer(_ -> null);
 
-                when(branchRepository.findByPublicIdAndDocumentId(testBranchId, testDocument.getId()))
+                when(branchRepository.findWithLockByPublicIdAndDocumentId(testBranchId, testDocument.getId()))
                         .thenReturn(Optional.of(testBranch));
 
-                when(branchRepository.save(testBranch))
-                        .thenReturn(testBranch);
+                when(branchRevisionService.rebase(testBranch, null, newContent))
+                        .thenReturn(newContent);
+
+                var updatedContent = Content.builder().content(newContent).build();
+                when(contentService.update(testBranch.getContent(), newContent))
+                        .thenReturn(updatedContent);
+
+                stubUpdateContent();
 
                 ContentResponse response = branchService.updateBranchContent(
                         testDocumentId,
                         testBranchId,
-                        newContent
+                        newContent,
+                        null
                 );
 
                 assertThat(response).isNotNull();
                 assertThat(testBranch.getBranchContent()).isEqualTo(newContent);
 
-                verify(branchRepository).save(testBranch);
+                verify(branchRevisionService).updateContent(testBranch, updatedContent);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Buffered Branch Content Tests")
+    class BufferedBranchContentTests {
+
+        @Test
+        @DisplayName("Should buffer autosave without writing the branch")
+        void shouldBufferAutosave() {
+            try (MockedStatic<UserIdUtils> mockedUserIdUtils = mockStatic(UserIdUtils.class);
+                 MockedStatic<PermissionUtils> mockedPermissionUtils = mockStatic(PermissionUtils.class)) {
+
+                mockedUserIdUtils.when(UserIdUtils::getUserIdFromContext)
+                        .thenReturn(testUserId);
+
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(testAccess));
+
+                mockedPermissionUtils.when(() ->
+                        PermissionUtils.checkUserCanWrite(testAccess)
+                ).thenAnswer(_ -> null);
+
+                when(branchWriteBuffer.isEnabled()).thenReturn(true);
+
+                when(branchRepository.findRevisionByPublicIdAndDocumentId(testBranchId, testDocument.getId()))
+                        .thenReturn(Optional.of(3L));
+
+                ContentResponse response = branchService.updateBranchContent(
+                        testDocumentId,
+                        testBranchId,
+                        "Buffered Content",
+                        null
+                );
+
+                assertThat(response.getContent()).isEqualTo("Buffered Content");
+                assertThat(response.getRevision()).isNull();
+                verify(branchWriteBuffer).buffer(any(PendingBranchWrite.class));
+                verify(cacheManager).getCache("document_branch_contents");
+                verify(branchRepository, never()).findWithLockByPublicIdAndDocumentId(any(), any());
+                verifyNoInteractions(branchRevisionService);
+            }
+        }
+
+        @Test
+        @DisplayName("Should flush buffered content before reading it so it carries a revision")
+        void shouldFlushBufferedContentBeforeReading() {
+            try (MockedStatic<UserIdUtils> mockedUserIdUtils = mockStatic(UserIdUtils.class);
+                 MockedStatic<PermissionUtils> mockedPermissionUtils = mockStatic(PermissionUtils.class)) {
+
+                mockedUserIdUtils.when(UserIdUtils::getUserIdFromContext)
+                        .thenReturn(testUserId);
+
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(testAccess));
+
+                when(branchRepository.findByPublicIdAndDocumentId(testBranchId, testDocument.getId()))
+                        .thenReturn(Optional.of(testBranch));
+
+                mockedPermissionUtils.when(() ->
+                        PermissionUtils.isUnauthorizedUser(testAccess)
+                ).thenReturn(false);
+
+                testBranch.setRevision(4L);
+
+                var response = branchService.getBranchContent(testDocumentId, testBranchId);
+
+                var order = inOrder(branchWriteBuffer, branchRepository);
+                order.verify(branchWriteBuffer).flush(testBranchId);
+                order.verify(branchRepository).findByPublicIdAndDocumentId(testBranchId, testDocument.getId());
+                assertThat(response.getRevision()).isEqualTo(4L);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Patch Branch Content Tests")
+    class PatchBranchContentTests {
+
+        @Test
+        @DisplayName("Should apply patch and return new revision")
+        void shouldPatchBranchContentSuccessfully() {
+            try (MockedStatic<UserIdUtils> mockedUserIdUtils = mockStatic(UserIdUtils.class);
+                 MockedStatic<PermissionUtils> mockedPermissionUtils = mockStatic(PermissionUtils.class)) {
+
+                testBranch.setRevision(3L);
+
+                var request = new PatchContentRequest();
+                request.setPatch("@@ -1,12 +1,15 @@\n Test Content\n+ v2\n");
+
+                mockedUserIdUtils.when(UserIdUtils::getUserIdFromContext)
+                        .thenReturn(testUserId);
+
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(testAccess));
+
+                mockedPermissionUtils.when(() ->
+                        PermissionUtils.checkUserCanWrite(testAccess)
+                ).thenAnswer(_ -> null);
+
+                when(branchRepository.findWithLockByPublicIdAndDocumentId(testBranchId, testDocument.getId()))
+                        .thenReturn(Optional.of(testBranch));
+
+                when(branchRevisionService.findBaseContent(testBranch, 3L))
+                        .thenReturn(testBranch.getContent());
+
+                when(diffService.applyPatch("Test Content", request.getPatch()))
+                        .thenReturn("Test Content v2");
+
+                when(contentService.update(testBranch.getContent(), "Test Content v2"))
+                        .thenReturn(Content.builder().hash("new-hash").content("Test Content v2").build());
+
+                when(branchRevisionService.updateContent(any(Branch.class), any(Content.class)))
+                        .thenAnswer(invocation -> {
+                            Branch branch = invocation.getArgument(0);
+                            branch.setContent(invocation.getArgument(1));
+                            branch.setRevision(4L);
+                            return branch;
+                        });
+
+                PatchContentResponse response = branchService.patchBranchContent(
+                        testDocumentId,
+                        testBranchId,
+                        request,
+                        3L
+                );
+
+                assertThat(response.getRevision()).isEqualTo(4L);
+                assertThat(testBranch.getBranchContent()).isEqualTo("Test Content v2");
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject patch against an unknown revision")
+        void shouldRejectStaleRevision() {
+            try (MockedStatic<UserIdUtils> mockedUserIdUtils = mockStatic(UserIdUtils.class);
+                 MockedStatic<PermissionUtils> mockedPermissionUtils = mockStatic(PermissionUtils.class)) {
+
+                var request = new PatchContentRequest();
+                request.setPatch("@@ -1,12 +1,15 @@\n Test Content\n+ v2\n");
+
+                mockedUserIdUtils.when(UserIdUtils::getUserIdFromContext)
+                        .thenReturn(testUserId);
+
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(testAccess));
+
+                mockedPermissionUtils.when(() ->
+                        PermissionUtils.checkUserCanWrite(testAccess)
+                ).thenAnswer(_ -> null);
+
+                when(branchRepository.findWithLockByPublicIdAndDocumentId(testBranchId, testDocument.getId()))
+                        .thenReturn(Optional.of(testBranch));
+
+                when(branchRevisionService.findBaseContent(testBranch, 1L))
+                        .thenThrow(new BranchRevisionConflictException());
+
+                assertThatThrownBy(() -> branchService.patchBranchContent(testDocumentId, testBranchId, request, 1L))
+                        .isInstanceOf(BranchRevisionConflictException.class);
+
+                verifyNoInteractions(diffService);
+                verify(branchRevisionService, never()).updateContent(any(), any());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Get All Branch Diff Stats Tests")
+    class GetAllBranchDiffStatsTests {
+
+        @Test
+        @DisplayName("Should compare every branch with main by content hash")
+        void shouldReturnStatsAgainstMain() {
+            try (MockedStatic<UserIdUtils> mockedUserIdUtils = mockStatic(UserIdUtils.class);
+                 MockedStatic<PermissionUtils> mockedPermissionUtils = mockStatic(PermissionUtils.class)) {
+
+                mockedUserIdUtils.when(UserIdUtils::getUserIdFromContext)
+                        .thenReturn(testUserId);
+
+                mockedPermissionUtils.when(() ->
+                        PermissionUtils.isUnauthorizedUser(testAccess)
+                ).thenReturn(false);
+
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(testAccess));
+
+                var mainBranchId = UUID.randomUUID();
+                when(branchRepository.findContentHashesByDocumentId(testDocument.getId()))
+                        .thenReturn(List.of(
+                                new BranchContentHash(mainBranchId, "main", "main-hash"),
+                                new BranchContentHash(testBranchId, "Test Branch", "branch-hash")
+                        ));
+
+                var expectedStats = new DiffStatsResponse(5, 2, 1, 1, 1, 0.9);
+                when(diffUtils.buildDiffStats(eq("main-hash"), any(), eq("branch-hash"), any()))
+                        .thenReturn(expectedStats);
+
+                var response = branchService.getAllBranchDiffStats(testDocumentId);
+
+                assertThat(response).singleElement().satisfies(stats -> {
+                    assertThat(stats.getBranchId()).isEqualTo(testBranchId);
+                    assertThat(stats.getStats()).isEqualTo(expectedStats);
+                });
+                verifyNoInteractions(contentService);
+            }
+        }
+
+        @Test
+        @DisplayName("Should throw exception when user is unauthorized")
+        void shouldThrowWhenUnauthorized() {
+            try (MockedStatic<UserIdUtils> mockedUserIdUtils = mockStatic(UserIdUtils.class);
+                 MockedStatic<PermissionUtils> mockedPermissionUtils = mockStatic(PermissionUtils.class)) {
+
+                mockedUserIdUtils.when(UserIdUtils::getUserIdFromContext)
+                        .thenReturn(testUserId);
+
+                mockedPermissionUtils.when(() ->
+                        PermissionUtils.isUnauthorizedUser(testAccess)
+                ).thenReturn(true);
+
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(testAccess));
+
+                assertThatThrownBy(() -> branchService.getAllBranchDiffStats(testDocumentId))
+                        .isInstanceOf(UnauthorizedDocumentException.class);
+
+                verifyNoInteractions(diffUtils);
             }
         }
     }
@@ -500,8 +780,8 @@ class BranchServiceTest {
             testBranch.setStatus(Status.PUBLIC);
             testMergeBranch.setStatus(Status.PUBLIC);
 
-            when(documentRepository.findByPublicId(testDocumentId))
-                    .thenReturn(Optional.of(testDocument));
+            when(documentRepository.findIdByPublicId(testDocumentId))
+                    .thenReturn(Optional.of(testDocument.getId()));
 
             when(branchRepository.findByPublicIdAndDocumentId(testBranchId, testDocument.getId()))
                     .thenReturn(Optional.of(testBranch));
@@ -511,22 +791,29 @@ class BranchServiceTest {
 
             DiffResponse expectedDiff = new DiffResponse();
             when(diffUtils.buildDiffResponse(
-                    testBranch.getBranchContent(),
-                    testMergeBranch.getBranchContent()
+                    eq(testBranch.getContent().getHash()),
+                    any(),
+                    eq(testMergeBranch.getContent().getHash()),
+                    any(),
+                    eq(DiffMode.AUTO)
             )).thenReturn(expectedDiff);
 
             DiffResponse response = branchService.getBranchDiffs(
                     testDocumentId,
                     testBranchId,
-                    testMergeBranchId
+                    testMergeBranchId,
+                    DiffMode.AUTO
             );
 
             assertThat(response).isNotNull();
             assertThat(response).isEqualTo(expectedDiff);
 
             verify(diffUtils).buildDiffResponse(
-                    testBranch.getBranchContent(),
-                    testMergeBranch.getBranchContent()
+                    eq(testBranch.getContent().getHash()),
+                    any(),
+                    eq(testMergeBranch.getContent().getHash()),
+                    any(),
+                    eq(DiffMode.AUTO)
             );
         }
 
@@ -542,8 +829,8 @@ class BranchServiceTest {
                 testBranch.setStatus(Status.PRIVATE);
                 testMergeBranch.setStatus(Status.PRIVATE);
 
-                when(documentRepository.findByPublicId(testDocumentId))
-                        .thenReturn(Optional.of(testDocument));
+                when(documentRepository.findIdByPublicId(testDocumentId))
+                        .thenReturn(Optional.of(testDocument.getId()));
 
                 when(branchRepository.findByPublicIdAndDocumentId(testBranchId, testDocument.getId()))
                         .thenReturn(Optional.of(testBranch));
@@ -551,26 +838,36 @@ class BranchServiceTest {
                 when(branchRepository.findByPublicIdAndDocumentId(testMergeBranchId, testDocument.getId()))
                         .thenReturn(Optional.of(testMergeBranch));
 
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(testAccess));
+
                 mockedPermissionUtils.when(() ->
-                        PermissionUtils.isUnauthorizedUser(testUserId, testDocument)
+                        PermissionUtils.isUnauthorizedUser(testAccess)
                 ).thenReturn(false);
 
                 DiffResponse expectedDiff = new DiffResponse();
                 when(diffUtils.buildDiffResponse(
-                        testBranch.getBranchContent(),
-                        testMergeBranch.getBranchContent()
+                        eq(testBranch.getContent().getHash()),
+                        any(),
+                        eq(testMergeBranch.getContent().getHash()),
+                        any(),
+                        eq(DiffMode.AUTO)
                 )).thenReturn(expectedDiff);
 
                 DiffResponse response = branchService.getBranchDiffs(
                         testDocumentId,
                         testBranchId,
-                        testMergeBranchId
+                        testMergeBranchId,
+                        DiffMode.AUTO
                 );
 
                 assertThat(response).isNotNull();
                 verify(diffUtils).buildDiffResponse(
-                        testBranch.getBranchContent(),
-                        testMergeBranch.getBranchContent()
+                        eq(testBranch.getContent().getHash()),
+                        any(),
+                        eq(testMergeBranch.getContent().getHash()),
+                        any(),
+                        eq(DiffMode.AUTO)
                 );
             }
         }
@@ -589,28 +886,116 @@ class BranchServiceTest {
                 mockedUserIdUtils.when(UserIdUtils::getUserIdFromContext)
                         .thenReturn(testUserId);
 
-                when(documentRepository.findByPublicId(testDocumentId))
-                        .thenReturn(Optional.of(testDocument));
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(testAccess));
 
                 mockedPermissionUtils.when(() ->
-                        PermissionUtils.checkUserCanWrite(testUserId, testDocument)
+                        PermissionUtils.checkUserCanWrite(testAccess)
                 ).thenAnswer(_ -> null);
 
-                when(branchRepository.findByPublicIdAndDocumentId(testBranchId, testDocument.getId()))
+                when(branchRepository.findWithLockByPublicIdAndDocumentId(testBranchId, testDocument.getId()))
                         .thenReturn(Optional.of(testBranch));
 
                 when(branchRepository.findByPublicIdAndDocumentId(testMergeBranchId, testDocument.getId()))
                         .thenReturn(Optional.of(testMergeBranch));
 
-                when(branchRepository.save(testBranch))
-                        .thenReturn(testBranch);
+                stubUpdateContent();
 
                 branchService.mergeBranches(testDocumentId, testBranchId, testMergeBranchId);
 
-                assertThat(testBranch.getBranchContent()).isEqualTo(testMergeBranch.getBranchContent());
+                assertThat(testBranch.getContent()).isSameAs(testMergeBranch.getContent());
 
-                verify(branchRepository).save(testBranch);
-                verify(documentRepository).findByPublicId(testDocumentId);
+                verify(branchRevisionService).updateContent(testBranch, testMergeBranch.getContent());
+                verify(documentAccessCache).findAccess(testDocumentId, testUserId);
+            }
+        }
+
+        @Test
+        @DisplayName("Should three-way merge branches from their fork point")
+        void shouldThreeWayMergeBranches() {
+            try (MockedStatic<UserIdUtils> mockedUserIdUtils = mockStatic(UserIdUtils.class);
+                 MockedStatic<PermissionUtils> mockedPermissionUtils = mockStatic(PermissionUtils.class)) {
+
+                var forkContent = Content.builder().content("Fork Content").build();
+                var mergedContent = Content.builder().content("Merged Content").build();
+
+                mockedUserIdUtils.when(UserIdUtils::getUserIdFromContext)
+                        .thenReturn(testUserId);
+
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(testAccess));
+
+                mockedPermissionUtils.when(() ->
+                        PermissionUtils.checkUserCanWrite(testAccess)
+                ).thenAnswer(_ -> null);
+
+                when(branchRepository.findWithLockByPublicIdAndDocumentId(testBranchId, testDocument.getId()))
+                        .thenReturn(Optional.of(testBranch));
+
+                when(branchRepository.findByPublicIdAndDocumentId(testMergeBranchId, testDocument.getId()))
+                        .thenReturn(Optional.of(testMergeBranch));
+
+                when(branchMergeBaseService.find(testBranch, testMergeBranch))
+                        .thenReturn(Optional.of(forkContent));
+
+                when(diffService.merge("Fork Content", "Merge Content", "Test Content"))
+                        .thenReturn("Merged Content");
+
+                when(contentService.update(testBranch.getContent(), "Merged Content"))
+                        .thenReturn(mergedContent);
+
+                stubUpdateContent();
+
+                var mergeBranchContent = testMergeBranch.getContent();
+
+                branchService.mergeBranches(testDocumentId, testBranchId, testMergeBranchId);
+
+                assertThat(testBranch.getContent()).isSameAs(mergedContent);
+                verify(branchMergeBaseService).record(testBranch, testMergeBranch, mergeBranchContent);
+            }
+        }
+
+        @Test
+        @DisplayName("Should merge sibling branches from the base recorded for the pair")
+        void shouldMergeSiblingBranchesFromTheirCommonAncestor() {
+            try (MockedStatic<UserIdUtils> mockedUserIdUtils = mockStatic(UserIdUtils.class);
+                 MockedStatic<PermissionUtils> mockedPermissionUtils = mockStatic(PermissionUtils.class)) {
+
+                // both branches were forked from main, which has moved on since
+                var siblingForkContent = Content.builder().content("Sibling Fork Content").build();
+                var mergedContent = Content.builder().content("Merged Content").build();
+
+                mockedUserIdUtils.when(UserIdUtils::getUserIdFromContext)
+                        .thenReturn(testUserId);
+
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(testAccess));
+
+                mockedPermissionUtils.when(() ->
+                        PermissionUtils.checkUserCanWrite(testAccess)
+                ).thenAnswer(_ -> null);
+
+                when(branchRepository.findWithLockByPublicIdAndDocumentId(testBranchId, testDocument.getId()))
+                        .thenReturn(Optional.of(testBranch));
+
+                when(branchRepository.findByPublicIdAndDocumentId(testMergeBranchId, testDocument.getId()))
+                        .thenReturn(Optional.of(testMergeBranch));
+
+                when(branchMergeBaseService.find(testBranch, testMergeBranch))
+                        .thenReturn(Optional.of(siblingForkContent));
+
+                when(diffService.merge("Sibling Fork Content", "Merge Content", "Test Content"))
+                        .thenReturn("Merged Content");
+
+                when(contentService.update(testBranch.getContent(), "Merged Content"))
+                        .thenReturn(mergedContent);
+
+                stubUpdateContent();
+
+                branchService.mergeBranches(testDocumentId, testBranchId, testMergeBranchId);
+
+                assertThat(testBranch.getContent()).isSameAs(mergedContent);
+                verify(diffService).merge("Sibling Fork Content", "Merge Content", "Test Content");
             }
         }
 
@@ -623,14 +1008,14 @@ class BranchServiceTest {
                 mockedUserIdUtils.when(UserIdUtils::getUserIdFromContext)
                         .thenReturn(testUserId);
 
-                when(documentRepository.findByPublicId(testDocumentId))
-                        .thenReturn(Optional.of(testDocument));
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(testAccess));
 
                 mockedPermissionUtils.when(() ->
-                        PermissionUtils.checkUserCanWrite(testUserId, testDocument)
+                        PermissionUtils.checkUserCanWrite(testAccess)
                 ).thenAnswer(_ -> null);
 
-                when(branchRepository.findByPublicIdAndDocumentId(testBranchId, testDocument.getId()))
+                when(branchRepository.findWithLockByPublicIdAndDocumentId(testBranchId, testDocument.getId()))
                         .thenReturn(Optional.empty());
 
                 assertThatThrownBy(() -> branchService.mergeBranches(
@@ -652,14 +1037,14 @@ class BranchServiceTest {
                 mockedUserIdUtils.when(UserIdUtils::getUserIdFromContext)
                         .thenReturn(testUserId);
 
-                when(documentRepository.findByPublicId(testDocumentId))
-                        .thenReturn(Optional.of(testDocument));
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(testAccess));
 
                 mockedPermissionUtils.when(() ->
-                        PermissionUtils.checkUserCanWrite(testUserId, testDocument)
+                        PermissionUtils.checkUserCanWrite(testAccess)
                 ).thenAnswer(_ -> null);
 
-                when(branchRepository.findByPublicIdAndDocumentId(testBranchId, testDocument.getId()))
+                when(branchRepository.findWithLockByPublicIdAndDocumentId(testBranchId, testDocument.getId()))
                         .thenReturn(Optional.of(testBranch));
 
                 when(branchRepository.findByPublicIdAndDocumentId(testMergeBranchId, testDocument.getId()))
@@ -675,4 +1060,13 @@ class BranchServiceTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    private void stubUpdateContent() {
+        when(branchRevisionService.updateContent(any(Branch.class), any(Content.class)))
+                .thenAnswer(invocation -> {
+                    Branch branch = invocation.getArgument(0);
+                    branch.setContent(invocation.getArgument(1));
+                    return branch;
+                });
+    }
+}
@@ -0,0 +1,211 @@
+package com.nipun.system.document.branch;
+
+import com.nipun.system.document.branch.exceptions.BranchRevisionConflictException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Branch Write Buffer Unit Test")
+class BranchWriteBufferTest {
+
+    @Mock
+    private BranchRevisionService branchRevisionService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @TempDir
+    private Path tempDir;
+
+    private Path journalPath;
+    private UUID testBranchId;
+    private PendingBranchWrite testWrite;
+
+    @BeforeEach
+    void setup() {
+        journalPath = tempDir.resolve("branch.journal");
+        testBranchId = UUID.randomUUID();
+        testWrite = new PendingBranchWrite(1L, UUID.randomUUID(), testBranchId, 2L, 3L, "Buffered\tContent\n");
+    }
+
+    private BranchWriteBuffer newBuffer() {
+        var buffer = new BranchWriteBuffer(branchRevisionService, transactionTemplate, cacheManager, stringRedisTemplate, messagingTemplate);
+        ReflectionTestUtils.setField(buffer, "enabled", true);
+        ReflectionTestUtils.setField(buffer, "journalPath", journalPath);
+        ReflectionTestUtils.setField(buffer, "leaseTtl", Duration.ofSeconds(30));
+        return buffer;
+    }
+
+    private BranchWriteBuffer createBuffer() throws Exception {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+
+        var buffer = newBuffer();
+        buffer.replayJournal();
+        return buffer;
+    }
+
+    private void runTransactions() {
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    @DisplayName("Should refuse to start while another node holds the lease")
+    void shouldRejectSecondNode() {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get(anyString())).thenReturn("other-node:/data/branch.journal");
+
+        assertThatThrownBy(() -> newBuffer().replayJournal()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Should keep only the latest content of a branch")
+    void shouldKeepLatestContent() throws Exception {
+        var buffer = createBuffer();
+
+        buffer.buffer(testWrite);
+        buffer.buffer(new PendingBranchWrite(1L, testWrite.getDocumentPublicId(), testBranchId, 2L, 4L, "Latest Content"));
+
+        assertThat(buffer.find(testBranchId)).contains("Latest Content");
+    }
+
+    @Test
+    @DisplayName("Should flush later autosaves against the revision the first one was based on")
+    void shouldKeepFirstBaseRevision() throws Exception {
+        var buffer = createBuffer();
+        runTransactions();
+
+        buffer.buffer(testWrite);
+        buffer.buffer(new PendingBranchWrite(1L, testWrite.getDocumentPublicId(), testBranchId, 2L, 4L, "Latest Content"));
+        buffer.flushAll();
+
+        verify(branchRevisionService).writeContent(1L, testBranchId, "Latest Content", 3L);
+    }
+
+    @Test
+    @DisplayName("Should keep a conflicting buffered write on its own branch and tell the writer")
+    void shouldForkConflictingWrite() throws Exception {
+        var buffer = createBuffer();
+        runTransactions();
+
+        var conflictBranch = new Branch();
+        conflictBranch.setPublicId(UUID.randomUUID());
+
+        when(branchRevisionService.writeContent(1L, testBranchId, testWrite.getContent(), 3L))
+                .thenThrow(new BranchRevisionConflictException());
+        when(branchRevisionService.forkConflict(1L, testBranchId, 2L, 3L, testWrite.getContent()))
+                .thenReturn(Optional.of(conflictBranch));
+
+        buffer.buffer(testWrite);
+        buffer.flushAll();
+
+        verify(branchRevisionService).forkConflict(1L, testBranchId, 2L, 3L, testWrite.getContent());
+        verify(messagingTemplate).convertAndSendToUser(eq("2"), eq("/queue/errors"), any(Object.class));
+        assertThat(buffer.find(testBranchId)).isEmpty();
+        assertThat(Files.readString(journalPath)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep a conflicting write buffered when it can't be forked")
+    void shouldKeepWriteWhenForkFails() throws Exception {
+        var buffer = createBuffer();
+        runTransactions();
+
+        when(branchRevisionService.writeContent(1L, testBranchId, testWrite.getContent(), 3L))
+                .thenThrow(new BranchRevisionConflictException());
+        when(branchRevisionService.forkConflict(1L, testBranchId, 2L, 3L, testWrite.getContent()))
+                .thenThrow(new IllegalStateException("Database unavailable"));
+
+        buffer.buffer(testWrite);
+        buffer.flushAll();
+
+        assertThat(buffer.find(testBranchId)).contains(testWrite.getContent());
+        assertThat(Files.readString(journalPath)).isNotEmpty();
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    @DisplayName("Should stop buffering and flush once the lease is lost")
+    void shouldStopBufferingWhenLeaseIsLost() throws Exception {
+        var buffer = createBuffer();
+        runTransactions();
+
+        buffer.buffer(testWrite);
+
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get(anyString())).thenReturn("other-node:/data/branch.journal");
+
+        buffer.flushAll();
+
+        assertThat(buffer.isEnabled()).isFalse();
+        verify(branchRevisionService).writeContent(1L, testBranchId, testWrite.getContent(), 3L);
+        assertThat(buffer.find(testBranchId)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should replay journaled writes after a restart")
+    void shouldReplayJournal() throws Exception {
+        createBuffer().buffer(testWrite);
+
+        var restarted = createBuffer();
+
+        assertThat(restarted.find(testBranchId)).contains(testWrite.getContent());
+    }
+
+    @Test
+    @DisplayName("Should write buffered content and clear the journal on flush")
+    void shouldFlushBufferedContent() throws Exception {
+        var buffer = createBuffer();
+        runTransactions();
+
+        buffer.buffer(testWrite);
+        buffer.flushAll();
+
+        verify(branchRevisionService).writeContent(1L, testBranchId, testWrite.getContent(), 3L);
+        assertThat(buffer.find(testBranchId)).isEmpty();
+        assertThat(Files.readString(journalPath)).isEmpty();
+    }
+}
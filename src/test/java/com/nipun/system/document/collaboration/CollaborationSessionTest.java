@@ -0,0 +1,154 @@
+package com.nipun.system.document.collaboration;
+
+import com.nipun.system.document.collaboration.exceptions.InvalidOperationException;
+import com.nipun.system.document.collaboration.exceptions.StaleOperationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Collaboration Session Unit Test")
+class CollaborationSessionTest {
+
+    private CollaborationSession session;
+
+    @BeforeEach
+    void setup() {
+        session = new CollaborationSession(1L, UUID.randomUUID(), UUID.randomUUID(), "hello world", 1L, 3);
+    }
+
+    private EditOperation fromClient(EditOperation operation, String clientId) {
+        return operation.toBuilder().clientId(clientId).build();
+    }
+
+    @Nested
+    class ApplyTests {
+
+        @Test
+        @DisplayName("Should apply an operation based on the latest sequence as is")
+        void shouldApplyLatestOperation() {
+            var accepted = session.apply(fromClient(EditOperation.insert(5, ","), "a"), 0);
+
+            assertThat(session.getContentText()).isEqualTo("hello, world");
+            assertThat(accepted).singleElement().satisfies(operation -> assertThat(operation.getSequence()).isEqualTo(1));
+            assertThat(session.isDirty()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should transform concurrent inserts so both survive")
+        void shouldTransformConcurrentInserts() {
+            session.apply(fromClient(EditOperation.insert(0, "oh "), "a"), 0);
+            session.apply(fromClient(EditOperation.insert(11, "!"), "b"), 0);
+
+            assertThat(session.getContentText()).isEqualTo("oh hello world!");
+        }
+
+        @Test
+        @DisplayName("Should only delete what a concurrent delete left over")
+        void shouldTransformOverlappingDeletes() {
+            session.apply(fromClient(EditOperation.delete(0, 6), "a"), 0);
+            session.apply(fromClient(EditOperation.delete(4, 7), "b"), 0);
+
+            assertThat(session.getContentText()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should keep text inserted inside a concurrently deleted range")
+        void shouldSplitDeleteAroundInsert() {
+            session.apply(fromClient(EditOperation.insert(6, "big "), "a"), 0);
+            var accepted = session.apply(fromClient(EditOperation.delete(2, 7), "b"), 0);
+
+            assertThat(session.getContentText()).isEqualTo("hebig ld");
+            assertThat(accepted).hasSize(2);
+        }
+
+        @Test
+        @DisplayName("Should not transform against operations of the same client")
+        void shouldSkipOwnOperations() {
+            session.apply(fromClient(EditOperation.insert(0, "a"), "a"), 0);
+            session.apply(fromClient(EditOperation.insert(1, "b"), "a"), 1);
+
+            assertThat(session.getContentText()).isEqualTo("abhello world");
+        }
+
+        @Test
+        @DisplayName("Should reject operations based on a sequence that left the log")
+        void shouldRejectStaleOperation() {
+            for (var i = 0; i < 4; i++)
+                session.apply(fromClient(EditOperation.insert(0, "x"), "a"), i);
+
+            assertThatThrownBy(() -> session.apply(fromClient(EditOperation.insert(0, "y"), "b"), 0))
+                    .isInstanceOf(StaleOperationException.class);
+        }
+
+        @Test
+        @DisplayName("Should reject operations based on a sequence before a reset")
+        void shouldRejectOperationAcrossReset() {
+            session.reset("reloaded", 2L);
+
+            assertThatThrownBy(() -> session.apply(fromClient(EditOperation.insert(0, "y"), "b"), 0))
+                    .isInstanceOf(StaleOperationException.class);
+        }
+
+        @Test
+        @DisplayName("Should reject operations outside of the content")
+        void shouldRejectOutOfBoundsOperation() {
+            assertThatThrownBy(() -> session.apply(fromClient(EditOperation.delete(5, 20), "a"), 0))
+                    .isInstanceOf(InvalidOperationException.class);
+            assertThat(session.getContentText()).isEqualTo("hello world");
+        }
+    }
+
+    @Nested
+    class InvalidOperationTests {
+
+        @Test
+        @DisplayName("Should reject an operation without a type instead of deleting")
+        void shouldRejectMissingType() {
+            var operation = fromClient(EditOperation.delete(0, 5), "a").toBuilder().type(null).build();
+
+            assertThatThrownBy(() -> session.apply(operation, 0))
+                    .isInstanceOf(InvalidOperationException.class);
+            assertThat(session.getContentText()).isEqualTo("hello world");
+        }
+
+        @Test
+        @DisplayName("Should reject a reset sent by a client")
+        void shouldRejectClientReset() {
+            var operation = fromClient(EditOperation.delete(0, 5), "a").toBuilder().type(OperationType.RESET).build();
+
+            assertThatThrownBy(() -> session.apply(operation, 0))
+                    .isInstanceOf(InvalidOperationException.class);
+        }
+
+        @Test
+        @DisplayName("Should reject an operation without a client")
+        void shouldRejectMissingClient() {
+            session.apply(fromClient(EditOperation.insert(0, "a"), "a"), 0);
+
+            assertThatThrownBy(() -> session.apply(EditOperation.insert(0, "b"), 0))
+                    .isInstanceOf(InvalidOperationException.class);
+            assertThat(session.getContentText()).isEqualTo("ahello world");
+        }
+    }
+
+    @Nested
+    class SnapshotTests {
+
+        @Test
+        @DisplayName("Should be clean after the latest sequence was snapshotted")
+        void shouldBeCleanAfterSnapshot() {
+            session.apply(fromClient(EditOperation.insert(0, "a"), "a"), 0);
+
+            session.markSnapshot(session.getSequence(), 2L);
+
+            assertThat(session.isDirty()).isFalse();
+            assertThat(session.getRevision()).isEqualTo(2L);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.nipun.system.document.collaboration;
+
+import com.nipun.system.document.permission.DocumentAccess;
+import com.nipun.system.document.permission.DocumentAccessCache;
+import com.nipun.system.document.share.Permission;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Document Subscription Registry Unit Test")
+class DocumentSubscriptionRegistryTest {
+
+    @Mock
+    private DocumentAccessCache documentAccessCache;
+
+    @Mock
+    private ObjectProvider<SimpMessagingTemplate> messagingTemplateProvider;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private MessageChannel brokerChannel;
+
+    @InjectMocks
+    private DocumentSubscriptionRegistry documentSubscriptionRegistry;
+
+    private UUID testDocumentId;
+
+    @BeforeEach
+    void setup() {
+        testDocumentId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should unsubscribe a user whose access was revoked")
+    void shouldUnsubscribeRevokedUser() {
+        when(documentAccessCache.findAccess(testDocumentId, 1L))
+                .thenReturn(Optional.of(new DocumentAccess(1L, false, null)));
+        when(messagingTemplateProvider.getObject()).thenReturn(messagingTemplate);
+        when(messagingTemplate.getMessageChannel()).thenReturn(brokerChannel);
+
+        documentSubscriptionRegistry.register("session", "subscription", testDocumentId, 1L);
+        documentSubscriptionRegistry.revoke(testDocumentId, 1L);
+
+        var captor = ArgumentCaptor.forClass(Message.class);
+        verify(brokerChannel).send(captor.capture());
+
+        var headers = captor.getValue().getHeaders();
+        assertThat(SimpMessageHeaderAccessor.getMessageType(headers)).isEqualTo(SimpMessageType.UNSUBSCRIBE);
+        assertThat(SimpMessageHeaderAccessor.getSessionId(headers)).isEqualTo("session");
+        assertThat(SimpMessageHeaderAccessor.getSubscriptionId(headers)).isEqualTo("subscription");
+        verify(messagingTemplate).convertAndSendToUser(eq("1"), eq("/queue/errors"), any(Object.class));
+
+        // a revoked subscription is only dropped once
+        documentSubscriptionRegistry.revoke(testDocumentId, 1L);
+        verifyNoMoreInteractions(brokerChannel);
+    }
+
+    @Test
+    @DisplayName("Should keep subscriptions of users that still have access")
+    void shouldKeepAuthorizedUser() {
+        when(documentAccessCache.findAccess(testDocumentId, 1L))
+                .thenReturn(Optional.of(new DocumentAccess(1L, false, Permission.READ_ONLY)));
+
+        documentSubscriptionRegistry.register("session", "subscription", testDocumentId, 1L);
+        documentSubscriptionRegistry.revoke(testDocumentId, null);
+
+        verifyNoInteractions(messagingTemplateProvider);
+    }
+
+    @Test
+    @DisplayName("Should only check subscriptions matching the changed access")
+    void shouldIgnoreOtherDocuments() {
+        documentSubscriptionRegistry.register("session", "subscription", testDocumentId, 1L);
+        documentSubscriptionRegistry.revoke(UUID.randomUUID(), 1L);
+        documentSubscriptionRegistry.revoke(testDocumentId, 2L);
+
+        verifyNoInteractions(documentAccessCache, messagingTemplateProvider);
+    }
+
+    @Test
+    @DisplayName("Should forget subscriptions of a disconnected session")
+    void shouldForgetDisconnectedSession() {
+        documentSubscriptionRegistry.register("session", "subscription", testDocumentId, 1L);
+        documentSubscriptionRegistry.remove("session");
+        documentSubscriptionRegistry.revoke(testDocumentId, 1L);
+
+        verifyNoInteractions(documentAccessCache, messagingTemplateProvider);
+    }
+}
@@ -0,0 +1,54 @@
+package com.nipun.system.document.content;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Content Chunker Unit Test")
+class ContentChunkerTest {
+
+    private ContentChunker contentChunker;
+    private String testContent;
+
+    @BeforeEach
+    void setup() {
+        contentChunker = new ContentChunker();
+        ReflectionTestUtils.setField(contentChunker, "minSize", 256);
+        ReflectionTestUtils.setField(contentChunker, "averageSize", 1024);
+        ReflectionTestUtils.setField(contentChunker, "maxSize", 4096);
+
+        var random = new Random(42);
+        var builder = new StringBuilder();
+        for (var i = 0; i < 2000; i++)
+            builder.append("{\"type\":\"paragraph\",\"text\":\"").append(random.nextLong()).append("\"},");
+        testContent = builder.toString();
+    }
+
+    @Test
+    @DisplayName("Should split content into pieces that join back to the original")
+    void shouldSplitLosslessly() {
+        var chunks = contentChunker.split(testContent);
+
+        assertThat(String.join("", chunks)).isEqualTo(testContent);
+        assertThat(chunks).allSatisfy(chunk -> assertThat(chunk.length()).isLessThanOrEqualTo(4096));
+        assertThat(chunks.size()).isGreaterThan(1);
+    }
+
+    @Test
+    @DisplayName("Should keep most chunks unchanged after a local edit")
+    void shouldKeepChunksAfterLocalEdit() {
+        var middle = testContent.length() / 2;
+        var edited = testContent.substring(0, middle) + "inserted paragraph" + testContent.substring(middle);
+
+        var original = new HashSet<>(contentChunker.split(testContent));
+        var changed = contentChunker.split(edited).stream().filter(chunk -> !original.contains(chunk)).count();
+
+        assertThat(changed).isLessThanOrEqualTo(2);
+    }
+}
@@ -0,0 +1,110 @@
+package com.nipun.system.document.content;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Content Line Service Unit Test")
+class ContentLineServiceTest {
+
+    @Mock
+    private ContentService contentService;
+
+    @Mock
+    private ContentLineIndexRepository contentLineIndexRepository;
+
+    private ContentLineService contentLineService;
+
+    private Content testContent;
+
+    @BeforeEach
+    void setup() {
+        contentLineService = new ContentLineService(contentService, contentLineIndexRepository);
+        ReflectionTestUtils.setField(contentLineService, "stride", 4);
+
+        var builder = new StringBuilder();
+        for (var i = 1; i <= 20; i++)
+            builder.append("line ").append(i).append('\n');
+        builder.append("last");
+
+        testContent = Content.builder().id(1L).hash("hash").content(builder.toString()).build();
+
+        lenient().when(contentService.read(eq(testContent), anyLong(), anyLong())).thenAnswer(invocation -> {
+            long start = invocation.getArgument(1);
+            long end = invocation.getArgument(2);
+            return testContent.getContent().substring((int) start, (int) Math.min(end, testContent.length()));
+        });
+    }
+
+    @Nested
+    class ReadLinesTests {
+
+        @ParameterizedTest
+        @CsvSource({"1,1", "3,9", "4,5", "5,8", "17,21", "21,30", "1,21"})
+        @DisplayName("Should read the same lines as slicing the whole content")
+        void shouldMatchSlicing(long fromLine, long toLine) {
+            when(contentLineIndexRepository.findById(1L)).thenReturn(Optional.empty());
+
+            var response = contentLineService.readLines(testContent, fromLine, toLine);
+
+            assertThat(response).isEqualTo(contentLineService.sliceLines(testContent.getContent(), fromLine, toLine));
+            assertThat(response.getLineCount()).isEqualTo(21);
+        }
+
+        @Test
+        @DisplayName("Should store the index on first read and only read the window around the range")
+        void shouldStoreIndex() {
+            when(contentLineIndexRepository.findById(1L)).thenReturn(Optional.empty());
+
+            contentLineService.readLines(testContent, 10, 10);
+
+            verify(contentLineIndexRepository).insertIfAbsent(eq(1L), eq(4), eq(21L), argThat(offsets -> offsets.length == 6 * Long.BYTES));
+
+            clearInvocations(contentService);
+            var index = ContentLineIndex.builder()
+                    .contentId(1L)
+                    .stride(4)
+                    .lineCount(21)
+                    .offsets(captureOffsets())
+                    .build();
+            when(contentLineIndexRepository.findById(1L)).thenReturn(Optional.of(index));
+
+            var response = contentLineService.readLines(testContent, 10, 10);
+
+            assertThat(response.getContent()).isEqualTo("line 10\n");
+            verify(contentService).read(testContent, index.offsetOfSample(2), index.offsetOfSample(3));
+        }
+
+        @Test
+        @DisplayName("Should slice contents that are not stored")
+        void shouldSliceDetachedContent() {
+            var detached = Content.builder().hash("detached").content("a\nb\nc").build();
+
+            var response = contentLineService.readLines(detached, 2, 3);
+
+            assertThat(response.getContent()).isEqualTo("b\nc");
+            verifyNoInteractions(contentLineIndexRepository);
+        }
+    }
+
+    private byte[] captureOffsets() {
+        var captor = ArgumentCaptor.forClass(byte[].class);
+        verify(contentLineIndexRepository).insertIfAbsent(eq(1L), eq(4), eq(21L), captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,75 @@
+package com.nipun.system.document.content;
+
+import com.nipun.system.document.base.dtos.OutlineHeadingResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Content Outline Utils Unit Test")
+class ContentOutlineUtilsTest {
+
+    private final String testContent = """
+            <html><body><h1>Intro</h1><p>café</p>
+            <h2 class="title">Tea &amp; <b>Cake</b></h2>
+            <h3></h3>
+            # Notes
+            <p>text</p>
+            <h2>
+              Closing
+            </h2>
+            </body></html>""";
+
+    private String titles(List<OutlineHeadingResponse> headings) {
+        var builder = new StringBuilder();
+        headings.forEach(heading -> builder.append(heading.getLevel()).append(':').append(heading.getTitle()).append('|'));
+        return builder.toString();
+    }
+
+    @Test
+    @DisplayName("Should build the outline from html and markdown headings")
+    void shouldBuildOutline() {
+        var headings = ContentOutlineUtils.build(testContent);
+
+        assertThat(titles(headings)).isEqualTo("1:Intro|2:Tea & Cake|1:Notes|2:Closing|");
+        assertThat(headings.get(3).getLine()).isEqualTo(6);
+
+        for (var heading : headings) {
+            var before = testContent.substring(0, (int) heading.getCharOffset());
+            assertThat(heading.getByteOffset()).isEqualTo(before.getBytes(StandardCharsets.UTF_8).length);
+        }
+    }
+
+    @Test
+    @DisplayName("Should match a full rebuild after an edit")
+    void shouldUpdateIncrementally() {
+        var previous = ContentOutlineUtils.build(testContent);
+
+        var edits = List.of(
+                testContent.replace("# Notes", "## Notes été"),
+                testContent.replace("<p>text</p>", "<h4>Added</h4>\n<p>text</p>"),
+                testContent.replace("</h2>\n<h3>", "\n<h3>"),
+                testContent.replace("Intro", "Introduction"),
+                "<h1>Only</h1>\n" + testContent
+        );
+
+        for (var edited : edits)
+            assertThat(ContentOutlineUtils.update(testContent, previous, edited))
+                    .isEqualTo(ContentOutlineUtils.build(edited));
+    }
+
+    @Test
+    @DisplayName("Should decode what it encodes")
+    void shouldRoundTripEncoding() {
+        var headings = List.of(
+                new OutlineHeadingResponse(1, "Intro, part one", 12, 14, 1, 14),
+                new OutlineHeadingResponse(2, "Next", 40, 42, 3, 12)
+        );
+
+        assertThat(ContentOutlineUtils.decode(ContentOutlineUtils.encode(headings))).isEqualTo(headings);
+        assertThat(ContentOutlineUtils.decode(ContentOutlineUtils.encode(List.of()))).isEmpty();
+    }
+}
@@ -0,0 +1,258 @@
+package com.nipun.system.document.content;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Content Service Unit Test")
+class ContentServiceTest {
+
+    @Mock
+    private ContentRepository contentRepository;
+
+    @Mock
+    private ContentChunkRepository contentChunkRepository;
+
+    @Mock
+    private ContentChunkRefRepository contentChunkRefRepository;
+
+    @Mock
+    private ContentChunker contentChunker;
+
+    @InjectMocks
+    private ContentService contentService;
+
+    private Content testContent;
+    private String testHash;
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(contentService, "compressionCodec", ContentCodec.DEFLATE);
+        ReflectionTestUtils.setField(contentService, "compressionThreshold", 64);
+        ReflectionTestUtils.setField(contentService, "chunkingThreshold", 1024);
+
+        testHash = ContentHashUtils.hash("Test Content");
+
+        testContent = Content.builder()
+                .id(1L)
+                .hash(testHash)
+                .content("Test Content")
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Store Content Tests")
+    class StoreContentTests {
+
+        @Test
+        @DisplayName("Should reuse existing content with the same hash")
+        void shouldReuseExistingContent() {
+            when(contentRepository.findCommittedByHash(testHash)).thenReturn(Optional.of(testContent));
+
+            var result = contentService.store("Test Content");
+
+            assertThat(result).isSameAs(testContent);
+            verify(contentRepository, never()).insertIfAbsent(anyString(), anyString(), anyString(), any(), anyBoolean(), anyLong(), anyLong());
+        }
+
+        @Test
+        @DisplayName("Should insert content when hash is not stored yet")
+        void shouldInsertNewContent() {
+            when(contentRepository.findCommittedByHash(testHash)).thenReturn(Optional.empty(), Optional.of(testContent));
+
+            var result = contentService.store("Test Content");
+
+            assertThat(result).isSameAs(testContent);
+            verify(contentRepository).insertIfAbsent(eq(testHash), eq("Test Content"), eq("NONE"), any(), eq(false), eq(12L), eq(12L));
+        }
+
+        @Test
+        @DisplayName("Should compress content over the threshold")
+        void shouldCompressLargeContent() {
+            var largeText = "<p>Large paragraph</p>".repeat(20);
+            var largeHash = ContentHashUtils.hash(largeText);
+
+            when(contentRepository.findCommittedByHash(largeHash)).thenReturn(Optional.empty(), Optional.of(testContent));
+
+            contentService.store(largeText);
+
+            var payload = ArgumentCaptor.forClass(byte[].class);
+            verify(contentRepository).insertIfAbsent(eq(largeHash), eq(""), eq("DEFLATE"), payload.capture(), eq(false), anyLong(), anyLong());
+            assertThat(payload.getValue().length).isLessThan(largeText.length());
+            assertThat(ContentCodec.DEFLATE.decode(payload.getValue())).isEqualTo(largeText);
+        }
+    }
+
+    @Nested
+    @DisplayName("Chunked Content Tests")
+    class ChunkedContentTests {
+
+        @Test
+        @DisplayName("Should write only chunks that are not stored yet")
+        void shouldWriteOnlyNewChunks() {
+            var first = "a".repeat(600);
+            var second = "b".repeat(600);
+            var text = first + second;
+            var hash = ContentHashUtils.hash(text);
+            var chunkedContent = Content.builder().id(3L).hash(hash).chunked(true).contentLength(1200L).build();
+            var storedChunk = ContentChunk.builder().id(1L).hash(ContentHashUtils.hash(first)).content(first).build();
+            var newChunk = ContentChunk.builder().id(2L).hash(ContentHashUtils.hash(second)).content(second).build();
+
+            when(contentRepository.insertIfAbsent(eq(hash), eq(""), eq("NONE"), any(), eq(true), eq(1200L), eq(1200L))).thenReturn(1);
+            when(contentRepository.findCommittedByHash(hash)).thenReturn(Optional.empty(), Optional.of(chunkedContent));
+            when(contentChunker.split(text)).thenReturn(List.of(first, second));
+            when(contentChunkRepository.findByHashIn(any()))
+                    .thenReturn(List.of(storedChunk))
+                    .thenReturn(List.of(newChunk));
+
+            var result = contentService.store(text);
+
+            assertThat(result).isSameAs(chunkedContent);
+            verify(contentChunkRepository).insertIfAbsent(newChunk.getHash(), second);
+            verify(contentChunkRepository, never()).insertIfAbsent(eq(storedChunk.getHash()), anyString());
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<ContentChunkRef>> refs = ArgumentCaptor.forClass(List.class);
+            verify(contentChunkRefRepository).saveAllAndFlush(refs.capture());
+            assertThat(refs.getValue()).extracting(ContentChunkRef::getOffset).containsExactly(0L, 600L);
+        }
+
+        @Test
+        @DisplayName("Should read a range from overlapping chunks only")
+        void shouldReadRangeFromChunks() {
+            var chunkedContent = Content.builder().id(3L).chunked(true).contentLength(12L).build();
+            var first = ContentChunk.builder().content("Hello ").build();
+            var second = ContentChunk.builder().content("World!").build();
+
+            when(contentChunkRefRepository.findOverlapping(3L, 4L, 9L)).thenReturn(List.of(
+                    ContentChunkRef.builder().position(0).chunk(first).offset(0).length(6).build(),
+                    ContentChunkRef.builder().position(1).chunk(second).offset(6).length(6).build()
+            ));
+
+            assertThat(contentService.read(chunkedContent, 4, 9)).isEqualTo("o Wor");
+        }
+    }
+
+    @Nested
+    @DisplayName("Write Content Tests")
+    class WriteContentTests {
+
+        @Test
+        @DisplayName("Should write the requested byte range of multi-byte content")
+        void shouldWriteByteRange() throws Exception {
+            var text = "héllo wörld";
+            var content = Content.builder().hash(ContentHashUtils.hash(text)).content(text).build();
+            var output = new ByteArrayOutputStream();
+
+            contentService.write(content, 1, 7, output);
+
+            assertThat(output.toByteArray())
+                    .isEqualTo(Arrays.copyOfRange(text.getBytes(StandardCharsets.UTF_8), 1, 7));
+        }
+
+        @Test
+        @DisplayName("Should write the whole content")
+        void shouldWriteWholeContent() throws Exception {
+            var content = Content.builder().content("Test Content").build();
+            var output = new ByteArrayOutputStream();
+
+            contentService.write(content, 0, content.byteLength(), output);
+
+            assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("Test Content");
+        }
+    }
+
+    @Nested
+    @DisplayName("Content Codec Tests")
+    class ContentCodecTests {
+
+        @Test
+        @DisplayName("Should decode compressed payload on read")
+        void shouldDecodeCompressedPayload() {
+            var text = "<h1>Title</h1>".repeat(50);
+            var content = Content.builder()
+                    .hash(ContentHashUtils.hash(text))
+                    .content("")
+                    .codec(ContentCodec.DEFLATE)
+                    .payload(ContentCodec.DEFLATE.encode(text))
+                    .build();
+
+            assertThat(content.getContent()).isEqualTo(text);
+        }
+
+        @Test
+        @DisplayName("Should read legacy uncompressed rows as is")
+        void shouldReadLegacyContent() {
+            var content = Content.builder().content("Legacy Content").codec(null).build();
+
+            assertThat(content.getContent()).isEqualTo("Legacy Content");
+        }
+
+        @Test
+        @DisplayName("Should store the lengths of a compressed row on its first read")
+        void shouldMeasureCompressedContent() {
+            var text = "<h1>Title ü</h1>".repeat(50);
+            var content = Content.builder()
+                    .id(4L)
+                    .hash(ContentHashUtils.hash(text))
+                    .content("")
+                    .codec(ContentCodec.DEFLATE)
+                    .payload(ContentCodec.DEFLATE.encode(text))
+                    .build();
+
+            contentService.measure(content);
+
+            assertThat(content.byteLength()).isEqualTo(text.getBytes(StandardCharsets.UTF_8).length);
+            verify(contentRepository).updateLengthsIfMissing(4L, text.length(), text.getBytes(StandardCharsets.UTF_8).length);
+        }
+    }
+
+    @Nested
+    @DisplayName("Update Content Tests")
+    class UpdateContentTests {
+
+        @Test
+        @DisplayName("Should keep current content when text is unchanged")
+        void shouldKeepCurrentContentWhenUnchanged() {
+            var result = contentService.update(testContent, "Test Content");
+
+            assertThat(result).isSameAs(testContent);
+            verifyNoInteractions(contentRepository);
+        }
+
+        @Test
+        @DisplayName("Should store new content when text changed")
+        void shouldStoreNewContentWhenChanged() {
+            var updatedHash = ContentHashUtils.hash("Updated Content");
+            var updatedContent = Content.builder().id(2L).hash(updatedHash).content("Updated Content").build();
+
+            when(contentRepository.findCommittedByHash(updatedHash)).thenReturn(Optional.of(updatedContent));
+
+            var result = contentService.update(testContent, "Updated Content");
+
+            assertThat(result).isSameAs(updatedContent);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.nipun.system.document.content;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Content Streamer Unit Test")
+class ContentStreamerTest {
+
+    @Mock
+    private ContentService contentService;
+
+    @InjectMocks
+    private ContentStreamer contentStreamer;
+
+    private Content testContent;
+
+    @BeforeEach
+    void setup() {
+        testContent = Content.builder()
+                .hash(ContentHashUtils.hash("Test Content"))
+                .content("Test Content")
+                .byteLength(12L)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should return not modified when the ETag matches")
+    void shouldReturnNotModified() {
+        var response = contentStreamer.stream(testContent, "\"" + testContent.getHash() + "\"", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getBody()).isNull();
+        verifyNoInteractions(contentService);
+    }
+
+    @Test
+    @DisplayName("Should stream the whole content without a range")
+    void shouldStreamWholeContent() {
+        var response = contentStreamer.stream(testContent, "\"other\"", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"" + testContent.getHash() + "\"");
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(12L);
+    }
+
+    @Test
+    @DisplayName("Should return partial content for a byte range")
+    void shouldReturnPartialContent() {
+        var response = contentStreamer.stream(testContent, null, "bytes=5-");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 5-11/12");
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("Should reject a range outside the content")
+    void shouldRejectUnsatisfiableRange() {
+        var response = contentStreamer.stream(testContent, null, "bytes=20-30");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */12");
+    }
+}
@@ -0,0 +1,135 @@
+package com.nipun.system.document.diff;
+
+import com.nipun.system.document.diff.dtos.DiffHunk;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Diff Hunk Utils Unit Test")
+class DiffHunkUtilsTest {
+
+    private final String testEqualBlock = "1\n2\n3\n4\n5\n6\n7\n8\n";
+
+    private String text(DiffHunk hunk) {
+        var builder = new StringBuilder();
+        hunk.getRows().forEach(row -> builder.append(row.getOperation()).append(':').append(row.getText()).append('|'));
+        return builder.toString();
+    }
+
+    @Test
+    @DisplayName("Should keep context lines around separate changes")
+    void shouldSplitDistantChanges() {
+        var diffs = List.of(
+                new DiffRow("EQUAL", testEqualBlock),
+                new DiffRow("DELETE", "old\n"),
+                new DiffRow("INSERT", "new\n"),
+                new DiffRow("EQUAL", testEqualBlock),
+                new DiffRow("INSERT", "added\n"),
+                new DiffRow("EQUAL", testEqualBlock)
+        );
+
+        var hunks = DiffHunkUtils.toHunks(diffs, 2);
+
+        assertThat(hunks).hasSize(2);
+        assertThat(text(hunks.get(0))).isEqualTo("EQUAL:7\n8\n|DELETE:old\n|INSERT:new\n|EQUAL:1\n2\n|");
+        assertThat(hunks.get(0).getBaseLine()).isEqualTo(7);
+        assertThat(hunks.get(0).getCompareLine()).isEqualTo(7);
+        assertThat(text(hunks.get(1))).isEqualTo("EQUAL:7\n8\n|INSERT:added\n|EQUAL:1\n2\n|");
+        assertThat(hunks.get(1).getIndex()).isEqualTo(1);
+        assertThat(hunks.get(1).getBaseLine()).isEqualTo(16);
+        assertThat(hunks.get(1).getCompareLine()).isEqualTo(16);
+    }
+
+    @Test
+    @DisplayName("Should merge changes whose gap fits in the context")
+    void shouldMergeCloseChanges() {
+        var diffs = List.of(
+                new DiffRow("DELETE", "a"),
+                new DiffRow("EQUAL", "b\nc\n"),
+                new DiffRow("INSERT", "d")
+        );
+
+        var hunks = DiffHunkUtils.toHunks(diffs, 1);
+
+        assertThat(hunks).singleElement().satisfies(hunk -> {
+            assertThat(hunk.getRows()).hasSize(3);
+            assertThat(hunk.getBaseLine()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    @DisplayName("Should return no hunks for equal contents")
+    void shouldReturnNoHunks() {
+        assertThat(DiffHunkUtils.toHunks(List.of(new DiffRow("EQUAL", testEqualBlock)), 3)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should rebuild every hunk from the index the same as a full pass")
+    void shouldResumeFromIndex() {
+        var diffs = List.of(
+                new DiffRow("INSERT", "first\n"),
+                new DiffRow("EQUAL", testEqualBlock),
+                new DiffRow("DELETE", "old\n"),
+                new DiffRow("INSERT", "new\n"),
+                new DiffRow("EQUAL", "a\nb\n"),
+                new DiffRow("DELETE", "close\n"),
+                new DiffRow("EQUAL", testEqualBlock + testEqualBlock),
+                new DiffRow("INSERT", "last"),
+                new DiffRow("EQUAL", testEqualBlock)
+        );
+
+        var hunks = DiffHunkUtils.toHunks(diffs, 2);
+        var index = DiffHunkUtils.index(diffs, 2);
+
+        assertThat(index.size()).isEqualTo(hunks.size()).isEqualTo(3);
+        for (var i = 0; i < hunks.size(); i++) {
+            var resumed = DiffHunkUtils.iterate(diffs, 2, index, i);
+            for (var j = i; j < hunks.size(); j++)
+                assertThat(resumed.next()).isEqualTo(hunks.get(j));
+            assertThat(resumed.hasNext()).isFalse();
+        }
+        assertThat(DiffHunkUtils.iterate(diffs, 2, index, 3).hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should hand out a hunk before reading the diffs after it")
+    void shouldIterateLazily() {
+        var diffs = List.of(
+                new DiffRow("INSERT", "added\n"),
+                new DiffRow("EQUAL", testEqualBlock),
+                new DiffRow("DELETE", "old\n"),
+                new DiffRow("EQUAL", testEqualBlock)
+        ).iterator();
+
+        var hunks = DiffHunkUtils.iterate(diffs, 2);
+
+        assertThat(hunks.next().getIndex()).isZero();
+        assertThat(diffs.next().getOperation()).isEqualTo("DELETE");
+    }
+
+    @Test
+    @DisplayName("Should fingerprint the same diff alike and a different diff of the same contents apart")
+    void shouldFingerprintDiffs() {
+        var diffs = List.of(
+                new DiffRow("EQUAL", "a\n"),
+                new DiffRow("DELETE", "b\n"),
+                new DiffRow("INSERT", "c\n")
+        );
+        var copy = List.of(
+                new DiffRow("EQUAL", "a\n"),
+                new DiffRow("DELETE", "b\n"),
+                new DiffRow("INSERT", "c\n")
+        );
+        var reordered = List.of(
+                new DiffRow("EQUAL", "a\n"),
+                new DiffRow("INSERT", "c\n"),
+                new DiffRow("DELETE", "b\n")
+        );
+
+        assertThat(DiffHunkUtils.fingerprint(copy)).isEqualTo(DiffHunkUtils.fingerprint(diffs));
+        assertThat(DiffHunkUtils.fingerprint(reordered)).isNotEqualTo(DiffHunkUtils.fingerprint(diffs));
+    }
+}
@@ -0,0 +1,52 @@
+package com.nipun.system.document.diff;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Diff Segment Utils Unit Test")
+class DiffSegmentUtilsTest {
+
+    private String join(List<DiffSegmentUtils.Segment> segments, boolean base) {
+        var builder = new StringBuilder();
+        segments.forEach(segment -> builder.append(base ? segment.baseContent() : segment.compareContent()));
+        return builder.toString();
+    }
+
+    @Test
+    @DisplayName("Should split both contents without losing text")
+    void shouldSplitLosslessly() {
+        var builder = new StringBuilder();
+        for (var i = 0; i < 500; i++)
+            builder.append("line ").append(i).append(i % 5 == 0 ? "\n\n" : "\n");
+        var baseContent = builder.toString();
+        var compareContent = "header\n" + baseContent.replace("line 250\n", "changed\n");
+
+        var segments = DiffSegmentUtils.split(baseContent, compareContent, 256);
+
+        assertThat(segments).hasSizeGreaterThan(1);
+        assertThat(join(segments, true)).isEqualTo(baseContent);
+        assertThat(join(segments, false)).isEqualTo(compareContent);
+        assertThat(segments.subList(1, segments.size())).allSatisfy(segment ->
+                assertThat(segment.baseContent().split("\n", 2)[0]).isEqualTo(segment.compareContent().split("\n", 2)[0])
+        );
+    }
+
+    @Test
+    @DisplayName("Should not anchor on lines that moved")
+    void shouldIgnoreReorderedLines() {
+        var segments = DiffSegmentUtils.split("a\nb\n", "b\na\n", 1);
+
+        assertThat(join(segments, true)).isEqualTo("a\nb\n");
+        assertThat(join(segments, false)).isEqualTo("b\na\n");
+    }
+
+    @Test
+    @DisplayName("Should return a single segment when there is no common line")
+    void shouldReturnSingleSegment() {
+        assertThat(DiffSegmentUtils.split("", "x", 1)).hasSize(1);
+    }
+}
@@ -0,0 +1,212 @@
+package com.nipun.system.document.diff;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Diff Service Unit Test")
+class DiffServiceImplTest {
+
+    private DiffServiceImpl diffService;
+
+    private final String testBaseContent = "The quick brown fox\njumps over\nthe lazy dog\n";
+    private final String testCompareContent = "The quick red fox\njumps over\nthe sleepy dog\nand runs\n";
+
+    @BeforeEach
+    void setup() {
+        diffService = new DiffServiceImpl();
+        ReflectionTestUtils.setField(diffService, "timeout", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(diffService, "charThreshold", 10);
+        ReflectionTestUtils.setField(diffService, "wordThreshold", 100);
+        ReflectionTestUtils.setField(diffService, "parallelThreshold", Integer.MAX_VALUE);
+        ReflectionTestUtils.setField(diffService, "segmentSize", 64);
+    }
+
+    private String side(List<DiffRow> diffs, String excluded) {
+        var builder = new StringBuilder();
+        diffs.stream()
+                .filter(diff -> !diff.getOperation().equals(excluded))
+                .forEach(diff -> builder.append(diff.getText()));
+        return builder.toString();
+    }
+
+    @Nested
+    class GetDiffsTests {
+
+        @ParameterizedTest
+        @EnumSource(DiffMode.class)
+        @DisplayName("Should describe both contents in every mode")
+        void shouldReconstructBothContents(DiffMode mode) {
+            var diffs = diffService.getDiffs(testBaseContent, testCompareContent, mode);
+
+            assertThat(side(diffs, "INSERT")).isEqualTo(testBaseContent);
+            assertThat(side(diffs, "DELETE")).isEqualTo(testCompareContent);
+        }
+
+        @Test
+        @DisplayName("Should only report whole lines in line mode")
+        void shouldDiffWholeLines() {
+            var diffs = diffService.getDiffs(testBaseContent, testCompareContent, DiffMode.LINE);
+
+            assertThat(diffs)
+                    .filteredOn(diff -> !diff.getOperation().equals("EQUAL"))
+                    .allSatisfy(diff -> assertThat(diff.getText()).endsWith("\n"));
+        }
+
+        @Test
+        @DisplayName("Should only report whole words in word mode")
+        void shouldDiffWholeWords() {
+            var diffs = diffService.getDiffs("one two three", "one four three", DiffMode.WORD);
+
+            assertThat(diffs).extracting(DiffRow::getText).contains("two", "four");
+        }
+
+        @Test
+        @DisplayName("Should return no changes for equal contents")
+        void shouldReturnSingleEqualRow() {
+            var diffs = diffService.getDiffs(testBaseContent, testBaseContent, DiffMode.AUTO);
+
+            assertThat(diffs).singleElement().satisfies(diff -> assertThat(diff.getOperation()).isEqualTo("EQUAL"));
+        }
+    }
+
+    @Nested
+    class GetStatsTests {
+
+        @Test
+        @DisplayName("Should count changed lines and characters")
+        void shouldCountChanges() {
+            var stats = diffService.getStats(testBaseContent, testCompareContent);
+
+            assertThat(stats.getDeletedLines()).isEqualTo(2);
+            assertThat(stats.getInsertedLines()).isEqualTo(3);
+            assertThat(stats.getDeletedCharacters()).isEqualTo("The quick brown fox\nthe lazy dog\n".length());
+            assertThat(stats.getInsertedCharacters()).isEqualTo("The quick red fox\nthe sleepy dog\nand runs\n".length());
+            assertThat(stats.getHunks()).isEqualTo(2);
+            assertThat(stats.getSimilarity()).isBetween(0.0, 1.0);
+        }
+
+        @Test
+        @DisplayName("Should report equal contents as identical")
+        void shouldReportIdenticalContents() {
+            var stats = diffService.getStats(testBaseContent, testBaseContent);
+
+            assertThat(stats.getHunks()).isZero();
+            assertThat(stats.getSimilarity()).isEqualTo(1.0);
+        }
+    }
+
+    @Nested
+    class ParallelDiffTests {
+
+        @Test
+        @DisplayName("Should describe both contents when diffed in segments")
+        void shouldReconstructBothContentsInSegments() {
+            var builder = new StringBuilder();
+            for (var i = 0; i < 200; i++)
+                builder.append("paragraph ").append(i).append('\n');
+            var baseContent = builder.toString();
+            var compareContent = baseContent.replace("paragraph 42", "section 42").replace("paragraph 150\n", "");
+
+            ReflectionTestUtils.setField(diffService, "parallelThreshold", 0);
+
+            var diffs = diffService.getDiffs(baseContent, compareContent, DiffMode.LINE);
+
+            assertThat(DiffSegmentUtils.split(baseContent, compareContent, 64)).hasSizeGreaterThan(1);
+            assertThat(side(diffs, "INSERT")).isEqualTo(baseContent);
+            assertThat(side(diffs, "DELETE")).isEqualTo(compareContent);
+            assertThat(diffs).filteredOn(diff -> !diff.getOperation().equals("EQUAL")).hasSize(3);
+        }
+
+        @Test
+        @DisplayName("Should match the sequential diff when diffed in segments")
+        void shouldMatchSequentialDiff() {
+            var builder = new StringBuilder();
+            for (var i = 0; i < 60; i++)
+                builder.append("paragraph ").append(i).append(" of the document\n");
+            var baseContent = builder.toString();
+            var compareContent = baseContent
+                    .replace("paragraph 5 of", "section 5 in")
+                    .replace("paragraph 30 of the document\n", "")
+                    .replace("paragraph 55 of", "paragraph 55 from");
+
+            var sequential = diffService.getDiffs(baseContent, compareContent, DiffMode.LINE);
+
+            ReflectionTestUtils.setField(diffService, "parallelThreshold", 0);
+
+            var parallel = diffService.getDiffs(baseContent, compareContent, DiffMode.LINE);
+
+            assertThat(DiffSegmentUtils.split(baseContent, compareContent, 64)).hasSizeGreaterThan(1);
+            assertThat(parallel).isEqualTo(sequential);
+        }
+
+        @Test
+        @DisplayName("Should diff contents below the segment size as a whole")
+        void shouldNotSplitBelowSegmentSize() {
+            ReflectionTestUtils.setField(diffService, "segmentSize", Integer.MAX_VALUE);
+            var whole = diffService.getDiffs(testBaseContent, testCompareContent, DiffMode.LINE);
+
+            ReflectionTestUtils.setField(diffService, "segmentSize", 64);
+            ReflectionTestUtils.setField(diffService, "parallelThreshold", 0);
+            var parallel = diffService.getDiffs(testBaseContent, testCompareContent, DiffMode.LINE);
+
+            assertThat(parallel).isEqualTo(whole);
+        }
+
+        @ParameterizedTest
+        @ValueSource(longs = {1, 2, 3, 5, 8, 13, 21, 34, 55, 89})
+        @DisplayName("Should match the sequential diff for random edits")
+        void shouldMatchSequentialDiffOnRandomEdits(long seed) {
+            var random = new Random(seed);
+
+            var lines = new ArrayList<String>();
+            for (var i = 0; i < 300; i++)
+                lines.add(random.nextInt(4) == 0 ? "repeated line\n" : "line " + i + " of " + seed + "\n");
+            var baseContent = String.join("", lines);
+
+            for (var i = 0; i < 30; i++) {
+                var position = random.nextInt(lines.size());
+                switch (random.nextInt(4)) {
+                    case 0 -> lines.add(position, "inserted " + i + "\n");
+                    case 1 -> lines.remove(position);
+                    case 2 -> lines.set(position, "changed " + i + "\n");
+                    default -> {
+                        // a block of lines moved somewhere else
+                        var length = Math.min(1 + random.nextInt(10), lines.size() - position);
+                        var block = new ArrayList<>(lines.subList(position, position + length));
+                        lines.subList(position, position + length).clear();
+                        lines.addAll(random.nextInt(lines.size() + 1), block);
+                    }
+                }
+            }
+            var compareContent = String.join("", lines);
+
+            for (var mode : List.of(DiffMode.LINE, DiffMode.WORD, DiffMode.CHAR)) {
+                ReflectionTestUtils.setField(diffService, "parallelThreshold", Integer.MAX_VALUE);
+                var sequential = diffService.getDiffs(baseContent, compareContent, mode);
+
+                ReflectionTestUtils.setField(diffService, "parallelThreshold", 0);
+                var parallel = diffService.getDiffs(baseContent, compareContent, mode);
+
+                assertThat(side(sequential, "INSERT")).isEqualTo(baseContent);
+                assertThat(side(sequential, "DELETE")).isEqualTo(compareContent);
+                assertThat(side(parallel, "INSERT")).isEqualTo(baseContent);
+                assertThat(side(parallel, "DELETE")).isEqualTo(compareContent);
+
+                assertThat(parallel).isEqualTo(sequential);
+            }
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.nipun.system.document.folder;
+
+import com.nipun.system.document.base.DocumentMapper;
+import com.nipun.system.document.base.DocumentRepository;
+import com.nipun.system.document.folder.dtos.FolderResponse;
+import com.nipun.system.document.folder.dtos.MoveFolderRequest;
+import com.nipun.system.document.folder.dtos.ShareFolderRequest;
+import com.nipun.system.document.folder.exceptions.FolderNotFoundException;
+import com.nipun.system.document.folder.exceptions.InvalidFolderMoveException;
+import com.nipun.system.document.folder.exceptions.InvalidFolderPermissionException;
+import com.nipun.system.document.permission.DocumentAccessChangedEvent;
+import com.nipun.system.document.share.Permission;
+import com.nipun.system.shared.utils.UserIdUtils;
+import com.nipun.system.user.UserRepository;
+import com.nipun.system.user.exceptions.UserNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Folder Service Unit Test")
+class FolderServiceTest {
+
+    @Mock
+    private FolderRepository folderRepository;
+
+    @Mock
+    private FolderMapper folderMapper;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private DocumentMapper documentMapper;
+
+    @Mock
+    private FolderShareRepository folderShareRepository;
+
+    @Mock
+    private FolderAccessService folderAccessService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private FolderService folderService;
+
+    private Folder testFolder;
+    private Folder testParentFolder;
+
+    @BeforeEach
+    void setup() {
+        testFolder = Folder.builder().id(1L).publicId(UUID.randomUUID()).name("Folder").build();
+        testParentFolder = Folder.builder().id(2L).publicId(UUID.randomUUID()).name("Parent").build();
+    }
+
+    @Nested
+    @DisplayName("Share Folder Tests")
+    class ShareFolderTests {
+
+        @Test
+        @DisplayName("Should share the folder and refresh the user's access below it")
+        void shouldShareFolder() {
+            try (MockedStatic<UserIdUtils> testUserIdUtils = mockStatic(UserIdUtils.class)) {
+                testUserIdUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(1L);
+
+                when(folderRepository.findByPublicIdAndOwnerId(testFolder.getPublicId(), 1L))
+                        .thenReturn(Optional.of(testFolder));
+                when(userRepository.existsById(2L)).thenReturn(true);
+
+                var response = folderService.shareFolder(
+                        testFolder.getPublicId(), new ShareFolderRequest(2L, Permission.READ_WRITE)
+                );
+
+                assertThat(response.getPermission()).isEqualTo(Permission.READ_WRITE);
+
+                verify(folderShareRepository).upsert(1L, 2L, "READ_WRITE");
+                verify(folderAccessService).refreshAccess(1L, 2L);
+                verify(eventPublisher).publishEvent(new DocumentAccessChangedEvent(null, 2L));
+            }
+        }
+
+        @Test
+        @DisplayName("Should throw when the user does not exist")
+        void shouldThrowWhenUserNotFound() {
+            try (MockedStatic<UserIdUtils> testUserIdUtils = mockStatic(UserIdUtils.class)) {
+                testUserIdUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(1L);
+
+                when(folderRepository.findByPublicIdAndOwnerId(testFolder.getPublicId(), 1L))
+                        .thenReturn(Optional.of(testFolder));
+                when(userRepository.existsById(2L)).thenReturn(false);
+
+                var request = new ShareFolderRequest(2L, Permission.READ_ONLY);
+
+                assertThatThrownBy(() -> folderService.shareFolder(testFolder.getPublicId(), request))
+                        .isInstanceOf(UserNotFoundException.class);
+
+                verify(folderShareRepository, never()).upsert(anyLong(), anyLong(), any());
+                verify(folderAccessService, never()).refreshAccess(anyLong(), anyLong());
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject sharing a folder without a granting permission")
+        void shouldRejectUnauthorizedPermission() {
+            try (MockedStatic<UserIdUtils> testUserIdUtils = mockStatic(UserIdUtils.class)) {
+                testUserIdUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(1L);
+
+                var request = new ShareFolderRequest(2L, Permission.UNAUTHORIZED);
+
+                assertThatThrownBy(() -> folderService.shareFolder(testFolder.getPublicId(), request))
+                        .isInstanceOf(InvalidFolderPermissionException.class);
+
+                verify(folderShareRepository, never()).upsert(anyLong(), anyLong(), any());
+                verifyNoInteractions(folderAccessService, eventPublisher);
+            }
+        }
+
+        @Test
+        @DisplayName("Should remove the share and refresh the user's access below it")
+        void shouldRemoveFolderAccess() {
+            try (MockedStatic<UserIdUtils> testUserIdUtils = mockStatic(UserIdUtils.class)) {
+                testUserIdUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(1L);
+
+                when(folderRepository.findByPublicIdAndOwnerId(testFolder.getPublicId(), 1L))
+                        .thenReturn(Optional.of(testFolder));
+
+                folderService.removeFolderAccess(testFolder.getPublicId(), 2L);
+
+                verify(folderShareRepository).deleteByFolderIdAndUserId(1L, 2L);
+                verify(folderAccessService).refreshAccess(1L, 2L);
+                verify(eventPublisher).publishEvent(new DocumentAccessChangedEvent(null, 2L));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Move Folder Tests")
+    class MoveFolderTests {
+
+        @Test
+        @DisplayName("Should move the folder under the new parent")
+        void shouldMoveFolder() {
+            try (MockedStatic<UserIdUtils> testUserIdUtils = mockStatic(UserIdUtils.class)) {
+                testUserIdUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(1L);
+
+                when(folderRepository.findByPublicIdAndOwnerId(testFolder.getPublicId(), 1L))
+                        .thenReturn(Optional.of(testFolder));
+                when(folderRepository.findByPublicIdAndOwnerId(testParentFolder.getPublicId(), 1L))
+                        .thenReturn(Optional.of(testParentFolder));
+                when(folderRepository.countClosure(1L, 2L)).thenReturn(0L);
+                when(folderRepository.save(testFolder)).thenReturn(testFolder);
+                when(folderAccessService.moveFolder(1L, 2L)).thenReturn(Set.of(3L));
+                when(folderMapper.toDto(testFolder)).thenReturn(new FolderResponse(1L, 2L, "Folder", null));
+
+                var response = folderService.moveFolder(
+                        testFolder.getPublicId(), new MoveFolderRequest(testParentFolder.getPublicId())
+                );
+
+                assertThat(response.getParentFolderId()).isEqualTo(2L);
+                assertThat(testFolder.getParentFolder()).isEqualTo(testParentFolder);
+
+                verify(folderAccessService).moveFolder(1L, 2L);
+                verify(eventPublisher).publishEvent(new DocumentAccessChangedEvent(null, 3L));
+                verify(eventPublisher, never()).publishEvent(new DocumentAccessChangedEvent(null, null));
+            }
+        }
+
+        @Test
+        @DisplayName("Should move the folder to the top level without a parent")
+        void shouldMoveFolderToTopLevel() {
+            try (MockedStatic<UserIdUtils> testUserIdUtils = mockStatic(UserIdUtils.class)) {
+                testUserIdUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(1L);
+
+                testFolder.setParentFolder(testParentFolder);
+
+                when(folderRepository.findByPublicIdAndOwnerId(testFolder.getPublicId(), 1L))
+                        .thenReturn(Optional.of(testFolder));
+                when(folderRepository.save(testFolder)).thenReturn(testFolder);
+
+                folderService.moveFolder(testFolder.getPublicId(), new MoveFolderRequest(null));
+
+                assertThat(testFolder.getParentFolder()).isNull();
+
+                verify(folderRepository, never()).countClosure(anyLong(), anyLong());
+                verify(folderAccessService).moveFolder(1L, null);
+            }
+        }
+
+        @Test
+        @DisplayName("Should not move a folder into its own sub folder")
+        void shouldThrowWhenMovingIntoSubFolder() {
+            try (MockedStatic<UserIdUtils> testUserIdUtils = mockStatic(UserIdUtils.class)) {
+                testUserIdUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(1L);
+
+                when(folderRepository.findByPublicIdAndOwnerId(testFolder.getPublicId(), 1L))
+                        .thenReturn(Optional.of(testFolder));
+                when(folderRepository.findByPublicIdAndOwnerId(testParentFolder.getPublicId(), 1L))
+                        .thenReturn(Optional.of(testParentFolder));
+                when(folderRepository.countClosure(1L, 2L)).thenReturn(1L);
+
+                var request = new MoveFolderRequest(testParentFolder.getPublicId());
+
+                assertThatThrownBy(() -> folderService.moveFolder(testFolder.getPublicId(), request))
+                        .isInstanceOf(InvalidFolderMoveException.class);
+
+                verify(folderRepository, never()).save(any());
+                verify(folderAccessService, never()).moveFolder(anyLong(), any());
+            }
+        }
+
+        @Test
+        @DisplayName("Should throw when the folder is not owned by the user")
+        void shouldThrowWhenFolderNotFound() {
+            try (MockedStatic<UserIdUtils> testUserIdUtils = mockStatic(UserIdUtils.class)) {
+                testUserIdUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(1L);
+
+                when(folderRepository.findByPublicIdAndOwnerId(testFolder.getPublicId(), 1L))
+                        .thenReturn(Optional.empty());
+
+                var request = new MoveFolderRequest(null);
+
+                assertThatThrownBy(() -> folderService.moveFolder(testFolder.getPublicId(), request))
+                        .isInstanceOf(FolderNotFoundException.class);
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.nipun.system.document.permission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.nipun.system.document.base.DocumentRepository;
+import com.nipun.system.document.share.Permission;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Document Access Cache Unit Test")
+class DocumentAccessCacheTest {
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    private DocumentAccessCache documentAccessCache;
+    private UUID testDocumentId;
+    private DocumentAccess testAccess;
+
+    @BeforeEach
+    void setup() {
+        documentAccessCache = new DocumentAccessCache(documentRepository);
+        ReflectionTestUtils.setField(documentAccessCache, "maxSize", 2);
+        ReflectionTestUtils.setField(documentAccessCache, "ttl", Duration.ofMinutes(5));
+        documentAccessCache.init();
+
+        testDocumentId = UUID.randomUUID();
+        testAccess = new DocumentAccess(1L, false, Permission.READ_ONLY);
+    }
+
+    @Test
+    @DisplayName("Should load the access once and serve later checks from memory")
+    void shouldCacheAccess() {
+        when(documentRepository.findAccessByPublicId(testDocumentId, 1L)).thenReturn(Optional.of(testAccess));
+
+        assertThat(documentAccessCache.findAccess(testDocumentId, 1L)).contains(testAccess);
+        assertThat(documentAccessCache.findAccess(testDocumentId, 1L)).contains(testAccess);
+
+        verify(documentRepository, times(1)).findAccessByPublicId(testDocumentId, 1L);
+    }
+
+    @Test
+    @DisplayName("Should not cache a missing document")
+    void shouldNotCacheMissingDocument() {
+        when(documentRepository.findAccessByPublicId(testDocumentId, 1L)).thenReturn(Optional.empty());
+
+        assertThat(documentAccessCache.findAccess(testDocumentId, 1L)).isEmpty();
+        assertThat(documentAccessCache.findAccess(testDocumentId, 1L)).isEmpty();
+
+        verify(documentRepository, times(2)).findAccessByPublicId(testDocumentId, 1L);
+    }
+
+    @Test
+    @DisplayName("Should reload only the evicted user")
+    void shouldEvictSingleUser() {
+        when(documentRepository.findAccessByPublicId(eq(testDocumentId), anyLong())).thenReturn(Optional.of(testAccess));
+
+        documentAccessCache.findAccess(testDocumentId, 1L);
+        documentAccessCache.findAccess(testDocumentId, 2L);
+
+        documentAccessCache.evict(testDocumentId, 1L);
+
+        documentAccessCache.findAccess(testDocumentId, 1L);
+        documentAccessCache.findAccess(testDocumentId, 2L);
+
+        verify(documentRepository, times(2)).findAccessByPublicId(testDocumentId, 1L);
+        verify(documentRepository, times(1)).findAccessByPublicId(testDocumentId, 2L);
+    }
+
+    @Test
+    @DisplayName("Should reload every user of a document evicted without a user")
+    void shouldEvictWholeDocument() {
+        when(documentRepository.findAccessByPublicId(eq(testDocumentId), anyLong())).thenReturn(Optional.of(testAccess));
+
+        documentAccessCache.findAccess(testDocumentId, 1L);
+        documentAccessCache.findAccess(testDocumentId, 2L);
+
+        documentAccessCache.evict(testDocumentId, null);
+
+        documentAccessCache.findAccess(testDocumentId, 1L);
+        documentAccessCache.findAccess(testDocumentId, 2L);
+
+        verify(documentRepository, times(2)).findAccessByPublicId(testDocumentId, 1L);
+        verify(documentRepository, times(2)).findAccessByPublicId(testDocumentId, 2L);
+    }
+
+    @Test
+    @DisplayName("Should reload every document of a user evicted without a document")
+    void shouldEvictWholeUser() {
+        var otherDocumentId = UUID.randomUUID();
+        when(documentRepository.findAccessByPublicId(any(UUID.class), anyLong())).thenReturn(Optional.of(testAccess));
+
+        documentAccessCache.findAccess(testDocumentId, 1L);
+        documentAccessCache.findAccess(otherDocumentId, 2L);
+
+        documentAccessCache.evict(null, 1L);
+
+        documentAccessCache.findAccess(testDocumentId, 1L);
+        documentAccessCache.findAccess(otherDocumentId, 2L);
+
+        verify(documentRepository, times(2)).findAccessByPublicId(testDocumentId, 1L);
+        verify(documentRepository, times(1)).findAccessByPublicId(otherDocumentId, 2L);
+    }
+
+    @Test
+    @DisplayName("Should drop entries once full")
+    void shouldBoundSize() {
+        when(documentRepository.findAccessByPublicId(eq(testDocumentId), anyLong())).thenReturn(Optional.of(testAccess));
+
+        for (var userId = 1L; userId <= 3L; userId++)
+            documentAccessCache.findAccess(testDocumentId, userId);
+        ((Cache<?, ?>) ReflectionTestUtils.getField(documentAccessCache, "entries")).cleanUp();
+        for (var userId = 1L; userId <= 3L; userId++)
+            documentAccessCache.findAccess(testDocumentId, userId);
+
+        verify(documentRepository, atLeast(4)).findAccessByPublicId(eq(testDocumentId), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should not keep a lookup that raced an eviction")
+    void shouldNotKeepRacedLookup() {
+        when(documentRepository.findAccessByPublicId(testDocumentId, 1L)).thenAnswer(_ -> {
+            documentAccessCache.evict(testDocumentId, 1L);
+            return Optional.of(testAccess);
+        });
+
+        documentAccessCache.findAccess(testDocumentId, 1L);
+        documentAccessCache.findAccess(testDocumentId, 1L);
+
+        verify(documentRepository, times(2)).findAccessByPublicId(testDocumentId, 1L);
+    }
+}
@@ -1,10 +1,9 @@
 package com.nipun.system.document.permission;
 
-import com.nipun.system.document.Status;
-import com.nipun.system.document.base.Document;
-import com.nipun.system.document.branch.Branch;
-import com.nipun.system.document.branch.BranchRepository;
-import com.nipun.system.document.content.Content;
+import com.nipun.system.document.base.DocumentRepository;
+import com.nipun.system.document.branch.exceptions.BranchNotFoundException;
+import com.nipun.system.document.permission.dtos.BatchPermissionRequest;
+import com.nipun.system.document.permission.dtos.BranchReference;
 import com.nipun.system.document.share.Permission;
 import com.nipun.system.shared.utils.UserIdUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,13 +16,16 @@ import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.mockStatic;
-import static org.mockito.Mockito.when;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 
 @ExtendWith(MockitoExtension.class)
@@ -31,110 +33,126 @@ import static org.mockito.Mockito.when;
 class PermissionServiceTest {
 
     @Mock
-    private BranchRepository branchRepository;
+    private DocumentRepository documentRepository;
 
     @InjectMocks
     private PermissionService permissionService;
 
     private UUID testDocumentId;
     private UUID testBranchId;
-    private Branch testBranch;
-    private Document testDocument;
 
     @BeforeEach
     void setup() {
         testDocumentId = UUID.randomUUID();
         testBranchId = UUID.randomUUID();
+    }
+
+    private Permission validate(DocumentAccess access) {
+        try (MockedStatic<UserIdUtils> testUserIdUtils = mockStatic(UserIdUtils.class)) {
+            testUserIdUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(1L);
+
+            when(documentRepository.findAccessByBranchPublicId(testDocumentId, testBranchId, 1L))
+                    .thenReturn(Optional.of(access));
+
+            var permissionResponse = permissionService.validateUserPermissions(testDocumentId, testBranchId);
 
-        this.testDocument = new Document();
-        this.testDocument.setId(1L);
-        this.testDocument.setPublicId(testDocumentId);
-        this.testDocument.setTitle("New Document");
-        this.testDocument.setStatus(Status.PRIVATE);
-        this.testDocument.setTrashed(false);
-        this.testDocument.setFavorite(false);
-        this.testDocument.setCreatedAt(LocalDateTime.now());
-        this.testDocument.setUpdatedAt(LocalDateTime.now());
-
-        this.testBranch = new Branch();
-        this.testBranch.setId(1L);
-        this.testBranch.setPublicId(testBranchId);
-        this.testBranch.setBranchName("Test Branch");
-        this.testBranch.setContent(new Content());
-        this.testBranch.setStatus(Status.PRIVATE);
+            assertThat(permissionResponse).isNotNull();
+            return permissionResponse.getPermission();
+        }
     }
 
     @Nested
     @DisplayName("Validate User Permissions Tests")
     class ValidateUserPermissionTests {
 
+        @Test
+        @DisplayName("Should Validate Owner")
+        void shouldValidateOwner() {
+            assertThat(validate(new DocumentAccess(1L, true, null))).isEqualTo(Permission.READ_WRITE);
+        }
+
         @Test
         @DisplayName("Should Validate Read Only User")
         void shouldValidateReadOnlyUser() {
-            try (
-                    MockedStatic<UserIdUtils> testUserIdUtils = mockStatic(UserIdUtils.class);
-                    MockedStatic<PermissionUtils> testPermissionUtils = mockStatic(PermissionUtils.class)
-            ) {
-                testUserIdUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(1L);
-                when(branchRepository.findByPublicIdAndDocumentPublicId(testBranchId, testDocumentId)).thenReturn(Optional.of(testBranch));
-                testPermissionUtils.when(() -> PermissionUtils.isUnauthorizedUser(1L, testDocument)).thenReturn(false);
-                testPermissionUtils.when(() ->
-                        PermissionUtils.isReadOnlyUser(1L, testBranch.getDocument())
-                ).thenReturn(true);
-
-                var permissionResponse = permissionService.validateUserPermissions(testDocumentId, testBranchId);
-
-                assertThat(permissionResponse).isNotNull();
-                assertThat(permissionResponse.getPermission()).isEqualTo(Permission.READ_ONLY);
-            }
+            assertThat(validate(new DocumentAccess(1L, false, Permission.READ_ONLY)))
+                    .isEqualTo(Permission.READ_ONLY);
         }
 
         @Test
         @DisplayName("Should Validate Read Write User")
         void shouldValidateReadWriteUser() {
-            try (
-                    MockedStatic<UserIdUtils> testUserIdUtils = mockStatic(UserIdUtils.class);
-                    MockedStatic<PermissionUtils> testPermissionUtils = mockStatic(PermissionUtils.class)
-            ) {
-                testUserIdUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(1L);
-                when(branchRepository.findByPublicIdAndDocumentPublicId(testBranchId, testDocumentId)).thenReturn(Optional.of(testBranch));
-                testPermissionUtils.when(() -> PermissionUtils.isUnauthorizedUser(1L, testDocument)).thenReturn(false);
-                testPermissionUtils.when(() ->
-                        PermissionUtils.isReadOnlyUser(1L, testBranch.getDocument())
-                ).thenReturn(false);
-
-                var permissionResponse = permissionService.validateUserPermissions(testDocumentId, testBranchId);
+            assertThat(validate(new DocumentAccess(1L, false, Permission.READ_WRITE)))
+                    .isEqualTo(Permission.READ_WRITE);
+        }
 
-                assertThat(permissionResponse).isNotNull();
-                assertThat(permissionResponse.getPermission()).isEqualTo(Permission.READ_WRITE);
-            }
+        @Test
+        @DisplayName("Should take the stronger of the document and folder share")
+        void shouldValidateFolderSharedUser() {
+            assertThat(validate(new DocumentAccess(1L, false, Permission.READ_ONLY, Permission.READ_WRITE, false)))
+                    .isEqualTo(Permission.READ_WRITE);
+            assertThat(validate(new DocumentAccess(1L, false, null, Permission.READ_ONLY, false)))
+                    .isEqualTo(Permission.READ_ONLY);
         }
 
         @Test
         @DisplayName("Should validate unauthorized user")
         void shouldValidateUnauthorizedUser() {
+            assertThat(validate(new DocumentAccess(1L, false, null))).isEqualTo(Permission.UNAUTHORIZED);
+        }
 
-            try (
-                    MockedStatic<UserIdUtils> testUserIdUtils = mockStatic(UserIdUtils.class);
-                    MockedStatic<PermissionUtils> testPermissionUtils = mockStatic(PermissionUtils.class)
-            ) {
+        @Test
+        @DisplayName("Should throw when the branch is not part of the document")
+        void shouldThrowWhenBranchNotFound() {
+            try (MockedStatic<UserIdUtils> testUserIdUtils = mockStatic(UserIdUtils.class)) {
                 testUserIdUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(1L);
 
-                when(branchRepository.findByPublicIdAndDocumentPublicId(testBranchId, testDocumentId))
-                        .thenReturn(Optional.of(testBranch));
+                when(documentRepository.findAccessByBranchPublicId(testDocumentId, testBranchId, 1L))
+                        .thenReturn(Optional.empty());
 
-                testPermissionUtils.when(() ->
-                        PermissionUtils.isUnauthorizedUser(1L, testDocument)
-                ).thenReturn(true);
+                assertThatThrownBy(() -> permissionService.validateUserPermissions(testDocumentId, testBranchId))
+                        .isInstanceOf(BranchNotFoundException.class);
+            }
+        }
+    }
 
-                var permissionResponse =
-                        permissionService.validateUserPermissions(testDocumentId, testBranchId);
+    @Nested
+    @DisplayName("Validate Many User Permissions Tests")
+    class ValidateManyUserPermissionTests {
 
-                assertThat(permissionResponse).isNotNull();
-                assertThat(permissionResponse.getPermission())
-                        .isEqualTo(Permission.UNAUTHORIZED);
+        @Test
+        @DisplayName("Should resolve every requested branch in one lookup")
+        void shouldResolveRequestedBranches() {
+            var otherDocumentId = UUID.randomUUID();
+            var otherBranchId = UUID.randomUUID();
+            var strayBranchId = UUID.randomUUID();
+
+            var request = new BatchPermissionRequest();
+            request.setBranches(List.of(
+                    new BranchReference(testDocumentId, testBranchId),
+                    new BranchReference(otherDocumentId, otherBranchId),
+                    new BranchReference(testDocumentId, strayBranchId)
+            ));
+
+            try (MockedStatic<UserIdUtils> testUserIdUtils = mockStatic(UserIdUtils.class)) {
+                testUserIdUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(1L);
+
+                when(documentRepository.findAllAccessByBranchPublicIds(anyCollection(), eq(1L)))
+                        .thenReturn(List.of(
+                                new BranchAccess(testDocumentId, testBranchId, 1L, true, null),
+                                new BranchAccess(otherDocumentId, otherBranchId, 2L, false, Permission.READ_ONLY),
+                                new BranchAccess(otherDocumentId, strayBranchId, 2L, false, Permission.READ_ONLY)
+                        ));
+
+                var response = permissionService.validateUserPermissions(request);
+
+                assertThat(response.getUserId()).isEqualTo(1L);
+                assertThat(response.getPermissions()).isEqualTo(Map.of(
+                        testDocumentId, Map.of(testBranchId, Permission.READ_WRITE),
+                        otherDocumentId, Map.of(otherBranchId, Permission.READ_ONLY)
+                ));
+
+                verify(documentRepository, times(1)).findAllAccessByBranchPublicIds(anyCollection(), eq(1L));
             }
         }
-
     }
-}
\ No newline at end of file
+}
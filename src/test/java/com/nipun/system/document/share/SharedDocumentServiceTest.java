@@ -3,9 +3,14 @@ package com.nipun.system.document.share;
 import com.nipun.system.document.base.Document;
 import com.nipun.system.document.base.DocumentMapper;
 import com.nipun.system.document.base.DocumentRepository;
+import com.nipun.system.document.base.DocumentSummary;
 import com.nipun.system.document.base.dtos.DocumentResponse;
 import com.nipun.system.document.base.exceptions.DocumentNotFoundException;
+import com.nipun.system.document.permission.DocumentAccess;
+import com.nipun.system.document.permission.DocumentAccessChangedEvent;
 import com.nipun.system.document.permission.exceptions.UnauthorizedDocumentException;
+import com.nipun.system.document.share.dtos.BulkShareDocumentRequest;
+import com.nipun.system.document.share.dtos.BulkUnshareDocumentRequest;
 import com.nipun.system.document.share.dtos.ShareDocumentRequest;
 import com.nipun.system.document.share.dtos.SharedDocumentResponse;
 import com.nipun.system.shared.dtos.CountResponse;
@@ -22,16 +27,19 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -50,6 +58,8 @@ class SharedDocumentServiceTest {
     private SharedDocumentMapper sharedDocumentMapper;
     @Mock
     private SharedDocumentFactory sharedDocumentFactory;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private SharedDocumentService sharedDocumentService;
@@ -135,6 +145,7 @@ class SharedDocumentServiceTest {
                 verify(sharedDocumentFactory).createNewSharedDocument(testSharedUser, testDocument);
                 verify(documentRepository).save(testDocument);
                 verify(sharedDocumentMapper).toSharedDocumentDto(testSharedDocument);
+                verify(eventPublisher).publishEvent(new DocumentAccessChangedEvent(testDocumentId, testSharedUserId));
             }
         }
 
@@ -319,13 +330,16 @@ class SharedDocumentServiceTest {
                 userIdUtils.when(com.nipun.system.shared.utils.UserIdUtils::getUserIdFromContext)
                         .thenReturn(testUserId);
 
-                List<Document> documents = List.of(testDocument);
-                Page<Document> documentPage = new PageImpl<>(documents, PageRequest.of(0, 10), 1);
+                DocumentSummary summary = new DocumentSummary(
+                        testDocument.getId(), testDocument.getPublicId(), testDocument.getTitle(), 2L, testDocument.getStatus(),
+                        true, UUID.randomUUID(), 1L, false, false, LocalDateTime.now(), LocalDateTime.now()
+                );
+                Page<DocumentSummary> documentPage = new PageImpl<>(List.of(summary), PageRequest.of(0, 10), 1);
                 DocumentResponse documentResponse = new DocumentResponse();
 
-                when(documentRepository.findAllSharedDocumentsWithUser(eq(testUserId), any(PageRequest.class)))
+                when(documentRepository.findAllSummariesSharedWithUser(eq(testUserId), any(PageRequest.class)))
                         .thenReturn(documentPage);
-                when(documentMapper.toDto(testDocument))
+                when(documentMapper.toDto(summary))
                         .thenReturn(documentResponse);
 
                 PaginatedData result = sharedDocumentService.getAllSharedDocumentsWithUser(0, 10);
@@ -336,7 +350,7 @@ class SharedDocumentServiceTest {
                 assertEquals(1, result.getTotalPages());
                 assertEquals(1L, result.getTotalElements());
 
-                verify(documentRepository).findAllSharedDocumentsWithUser(eq(testUserId), any(PageRequest.class));
+                verify(documentRepository).findAllSummariesSharedWithUser(eq(testUserId), any(PageRequest.class));
             }
         }
     }
@@ -360,6 +374,7 @@ class SharedDocumentServiceTest {
                 sharedDocumentService.removeDocumentAccess(testDocumentId);
 
                 verify(sharedDocumentRepository).delete(testSharedDocument);
+                verify(eventPublisher).publishEvent(new DocumentAccessChangedEvent(testDocumentId, testUserId));
             }
         }
 
@@ -400,6 +415,7 @@ class SharedDocumentServiceTest {
 
                 verify(documentRepository).findByPublicIdAndOwnerId(testDocumentId, testUserId);
                 verify(documentRepository).save(testDocument);
+                verify(eventPublisher).publishEvent(new DocumentAccessChangedEvent(testDocumentId, testSharedUserId));
             }
         }
 
@@ -422,4 +438,125 @@ class SharedDocumentServiceTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Bulk Share Tests")
+    class BulkShareTests {
+
+        private BulkShareDocumentRequest bulkRequest(ShareDocumentRequest... shares) {
+            var request = new BulkShareDocumentRequest();
+            request.setUsers(List.of(shares));
+            return request;
+        }
+
+        private ShareDocumentRequest share(Long userId, Permission permission) {
+            var request = new ShareDocumentRequest();
+            request.setUserId(userId);
+            request.setPermission(permission);
+            return request;
+        }
+
+        @Test
+        @DisplayName("Should upsert every user with one statement per permission")
+        void shouldShareDocumentWithManyUsers() {
+            try (MockedStatic<com.nipun.system.shared.utils.UserIdUtils> userIdUtils =
+                         mockStatic(com.nipun.system.shared.utils.UserIdUtils.class)) {
+
+                userIdUtils.when(com.nipun.system.shared.utils.UserIdUtils::getUserIdFromContext)
+                        .thenReturn(testUserId);
+
+                var otherUser = new User();
+                otherUser.setId(3L);
+                otherUser.setEmail("other@test.com");
+
+                when(documentRepository.findAccessByPublicId(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(new DocumentAccess(1L, true, null)));
+                when(userRepository.findAllById(anyCollection()))
+                        .thenReturn(List.of(otherUser, testSharedUser));
+
+                var result = sharedDocumentService.shareDocument(testDocumentId, bulkRequest(
+                        share(testSharedUserId, Permission.READ_ONLY),
+                        share(3L, Permission.READ_ONLY),
+                        share(testSharedUserId, Permission.READ_WRITE)
+                ));
+
+                assertEquals(List.of(testSharedUserId, 3L), result.stream().map(SharedDocumentResponse::getUserId).toList());
+                assertEquals(Permission.READ_WRITE, result.getFirst().getPermission());
+                assertEquals("other@test.com", result.getLast().getEmail());
+
+                verify(sharedDocumentRepository).upsertAll(1L, List.of(testSharedUserId), "READ_WRITE");
+                verify(sharedDocumentRepository).upsertAll(1L, List.of(3L), "READ_ONLY");
+                verify(documentRepository).updateUpdatedAt(eq(1L), any(LocalDateTime.class));
+                verify(eventPublisher, times(1)).publishEvent(new DocumentAccessChangedEvent(testDocumentId, null));
+                verify(documentRepository, never()).save(any());
+            }
+        }
+
+        @Test
+        @DisplayName("Should share with nobody when a user does not exist")
+        void shouldThrowWhenUserNotFound() {
+            try (MockedStatic<com.nipun.system.shared.utils.UserIdUtils> userIdUtils =
+                         mockStatic(com.nipun.system.shared.utils.UserIdUtils.class)) {
+
+                userIdUtils.when(com.nipun.system.shared.utils.UserIdUtils::getUserIdFromContext)
+                        .thenReturn(testUserId);
+
+                when(documentRepository.findAccessByPublicId(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(new DocumentAccess(1L, true, null)));
+                when(userRepository.findAllById(anyCollection()))
+                        .thenReturn(List.of(testSharedUser));
+
+                var request = bulkRequest(share(testSharedUserId, Permission.READ_ONLY), share(3L, Permission.READ_ONLY));
+
+                assertThrows(UserNotFoundException.class,
+                        () -> sharedDocumentService.shareDocument(testDocumentId, request));
+
+                verify(sharedDocumentRepository, never()).upsertAll(any(), anyCollection(), any());
+                verify(eventPublisher, never()).publishEvent(any());
+            }
+        }
+
+        @Test
+        @DisplayName("Should throw DocumentNotFoundException when sharing as non-owner")
+        void shouldThrowWhenSharingAsNonOwner() {
+            try (MockedStatic<com.nipun.system.shared.utils.UserIdUtils> userIdUtils =
+                         mockStatic(com.nipun.system.shared.utils.UserIdUtils.class)) {
+
+                userIdUtils.when(com.nipun.system.shared.utils.UserIdUtils::getUserIdFromContext)
+                        .thenReturn(testUserId);
+
+                when(documentRepository.findAccessByPublicId(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(new DocumentAccess(1L, false, Permission.READ_WRITE)));
+
+                var request = bulkRequest(share(testSharedUserId, Permission.READ_ONLY));
+
+                assertThrows(DocumentNotFoundException.class,
+                        () -> sharedDocumentService.shareDocument(testDocumentId, request));
+
+                verify(userRepository, never()).findAllById(anyCollection());
+            }
+        }
+
+        @Test
+        @DisplayName("Should remove the access of many users in one statement")
+        void shouldRemoveAccessOfManyUsers() {
+            try (MockedStatic<com.nipun.system.shared.utils.UserIdUtils> userIdUtils =
+                         mockStatic(com.nipun.system.shared.utils.UserIdUtils.class)) {
+
+                userIdUtils.when(com.nipun.system.shared.utils.UserIdUtils::getUserIdFromContext)
+                        .thenReturn(testUserId);
+
+                when(documentRepository.findAccessByPublicId(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(new DocumentAccess(1L, true, null)));
+
+                var request = new BulkUnshareDocumentRequest();
+                request.setUserIds(List.of(testSharedUserId, 3L));
+
+                sharedDocumentService.removeDocumentAccess(testDocumentId, request);
+
+                verify(sharedDocumentRepository).deleteAllByDocumentIdAndUserIds(1L, List.of(testSharedUserId, 3L));
+                verify(eventPublisher, times(1)).publishEvent(new DocumentAccessChangedEvent(testDocumentId, null));
+            }
+        }
+    }
+}
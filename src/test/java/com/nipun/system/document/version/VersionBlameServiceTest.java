@@ -0,0 +1,139 @@
+package com.nipun.system.document.version;
+
+import com.nipun.system.document.branch.Branch;
+import com.nipun.system.document.diff.DiffServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Version Blame Service Unit Test")
+class VersionBlameServiceTest {
+
+    @Mock
+    private VersionRepository versionRepository;
+
+    @Mock
+    private VersionBlameRepository versionBlameRepository;
+
+    @Mock
+    private VersionContentService versionContentService;
+
+    private VersionBlameService versionBlameService;
+
+    private Branch testBranch;
+    private Version testFirstVersion;
+    private Version testSecondVersion;
+
+    @BeforeEach
+    void setup() {
+        var diffService = new DiffServiceImpl();
+        ReflectionTestUtils.setField(diffService, "timeout", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(diffService, "parallelThreshold", Integer.MAX_VALUE);
+
+        versionBlameService = new VersionBlameService(
+                versionRepository, versionBlameRepository, versionContentService, diffService
+        );
+
+        testBranch = new Branch();
+        testBranch.setId(1L);
+
+        testFirstVersion = Version.builder().id(10L).branch(testBranch).build();
+        testSecondVersion = Version.builder().id(11L).branch(testBranch).build();
+    }
+
+    @Nested
+    class BlameVersionTests {
+
+        @Test
+        @DisplayName("Should attribute lines through the whole chain and store every step")
+        void shouldBlameWholeChain() {
+            when(versionBlameRepository.findById(anyLong())).thenReturn(Optional.empty());
+            when(versionRepository.findFirstByBranchIdAndIdLessThanOrderByIdDesc(1L, 11L))
+                    .thenReturn(Optional.of(testFirstVersion));
+            when(versionRepository.findFirstByBranchIdAndIdLessThanOrderByIdDesc(1L, 10L))
+                    .thenReturn(Optional.empty());
+            when(versionContentService.resolve(testFirstVersion)).thenReturn("a\nb\nc\n");
+            when(versionContentService.resolve(testSecondVersion)).thenReturn("a\nx\nc\nd\n");
+
+            var runs = versionBlameService.blame(testSecondVersion);
+
+            assertThat(runs).containsExactly(
+                    new BlameRun(10L, 1),
+                    new BlameRun(11L, 1),
+                    new BlameRun(10L, 1),
+                    new BlameRun(11L, 1)
+            );
+            verify(versionBlameRepository).insertIfAbsent(10L, "10:3", 3);
+            verify(versionBlameRepository).insertIfAbsent(11L, "10:1,11:1,10:1,11:1", 4);
+        }
+
+        @Test
+        @DisplayName("Should only diff against the stored predecessor")
+        void shouldContinueFromStoredBlame() {
+            when(versionBlameRepository.findById(11L)).thenReturn(Optional.empty());
+            when(versionBlameRepository.findById(10L))
+                    .thenReturn(Optional.of(VersionBlame.builder().versionId(10L).runs("9:2,10:1").lineCount(3).build()));
+            when(versionRepository.findFirstByBranchIdAndIdLessThanOrderByIdDesc(1L, 11L))
+                    .thenReturn(Optional.of(testFirstVersion));
+            when(versionContentService.resolve(testFirstVersion)).thenReturn("a\nb\nc\n");
+            when(versionContentService.resolve(testSecondVersion)).thenReturn("a\nb\n");
+
+            var runs = versionBlameService.blame(testSecondVersion);
+
+            assertThat(runs).containsExactly(new BlameRun(9L, 2));
+            verify(versionRepository, never()).findFirstByBranchIdAndIdLessThanOrderByIdDesc(1L, 10L);
+            verify(versionBlameRepository).insertIfAbsent(11L, "9:2", 2);
+        }
+
+        @Test
+        @DisplayName("Should return the stored attribution without diffing")
+        void shouldReturnStoredBlame() {
+            when(versionBlameRepository.findById(11L))
+                    .thenReturn(Optional.of(VersionBlame.builder().versionId(11L).runs("10:1,11:2").lineCount(3).build()));
+
+            assertThat(versionBlameService.blame(testSecondVersion))
+                    .containsExactly(new BlameRun(10L, 1), new BlameRun(11L, 2));
+            verify(versionBlameRepository, never()).insertIfAbsent(anyLong(), any(), anyInt());
+            verifyNoInteractions(versionContentService);
+        }
+    }
+
+    @Nested
+    class BlameBranchTests {
+
+        @Test
+        @DisplayName("Should attribute lines changed after the latest version to no version")
+        void shouldMarkUnversionedLines() {
+            when(versionRepository.findFirstByBranchIdOrderByIdDesc(1L)).thenReturn(Optional.of(testFirstVersion));
+            when(versionBlameRepository.findById(10L))
+                    .thenReturn(Optional.of(VersionBlame.builder().versionId(10L).runs("10:2").lineCount(2).build()));
+            when(versionContentService.resolve(testFirstVersion)).thenReturn("a\nb\n");
+
+            var runs = versionBlameService.blame(testBranch, "a\nb\nnew");
+
+            assertThat(runs).containsExactly(new BlameRun(10L, 2), new BlameRun(null, 1));
+        }
+
+        @Test
+        @DisplayName("Should attribute every line to no version when the branch has none")
+        void shouldBlameBranchWithoutVersions() {
+            when(versionRepository.findFirstByBranchIdOrderByIdDesc(1L)).thenReturn(Optional.empty());
+
+            assertThat(versionBlameService.blame(testBranch, "a\nb\n")).isEqualTo(List.of(new BlameRun(null, 2)));
+        }
+    }
+}
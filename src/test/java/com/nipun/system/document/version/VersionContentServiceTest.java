@@ -0,0 +1,137 @@
+package com.nipun.system.document.version;
+
+import com.nipun.system.document.branch.Branch;
+import com.nipun.system.document.content.Content;
+import com.nipun.system.document.content.ContentHashUtils;
+import com.nipun.system.document.content.ContentService;
+import com.nipun.system.document.diff.DiffServiceImpl;
+import com.nipun.system.document.diff.exceptions.PatchFailedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Version Content Service Unit Test")
+class VersionContentServiceTest {
+
+    @Mock
+    private VersionRepository versionRepository;
+
+    @Mock
+    private ContentService contentService;
+
+    private VersionContentService versionContentService;
+
+    private Branch testBranch;
+    private Version testKeyframe;
+
+    @BeforeEach
+    void setup() {
+        versionContentService = new VersionContentService(versionRepository, contentService, new DiffServiceImpl());
+        ReflectionTestUtils.setField(versionContentService, "encoding", VersionEncoding.DELTA);
+        ReflectionTestUtils.setField(versionContentService, "keyframeInterval", 3);
+
+        testBranch = new Branch();
+        testBranch.setId(1L);
+
+        testKeyframe = createVersion(1L, "The quick brown fox jumps over the lazy dog. ".repeat(10));
+    }
+
+    private Version createVersion(Long id, String text) {
+        var content = Content.builder().content(text).hash(ContentHashUtils.hash(text)).build();
+
+        return Version.builder()
+                .id(id)
+                .branch(testBranch)
+                .content(content)
+                .contentHash(content.getHash())
+                .encoding(VersionEncoding.FULL)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Encode Version Tests")
+    class EncodeVersionTests {
+
+        @Test
+        @DisplayName("Should keep first version of a branch as keyframe")
+        void shouldKeepFirstVersionAsKeyframe() {
+            when(versionRepository.findFirstByBranchIdOrderByIdDesc(1L)).thenReturn(Optional.empty());
+
+            versionContentService.encode(testKeyframe);
+
+            assertThat(testKeyframe.isDelta()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should store delta against previous version and rebuild the same content")
+        void shouldStoreDeltaAndResolveContent() {
+            var updatedText = testKeyframe.getContent().getContent().replace("lazy", "sleepy");
+            var version = createVersion(2L, updatedText);
+
+            when(versionRepository.findFirstByBranchIdOrderByIdDesc(1L)).thenReturn(Optional.of(testKeyframe));
+            when(contentService.store(anyString()))
+                    .thenAnswer(invocation -> Content.builder().content(invocation.getArgument(0)).build());
+
+            versionContentService.encode(version);
+
+            assertThat(version.isDelta()).isTrue();
+            assertThat(version.getPreviousVersion()).isSameAs(testKeyframe);
+            assertThat(version.getChainLength()).isEqualTo(1);
+            assertThat(versionContentService.resolve(version)).isEqualTo(updatedText);
+        }
+
+        @Test
+        @DisplayName("Should start a new keyframe when the chain reaches the interval")
+        void shouldStartNewKeyframeAtInterval() {
+            var previous = createVersion(2L, "Previous");
+            previous.setChainLength(2);
+            var version = createVersion(3L, "Current");
+
+            when(versionRepository.findFirstByBranchIdOrderByIdDesc(1L)).thenReturn(Optional.of(previous));
+
+            versionContentService.encode(version);
+
+            assertThat(version.isDelta()).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Resolve Version Tests")
+    class ResolveVersionTests {
+
+        @Test
+        @DisplayName("Should reject a delta whose predecessor is missing")
+        void shouldRejectBrokenChain() {
+            var version = createVersion(2L, "Current");
+            version.setEncoding(VersionEncoding.DELTA);
+
+            assertThatThrownBy(() -> versionContentService.resolve(version))
+                    .isInstanceOf(PatchFailedException.class);
+        }
+
+        @Test
+        @DisplayName("Should reuse a stored content with the recorded hash of a delta")
+        void shouldReuseStoredContentForDelta() {
+            var version = createVersion(2L, "Current");
+            version.setEncoding(VersionEncoding.DELTA);
+            var stored = Content.builder().id(5L).hash(version.getContentHash()).content("Current").build();
+
+            when(contentService.findForReference(version.getContentHash())).thenReturn(Optional.of(stored));
+
+            assertThat(versionContentService.resolveContent(version)).isSameAs(stored);
+        }
+    }
+}
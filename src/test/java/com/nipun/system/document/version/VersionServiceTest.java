@@ -7,9 +7,14 @@ import com.nipun.system.document.base.dtos.ContentResponse;
 import com.nipun.system.document.base.exceptions.DocumentNotFoundException;
 import com.nipun.system.document.branch.Branch;
 import com.nipun.system.document.branch.BranchRepository;
+import com.nipun.system.document.branch.BranchRevisionService;
+import com.nipun.system.document.branch.BranchWriteBuffer;
 import com.nipun.system.document.branch.exceptions.BranchNotFoundException;
 import com.nipun.system.document.content.Content;
+import com.nipun.system.document.content.ContentLineService;
 import com.nipun.system.document.diff.DiffUtils;
+import com.nipun.system.document.permission.DocumentAccess;
+import com.nipun.system.document.permission.DocumentAccessCache;
 import com.nipun.system.document.permission.PermissionUtils;
 import com.nipun.system.document.permission.exceptions.UnauthorizedDocumentException;
 import com.nipun.system.document.version.dtos.VersionResponse;
@@ -29,6 +34,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -51,6 +58,15 @@ class VersionServiceTest {
     @Mock
     private DocumentRepository documentRepository;
 
+    @Mock
+    private DocumentAccessCache documentAccessCache;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache versionContentCache;
+
     @Mock
     private VersionRepository versionRepository;
 
@@ -63,12 +79,27 @@ class VersionServiceTest {
     @Mock
     private VersionFactory versionFactory;
 
+    @Mock
+    private VersionContentService versionContentService;
+
+    @Mock
+    private VersionBlameService versionBlameService;
+
     @Mock
     private UserRepository userRepository;
 
     @Mock
     private BranchRepository branchRepository;
 
+    @Mock
+    private BranchRevisionService branchRevisionService;
+
+    @Mock
+    private BranchWriteBuffer branchWriteBuffer;
+
+    @Mock
+    private ContentLineService contentLineService;
+
     @InjectMocks
     private VersionService versionService;
 
@@ -77,10 +108,12 @@ class VersionServiceTest {
     private UUID testVersionId;
     private VersionResponse testVersionResponse;
     private Document testDocument;
+    private DocumentAccess testAccess;
     private Branch testBranch;
     private Version testVersion;
     private User testUser;
     private Long testUserId;
+    private Content testContent;
 
     @BeforeEach
     void setup() {
@@ -90,8 +123,8 @@ class VersionServiceTest {
         testUserResponse.setEmail("testuser@email.com");
         testUserResponse.setRole(Role.USER);
 
-        Content testContent = new Content();
-        testContent.setContent("");
+        testContent = new Content();
+        testContent.setContent("Content");
 
         testDocumentId = UUID.randomUUID();
         testBranchId = UUID.randomUUID();
@@ -118,7 +151,6 @@ class VersionServiceTest {
         testBranch.setPublicId(testBranchId);
         testBranch.setDocument(testDocument);
         testBranch.setContent(testContent);
-        testBranch.setBranchContent("Content");
 
         testDocument = new Document();
         testDocument.setId(1L);
@@ -126,6 +158,8 @@ class VersionServiceTest {
         testDocument.setOwner(testUser);
         testDocument.addBranch(testBranch);
 
+        testAccess = new DocumentAccess(1L, true, null);
+
         testVersion = new Version();
         testVersion.setId(1L);
         testVersion.setPublicId(testVersionId);
@@ -149,17 +183,17 @@ class VersionServiceTest {
                 userIdUtils.when(com.nipun.system.shared.utils.UserIdUtils::getUserIdFromContext)
                         .thenReturn(testUserId);
                 permissionUtils.when(() -> com.nipun.system.document.permission.PermissionUtils
-                                .checkUserCanWrite(testUserId, testDocument))
+                                .checkUserCanWrite(testAccess))
                         .thenAnswer(_ -> null);
 
-                when(documentRepository.findByPublicId(testDocumentId))
-                        .thenReturn(Optional.of(testDocument));
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(testAccess));
                 when(userRepository.findById(testUserId))
                         .thenReturn(Optional.of(testUser));
-                when(testDocument.getBranch(testBranchId))
-                        .thenReturn(testBranch);
+                when(branchRepository.findByPublicIdAndDocumentId(testBranchId, 1L))
+                        .thenReturn(Optional.of(testBranch));
                 when(versionFactory.createNewVersion(eq(testBranch), eq(testUser),
-                        eq("Content"), eq("Test Version"), eq(Status.PRIVATE)))
+                        eq(testContent), eq("Test Version"), eq(Status.PRIVATE)))
                         .thenReturn(testVersion);
                 when(versionRepository.save(testVersion))
                         .thenReturn(testVersion);
@@ -172,6 +206,7 @@ class VersionServiceTest {
                 assertThat(result).isNotNull();
                 assertThat(result.getTitle()).isEqualTo("Test Version");
                 assertThat(result.getStatus()).isEqualTo(Status.PRIVATE);
+                verify(versionContentService).encode(testVersion);
                 verify(versionRepository).save(testVersion);
             }
         }
@@ -184,7 +219,7 @@ class VersionServiceTest {
 
                 userIdUtils.when(com.nipun.system.shared.utils.UserIdUtils::getUserIdFromContext)
                         .thenReturn(testUserId);
-                when(documentRepository.findByPublicId(testDocumentId))
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
                         .thenReturn(Optional.empty());
 
                 assertThatThrownBy(() -> versionService.createNewVersion(
@@ -197,25 +232,23 @@ class VersionServiceTest {
         @DisplayName("Should throw BranchNotFoundException when branch not found")
         void shouldThrowBranchNotFoundException() {
 
-            Document testDocument = mock(Document.class);
-
             try (MockedStatic<UserIdUtils> userIdUtils = mockStatic(UserIdUtils.class);
                  MockedStatic<PermissionUtils> permissionUtils = mockStatic(PermissionUtils.class)) {
 
                 userIdUtils.when(UserIdUtils::getUserIdFromContext)
                         .thenReturn(testUserId);
 
-                permissionUtils.when(() -> PermissionUtils.checkUserCanWrite(testUserId, testDocument))
+                permissionUtils.when(() -> PermissionUtils.checkUserCanWrite(testAccess))
                         .thenAnswer(_ -> null);
 
-                when(documentRepository.findByPublicId(testDocumentId))
-                        .thenReturn(Optional.of(testDocument));
+                when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                        .thenReturn(Optional.of(testAccess));
 
                 when(userRepository.findById(testUserId))
                         .thenReturn(Optional.of(testUser));
 
                 // Key part
-                when(testDocument.getBranch(testBranchId)).thenReturn(null);
+                when(branchRepository.findByPublicIdAndDocumentId(testBranchId, 1L)).thenReturn(Optional.empty());
 
                 assertThatThrownBy(() -> versionService.createNewVersion(
                         testDocumentId, testBranchId, "Test Version", Status.PRIVATE))
@@ -239,14 +272,14 @@ class VersionServiceTest {
                     userIdUtils.when(com.nipun.system.shared.utils.UserIdUtils::getUserIdFromContext)
                             .thenReturn(testUserId);
                     permissionUtils.when(() -> com.nipun.system.document.permission.PermissionUtils
-                                    .isUnauthorizedUser(testUserId, testDocument))
+                                    .isUnauthorizedUser(testAccess))
                             .thenReturn(false);
 
                     List<Version> versions = Collections.singletonList(testVersion);
                     Page<Version> versionPage = new PageImpl<>(versions, PageRequest.of(0, 10), 1);
 
-                    when(documentRepository.findByPublicId(testDocumentId))
-                            .thenReturn(Optional.of(testDocument));
+                    when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                            .thenReturn(Optional.of(testAccess));
                     when(versionRepository.findAllByBranchDocumentId(eq(1L), any(PageRequest.class)))
                             .thenReturn(versionPage);
                     when(versionMapper.toDto(testVersion))
@@ -273,14 +306,14 @@ class VersionServiceTest {
                     userIdUtils.when(com.nipun.system.shared.utils.UserIdUtils::getUserIdFromContext)
                             .thenReturn(2L);
                     permissionUtils.when(() -> com.nipun.system.document.permission.PermissionUtils
-                                    .isUnauthorizedUser(2L, testDocument))
+                                    .isUnauthorizedUser(testAccess))
                             .thenReturn(true);
 
                     List<Version> versions = Collections.singletonList(testVersion);
                     Page<Version> versionPage = new PageImpl<>(versions, PageRequest.of(0, 10), 1);
 
-                    when(documentRepository.findByPublicId(testDocumentId))
-                            .thenReturn(Optional.of(testDocument));
+                    when(documentAccessCache.findAccess(testDocumentId, 2L))
+                            .thenReturn(Optional.of(testAccess));
                     when(versionRepository.findAllByBranchDocumentIdAndStatusPublic(eq(1L), any(PageRequest.class)))
                             .thenReturn(versionPage);
                     when(versionMapper.toDto(testVersion))
@@ -299,85 +332,107 @@ class VersionServiceTest {
         class GetVersionContentTests {
 
             @Test
-            @DisplayName("Should return version content for public version without auth check")
+            @DisplayName("Should return public version content to an unauthorized user")
             void shouldReturnPublicVersionContent() {
-                testVersion.setStatus(Status.PUBLIC);
+                try (MockedStatic<UserIdUtils> userIdUtils = mockStatic(UserIdUtils.class)) {
+                    userIdUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(2L);
+
+                    testVersion.setStatus(Status.PUBLIC);
 
-                when(documentRepository.findByPublicId(testDocumentId))
-                        .thenReturn(Optional.of(testDocument));
-                when(versionRepository.findDocumentBranchVersion(testVersionId, 1L))
-                        .thenReturn(Optional.of(testVersion));
+                    when(documentAccessCache.findAccess(testDocumentId, 2L))
+                            .thenReturn(Optional.of(new DocumentAccess(1L, false, null)));
+                    when(versionRepository.findDocumentBranchVersion(testVersionId, 1L))
+                            .thenReturn(Optional.of(testVersion));
+                    when(versionContentService.resolve(testVersion))
+                            .thenReturn("Content");
 
-                ContentResponse result = versionService.getVersionContent(testDocumentId, testVersionId);
+                    ContentResponse result = versionService.getVersionContent(testDocumentId, testVersionId);
 
-                assertThat(result).isNotNull();
-                assertThat(result.getContent()).isEqualTo("Content");
+                    assertThat(result).isNotNull();
+                    assertThat(result.getContent()).isEqualTo("Content");
+                }
             }
 
             @Test
             @DisplayName("Should return private version content for authorized user")
             void shouldReturnPrivateVersionContentForAuthorizedUser() {
-                try (MockedStatic<com.nipun.system.shared.utils.UserIdUtils> userIdUtils =
-                             mockStatic(com.nipun.system.shared.utils.UserIdUtils.class);
-                     MockedStatic<com.nipun.system.document.permission.PermissionUtils> permissionUtils =
-                             mockStatic(com.nipun.system.document.permission.PermissionUtils.class)) {
-
-                    userIdUtils.when(com.nipun.system.shared.utils.UserIdUtils::getUserIdFromContext)
-                            .thenReturn(testUserId);
-                    permissionUtils.when(() -> com.nipun.system.document.permission.PermissionUtils
-                                    .isUnauthorizedUser(testUserId, testDocument))
-                            .thenReturn(false);
+                try (MockedStatic<UserIdUtils> userIdUtils = mockStatic(UserIdUtils.class)) {
+                    userIdUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(testUserId);
 
                     testVersion.setStatus(Status.PRIVATE);
 
-                    when(documentRepository.findByPublicId(testDocumentId))
-                            .thenReturn(Optional.of(testDocument));
+                    when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                            .thenReturn(Optional.of(testAccess));
+                    when(cacheManager.getCache("document_version_contents")).thenReturn(versionContentCache);
                     when(versionRepository.findDocumentBranchVersion(testVersionId, 1L))
                             .thenReturn(Optional.of(testVersion));
+                    when(versionContentService.resolve(testVersion))
+                            .thenReturn("Content");
 
                     ContentResponse result = versionService.getVersionContent(testDocumentId, testVersionId);
 
                     assertThat(result).isNotNull();
                     assertThat(result.getContent()).isEqualTo("Content");
+                    verify(versionContentCache).put(List.of(testDocumentId, testVersionId), result);
+                }
+            }
+
+            @Test
+            @DisplayName("Should serve cached content to an authorized user without loading the version")
+            void shouldServeCachedContentToAuthorizedUser() {
+                try (MockedStatic<UserIdUtils> userIdUtils = mockStatic(UserIdUtils.class)) {
+                    userIdUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(testUserId);
+
+                    var cached = new ContentResponse("Cached");
+
+                    when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                            .thenReturn(Optional.of(testAccess));
+                    when(cacheManager.getCache("document_version_contents")).thenReturn(versionContentCache);
+                    when(versionContentCache.get(List.of(testDocumentId, testVersionId), ContentResponse.class))
+                            .thenReturn(cached);
+
+                    assertThat(versionService.getVersionContent(testDocumentId, testVersionId)).isEqualTo(cached);
+
+                    verifyNoInteractions(versionRepository);
                 }
             }
 
             @Test
             @DisplayName("Should throw UnauthorizedDocumentException for private version and unauthorized user")
             void shouldThrowUnauthorizedExceptionForPrivateVersion() {
-                try (MockedStatic<com.nipun.system.shared.utils.UserIdUtils> userIdUtils =
-                             mockStatic(com.nipun.system.shared.utils.UserIdUtils.class);
-                     MockedStatic<com.nipun.system.document.permission.PermissionUtils> permissionUtils =
-                             mockStatic(com.nipun.system.document.permission.PermissionUtils.class)) {
-
-                    userIdUtils.when(com.nipun.system.shared.utils.UserIdUtils::getUserIdFromContext)
-                            .thenReturn(2L);
-                    permissionUtils.when(() -> com.nipun.system.document.permission.PermissionUtils
-                                    .isUnauthorizedUser(2L, testDocument))
-                            .thenReturn(true);
+                try (MockedStatic<UserIdUtils> userIdUtils = mockStatic(UserIdUtils.class)) {
+                    userIdUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(2L);
 
                     testVersion.setStatus(Status.PRIVATE);
 
-                    when(documentRepository.findByPublicId(testDocumentId))
-                            .thenReturn(Optional.of(testDocument));
+                    when(documentAccessCache.findAccess(testDocumentId, 2L))
+                            .thenReturn(Optional.of(new DocumentAccess(1L, false, null)));
+                    when(cacheManager.getCache("document_version_contents")).thenReturn(versionContentCache);
                     when(versionRepository.findDocumentBranchVersion(testVersionId, 1L))
                             .thenReturn(Optional.of(testVersion));
 
                     assertThatThrownBy(() -> versionService.getVersionContent(testDocumentId, testVersionId))
                             .isInstanceOf(UnauthorizedDocumentException.class);
+
+                    // the unauthorized user never reads the cache, a private content cached for others stays hidden
+                    verify(versionContentCache, never()).get(any(), eq(ContentResponse.class));
                 }
             }
 
             @Test
             @DisplayName("Should throw VersionNotFoundException when version not found")
             void shouldThrowVersionNotFoundException() {
-                when(documentRepository.findByPublicId(testDocumentId))
-                        .thenReturn(Optional.of(testDocument));
-                when(versionRepository.findDocumentBranchVersion(testVersionId, 1L))
-                        .thenReturn(Optional.empty());
+                try (MockedStatic<UserIdUtils> userIdUtils = mockStatic(UserIdUtils.class)) {
+                    userIdUtils.when(UserIdUtils::getUserIdFromContext).thenReturn(testUserId);
 
-                assertThatThrownBy(() -> versionService.getVersionContent(testDocumentId, testVersionId))
-                        .isInstanceOf(VersionNotFoundException.class);
+                    when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                            .thenReturn(Optional.of(testAccess));
+                    when(versionRepository.findDocumentBranchVersion(testVersionId, 1L))
+                            .thenReturn(Optional.empty());
+
+                    assertThatThrownBy(() -> versionService.getVersionContent(testDocumentId, testVersionId))
+                            .isInstanceOf(VersionNotFoundException.class);
+                }
             }
         }
 
@@ -396,20 +451,21 @@ class VersionServiceTest {
                     userIdUtils.when(com.nipun.system.shared.utils.UserIdUtils::getUserIdFromContext)
                             .thenReturn(testUserId);
                     permissionUtils.when(() -> com.nipun.system.document.permission.PermissionUtils
-                                    .checkUserCanWrite(testUserId, testDocument))
+                                    .checkUserCanWrite(testAccess))
                             .thenAnswer(_ -> null);
 
-                    when(documentRepository.findByPublicId(testDocumentId))
-                            .thenReturn(Optional.of(testDocument));
-                    when(branchRepository.findByPublicIdAndDocumentId(testBranchId, 1L))
+                    when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                            .thenReturn(Optional.of(testAccess));
+                    when(branchRepository.findWithLockByPublicIdAndDocumentId(testBranchId, 1L))
                             .thenReturn(Optional.of(testBranch));
                     when(versionRepository.findByPublicIdAndBranchDocumentId(testVersionId, 1L))
                             .thenReturn(Optional.of(testVersion));
+                    when(versionContentService.resolveContent(testVersion))
+                            .thenReturn(testContent);
 
                     versionService.mergeVersionToBranch(testDocumentId, testBranchId, testVersionId);
 
-                    assertThat(testBranch.getBranchContent()).isEqualTo("Content");
-                    verify(branchRepository).save(testBranch);
+                    verify(branchRevisionService).updateContent(testBranch, testContent);
                 }
             }
 
@@ -424,12 +480,12 @@ class VersionServiceTest {
                     userIdUtils.when(com.nipun.system.shared.utils.UserIdUtils::getUserIdFromContext)
                             .thenReturn(testUserId);
                     permissionUtils.when(() -> com.nipun.system.document.permission.PermissionUtils
-                                    .checkUserCanWrite(testUserId, testDocument))
+                                    .checkUserCanWrite(testAccess))
                             .thenAnswer(_ -> null);
 
-                    when(documentRepository.findByPublicId(testDocumentId))
-                            .thenReturn(Optional.of(testDocument));
-                    when(branchRepository.findByPublicIdAndDocumentId(testBranchId, 1L))
+                    when(documentAccessCache.findAccess(testDocumentId, testUserId))
+                            .thenReturn(Optional.of(testAccess));
+                    when(branchRepository.findWithLockByPublicIdAndDocumentId(testBranchId, 1L))
                             .thenReturn(Optional.empty());
 
                     assertThatThrownBy(() -> versionService.mergeVersionToBranch(
@@ -0,0 +1,72 @@
+package com.nipun.system.shared.interceptors;
+
+import com.nipun.system.shared.exceptions.UnauthorizedOperationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Broker Destination Interceptor Unit Test")
+class BrokerDestinationInterceptorTest {
+
+    @Mock
+    private MessageChannel channel;
+
+    private final BrokerDestinationInterceptor brokerDestinationInterceptor = new BrokerDestinationInterceptor();
+
+    private Message<byte[]> frame(StompCommand command, String destination) {
+        var accessor = StompHeaderAccessor.create(command);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private String branchTopic() {
+        return "/document/" + UUID.randomUUID() + "/branch/" + UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should refuse a frame sent straight to a document topic")
+    void shouldRejectSendToBrokerTopic() {
+        var message = frame(StompCommand.SEND, branchTopic());
+
+        assertThatThrownBy(() -> brokerDestinationInterceptor.preSend(message, channel))
+                .isInstanceOf(UnauthorizedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("Should refuse a frame sent to another user's queue")
+    void shouldRejectSendToUserQueue() {
+        var message = frame(StompCommand.SEND, "/user/1/status");
+
+        assertThatThrownBy(() -> brokerDestinationInterceptor.preSend(message, channel))
+                .isInstanceOf(UnauthorizedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("Should let operations through to the application handlers")
+    void shouldAllowApplicationDestination() {
+        var message = frame(StompCommand.SEND, "/app" + branchTopic() + "/ops");
+
+        assertThat(brokerDestinationInterceptor.preSend(message, channel)).isSameAs(message);
+    }
+
+    @Test
+    @DisplayName("Should leave subscriptions alone")
+    void shouldIgnoreSubscriptions() {
+        var message = frame(StompCommand.SUBSCRIBE, branchTopic());
+
+        assertThat(brokerDestinationInterceptor.preSend(message, channel)).isSameAs(message);
+    }
+}
@@ -0,0 +1,125 @@
+package com.nipun.system.shared.interceptors;
+
+import com.nipun.system.document.base.exceptions.DocumentNotFoundException;
+import com.nipun.system.document.collaboration.DocumentSubscriptionRegistry;
+import com.nipun.system.document.permission.DocumentAccess;
+import com.nipun.system.document.permission.DocumentAccessCache;
+import com.nipun.system.document.permission.exceptions.UnauthorizedDocumentException;
+import com.nipun.system.document.share.Permission;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Document Subscription Interceptor Unit Test")
+class DocumentSubscriptionInterceptorTest {
+
+    @Mock
+    private DocumentAccessCache documentAccessCache;
+
+    @Mock
+    private DocumentSubscriptionRegistry documentSubscriptionRegistry;
+
+    @Mock
+    private MessageChannel channel;
+
+    @InjectMocks
+    private DocumentSubscriptionInterceptor documentSubscriptionInterceptor;
+
+    private UUID testDocumentId;
+
+    @BeforeEach
+    void setup() {
+        testDocumentId = UUID.randomUUID();
+    }
+
+    private Message<byte[]> frame(StompCommand command, String destination) {
+        var accessor = StompHeaderAccessor.create(command);
+        accessor.setDestination(destination);
+        accessor.setSessionId("session");
+        accessor.setSubscriptionId("subscription");
+        accessor.setUser(new UsernamePasswordAuthenticationToken(1L, null, List.of()));
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private String branchTopic() {
+        return "/document/" + testDocumentId + "/branch/" + UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should let a shared user subscribe to the branch topic")
+    void shouldAllowSharedUser() {
+        when(documentAccessCache.findAccess(testDocumentId, 1L))
+                .thenReturn(Optional.of(new DocumentAccess(1L, false, Permission.READ_ONLY)));
+
+        var message = frame(StompCommand.SUBSCRIBE, branchTopic());
+
+        assertThat(documentSubscriptionInterceptor.preSend(message, channel)).isSameAs(message);
+        verify(documentSubscriptionRegistry).register("session", "subscription", testDocumentId, 1L);
+    }
+
+    @Test
+    @DisplayName("Should reject an unauthorized user subscribing to the branch topic")
+    void shouldRejectUnauthorizedUser() {
+        when(documentAccessCache.findAccess(testDocumentId, 1L))
+                .thenReturn(Optional.of(new DocumentAccess(1L, false, null)));
+
+        var message = frame(StompCommand.SUBSCRIBE, branchTopic());
+
+        assertThatThrownBy(() -> documentSubscriptionInterceptor.preSend(message, channel))
+                .isInstanceOf(UnauthorizedDocumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should check the snapshot subscription under the application prefix")
+    void shouldCheckSnapshotSubscription() {
+        when(documentAccessCache.findAccess(testDocumentId, 1L)).thenReturn(Optional.empty());
+
+        var message = frame(StompCommand.SUBSCRIBE, "/app" + branchTopic() + "/snapshot");
+
+        assertThatThrownBy(() -> documentSubscriptionInterceptor.preSend(message, channel))
+                .isInstanceOf(DocumentNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should not keep snapshot subscriptions for revocation")
+    void shouldNotRegisterSnapshotSubscription() {
+        when(documentAccessCache.findAccess(testDocumentId, 1L))
+                .thenReturn(Optional.of(new DocumentAccess(1L, false, Permission.READ_ONLY)));
+
+        var message = frame(StompCommand.SUBSCRIBE, "/app" + branchTopic() + "/snapshot");
+
+        assertThat(documentSubscriptionInterceptor.preSend(message, channel)).isSameAs(message);
+        verifyNoInteractions(documentSubscriptionRegistry);
+    }
+
+    @Test
+    @DisplayName("Should leave other frames and destinations alone")
+    void shouldIgnoreOtherFrames() {
+        var send = frame(StompCommand.SEND, branchTopic());
+        var status = frame(StompCommand.SUBSCRIBE, "/user/1/status");
+
+        assertThat(documentSubscriptionInterceptor.preSend(send, channel)).isSameAs(send);
+        assertThat(documentSubscriptionInterceptor.preSend(status, channel)).isSameAs(status);
+
+        verifyNoInteractions(documentAccessCache);
+    }
+}